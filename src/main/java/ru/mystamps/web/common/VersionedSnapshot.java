@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.common;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lazily loaded immutable copy of rarely changed data.
+ *
+ * Every invalidation increments a version. A snapshot is tagged with the version that was
+ * current when loading has started, so a snapshot that has been loaded concurrently with
+ * a modification is never served after it and is reloaded on the next access.
+ *
+ * @param <T> type of a snapshot; it must be immutable as it's shared between threads
+ */
+public class VersionedSnapshot<T> {
+	
+	private final Supplier<T> loader;
+	private final AtomicLong version = new AtomicLong();
+	private volatile Entry<T> current;
+	
+	public VersionedSnapshot(Supplier<T> loader) {
+		this.loader = loader;
+	}
+	
+	public T get() {
+		Entry<T> entry = current;
+		if (entry != null && entry.version == version.get()) {
+			return entry.snapshot;
+		}
+		
+		synchronized (this) {
+			long expectedVersion = version.get();
+			entry = current;
+			if (entry != null && entry.version == expectedVersion) {
+				return entry.snapshot;
+			}
+			
+			T snapshot = loader.get();
+			current = new Entry<>(expectedVersion, snapshot);
+			return snapshot;
+		}
+	}
+	
+	public void invalidate() {
+		version.incrementAndGet();
+	}
+	
+	/**
+	 * Invalidates a snapshot after the current transaction has been committed.
+	 *
+	 * When there is no transaction, a snapshot is invalidated immediately.
+	 */
+	public void invalidateAfterCommit() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate();
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(
+			new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					invalidate();
+				}
+			}
+		);
+	}
+	
+	private static class Entry<T> {
+		private final long version;
+		private final T snapshot;
+		
+		Entry(long version, T snapshot) {
+			this.version = version;
+			this.snapshot = snapshot;
+		}
+	}
+	
+}
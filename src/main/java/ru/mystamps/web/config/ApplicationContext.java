@@ -47,6 +47,7 @@ public class ApplicationContext {
 			new ClassPathResource("sql/country_dao_queries.properties"),
 			new ClassPathResource("sql/collection_dao_queries.properties"),
 			new ClassPathResource("sql/image_dao_queries.properties"),
+			new ClassPathResource("sql/mail_outbox_dao_queries.properties"),
 			new ClassPathResource("sql/user_dao_queries.properties"),
 			new ClassPathResource("sql/users_activation_dao_queries.properties"),
 			new ClassPathResource("sql/series_dao_queries.properties"),
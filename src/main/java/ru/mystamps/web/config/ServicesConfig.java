@@ -32,7 +32,7 @@ import ru.mystamps.web.feature.image.ImageConfig;
 import ru.mystamps.web.feature.participant.ParticipantConfig;
 import ru.mystamps.web.feature.report.ReportConfig;
 import ru.mystamps.web.feature.series.DownloaderService;
-import ru.mystamps.web.feature.series.HttpURLConnectionDownloaderService;
+import ru.mystamps.web.feature.series.KeepAliveDownloaderService;
 import ru.mystamps.web.feature.series.SeriesConfig;
 import ru.mystamps.web.feature.series.TimedDownloaderService;
 import ru.mystamps.web.feature.series.importing.SeriesImportConfig;
@@ -64,12 +64,15 @@ public class ServicesConfig {
 	public DownloaderService getImageDownloaderService() {
 		return new TimedDownloaderService(
 			LoggerFactory.getLogger(TimedDownloaderService.class),
-			new HttpURLConnectionDownloaderService(
+			new KeepAliveDownloaderService(
 				new String[]{
 					MediaType.IMAGE_JPEG_VALUE,
 					MediaType.IMAGE_PNG_VALUE
 				},
-				env.getRequiredProperty("app.downloader.timeout", Integer.class)
+				env.getRequiredProperty("app.downloader.timeout", Integer.class),
+				env.getRequiredProperty("app.downloader.max_size", Long.class),
+				true,
+				0
 			)
 		);
 	}
@@ -78,13 +81,16 @@ public class ServicesConfig {
 	public DownloaderService getSeriesDownloaderService() {
 		return new TimedDownloaderService(
 			LoggerFactory.getLogger(TimedDownloaderService.class),
-			new HttpURLConnectionDownloaderService(
+			new KeepAliveDownloaderService(
 				new String[]{
 					MediaType.TEXT_HTML_VALUE,
 					MediaType.IMAGE_JPEG_VALUE,
 					MediaType.IMAGE_PNG_VALUE
 				},
-				env.getRequiredProperty("app.downloader.timeout", Integer.class)
+				env.getRequiredProperty("app.downloader.timeout", Integer.class),
+				env.getRequiredProperty("app.downloader.max_size", Long.class),
+				false,
+				env.getRequiredProperty("app.downloader.recent_pages_max_size", Long.class)
 			)
 		);
 	}
@@ -17,10 +17,15 @@
  */
 package ru.mystamps.web.config;
 
+import lombok.RequiredArgsConstructor;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurerSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
+import ru.mystamps.web.support.spring.scheduling.BoundedTaskExecutor;
 
 import java.util.concurrent.Executor;
 
@@ -30,11 +35,44 @@ import java.util.concurrent.Executor;
  */
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class TaskExecutorConfig extends AsyncConfigurerSupport {
 	
+	private final Environment env;
+	
 	@Override
 	public Executor getAsyncExecutor() {
-		return new SimpleAsyncTaskExecutor();
+		return asyncTaskExecutor();
+	}
+	
+	// It's a bean (and not just an object) in order to be shut down by Spring: on shutdown,
+	// it waits for completion of the tasks that have been already submitted.
+	@Bean
+	public BoundedTaskExecutor asyncTaskExecutor() {
+		int corePoolSize = env.getRequiredProperty("app.async.core_pool_size", Integer.class);
+		int maxPoolSize = env.getRequiredProperty("app.async.max_pool_size", Integer.class);
+		int queueCapacity = env.getRequiredProperty("app.async.queue_capacity", Integer.class);
+		int awaitTerminationInSeconds =
+			env.getRequiredProperty("app.async.await_termination", Integer.class);
+		
+		BoundedTaskExecutor executor =
+			new BoundedTaskExecutor(LoggerFactory.getLogger(BoundedTaskExecutor.class));
+		executor.setThreadNamePrefix("async-");
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(awaitTerminationInSeconds);
+		
+		return executor;
+	}
+	
+	// Executors below are referred by @Async annotations by their names. They share the same
+	// pool but have separate statistics and different policies for an overloaded pool.
+	
+	@Bean
+	public TaskExecutor imageDeduplicationExecutor() {
+		return asyncTaskExecutor().forTaskType("image_deduplication", false);
 	}
 	
 }
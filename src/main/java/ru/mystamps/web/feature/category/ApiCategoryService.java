@@ -17,14 +17,11 @@
  */
 package ru.mystamps.web.feature.category;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.env.Environment;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 import ru.mystamps.web.common.EntityWithParentDto;
 import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.feature.series.SelectItem;
+import ru.mystamps.web.support.microservice.MicroserviceClient;
 
 import java.util.Date;
 import java.util.List;
@@ -36,20 +33,13 @@ import java.util.Map;
 @SuppressWarnings("PMD.TooManyMethods")
 public class ApiCategoryService implements CategoryService {
 	
-	private static final Logger LOG = LoggerFactory.getLogger(ApiCategoryService.class);
-	
-	private final RestTemplate restTemplate;
+	private final MicroserviceClient client;
 	
 	// Endpoints
 	private final String countAllCategories;
 	
-	public ApiCategoryService(RestTemplateBuilder restTemplateBuilder, Environment env) {
-		String serviceHost = env.getRequiredProperty("service.category.host");
-		
-		this.restTemplate = restTemplateBuilder
-			.rootUri(serviceHost)
-			.build();
-		
+	public ApiCategoryService(MicroserviceClient client, Environment env) {
+		this.client = client;
 		this.countAllCategories = env.getRequiredProperty("service.category.count_all");
 	}
 	
@@ -78,6 +68,11 @@ public class ApiCategoryService implements CategoryService {
 		throw new UnsupportedOperationException();
 	}
 	
+	@Override
+	public List<SelectItem> findGroupedCategories(String lang) {
+		throw new UnsupportedOperationException();
+	}
+	
 	@Override
 	public LinkEntityDto findOneAsLinkEntity(String slug, String lang) {
 		throw new UnsupportedOperationException();
@@ -85,18 +80,7 @@ public class ApiCategoryService implements CategoryService {
 	
 	@Override
 	public long countAll() {
-		LOG.debug("GET {}", countAllCategories);
-		
-		ResponseEntity<Long> response = restTemplate.getForEntity(
-			countAllCategories,
-			Long.class
-		);
-		
-		Long result = response.getBody();
-		
-		LOG.debug("Result: {} => {}", response.getStatusCodeValue(), result);
-		
-		return result;
+		return client.get(countAllCategories, Long.class);
 	}
 	
 	@Override
@@ -19,6 +19,7 @@ package ru.mystamps.web.feature.category;
 
 import ru.mystamps.web.common.EntityWithParentDto;
 import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.feature.series.SelectItem;
 
 import java.util.Date;
 import java.util.List;
@@ -31,6 +32,7 @@ public interface CategoryService {
 	List<Integer> findIdsWhenNameStartsWith(String name);
 	List<LinkEntityDto> findAllAsLinkEntities(String lang);
 	List<EntityWithParentDto> findCategoriesWithParents(String lang);
+	List<SelectItem> findGroupedCategories(String lang);
 	LinkEntityDto findOneAsLinkEntity(String slug, String lang);
 	long countAll();
 	long countCategoriesOf(Integer collectionId);
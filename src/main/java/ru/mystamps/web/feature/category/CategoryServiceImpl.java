@@ -27,6 +27,9 @@ import ru.mystamps.web.common.EntityWithParentDto;
 import ru.mystamps.web.common.LinkEntityDto;
 import ru.mystamps.web.common.LocaleUtils;
 import ru.mystamps.web.common.SlugUtils;
+import ru.mystamps.web.common.VersionedSnapshot;
+import ru.mystamps.web.feature.series.SelectItem;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
 import java.util.Collections;
@@ -42,6 +45,11 @@ public class CategoryServiceImpl implements CategoryService {
 	
 	private final Logger log;
 	private final CategoryDao categoryDao;
+	private final SiteStatisticsListener siteStatistics;
+	
+	// categories are changed rarely but they are needed on many pages and for the converters
+	private final VersionedSnapshot<CategorySnapshot> snapshot =
+		new VersionedSnapshot<>(this::loadSnapshot);
 	
 	@Override
 	@Transactional
@@ -70,6 +78,8 @@ public class CategoryServiceImpl implements CategoryService {
 		category.setUpdatedBy(userId);
 
 		Integer id = categoryDao.add(category);
+		snapshot.invalidateAfterCommit();
+		siteStatistics.categoryAdded();
 		log.info("Category #{} has been created ({})", id, category);
 		
 		return slug;
@@ -113,14 +123,21 @@ public class CategoryServiceImpl implements CategoryService {
 	@Override
 	@Transactional(readOnly = true)
 	public List<LinkEntityDto> findAllAsLinkEntities(String lang) {
-		return categoryDao.findAllAsLinkEntities(lang);
+		return snapshot.get().getCategories(lang);
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	@PreAuthorize(HasAuthority.CREATE_SERIES)
 	public List<EntityWithParentDto> findCategoriesWithParents(String lang) {
-		return categoryDao.findCategoriesWithParents(lang);
+		return snapshot.get().getCategoriesWithParents(lang);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	@PreAuthorize(HasAuthority.CREATE_SERIES)
+	public List<SelectItem> findGroupedCategories(String lang) {
+		return snapshot.get().getGroupedCategories(lang);
 	}
 	
 	@Override
@@ -129,7 +146,18 @@ public class CategoryServiceImpl implements CategoryService {
 		Validate.isTrue(slug != null, "Category slug must be non null");
 		Validate.isTrue(!slug.trim().isEmpty(), "Category slug must be non empty");
 		
-		return categoryDao.findOneAsLinkEntity(slug, lang);
+		LinkEntityDto category = snapshot.get().getCategory(slug, lang);
+		if (category != null) {
+			return category;
+		}
+		
+		// a category might have been added bypassing this service
+		category = categoryDao.findOneAsLinkEntity(slug, lang);
+		if (category != null) {
+			snapshot.invalidate();
+		}
+		
+		return category;
 	}
 	
 	@Override
@@ -224,4 +252,8 @@ public class CategoryServiceImpl implements CategoryService {
 		return null;
 	}
 	
+	private CategorySnapshot loadSnapshot() {
+		return new CategorySnapshot(categoryDao);
+	}
+	
 }
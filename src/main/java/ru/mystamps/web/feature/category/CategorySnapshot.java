@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.category;
+
+import ru.mystamps.web.common.EntityWithParentDto;
+import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.feature.series.SelectItem;
+import ru.mystamps.web.support.thymeleaf.GroupByParent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the categories in all the languages that have localized names.
+ */
+class CategorySnapshot {
+	
+	// see also the queries that return localized names of the categories
+	private static final String RUSSIAN = "ru";
+	private static final String ENGLISH = "en";
+	
+	private final Map<String, List<LinkEntityDto>> categories = new HashMap<>();
+	private final Map<String, Map<String, LinkEntityDto>> categoriesBySlug = new HashMap<>();
+	private final Map<String, List<EntityWithParentDto>> categoriesWithParents = new HashMap<>();
+	private final Map<String, List<SelectItem>> groupedCategories = new HashMap<>();
+	
+	CategorySnapshot(CategoryDao categoryDao) {
+		for (String lang : Arrays.asList(ENGLISH, RUSSIAN)) {
+			List<LinkEntityDto> links = categoryDao.findAllAsLinkEntities(lang);
+			categories.put(lang, Collections.unmodifiableList(links));
+			categoriesBySlug.put(
+				lang,
+				links.stream().collect(
+					Collectors.toMap(LinkEntityDto::getSlug, Function.identity())
+				)
+			);
+			
+			List<EntityWithParentDto> withParents = categoryDao.findCategoriesWithParents(lang);
+			categoriesWithParents.put(lang, Collections.unmodifiableList(withParents));
+			groupedCategories.put(
+				lang,
+				Collections.unmodifiableList(GroupByParent.transformEntities(withParents))
+			);
+		}
+	}
+	
+	public List<LinkEntityDto> getCategories(String lang) {
+		return categories.get(toSupportedLanguage(lang));
+	}
+	
+	public LinkEntityDto getCategory(String slug, String lang) {
+		return categoriesBySlug.get(toSupportedLanguage(lang)).get(slug);
+	}
+	
+	public List<EntityWithParentDto> getCategoriesWithParents(String lang) {
+		return categoriesWithParents.get(toSupportedLanguage(lang));
+	}
+	
+	public List<SelectItem> getGroupedCategories(String lang) {
+		return groupedCategories.get(toSupportedLanguage(lang));
+	}
+	
+	// the queries fall back to English names for any language except Russian
+	private static String toSupportedLanguage(String lang) {
+		return RUSSIAN.equals(lang) ? RUSSIAN : ENGLISH;
+	}
+	
+}
@@ -22,6 +22,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.mystamps.web.common.EntityWithParentDto;
 import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.feature.series.SelectItem;
+import ru.mystamps.web.support.microservice.ServiceUnavailableException;
 import ru.mystamps.web.support.togglz.Features;
 
 import java.util.Date;
@@ -88,6 +90,14 @@ public class TogglzWithFallbackCategoryService implements CategoryService {
 		);
 	}
 	
+	@Override
+	public List<SelectItem> findGroupedCategories(String lang) {
+		return executeOneOf(
+			() ->      apiService.findGroupedCategories(lang),
+			() -> fallbackService.findGroupedCategories(lang)
+		);
+	}
+	
 	@Override
 	public LinkEntityDto findOneAsLinkEntity(String slug, String lang) {
 		return executeOneOf(
@@ -176,6 +186,10 @@ public class TogglzWithFallbackCategoryService implements CategoryService {
 				} catch (UnsupportedOperationException ignored) {
 					// the method isn't yet implemented, fallback to the default implementation
 					
+				} catch (ServiceUnavailableException ex) {
+					// the service has been failing recently, there is no need to log it again
+					LOG.debug("{}. Fallback to default implementation", ex.getMessage());
+					
 				} catch (RuntimeException e) { // NOPMD: AvoidCatchingGenericException; catch-all
 					LOG.warn(
 						"Failed to call a category service. Fallback to default implementation",
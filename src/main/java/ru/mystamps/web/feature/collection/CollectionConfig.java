@@ -22,9 +22,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import ru.mystamps.web.feature.category.CategoryService;
-import ru.mystamps.web.feature.country.CountryService;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 
 /**
  * Spring configuration that is required for using collections in an application.
@@ -38,19 +39,12 @@ public class CollectionConfig {
 	@RequiredArgsConstructor
 	public static class Controllers {
 		
-		private final CategoryService categoryService;
 		private final CollectionService collectionService;
-		private final CountryService countryService;
 		private final MessageSource messageSource;
 		
 		@Bean
 		public CollectionController collectionController() {
-			return new CollectionController(
-				categoryService,
-				collectionService,
-				countryService,
-				messageSource
-			);
+			return new CollectionController(collectionService, messageSource);
 		}
 		
 	}
@@ -59,12 +53,27 @@ public class CollectionConfig {
 	public static class Services {
 		
 		private final NamedParameterJdbcTemplate jdbcTemplate;
+		private final Environment env;
 		
 		@Bean
-		public CollectionService collectionService(CollectionDao collectionDao) {
+		public CollectionService collectionService(
+			CollectionDao collectionDao,
+			@Lazy SiteStatisticsListener siteStatistics) {
+			
 			return new CollectionServiceImpl(
 				LoggerFactory.getLogger(CollectionServiceImpl.class),
-				collectionDao
+				collectionDao,
+				collectionSeriesCache(),
+				siteStatistics
+			);
+		}
+		
+		@Bean
+		public CollectionSeriesCache collectionSeriesCache() {
+			return new CollectionSeriesCache(
+				LoggerFactory.getLogger(CollectionSeriesCache.class),
+				env.getRequiredProperty("app.collection_series_cache.size", Long.class),
+				env.getRequiredProperty("app.collection_series_cache.ttl", Long.class)
 			);
 		}
 		
@@ -24,8 +24,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import ru.mystamps.web.common.LocaleUtils;
-import ru.mystamps.web.feature.category.CategoryService;
-import ru.mystamps.web.feature.country.CountryService;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -37,9 +35,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CollectionController {
 	
-	private final CategoryService categoryService;
 	private final CollectionService collectionService;
-	private final CountryService countryService;
 	private final MessageSource messageSource;
 	
 	@GetMapping(CollectionUrl.INFO_COLLECTION_PAGE)
@@ -71,20 +67,17 @@ public class CollectionController {
 		model.addAttribute("seriesOfCollection", seriesOfCollection);
 		
 		if (!seriesOfCollection.isEmpty()) {
-			long categoryCounter = categoryService.countCategoriesOf(collectionId);
-			long countryCounter  = countryService.countCountriesOf(collectionId);
-			long seriesCounter   = collectionService.countSeriesOf(collectionId);
-			long stampsCounter   = collectionService.countStampsOf(collectionId);
+			CollectionStatistics stat = new CollectionStatistics(seriesOfCollection);
 			
-			Map<String, Integer> categoriesStat =
-				categoryService.getStatisticsOf(collectionId, lang);
+			Map<String, Integer> categoriesStat = stat.getStatOfCollectionByCategories();
 			
-			Map<String, Integer> countriesStat = getCountriesStatistics(collectionId, lang);
+			Map<String, Integer> countriesStat =
+				localizeUnknownCountry(stat.getStatOfCollectionByCountries(), lang);
 			
-			model.addAttribute("categoryCounter", categoryCounter);
-			model.addAttribute("countryCounter", countryCounter);
-			model.addAttribute("seriesCounter", seriesCounter);
-			model.addAttribute("stampsCounter", stampsCounter);
+			model.addAttribute("categoryCounter", stat.getCategoryCounter());
+			model.addAttribute("countryCounter", stat.getCountryCounter());
+			model.addAttribute("seriesCounter", stat.getSeriesCounter());
+			model.addAttribute("stampsCounter", stat.getStampsCounter());
 			
 			model.addAttribute("statOfCollectionByCategories", categoriesStat);
 			model.addAttribute("statOfCollectionByCountries", countriesStat);
@@ -124,16 +117,17 @@ public class CollectionController {
 		return "collection/estimation";
 	}
 	
-	private Map<String, Integer> getCountriesStatistics(Integer collectionId, String lang) {
-		Map<String, Integer> countriesStat = countryService.getStatisticsOf(collectionId, lang);
+	private Map<String, Integer> localizeUnknownCountry(
+		Map<String, Integer> countriesStat,
+		String lang) {
 		
 		// manually localize "Unknown" country's name
-		Integer unknownCounter = countriesStat.get("Unknown");
+		Integer unknownCounter = countriesStat.get(CollectionStatistics.UNKNOWN_COUNTRY);
 		if (unknownCounter != null) {
 			String localizedValue =
 				messageSource.getMessage("t_unspecified", null, new Locale(lang));
 			countriesStat.put(localizedValue, unknownCounter);
-			countriesStat.remove("Unknown");
+			countriesStat.remove(CollectionStatistics.UNKNOWN_COUNTRY);
 		}
 		
 		return countriesStat;
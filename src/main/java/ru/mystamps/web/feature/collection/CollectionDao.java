@@ -31,10 +31,12 @@ public interface CollectionDao {
 	long countCollectionsOfUsers();
 	long countUpdatedSince(Date date);
 	long countSeriesOfCollection(Integer collectionId);
+	long countSeriesOfUserCollection(Integer userId);
 	long countStampsOfCollection(Integer collectionId);
 	Integer add(AddCollectionDbDto collection);
 	void markAsModified(Integer userId, Date updatedAt);
 	boolean isSeriesInUserCollection(Integer userId, Integer seriesId);
+	List<Integer> findSeriesIdsInUserCollection(Integer userId);
 	Map<Integer, Integer> findSeriesInstances(Integer userId, Integer seriesId);
 	Integer addSeriesToUserCollection(AddToCollectionDbDto dto);
 	void removeSeriesFromUserCollection(Integer userId, Integer seriesId);
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.collection;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the series that are in the users' collections.
+ *
+ * For every user, it holds a bitmap where a bit with an index of series id is set when
+ * a user has this series. A cached bitmap is never modified, so it can be read concurrently.
+ * An entry is evicted when the cache exceeds its size, when the entry hasn't been accessed
+ * for TTL or when {@link #evict(Integer)} has been called for the user.
+ */
+public class CollectionSeriesCache {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	private final Logger log;
+	private final Cache<Integer, BitSet> cache;
+	
+	public CollectionSeriesCache(Logger log, long maxSize, long ttlInSeconds) {
+		this.log = log;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterAccess(ttlInSeconds, TimeUnit.SECONDS)
+			.recordStats()
+			.build();
+	}
+	
+	/**
+	 * Returns a cached bitmap of user's series or loads it.
+	 */
+	public BitSet get(Integer userId, Supplier<BitSet> loader) {
+		return cache.get(userId, key -> loader.get());
+	}
+	
+	/**
+	 * Removes a cached bitmap of a user.
+	 *
+	 * When it's called within a transaction, the entry is removed once again after commit
+	 * because a concurrent request might have cached a stale bitmap before that.
+	 */
+	public void evict(Integer userId) {
+		cache.invalidate(userId);
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(
+				new TransactionSynchronizationAdapter() {
+					@Override
+					public void afterCommit() {
+						cache.invalidate(userId);
+					}
+				}
+			);
+		}
+	}
+	
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		CacheStats stats = cache.stats();
+		log.info(
+			"Collection series cache: {} entries, {} hits, {} misses, {} evictions",
+			cache.estimatedSize(),
+			stats.hitCount(),
+			stats.missCount(),
+			stats.evictionCount()
+		);
+	}
+	
+}
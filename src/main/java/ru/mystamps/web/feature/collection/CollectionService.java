@@ -19,9 +19,11 @@ package ru.mystamps.web.feature.collection;
 
 import ru.mystamps.web.common.LinkEntityDto;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("PMD.TooManyMethods")
 public interface CollectionService {
@@ -29,6 +31,7 @@ public interface CollectionService {
 	void addToCollection(Integer userId, AddToCollectionDto dto);
 	void removeFromCollection(Integer userId, Integer seriesId, Integer seriesInstanceId);
 	boolean isSeriesInCollection(Integer userId, Integer seriesId);
+	Set<Integer> findSeriesIdsInCollection(Integer userId, Collection<Integer> seriesIds);
 	Map<Integer, Integer> findSeriesInstances(Integer userId, Integer seriesId);
 	long countCollectionsOfUsers();
 	long countUpdatedSince(Date date);
@@ -25,11 +25,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.common.LinkEntityDto;
 import ru.mystamps.web.common.SlugUtils;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @SuppressWarnings({
@@ -41,6 +47,8 @@ public class CollectionServiceImpl implements CollectionService {
 	
 	private final Logger log;
 	private final CollectionDao collectionDao;
+	private final CollectionSeriesCache collectionSeriesCache;
+	private final SiteStatisticsListener siteStatistics;
 	
 	@Override
 	@Transactional
@@ -87,8 +95,16 @@ public class CollectionServiceImpl implements CollectionService {
 			collectionDto.setCurrency(dto.getCurrency().toString());
 		}
 		
+		// a collection is shown on the site only when it has series
+		boolean wasEmpty = collectionDao.countSeriesOfUserCollection(userId) == 0;
+		
 		Integer seriesInstanceId = collectionDao.addSeriesToUserCollection(collectionDto);
 		collectionDao.markAsModified(userId, new Date());
+		collectionSeriesCache.evict(userId);
+		
+		if (wasEmpty) {
+			siteStatistics.collectionAdded();
+		}
 		
 		log.info(
 			"Series #{} ({}) has been added to collection: #{}",
@@ -108,6 +124,11 @@ public class CollectionServiceImpl implements CollectionService {
 		
 		collectionDao.removeSeriesFromUserCollection(userId, seriesInstanceId);
 		collectionDao.markAsModified(userId, new Date());
+		collectionSeriesCache.evict(userId);
+		
+		if (collectionDao.countSeriesOfUserCollection(userId) == 0) {
+			siteStatistics.collectionRemoved();
+		}
 		
 		// The method accepts seriesId only for logging it.
 		// As seriesId is provided by user and we don't check whether it's related to
@@ -132,6 +153,23 @@ public class CollectionServiceImpl implements CollectionService {
 		return collectionDao.isSeriesInUserCollection(userId, seriesId);
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public Set<Integer> findSeriesIdsInCollection(Integer userId, Collection<Integer> seriesIds) {
+		Validate.isTrue(seriesIds != null, "Series ids must be non null");
+		
+		if (userId == null || seriesIds.isEmpty()) {
+			// Anonymous user doesn't have collection
+			return Collections.emptySet();
+		}
+		
+		BitSet userSeries = collectionSeriesCache.get(userId, () -> loadSeriesOf(userId));
+		
+		return seriesIds.stream()
+			.filter(userSeries::get)
+			.collect(Collectors.toSet());
+	}
+	
 	// @todo #1123 CollectionService.findSeriesInstances(): add unit tests
 	@Override
 	@Transactional(readOnly = true)
@@ -209,6 +247,14 @@ public class CollectionServiceImpl implements CollectionService {
 		return collectionDao.findCollectionInfoBySlug(slug);
 	}
 	
+	private BitSet loadSeriesOf(Integer userId) {
+		BitSet userSeries = new BitSet();
+		for (Integer seriesId : collectionDao.findSeriesIdsInUserCollection(userId)) {
+			userSeries.set(seriesId);
+		}
+		return userSeries;
+	}
+	
 	private static String formatSeriesInfo(AddToCollectionDbDto collectionDto) {
 		StringBuilder sb = new StringBuilder();
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.collection;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counters and breakdowns of a collection by categories and countries.
+ *
+ * They're computed in a single pass over the series that are already loaded for showing
+ * a collection, so no additional queries are needed.
+ */
+@Getter
+public class CollectionStatistics {
+	
+	// see also the queries that return statistics by countries
+	/* default */ static final String UNKNOWN_COUNTRY = "Unknown";
+	
+	private final long categoryCounter;
+	private final long countryCounter;
+	private final long seriesCounter;
+	private final long stampsCounter;
+	
+	// category/country name -> number of stamps
+	private final Map<String, Integer> statOfCollectionByCategories = new HashMap<>();
+	private final Map<String, Integer> statOfCollectionByCountries = new HashMap<>();
+	
+	public CollectionStatistics(List<SeriesInCollectionDto> seriesOfCollection) {
+		Set<Integer> categoryIds = new HashSet<>();
+		Set<Integer> countryIds = new HashSet<>();
+		long stamps = 0;
+		
+		for (SeriesInCollectionDto series : seriesOfCollection) {
+			int numberOfStamps = series.getNumberOfStamps();
+			stamps += numberOfStamps;
+			
+			categoryIds.add(series.getCategoryId());
+			statOfCollectionByCategories.merge(series.getCategory(), numberOfStamps, Integer::sum);
+			
+			// series without a country are counted as one more (unknown) country
+			countryIds.add(series.getCountryId());
+			String country = series.getCountry() == null ? UNKNOWN_COUNTRY : series.getCountry();
+			statOfCollectionByCountries.merge(country, numberOfStamps, Integer::sum);
+		}
+		
+		this.categoryCounter = categoryIds.size();
+		this.countryCounter = countryIds.size();
+		this.seriesCounter = seriesOfCollection.size();
+		this.stampsCounter = stamps;
+	}
+	
+}
@@ -66,6 +66,9 @@ public class JdbcCollectionDao implements CollectionDao {
 	@Value("${collection.count_series_of_collection}")
 	private String countSeriesOfCollectionSql;
 	
+	@Value("${collection.count_series_of_user_collection}")
+	private String countSeriesOfUserCollectionSql;
+	
 	@Value("${collection.count_stamps_of_collection}")
 	private String countStampsOfCollectionSql;
 	
@@ -78,6 +81,9 @@ public class JdbcCollectionDao implements CollectionDao {
 	@Value("${collection.is_series_in_collection}")
 	private String isSeriesInUserCollectionSql;
 	
+	@Value("${collection.find_series_ids_by_user_id}")
+	private String findSeriesIdsByUserIdSql;
+	
 	@Value("${collection.find_series_instances}")
 	private String findSeriesInstancesSql;
 	
@@ -155,6 +161,15 @@ public class JdbcCollectionDao implements CollectionDao {
 		);
 	}
 	
+	@Override
+	public long countSeriesOfUserCollection(Integer userId) {
+		return jdbcTemplate.queryForObject(
+			countSeriesOfUserCollectionSql,
+			Collections.singletonMap("user_id", userId),
+			Long.class
+		);
+	}
+	
 	@Override
 	public long countStampsOfCollection(Integer collectionId) {
 		return jdbcTemplate.queryForObject(
@@ -226,6 +241,15 @@ public class JdbcCollectionDao implements CollectionDao {
 		return result > 0;
 	}
 	
+	@Override
+	public List<Integer> findSeriesIdsInUserCollection(Integer userId) {
+		return jdbcTemplate.queryForList(
+			findSeriesIdsByUserIdSql,
+			Collections.singletonMap("user_id", userId),
+			Integer.class
+		);
+	}
+	
 	@Override
 	public Map<Integer, Integer> findSeriesInstances(Integer userId, Integer seriesId) {
 		Map<String, Object> params = new HashMap<>();
@@ -44,7 +44,9 @@ final class RowMappers {
 		
 		Integer seriesId     = rs.getInt("id");
 		String category      = rs.getString("category");
+		Integer categoryId   = rs.getInt("category_id");
 		String country       = rs.getString("country");
+		Integer countryId    = JdbcUtils.getInteger(rs, "country_id");
 		Integer releaseYear  = JdbcUtils.getInteger(rs, "release_year");
 		Integer quantity     = rs.getInt("quantity");
 		Boolean perforated   = rs.getBoolean("perforated");
@@ -55,7 +57,9 @@ final class RowMappers {
 		return new SeriesInCollectionDto(
 			seriesId,
 			category,
+			categoryId,
 			country,
+			countryId,
 			releaseYear,
 			perforated,
 			quantity,
@@ -25,7 +25,9 @@ import lombok.RequiredArgsConstructor;
 public class SeriesInCollectionDto {
 	private final Integer id;
 	private final String category;
+	private final Integer categoryId;
 	private final String country;
+	private final Integer countryId;
 	private final Integer releaseYear;
 	private final Boolean perforated;
 	private final Integer quantity;
@@ -17,13 +17,9 @@
  */
 package ru.mystamps.web.feature.country;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.env.Environment;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.support.microservice.MicroserviceClient;
 
 import java.util.Date;
 import java.util.List;
@@ -35,20 +31,13 @@ import java.util.Map;
 @SuppressWarnings("PMD.TooManyMethods")
 public class ApiCountryService implements CountryService {
 
-	private static final Logger LOG = LoggerFactory.getLogger(ApiCountryService.class);
-	
-	private final RestTemplate restTemplate;
+	private final MicroserviceClient client;
 	
 	// Endpoints
 	private final String countAllCountries;
 	
-	public ApiCountryService(RestTemplateBuilder restTemplateBuilder, Environment env) {
-		String serviceHost = env.getRequiredProperty("service.country.host");
-		
-		this.restTemplate = restTemplateBuilder
-			.rootUri(serviceHost)
-			.build();
-		
+	public ApiCountryService(MicroserviceClient client, Environment env) {
+		this.client = client;
 		this.countAllCountries = env.getRequiredProperty("service.country.count_all");
 	}
 	
@@ -79,18 +68,7 @@ public class ApiCountryService implements CountryService {
 	
 	@Override
 	public long countAll() {
-		LOG.debug("GET {}", countAllCountries);
-		
-		ResponseEntity<Long> response = restTemplate.getForEntity(
-			countAllCountries,
-			Long.class
-		);
-		
-		Long result = response.getBody();
-		
-		LOG.debug("Result: {} => {}", response.getStatusCodeValue(), result);
-		
-		return result;
+		return client.get(countAllCountries, Long.class);
 	}
 	
 	@Override
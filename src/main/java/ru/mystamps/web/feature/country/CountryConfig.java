@@ -19,11 +19,19 @@ package ru.mystamps.web.feature.country;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
+import ru.mystamps.web.support.microservice.CircuitBreaker;
+import ru.mystamps.web.support.microservice.MicroserviceClient;
+
+import java.time.Duration;
 
 /**
  * Spring configuration that is required for using countries in an application.
@@ -60,16 +68,46 @@ public class CountryConfig {
 		private final RestTemplateBuilder restTemplateBuilder;
 		
 		@Bean
-		public CountryService countryService() {
+		public MicroserviceClient countryServiceClient() {
+			RestTemplate restTemplate = restTemplateBuilder
+				.rootUri(env.getRequiredProperty("service.country.host"))
+				.setConnectTimeout(getDuration("service.client.connect_timeout"))
+				.setReadTimeout(getDuration("service.client.read_timeout"))
+				.build();
+			
+			CircuitBreaker circuitBreaker = new CircuitBreaker(
+				env.getRequiredProperty("service.client.failure_threshold", Integer.class),
+				env.getRequiredProperty("service.client.open_duration", Long.class)
+			);
+			
+			return new MicroserviceClient(
+				LoggerFactory.getLogger(MicroserviceClient.class),
+				"country",
+				restTemplate,
+				circuitBreaker,
+				env.getRequiredProperty("service.client.cache_ttl", Long.class)
+			);
+		}
+		
+		@Bean
+		public CountryService countryService(
+			@Lazy SiteStatisticsListener siteStatistics,
+			@Qualifier("countryServiceClient") MicroserviceClient client) {
+			
 			return new TogglzWithFallbackCountryService(
-				new ApiCountryService(restTemplateBuilder, env),
+				new ApiCountryService(client, env),
 				new CountryServiceImpl(
 					LoggerFactory.getLogger(CountryServiceImpl.class),
-					countryDao
+					countryDao,
+					siteStatistics
 				)
 			);
 		}
 		
+		private Duration getDuration(String property) {
+			return Duration.ofMillis(env.getRequiredProperty(property, Long.class));
+		}
+		
 	}
 	
 	@RequiredArgsConstructor
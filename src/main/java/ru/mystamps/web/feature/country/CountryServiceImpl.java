@@ -26,6 +26,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.common.LinkEntityDto;
 import ru.mystamps.web.common.LocaleUtils;
 import ru.mystamps.web.common.SlugUtils;
+import ru.mystamps.web.common.VersionedSnapshot;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
 import java.util.Collections;
@@ -41,6 +43,11 @@ public class CountryServiceImpl implements CountryService {
 	
 	private final Logger log;
 	private final CountryDao countryDao;
+	private final SiteStatisticsListener siteStatistics;
+	
+	// countries are changed rarely but they are needed on many pages and for the converters
+	private final VersionedSnapshot<CountrySnapshot> snapshot =
+		new VersionedSnapshot<>(this::loadSnapshot);
 	
 	@Override
 	@Transactional
@@ -69,6 +76,8 @@ public class CountryServiceImpl implements CountryService {
 		country.setUpdatedBy(userId);
 		
 		Integer id = countryDao.add(country);
+		snapshot.invalidateAfterCommit();
+		siteStatistics.countryAdded();
 		
 		log.info("Country #{} has been created ({})", id, country);
 		
@@ -113,7 +122,7 @@ public class CountryServiceImpl implements CountryService {
 	@Override
 	@Transactional(readOnly = true)
 	public List<LinkEntityDto> findAllAsLinkEntities(String lang) {
-		return countryDao.findAllAsLinkEntities(lang);
+		return snapshot.get().getCountries(lang);
 	}
 	
 	@Override
@@ -122,7 +131,18 @@ public class CountryServiceImpl implements CountryService {
 		Validate.isTrue(slug != null, "Country slug must be non null");
 		Validate.isTrue(!slug.trim().isEmpty(), "Country slug must be non empty");
 		
-		return countryDao.findOneAsLinkEntity(slug, lang);
+		LinkEntityDto country = snapshot.get().getCountry(slug, lang);
+		if (country != null) {
+			return country;
+		}
+		
+		// a country might have been added bypassing this service
+		country = countryDao.findOneAsLinkEntity(slug, lang);
+		if (country != null) {
+			snapshot.invalidate();
+		}
+		
+		return country;
 	}
 	
 	@Override
@@ -238,4 +258,9 @@ public class CountryServiceImpl implements CountryService {
 		
 		return slug;
 	}
+	
+	private CountrySnapshot loadSnapshot() {
+		return new CountrySnapshot(countryDao);
+	}
+	
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.country;
+
+import ru.mystamps.web.common.LinkEntityDto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the countries in all the languages that have localized names.
+ */
+class CountrySnapshot {
+	
+	// see also the queries that return localized names of the countries
+	private static final String RUSSIAN = "ru";
+	private static final String ENGLISH = "en";
+	
+	private final Map<String, List<LinkEntityDto>> countries = new HashMap<>();
+	private final Map<String, Map<String, LinkEntityDto>> countriesBySlug = new HashMap<>();
+	
+	CountrySnapshot(CountryDao countryDao) {
+		for (String lang : Arrays.asList(ENGLISH, RUSSIAN)) {
+			List<LinkEntityDto> links = countryDao.findAllAsLinkEntities(lang);
+			countries.put(lang, Collections.unmodifiableList(links));
+			countriesBySlug.put(
+				lang,
+				links.stream().collect(
+					Collectors.toMap(LinkEntityDto::getSlug, Function.identity())
+				)
+			);
+		}
+	}
+	
+	public List<LinkEntityDto> getCountries(String lang) {
+		return countries.get(toSupportedLanguage(lang));
+	}
+	
+	public LinkEntityDto getCountry(String slug, String lang) {
+		return countriesBySlug.get(toSupportedLanguage(lang)).get(slug);
+	}
+	
+	// the queries fall back to English names for any language except Russian
+	private static String toSupportedLanguage(String lang) {
+		return RUSSIAN.equals(lang) ? RUSSIAN : ENGLISH;
+	}
+	
+}
@@ -21,6 +21,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.support.microservice.ServiceUnavailableException;
 import ru.mystamps.web.support.togglz.Features;
 
 import java.util.Date;
@@ -167,6 +168,10 @@ public class TogglzWithFallbackCountryService implements CountryService {
 				} catch (UnsupportedOperationException ignored) {
 					// the method isn't yet implemented, fallback to the default implementation
 					
+				} catch (ServiceUnavailableException ex) {
+					// the service has been failing recently, there is no need to log it again
+					LOG.debug("{}. Fallback to default implementation", ex.getMessage());
+					
 				} catch (RuntimeException e) { // NOPMD: AvoidCatchingGenericException; catch-all
 					LOG.warn(
 						"Failed to call a country service. Fallback to default implementation",
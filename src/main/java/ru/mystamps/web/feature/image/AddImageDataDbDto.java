@@ -20,10 +20,13 @@ package ru.mystamps.web.feature.image;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.InputStream;
+
 @Getter
 @Setter
 public class AddImageDataDbDto {
 	private Integer imageId;
-	private byte[] content;
+	private InputStream content;
+	private long contentLength;
 	private boolean preview;
 }
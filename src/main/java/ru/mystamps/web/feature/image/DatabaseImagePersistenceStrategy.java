@@ -22,7 +22,9 @@ import org.slf4j.Logger;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 @RequiredArgsConstructor
 public class DatabaseImagePersistenceStrategy implements ImagePersistenceStrategy {
@@ -37,10 +39,12 @@ public class DatabaseImagePersistenceStrategy implements ImagePersistenceStrateg
 	
 	@Override
 	public void save(MultipartFile file, ImageInfoDto image) {
-		try {
+		// a content is streamed to a database without loading a whole file into memory
+		try (InputStream content = file.getInputStream()) {
 			AddImageDataDbDto imageData = new AddImageDataDbDto();
 			imageData.setImageId(image.getId());
-			imageData.setContent(file.getBytes());
+			imageData.setContent(content);
+			imageData.setContentLength(file.getSize());
 			imageData.setPreview(false);
 			
 			Integer id = imageDataDao.add(imageData);
@@ -52,11 +56,19 @@ public class DatabaseImagePersistenceStrategy implements ImagePersistenceStrateg
 		}
 	}
 	
+	@Override
+	public boolean link(ImageInfoDto original, ImageInfoDto image) {
+		// This strategy is used only for development and testing, so we don't deduplicate
+		// images and let the caller to save a copy.
+		return false;
+	}
+	
 	@Override
 	public void savePreview(byte[] data, ImageInfoDto image) {
 		AddImageDataDbDto imageData = new AddImageDataDbDto();
 		imageData.setImageId(image.getId());
-		imageData.setContent(data);
+		imageData.setContent(new ByteArrayInputStream(data));
+		imageData.setContentLength(data.length);
 		imageData.setPreview(true);
 		
 		imageDataDao.add(imageData);
@@ -88,6 +100,17 @@ public class DatabaseImagePersistenceStrategy implements ImagePersistenceStrateg
 		log.info("Image #{}: preview has been replaced", image.getId());
 	}
 	
+	@Override
+	public void saveRendition(byte[] data, ImageInfoDto image, int width) {
+		// a rendition is overwritten when an image is replaced
+		int affected = imageDataDao.replaceRendition(image.getId(), width, data);
+		if (affected == 0) {
+			imageDataDao.addRendition(image.getId(), width, data);
+		}
+		
+		log.info("Image #{}: preview of width {} has been saved", image.getId(), width);
+	}
+	
 	@Override
 	public ImageDto get(ImageInfoDto image) {
 		ImageDto imageDto = imageDataDao.findByImageId(image.getId(), false);
@@ -110,6 +133,17 @@ public class DatabaseImagePersistenceStrategy implements ImagePersistenceStrateg
 		return imageDto;
 	}
 	
+	@Override
+	public ImageDto getRendition(ImageInfoDto image, int width) {
+		ImageDto imageDto = imageDataDao.findRenditionByImageId(image.getId(), width);
+		if (imageDto == null) {
+			log.debug("Image #{}: preview of width {} not found", image.getId(), width);
+			return null;
+		}
+		
+		return imageDto;
+	}
+	
 	@Override
 	public void removeIfPossible(ImageInfoDto image) {
 		// It's supposed that this method will be used for removing a file when exception occurs.
@@ -19,6 +19,8 @@ package ru.mystamps.web.feature.image;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
@@ -26,6 +28,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.Locale;
 import java.util.Objects;
@@ -90,6 +93,62 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 		}
 	}
 	
+	/**
+	 * Makes an image to share a file (and a preview, if it exists) with another image.
+	 *
+	 * Files are shared by hard links, so a content is stored only once and a file system
+	 * keeps track of the references: a content is removed along with the last link to it.
+	 */
+	@Override
+	public boolean link(ImageInfoDto original, ImageInfoDto image) {
+		Path source = generateFilePath(storageDir, original);
+		if (!exists(source)) {
+			return false;
+		}
+		
+		Path dest = generateFilePath(storageDir, image);
+		try {
+			linkFile(source, dest);
+			log.info(
+				"Image #{}: data ({}) is shared with image #{}",
+				image.getId(),
+				dest,
+				original.getId()
+			);
+			
+		} catch (IOException | UnsupportedOperationException ex) {
+			log.warn(
+				"Image #{}: couldn't share data with image #{}: {}",
+				image.getId(),
+				original.getId(),
+				ex.getMessage()
+			);
+			return false;
+		}
+		
+		// a preview is optional because it will be generated when it's missing
+		ImageInfoDto originalPreview = ImageInfoDto.newPreview(original.getId());
+		Path sourcePreview = generateFilePath(previewDir, originalPreview);
+		if (!exists(sourcePreview)) {
+			return true;
+		}
+		
+		Path destPreview = generateFilePath(previewDir, ImageInfoDto.newPreview(image.getId()));
+		try {
+			linkFile(sourcePreview, destPreview);
+			
+		} catch (IOException | UnsupportedOperationException ex) {
+			log.warn(
+				"Image #{}: couldn't share preview with image #{}: {}",
+				image.getId(),
+				original.getId(),
+				ex.getMessage()
+			);
+		}
+		
+		return true;
+	}
+	
 	@Override
 	public void savePreview(byte[] data, ImageInfoDto image) {
 		try {
@@ -145,6 +204,25 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 		}
 	}
 	
+	@Override
+	public void saveRendition(byte[] data, ImageInfoDto image, int width) {
+		// a rendition is overwritten when an image is replaced
+		try {
+			Path dest = generateRenditionPath(image, width);
+			rewriteFile(data, dest);
+			
+			log.info(
+				"Image #{}: preview of width {} has been written into file {}",
+				image.getId(),
+				width,
+				dest
+			);
+			
+		} catch (IOException ex) {
+			throw new ImagePersistenceException(ex);
+		}
+	}
+	
 	@Override
 	public ImageDto get(ImageInfoDto image) {
 		return get(storageDir, image, true);
@@ -155,6 +233,16 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 		return get(previewDir, image, false);
 	}
 	
+	@Override
+	public ImageDto getRendition(ImageInfoDto image, int width) {
+		Path dest = generateRenditionPath(image, width);
+		if (!exists(dest)) {
+			return null;
+		}
+		
+		return new ImageDto(image.getType(), toResource(dest));
+	}
+	
 	@Override
 	public void removeIfPossible(ImageInfoDto image) {
 		Path dest = generateFilePath(storageDir, image);
@@ -176,6 +264,20 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 		return new File(dir, generateFileName(image)).toPath();
 	}
 	
+	// protected to allow spying
+	protected Path generateRenditionPath(ImageInfoDto image, int width) {
+		// 1.jpeg -> 1-100.jpeg
+		String filename = new StringBuilder()
+			.append(image.getId())
+			.append('-')
+			.append(width)
+			.append('.')
+			.append(image.getType().toLowerCase(Locale.ENGLISH))
+			.toString();
+		
+		return new File(previewDir, filename).toPath();
+	}
+	
 	// protected to allow spying
 	protected void writeToFile(MultipartFile file, Path dest) throws IOException {
 		// we can't use file.transferTo(dest) there because it creates file
@@ -195,7 +297,21 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 	
 	// protected to allow spying
 	protected void rewriteFile(byte[] data, Path dest) throws IOException {
-		Files.write(dest, data);
+		// A file might be shared with other images (see link()), so we don't modify it in place
+		// but write a new file and rename it.
+		Path tmp = generateTempPath(dest);
+		Files.write(tmp, data);
+		Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	// protected to allow spying
+	protected void linkFile(Path existing, Path dest) throws IOException {
+		// a link is created with a temporary name and then is renamed, so an existing file
+		// is replaced atomically
+		Path tmp = generateTempPath(dest);
+		Files.deleteIfExists(tmp);
+		Files.createLink(tmp, existing);
+		Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 	}
 	
 	// protected to allow spying
@@ -204,8 +320,8 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 	}
 	
 	// protected to allow spying
-	protected byte[] toByteArray(Path dest) throws IOException {
-		return Files.readAllBytes(dest);
+	protected Resource toResource(Path dest) {
+		return new FileSystemResource(dest);
 	}
 
 	private ImageDto get(File dir, ImageInfoDto image, boolean logWarning) {
@@ -221,13 +337,12 @@ public class FilesystemImagePersistenceStrategy implements ImagePersistenceStrat
 			return null;
 		}
 		
-		try {
-			byte[] content = toByteArray(dest);
-			return new ImageDto(image.getType(), content);
-		
-		} catch (IOException ex) {
-			throw new ImagePersistenceException(ex);
-		}
+		// the file isn't read here: it will be streamed directly to a client
+		return new ImageDto(image.getType(), toResource(dest));
+	}
+	
+	private static Path generateTempPath(Path dest) {
+		return dest.resolveSibling(dest.getFileName() + ".tmp");
 	}
 	
 	private static String generateFileName(ImageInfoDto image) {
@@ -26,6 +26,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.util.Arrays;
+
 /**
  * Spring configuration that is required for using images in an application.
  *
@@ -39,10 +41,11 @@ public class ImageConfig {
 	public static class Controllers {
 		
 		private final ImageService imageService;
+		private final PreviewRenditions previewRenditions;
 		
 		@Bean
 		public ImageController imageController() {
-			return new ImageController(imageService);
+			return new ImageController(imageService, previewRenditions);
 		}
 		
 	}
@@ -51,6 +54,7 @@ public class ImageConfig {
 	@Import({ DbStrategyConfig.class, FsStrategyConfig.class })
 	public static class Services {
 		
+		private final Environment env;
 		private final NamedParameterJdbcTemplate jdbcTemplate;
 		private final ImagePersistenceStrategy imagePersistenceStrategy;
 		
@@ -63,7 +67,27 @@ public class ImageConfig {
 					LoggerFactory.getLogger(TimedImagePreviewStrategy.class),
 					new ThumbnailatorImagePreviewStrategy()
 				),
-				imageDao
+				imageDao,
+				imagePreviewGenerator(),
+				previewRenditions()
+			);
+		}
+		
+		@Bean
+		public PreviewRenditions previewRenditions() {
+			return new PreviewRenditions(
+				ThumbnailatorImagePreviewStrategy.DEFAULT_WIDTH,
+				Arrays.asList(env.getRequiredProperty("app.preview.renditions", Integer[].class))
+			);
+		}
+		
+		@Bean
+		public ImagePreviewGenerator imagePreviewGenerator() {
+			return new ImagePreviewGenerator(
+				LoggerFactory.getLogger(ImagePreviewGenerator.class),
+				env.getRequiredProperty("app.preview_generator.threads", Integer.class),
+				env.getRequiredProperty("app.preview_generator.queue_size", Integer.class),
+				env.getRequiredProperty("app.preview_generator.wait_timeout", Long.class)
 			);
 		}
 		
@@ -111,6 +135,15 @@ public class ImageConfig {
 			);
 		}
 		
+		@Bean
+		public ImageDeduplicationTask imageDeduplicationTask(ImageDao imageDao) {
+			return new ImageDeduplicationTask(
+				LoggerFactory.getLogger(ImageDeduplicationTask.class),
+				imageDao,
+				imagePersistenceStrategy()
+			);
+		}
+		
 	}
 	
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calculates a hash of an image content that is used for finding identical images.
+ */
+public final class ImageContentHash {
+	
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final int BUFFER_SIZE = 8 * 1024;
+	
+	private ImageContentHash() {
+	}
+	
+	/**
+	 * Returns a hex-encoded SHA-256 hash of a stream content.
+	 *
+	 * The stream is read in chunks (so a memory consumption doesn't depend on an image size)
+	 * but isn't closed.
+	 */
+	public static String calculate(InputStream stream) throws IOException {
+		MessageDigest digest = createDigest();
+		
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int read;
+		while ((read = stream.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+		
+		return toHex(digest.digest());
+	}
+	
+	public static String calculate(byte[] data) {
+		return toHex(createDigest().digest(data));
+	}
+	
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+	}
+	
+	private static String toHex(byte[] bytes) {
+		char[] result = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+			result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+		}
+		return new String(result);
+	}
+	
+}
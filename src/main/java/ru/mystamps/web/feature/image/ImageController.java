@@ -18,63 +18,124 @@
 package ru.mystamps.web.feature.image;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Serves images and their previews.
+ *
+ * Content is streamed from a {@link Resource}, so a memory consumption doesn't depend on
+ * an image size. Spring MVC handles conditional ({@code If-None-Match}/{@code If-Modified-Since})
+ * and {@code Range} requests for us.
+ */
 @Controller
 @RequiredArgsConstructor
 public class ImageController {
 	
+	// Images can be replaced by admins (and keep the same URL), so we can't cache them forever
+	// and let a browser to revalidate them by ETag after this period.
+	private static final CacheControl IMAGE_CACHE_CONTROL =
+		CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+	
 	private final ImageService imageService;
+	private final PreviewRenditions previewRenditions;
 	
 	@GetMapping(ImageUrl.GET_IMAGE_PAGE)
-	public void getImage(@PathVariable("id") Integer imageId, HttpServletResponse response)
+	public ResponseEntity<Resource> getImage(
+		@PathVariable("id") Integer imageId,
+		HttpServletResponse response)
 		throws IOException {
 		
 		if (imageId == null) {
 			response.sendError(HttpServletResponse.SC_NOT_FOUND);
-			return;
+			return null;
 		}
 		
 		ImageDto image = imageService.get(imageId);
 		if (image == null) {
 			response.sendError(HttpServletResponse.SC_NOT_FOUND);
-			return;
+			return null;
 		}
 
 		// FIXME: set content disposition
-		response.setContentType("image/" + image.getType().toLowerCase(Locale.ENGLISH));
-		response.setContentLength(image.getData().length);
-		
-		response.getOutputStream().write(image.getData());
+		return createResponse(image, "image-" + imageId);
 	}
 	
 	@GetMapping(ImageUrl.GET_IMAGE_PREVIEW_PAGE)
-	public void getImagePreview(@PathVariable("id") Integer imageId, HttpServletResponse response)
+	public ResponseEntity<Resource> getImagePreview(
+		@PathVariable("id") Integer imageId,
+		@RequestParam(name = "w", required = false) Integer width,
+		HttpServletResponse response)
 		throws IOException {
 		
 		if (imageId == null) {
 			response.sendError(HttpServletResponse.SC_NOT_FOUND);
-			return;
+			return null;
+		}
+		
+		if (width != null && width <= 0) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
 		}
 		
-		ImageDto image = imageService.getOrCreatePreview(imageId);
+		// the requests that are served by the same preview should get the same ETag,
+		// so we use a width of the preview instead of the requested one
+		Integer previewWidth = previewRenditions.resolve(width);
+		
+		ImageDto image = imageService.getOrCreatePreview(imageId, previewWidth);
 		if (image == null) {
 			// return original image when error has occurred
-			getImage(imageId, response);
-			return;
+			return getImage(imageId, response);
 		}
 		
-		response.setContentType("image/" + image.getType().toLowerCase(Locale.ENGLISH));
-		response.setContentLength(image.getData().length);
+		String etagPrefix = "preview-" + imageId;
+		if (previewWidth != null) {
+			etagPrefix += "-" + previewWidth;
+		}
 		
-		response.getOutputStream().write(image.getData());
+		return createResponse(image, etagPrefix);
+	}
+	
+	private static ResponseEntity<Resource> createResponse(ImageDto image, String etagPrefix)
+		throws IOException {
+		
+		Resource content = image.getContent();
+		String type = image.getType().toLowerCase(Locale.ENGLISH);
+		
+		// An image id and type aren't enough for an ETag because an image can be replaced
+		// by another one with the same type. We also use a size and (when it's available)
+		// a modification time of the file.
+		StringBuilder etag = new StringBuilder(etagPrefix)
+			.append('-')
+			.append(type)
+			.append('-')
+			.append(content.contentLength());
+		
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType("image/" + type))
+			.contentLength(content.contentLength())
+			.cacheControl(IMAGE_CACHE_CONTROL);
+		
+		if (content.isFile()) {
+			long lastModified = content.lastModified();
+			etag.append('-').append(lastModified);
+			builder.lastModified(lastModified);
+		}
+		
+		return builder
+			.eTag(etag.toString())
+			.body(content);
 	}
 	
 }
-
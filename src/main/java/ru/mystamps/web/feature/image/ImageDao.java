@@ -20,9 +20,12 @@ package ru.mystamps.web.feature.image;
 import java.util.List;
 
 public interface ImageDao {
-	Integer add(String type, String filename);
-	void replace(Integer id, String type, String filename);
+	Integer add(String type, String filename, String contentHash);
+	void replace(Integer id, String type, String filename, String contentHash);
+	void setContentHash(Integer id, String contentHash);
 	void addToSeries(Integer seriesId, Integer imageId);
 	ImageInfoDto findById(Integer imageId);
+	Integer findFirstIdByContentHash(String contentHash, String type);
+	List<ImageInfoDto> findWithoutContentHash(Integer afterId, int limit);
 	List<Integer> findBySeriesId(Integer seriesId, boolean hidden);
 }
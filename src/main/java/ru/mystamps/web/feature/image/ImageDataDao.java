@@ -21,4 +21,7 @@ public interface ImageDataDao {
 	ImageDto findByImageId(Integer imageId, boolean preview);
 	Integer add(AddImageDataDbDto imageData);
 	void replace(ReplaceImageDataDbDto imageData);
+	ImageDto findRenditionByImageId(Integer imageId, Integer width);
+	void addRendition(Integer imageId, Integer width, byte[] content);
+	int replaceRendition(Integer imageId, Integer width, byte[] content);
 }
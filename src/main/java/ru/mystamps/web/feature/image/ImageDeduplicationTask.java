@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Deduplicates images that were uploaded before we started to calculate their hashes.
+ *
+ * For every image without a hash, it calculates a hash and makes the image to share
+ * a content with the first image that has the same hash. It's a one-off task: once all
+ * the images have got their hashes, it does nothing.
+ */
+@RequiredArgsConstructor
+public class ImageDeduplicationTask implements ApplicationListener<ApplicationReadyEvent> {
+	
+	private static final int BATCH_SIZE = 100;
+	
+	private final Logger log;
+	private final ImageDao imageDao;
+	private final ImagePersistenceStrategy imagePersistenceStrategy;
+	
+	@Async("imageDeduplicationExecutor")
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		run();
+	}
+	
+	public void run() {
+		int processed = 0;
+		int deduplicated = 0;
+		Integer lastId = 0;
+		
+		List<ImageInfoDto> images;
+		do {
+			images = imageDao.findWithoutContentHash(lastId, BATCH_SIZE);
+			for (ImageInfoDto image : images) {
+				lastId = image.getId();
+				
+				String contentHash = calculateContentHash(image);
+				if (contentHash == null) {
+					continue;
+				}
+				
+				Integer originalId =
+					imageDao.findFirstIdByContentHash(contentHash, image.getType());
+				if (originalId != null) {
+					ImageInfoDto original = new ImageInfoDto(originalId, image.getType());
+					if (imagePersistenceStrategy.link(original, image)) {
+						deduplicated++;
+					}
+				}
+				
+				imageDao.setContentHash(image.getId(), contentHash);
+				processed++;
+			}
+		} while (images.size() == BATCH_SIZE);
+		
+		if (processed > 0) {
+			log.info(
+				"Images deduplication: {} image(s) have been processed, {} duplicate(s) found",
+				processed,
+				deduplicated
+			);
+		}
+	}
+	
+	private String calculateContentHash(ImageInfoDto image) {
+		ImageDto content = imagePersistenceStrategy.get(image);
+		if (content == null) {
+			return null;
+		}
+		
+		try (InputStream stream = content.getContent().getInputStream()) {
+			return ImageContentHash.calculate(stream);
+			
+		} catch (IOException ex) {
+			log.warn("Image #{}: couldn't calculate hash: {}", image.getId(), ex.getMessage());
+			return null;
+		}
+	}
+	
+}
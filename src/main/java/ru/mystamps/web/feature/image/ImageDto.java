@@ -19,10 +19,39 @@ package ru.mystamps.web.feature.image;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @Getter
 @RequiredArgsConstructor
 public class ImageDto {
 	private final String type;
-	private final byte[] data;
+	private final Resource content;
+	
+	public ImageDto(String type, byte[] data) {
+		this(type, new ByteArrayResource(data));
+	}
+	
+	/**
+	 * Reads the whole content of an image into memory.
+	 *
+	 * Use {@link #getContent()} when an image only needs to be sent to a client.
+	 */
+	public byte[] getData() {
+		if (content instanceof ByteArrayResource) {
+			return ((ByteArrayResource)content).getByteArray();
+		}
+		
+		try (InputStream stream = content.getInputStream()) {
+			return StreamUtils.copyToByteArray(stream);
+		
+		} catch (IOException ex) {
+			throw new ImagePersistenceException(ex);
+		}
+	}
+	
 }
@@ -21,10 +21,13 @@ import org.springframework.web.multipart.MultipartFile;
 
 public interface ImagePersistenceStrategy {
 	void save(MultipartFile file, ImageInfoDto image);
+	boolean link(ImageInfoDto original, ImageInfoDto image);
 	void savePreview(byte[] data, ImageInfoDto image);
 	void replace(byte[] data, ImageInfoDto oldImage, ImageInfoDto newImage);
 	void replacePreview(byte[] data, ImageInfoDto image);
+	void saveRendition(byte[] data, ImageInfoDto image, int width);
 	ImageDto get(ImageInfoDto image);
 	ImageDto getPreview(ImageInfoDto image);
+	ImageDto getRendition(ImageInfoDto image, int width);
 	void removeIfPossible(ImageInfoDto image);
 }
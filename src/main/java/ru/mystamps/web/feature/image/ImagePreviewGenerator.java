@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Generates image previews by a bounded pool of workers.
+ *
+ * Only one preview of an image is being generated at the same time: concurrent callers
+ * wait for the same result. When the queue is full or a preview isn't ready in time,
+ * {@code null} is returned, so a caller can fall back to an original image.
+ */
+public class ImagePreviewGenerator {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	private final Logger log;
+	private final ThreadPoolExecutor executor;
+	private final long waitTimeoutInMillis;
+	private final ConcurrentMap<Key, CompletableFuture<ImageDto>> inProgress =
+		new ConcurrentHashMap<>();
+	
+	private final AtomicLong generatedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong totalTimeInMillis = new AtomicLong();
+	private final AtomicLong maxTimeInMillis = new AtomicLong();
+	
+	public ImagePreviewGenerator(
+		Logger log,
+		int threads,
+		int queueSize,
+		long waitTimeoutInMillis) {
+		
+		this.log = log;
+		this.waitTimeoutInMillis = waitTimeoutInMillis;
+		this.executor = new ThreadPoolExecutor(
+			threads,
+			threads,
+			0L,
+			TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueSize),
+			new CustomizableThreadFactory("image-preview-")
+		);
+	}
+	
+	/**
+	 * Generates a preview (or joins to a generation that is in progress) and waits for it.
+	 *
+	 * @return generated preview or {@code null} when it couldn't be generated in time
+	 */
+	public ImageDto generate(Integer imageId, Supplier<ImageDto> generator) {
+		return generate(imageId, null, generator);
+	}
+	
+	/**
+	 * Generates a preview of the specified width (or a default preview, when width is
+	 * {@code null}) and waits for it.
+	 */
+	public ImageDto generate(Integer imageId, Integer width, Supplier<ImageDto> generator) {
+		CompletableFuture<ImageDto> future = submit(new Key(imageId, width), generator);
+		if (future == null) {
+			return null;
+		}
+		
+		try {
+			return future.get(waitTimeoutInMillis, TimeUnit.MILLISECONDS);
+			
+		} catch (TimeoutException ex) {
+			log.warn(
+				"Image #{}: preview hasn't been generated in {} msecs",
+				imageId,
+				waitTimeoutInMillis
+			);
+			return null;
+			
+		} catch (ExecutionException ex) {
+			// it has been already logged by a worker
+			return null;
+			
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+	
+	/**
+	 * Schedules a preview generation without waiting for its result.
+	 *
+	 * @return {@code false} when a generation has been rejected because the queue is full
+	 */
+	public boolean generateInBackground(Integer imageId, Supplier<ImageDto> generator) {
+		return submit(new Key(imageId, null), generator) != null;
+	}
+	
+	public int getQueueLength() {
+		return executor.getQueue().size();
+	}
+	
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+	
+	public long getGeneratedCount() {
+		return generatedCount.get();
+	}
+	
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+	
+	public long getAverageTimeInMillis() {
+		long count = generatedCount.get();
+		return count == 0 ? 0 : totalTimeInMillis.get() / count;
+	}
+	
+	public long getMaxTimeInMillis() {
+		return maxTimeInMillis.get();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		log.info(
+			"Image previews: {} generated (avg {} msecs, max {} msecs), {} failed, {} rejected, "
+			+ "{} in queue, {} in progress",
+			getGeneratedCount(),
+			getAverageTimeInMillis(),
+			getMaxTimeInMillis(),
+			getFailedCount(),
+			getRejectedCount(),
+			getQueueLength(),
+			getActiveCount()
+		);
+	}
+	
+	// Invoked by Spring when the context is closing
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	private CompletableFuture<ImageDto> submit(Key key, Supplier<ImageDto> generator) {
+		Integer imageId = key.getImageId();
+		CompletableFuture<ImageDto> future = new CompletableFuture<>();
+		CompletableFuture<ImageDto> existing = inProgress.putIfAbsent(key, future);
+		if (existing != null) {
+			log.debug("Image #{}: preview is being generated, waiting for it", imageId);
+			return existing;
+		}
+		
+		try {
+			executor.execute(() -> run(key, generator, future));
+			return future;
+			
+		} catch (RejectedExecutionException ex) {
+			rejectedCount.incrementAndGet();
+			inProgress.remove(key, future);
+			future.complete(null);
+			log.warn(
+				"Image #{}: preview generation has been rejected: {} tasks in queue",
+				imageId,
+				getQueueLength()
+			);
+			return null;
+		}
+	}
+	
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	private void run(
+		Key key,
+		Supplier<ImageDto> generator,
+		CompletableFuture<ImageDto> future) {
+		
+		long startedAt = System.currentTimeMillis();
+		try {
+			ImageDto preview = generator.get();
+			
+			long elapsed = System.currentTimeMillis() - startedAt;
+			generatedCount.incrementAndGet();
+			totalTimeInMillis.addAndGet(elapsed);
+			maxTimeInMillis.accumulateAndGet(elapsed, Math::max);
+			
+			future.complete(preview);
+			
+		} catch (RuntimeException ex) {
+			failedCount.incrementAndGet();
+			log.warn("Image #{}: couldn't generate preview", key.getImageId(), ex);
+			future.completeExceptionally(ex);
+			
+		} finally {
+			inProgress.remove(key, future);
+		}
+	}
+	
+	@Getter
+	@ToString
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static class Key {
+		private final Integer imageId;
+		private final Integer width;
+	}
+	
+}
@@ -19,4 +19,5 @@ package ru.mystamps.web.feature.image;
 
 public interface ImagePreviewStrategy {
 	byte[] createPreview(byte[] image);
+	byte[] createPreview(byte[] image, int width);
 }
@@ -26,6 +26,7 @@ public interface ImageService {
 	void replace(Integer imageId, MultipartFile file);
 	ImageDto get(Integer imageId);
 	ImageDto getOrCreatePreview(Integer imageId);
+	ImageDto getOrCreatePreview(Integer imageId, Integer width);
 	void addToSeries(Integer seriesId, Integer imageId);
 	List<Integer> findBySeriesId(Integer seriesId, boolean hidden);
 	void removeIfPossible(ImageInfoDto imageInfo);
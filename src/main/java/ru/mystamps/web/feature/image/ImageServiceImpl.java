@@ -23,11 +23,14 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import ru.mystamps.web.feature.image.ImageDb.Images;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
 
@@ -43,6 +46,8 @@ public class ImageServiceImpl implements ImageService {
 	private final ImagePersistenceStrategy imagePersistenceStrategy;
 	private final ImagePreviewStrategy imagePreviewStrategy;
 	private final ImageDao imageDao;
+	private final ImagePreviewGenerator previewGenerator;
+	private final PreviewRenditions renditions;
 	
 	@Override
 	@Transactional
@@ -67,7 +72,10 @@ public class ImageServiceImpl implements ImageService {
 		String filename = StringUtils.trimToNull(file.getOriginalFilename());
 		filename = abbreviateIfLengthGreaterThan(filename, Images.FILENAME_LENGTH);
 		
-		Integer imageId = imageDao.add(imageType, filename);
+		String contentHash = calculateContentHash(file);
+		Integer originalId = imageDao.findFirstIdByContentHash(contentHash, imageType);
+		
+		Integer imageId = imageDao.add(imageType, filename, contentHash);
 		if (imageId == null) {
 			throw new ImagePersistenceException("Can't save image");
 		}
@@ -75,7 +83,16 @@ public class ImageServiceImpl implements ImageService {
 		ImageInfoDto imageInfo = new ImageInfoDto(imageId, imageType);
 		log.info("Image #{}: meta data has been saved ({})", imageId, imageInfo);
 		
-		imagePersistenceStrategy.save(file, imageInfo);
+		// the same image has been uploaded before, let's share its content (and a preview)
+		boolean linked = originalId != null
+			&& imagePersistenceStrategy.link(new ImageInfoDto(originalId, imageType), imageInfo);
+		if (linked) {
+			log.info("Image #{}: content is the same as of image #{}", imageId, originalId);
+		} else {
+			imagePersistenceStrategy.save(file, imageInfo);
+		}
+		
+		createPreviewInBackground(imageId);
 		
 		return imageInfo;
 	}
@@ -111,7 +128,9 @@ public class ImageServiceImpl implements ImageService {
 		
 		ImageInfoDto oldImageInfo = imageDao.findById(imageId);
 		
-		imageDao.replace(imageId, imageType, filename);
+		byte[] image = getBytes(file);
+		
+		imageDao.replace(imageId, imageType, filename, ImageContentHash.calculate(image));
 		log.info(
 			"Image #{}: meta data has been replaced by '{}', type={}",
 			imageId,
@@ -119,7 +138,6 @@ public class ImageServiceImpl implements ImageService {
 			imageType
 		);
 		
-		byte[] image = getBytes(file);
 		ImageInfoDto newImageInfo = new ImageInfoDto(imageId, imageType);
 		imagePersistenceStrategy.replace(image, oldImageInfo, newImageInfo);
 		
@@ -131,6 +149,15 @@ public class ImageServiceImpl implements ImageService {
 		byte[] preview = imagePreviewStrategy.createPreview(image);
 		ImageInfoDto previewInfo = ImageInfoDto.newPreview(imageId);
 		imagePersistenceStrategy.replacePreview(preview, previewInfo);
+		
+		// renditions are created on demand, so we replace only those that exist
+		for (Integer width : renditions.getWidths()) {
+			if (imagePersistenceStrategy.getRendition(previewInfo, width) == null) {
+				continue;
+			}
+			byte[] rendition = imagePreviewStrategy.createPreview(image, width);
+			imagePersistenceStrategy.saveRendition(rendition, previewInfo, width);
+		}
 	}
 	
 	@Override
@@ -147,27 +174,44 @@ public class ImageServiceImpl implements ImageService {
 		return imagePersistenceStrategy.get(image);
 	}
 	
+	// Isn't @Transactional because a preview is generated by another thread and we don't want
+	// to hold a database connection while we're waiting for it.
 	@Override
-	@Transactional
 	public ImageDto getOrCreatePreview(Integer imageId) {
 		Validate.isTrue(imageId != null, "Image id must be non null");
 		Validate.isTrue(imageId > 0, "Image id must be greater than zero");
 		
 		ImageInfoDto previewInfo = ImageInfoDto.newPreview(imageId);
-
-		// NB: the race between getPreview() and createReview() is possible.
-		// If this happens, the last request will overwrite the first.
 		ImageDto image = imagePersistenceStrategy.getPreview(previewInfo);
 		if (image != null) {
 			return image;
 		}
 		
-		image = get(imageId);
-		if (image == null) {
-			return null;
+		return previewGenerator.generate(imageId, () -> loadImageAndCreatePreview(imageId));
+	}
+	
+	@Override
+	public ImageDto getOrCreatePreview(Integer imageId, Integer width) {
+		Validate.isTrue(imageId != null, "Image id must be non null");
+		Validate.isTrue(imageId > 0, "Image id must be greater than zero");
+		Validate.isTrue(width == null || width > 0, "Width must be greater than zero");
+		
+		Integer renditionWidth = renditions.resolve(width);
+		if (renditionWidth == null) {
+			return getOrCreatePreview(imageId);
 		}
-
-		return createPreview(previewInfo, image.getData());
+		
+		ImageInfoDto previewInfo = ImageInfoDto.newPreview(imageId);
+		ImageDto image = imagePersistenceStrategy.getRendition(previewInfo, renditionWidth);
+		if (image != null) {
+			return image;
+		}
+		
+		return previewGenerator.generate(
+			imageId,
+			renditionWidth,
+			() -> loadImageAndCreateRendition(imageId, renditionWidth)
+		);
 	}
 	
 	@Override
@@ -197,6 +241,75 @@ public class ImageServiceImpl implements ImageService {
 		imagePersistenceStrategy.removeIfPossible(imageInfo);
 	}
 	
+	private void createPreviewInBackground(Integer imageId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			previewGenerator.generateInBackground(
+				imageId,
+				() -> loadImageAndCreatePreview(imageId)
+			);
+			return;
+		}
+		
+		// an image isn't visible to other threads until the transaction is committed
+		TransactionSynchronizationManager.registerSynchronization(
+			new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					previewGenerator.generateInBackground(
+						imageId,
+						() -> loadImageAndCreatePreview(imageId)
+					);
+				}
+			}
+		);
+	}
+	
+	// Invoked by a worker of the preview generator
+	private ImageDto loadImageAndCreatePreview(Integer imageId) {
+		ImageInfoDto previewInfo = ImageInfoDto.newPreview(imageId);
+		
+		// a preview might have been created while this task was waiting in the queue
+		ImageDto preview = imagePersistenceStrategy.getPreview(previewInfo);
+		if (preview != null) {
+			return preview;
+		}
+		
+		ImageDto image = get(imageId);
+		if (image == null) {
+			return null;
+		}
+		
+		return createPreview(previewInfo, image.getData());
+	}
+	
+	// Invoked by a worker of the preview generator
+	private ImageDto loadImageAndCreateRendition(Integer imageId, int width) {
+		ImageInfoDto previewInfo = ImageInfoDto.newPreview(imageId);
+		
+		// a rendition might have been created while this task was waiting in the queue
+		ImageDto rendition = imagePersistenceStrategy.getRendition(previewInfo, width);
+		if (rendition != null) {
+			return rendition;
+		}
+		
+		ImageDto image = get(imageId);
+		if (image == null) {
+			return null;
+		}
+		
+		try {
+			byte[] data = imagePreviewStrategy.createPreview(image.getData(), width);
+			
+			imagePersistenceStrategy.saveRendition(data, previewInfo, width);
+			
+			return new ImageDto(previewInfo.getType(), data);
+			
+		} catch (CreateImagePreviewException | ImagePersistenceException ex) {
+			log.warn("Image #{}: couldn't create/save preview of width {}", imageId, width, ex);
+			return null;
+		}
+	}
+	
 	private ImageDto createPreview(ImageInfoDto previewInfo, byte[] image) {
 		try {
 			byte[] preview = imagePreviewStrategy.createPreview(image);
@@ -232,6 +345,14 @@ public class ImageServiceImpl implements ImageService {
 		return StringUtils.abbreviate(text, maxLength);
 	}
 	
+	private static String calculateContentHash(MultipartFile file) {
+		try (InputStream stream = file.getInputStream()) {
+			return ImageContentHash.calculate(stream);
+		} catch (IOException ex) {
+			throw new ImagePersistenceException(ex);
+		}
+	}
+	
 	private static byte[] getBytes(MultipartFile file) {
 		try {
 			return file.getBytes();
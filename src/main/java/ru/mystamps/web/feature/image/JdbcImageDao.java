@@ -43,20 +43,30 @@ public class JdbcImageDao implements ImageDao {
 	@Value("${image.replace}")
 	private String replaceImageSql;
 	
+	@Value("${image.set_content_hash}")
+	private String setContentHashSql;
+	
 	@Value("${series_image.add}")
 	private String addImageToSeriesSql;
 	
 	@Value("${image.find_by_id}")
 	private String findByIdSql;
 	
+	@Value("${image.find_first_id_by_content_hash}")
+	private String findFirstIdByContentHashSql;
+	
+	@Value("${image.find_without_content_hash}")
+	private String findWithoutContentHashSql;
+	
 	@Value("${series_image.find_by_series_id}")
 	private String findBySeriesIdSql;
 	
 	@Override
-	public Integer add(String type, String filename) {
+	public Integer add(String type, String filename, String contentHash) {
 		Map<String, Object> params = new HashMap<>();
 		params.put("type", type);
 		params.put("filename", filename);
+		params.put("content_hash", contentHash);
 		KeyHolder holder = new GeneratedKeyHolder();
 		
 		int affected = jdbcTemplate.update(
@@ -76,11 +86,12 @@ public class JdbcImageDao implements ImageDao {
 	}
 	
 	@Override
-	public void replace(Integer id, String type, String filename) {
+	public void replace(Integer id, String type, String filename, String contentHash) {
 		Map<String, Object> params = new HashMap<>();
 		params.put("id", id);
 		params.put("type", type);
 		params.put("filename", filename);
+		params.put("content_hash", contentHash);
 		
 		int affected = jdbcTemplate.update(replaceImageSql, params);
 		
@@ -92,6 +103,22 @@ public class JdbcImageDao implements ImageDao {
 		);
 	}
 	
+	@Override
+	public void setContentHash(Integer id, String contentHash) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", id);
+		params.put("content_hash", contentHash);
+		
+		int affected = jdbcTemplate.update(setContentHashSql, params);
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after updating hash of image #%d: %d",
+			id,
+			affected
+		);
+	}
+	
 	@Override
 	public void addToSeries(Integer seriesId, Integer imageId) {
 		Map<String, Object> params = new HashMap<>();
@@ -114,6 +141,24 @@ public class JdbcImageDao implements ImageDao {
 		}
 	}
 	
+	@Override
+	public Integer findFirstIdByContentHash(String contentHash, String type) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("content_hash", contentHash);
+		params.put("type", type);
+		
+		return jdbcTemplate.queryForObject(findFirstIdByContentHashSql, params, Integer.class);
+	}
+	
+	@Override
+	public List<ImageInfoDto> findWithoutContentHash(Integer afterId, int limit) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("after_id", afterId);
+		params.put("limit", limit);
+		
+		return jdbcTemplate.query(findWithoutContentHashSql, params, RowMappers::forImageInfoDto);
+	}
+	
 	@Override
 	public List<Integer> findBySeriesId(Integer seriesId, boolean hidden) {
 		Map<String, Object> params = new HashMap<>();
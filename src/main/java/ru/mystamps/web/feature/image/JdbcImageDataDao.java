@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.support.SqlLobValue;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import ru.mystamps.web.common.JdbcUtils;
@@ -44,6 +45,15 @@ public class JdbcImageDataDao implements ImageDataDao {
 	@Value("${image_data.replace}")
 	private String replaceImageDataSql;
 	
+	@Value("${image_rendition.find_by_image_id}")
+	private String findRenditionByImageIdSql;
+	
+	@Value("${image_rendition.add}")
+	private String addRenditionSql;
+	
+	@Value("${image_rendition.replace}")
+	private String replaceRenditionSql;
+	
 	@Override
 	public ImageDto findByImageId(Integer imageId, boolean preview) {
 		Map<String, Object> params = new HashMap<>();
@@ -65,7 +75,9 @@ public class JdbcImageDataDao implements ImageDataDao {
 	public Integer add(AddImageDataDbDto imageData) {
 		Map<String, Object> params = new HashMap<>();
 		params.put("image_id", imageData.getImageId());
-		params.put("content", imageData.getContent());
+		// a content is passed as a stream, so it isn't loaded into memory
+		int length = Math.toIntExact(imageData.getContentLength());
+		params.put("content", new SqlLobValue(imageData.getContent(), length));
 		params.put("preview", imageData.isPreview());
 		
 		KeyHolder holder = new GeneratedKeyHolder();
@@ -103,4 +115,48 @@ public class JdbcImageDataDao implements ImageDataDao {
 		);
 	}
 	
+	@Override
+	public ImageDto findRenditionByImageId(Integer imageId, Integer width) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("image_id", imageId);
+		params.put("width", width);
+		
+		try {
+			return jdbcTemplate.queryForObject(
+				findRenditionByImageIdSql,
+				params,
+				RowMappers::forImageDto
+			);
+		} catch (EmptyResultDataAccessException ignored) {
+			return null;
+		}
+	}
+	
+	@Override
+	public void addRendition(Integer imageId, Integer width, byte[] content) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("image_id", imageId);
+		params.put("width", width);
+		params.put("content", content);
+		
+		int affected = jdbcTemplate.update(addRenditionSql, params);
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after creation of rendition of image #%d: %d",
+			imageId,
+			affected
+		);
+	}
+	
+	@Override
+	public int replaceRendition(Integer imageId, Integer width, byte[] content) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("image_id", imageId);
+		params.put("width", width);
+		params.put("content", content);
+		
+		return jdbcTemplate.update(replaceRenditionSql, params);
+	}
+	
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Widths of image previews.
+ *
+ * Besides a default preview, an image can have renditions of the configured widths.
+ * A requested width is rounded up to the nearest available one, so arbitrary widths
+ * don't produce new files.
+ */
+public class PreviewRenditions {
+	
+	private final int defaultWidth;
+	private final NavigableSet<Integer> allWidths;
+	private final List<Integer> renditionWidths;
+	
+	public PreviewRenditions(int defaultWidth, Collection<Integer> renditionWidths) {
+		Validate.isTrue(renditionWidths != null, "Rendition widths must be non null");
+		Validate.isTrue(
+			renditionWidths.stream().allMatch(width -> width != null && width > 0),
+			"Rendition widths must be greater than zero: %s",
+			renditionWidths
+		);
+		
+		this.defaultWidth = defaultWidth;
+		this.allWidths = new TreeSet<>(renditionWidths);
+		this.allWidths.add(defaultWidth);
+		this.renditionWidths = Collections.unmodifiableList(
+			allWidths.stream()
+				.filter(width -> width != defaultWidth)
+				.collect(Collectors.toList())
+		);
+	}
+	
+	/**
+	 * Returns widths of the renditions (a default preview isn't included).
+	 */
+	public List<Integer> getWidths() {
+		return renditionWidths;
+	}
+	
+	/**
+	 * Finds the smallest preview that isn't narrower than a requested width.
+	 *
+	 * @return width of a rendition or {@code null} when a default preview should be used
+	 */
+	public Integer resolve(Integer requestedWidth) {
+		if (requestedWidth == null) {
+			return null;
+		}
+		
+		Integer width = allWidths.ceiling(requestedWidth);
+		if (width == null) {
+			// nothing is wide enough, let's use the widest one
+			width = allWidths.last();
+		}
+		
+		return width == defaultWidth ? null : width;
+	}
+	
+}
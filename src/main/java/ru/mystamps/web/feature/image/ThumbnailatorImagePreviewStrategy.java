@@ -25,8 +25,8 @@ import java.io.IOException;
 
 public class ThumbnailatorImagePreviewStrategy implements ImagePreviewStrategy {
 	
-	private static final int WIDTH  = 250;
-	private static final int HEIGHT = 250;
+	// a width (and a height) of a default preview
+	public static final int DEFAULT_WIDTH = 250;
 	
 	// The value could be between 0.0 and 1.0 where 0.0 indicates the minimum quality
 	// and 1.0 indicates the maximum quality.
@@ -34,11 +34,16 @@ public class ThumbnailatorImagePreviewStrategy implements ImagePreviewStrategy {
 	
 	@Override
 	public byte[] createPreview(byte[] image) {
+		return createPreview(image, DEFAULT_WIDTH);
+	}
+	
+	@Override
+	public byte[] createPreview(byte[] image, int width) {
 		try {
 			ByteArrayOutputStream resultStream = new ByteArrayOutputStream();
 			
 			Thumbnails.of(new ByteArrayInputStream(image))
-				.size(WIDTH, HEIGHT)
+				.size(width, width)
 				.outputFormat("JPEG")
 				.outputQuality(QUALITY)
 				.toOutputStream(resultStream);
@@ -22,6 +22,8 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 
+import java.util.function.Supplier;
+
 @RequiredArgsConstructor
 public class TimedImagePreviewStrategy implements ImagePreviewStrategy {
 	
@@ -30,6 +32,15 @@ public class TimedImagePreviewStrategy implements ImagePreviewStrategy {
 	
 	@Override
 	public byte[] createPreview(byte[] image) {
+		return measure(image, () -> strategy.createPreview(image));
+	}
+	
+	@Override
+	public byte[] createPreview(byte[] image, int width) {
+		return measure(image, () -> strategy.createPreview(image, width));
+	}
+	
+	private byte[] measure(byte[] image, Supplier<byte[]> generator) {
 		// Why we don't use Spring's StopWatch?
 		// 1) because its javadoc says that it's not intended for production
 		// 2) because we don't want to have strong dependencies on the Spring Framework
@@ -40,7 +51,7 @@ public class TimedImagePreviewStrategy implements ImagePreviewStrategy {
 		// make method body too complicated by adding many try/catches and I believe that such
 		// exception will never happen because it would mean that we're using API in a wrong way.
 		timer.start();
-		byte[] result = strategy.createPreview(image);
+		byte[] result = generator.get();
 		timer.stop();
 		
 		log.debug(
@@ -40,6 +40,7 @@ public class AdminDailyReport {
 	private long failedAuthCounter;
 	private long missingCsrfCounter;
 	private long invalidCsrfCounter;
+	private long droppedEventsCounter;
 	
 	public long countEvents() {
 		long eventsCounter = 0L;
@@ -47,6 +48,7 @@ public class AdminDailyReport {
 		eventsCounter = Math.addExact(eventsCounter, failedAuthCounter);
 		eventsCounter = Math.addExact(eventsCounter, missingCsrfCounter);
 		eventsCounter = Math.addExact(eventsCounter, invalidCsrfCounter);
+		eventsCounter = Math.addExact(eventsCounter, droppedEventsCounter);
 		return eventsCounter;
 	}
 	
@@ -71,6 +71,7 @@ public class ReportServiceImpl implements ReportService {
 		put(ctx, "failed_auth_cnt", report.getFailedAuthCounter());
 		put(ctx, "missing_csrf_cnt", report.getMissingCsrfCounter());
 		put(ctx, "invalid_csrf_cnt", report.getInvalidCsrfCounter());
+		put(ctx, "dropped_events_cnt", report.getDroppedEventsCounter());
 		put(ctx, "bad_request_cnt", -1L);  // FIXME: #122
 
 		return new StringSubstitutor(ctx).replace(template);
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from catalog numbers to series ids across all the catalogs.
+ *
+ * The index is loaded from the database on the first lookup and then is kept up to date
+ * by {@link #add(StampsCatalog, Integer, Collection)}. A query may contain a number ("10"),
+ * a list of numbers or ranges ("1, 5-7") or a prefix ("10*"). Like a search in the database,
+ * a lookup is case-insensitive.
+ */
+public class CatalogNumberIndex {
+	
+	// protects us from queries like "1-1000000000"
+	private static final int MAX_RANGE_LENGTH = 1000;
+	
+	private static final String PREFIX_SIGN = "*";
+	
+	private final Logger log;
+	private final Map<StampsCatalog, StampsCatalogDao> stampsCatalogDaos;
+	
+	// number -> catalog -> series ids
+	private final NavigableMap<String, Map<StampsCatalog, Set<Integer>>> index = new TreeMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Object loadMonitor = new Object();
+	private volatile boolean loaded;
+	
+	public CatalogNumberIndex(Logger log, Map<StampsCatalog, StampsCatalogDao> stampsCatalogDaos) {
+		this.log = log;
+		this.stampsCatalogDaos = stampsCatalogDaos;
+	}
+	
+	/**
+	 * Finds series that have the specified numbers.
+	 *
+	 * @param catalog a catalog to search in or {@code null} to search in all the catalogs
+	 * @return ids of the found series in an ascending order
+	 */
+	public Set<Integer> find(StampsCatalog catalog, String query) {
+		ensureLoaded();
+		
+		Set<Integer> seriesIds = new TreeSet<>();
+		lock.readLock().lock();
+		try {
+			for (String term : StringUtils.split(StringUtils.defaultString(query), ',')) {
+				String number = normalize(term);
+				if (number.endsWith(PREFIX_SIGN)) {
+					String prefix = StringUtils.removeEnd(number, PREFIX_SIGN).trim();
+					if (prefix.isEmpty()) {
+						// we don't want to return all the series
+						continue;
+					}
+					String upperBound = prefix + Character.MAX_VALUE;
+					for (Map<StampsCatalog, Set<Integer>> entry
+						: index.subMap(prefix, true, upperBound, false).values()) {
+						collect(entry, catalog, seriesIds);
+					}
+					continue;
+				}
+				
+				for (String value : expandRange(number)) {
+					collect(index.get(value), catalog, seriesIds);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		
+		return seriesIds;
+	}
+	
+	/**
+	 * Adds numbers of a series to the index.
+	 *
+	 * When it's called within a transaction, the numbers are added after commit.
+	 */
+	public void add(StampsCatalog catalog, Integer seriesId, Collection<String> numbers) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			doAdd(catalog, seriesId, numbers);
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(
+			new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					doAdd(catalog, seriesId, numbers);
+				}
+			}
+		);
+	}
+	
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return index.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	private void doAdd(StampsCatalog catalog, Integer seriesId, Collection<String> numbers) {
+		lock.writeLock().lock();
+		try {
+			for (String number : numbers) {
+				put(catalog, number, seriesId);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Numbers that have been added during a loading are already in the index.
+	// As the index contains only sets, we can safely merge the loaded data with them.
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		
+		synchronized (loadMonitor) {
+			if (loaded) {
+				return;
+			}
+			
+			long startedAt = System.currentTimeMillis();
+			
+			Map<StampsCatalog, Map<String, List<Integer>>> data =
+				new EnumMap<>(StampsCatalog.class);
+			stampsCatalogDaos.forEach(
+				(catalog, dao) -> data.put(catalog, dao.findAllSeriesIdsByNumber())
+			);
+			
+			lock.writeLock().lock();
+			try {
+				data.forEach((catalog, numbers) ->
+					numbers.forEach((number, seriesIds) ->
+						seriesIds.forEach(seriesId -> put(catalog, number, seriesId))
+					)
+				);
+				loaded = true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			
+			log.info(
+				"Catalog numbers index: {} numbers have been loaded in {} msecs",
+				size(),
+				System.currentTimeMillis() - startedAt
+			);
+		}
+	}
+	
+	// must be invoked under the write lock
+	private void put(StampsCatalog catalog, String number, Integer seriesId) {
+		index.computeIfAbsent(normalize(number), key -> new EnumMap<>(StampsCatalog.class))
+			.computeIfAbsent(catalog, key -> new HashSet<>())
+			.add(seriesId);
+	}
+	
+	private static void collect(
+		Map<StampsCatalog, Set<Integer>> entry,
+		StampsCatalog catalog,
+		Set<Integer> result) {
+		
+		if (entry == null) {
+			return;
+		}
+		
+		if (catalog == null) {
+			entry.values().forEach(result::addAll);
+			return;
+		}
+		
+		Set<Integer> seriesIds = entry.get(catalog);
+		if (seriesIds != null) {
+			result.addAll(seriesIds);
+		}
+	}
+	
+	// numbers are stored and looked up in a lower case because they may contain letters ("11A")
+	private static String normalize(String number) {
+		return number.trim().toLowerCase(Locale.ENGLISH);
+	}
+	
+	// "5-7" => [ "5", "6", "7" ], everything else is returned as-is
+	private static List<String> expandRange(String number) {
+		List<String> result = new ArrayList<>();
+		
+		String[] range = StringUtils.split(number, '-');
+		if (range.length == 2
+			&& NumberUtils.isDigits(range[0].trim())
+			&& NumberUtils.isDigits(range[1].trim())) {
+			
+			// -1 means that a number is too big
+			long begin = NumberUtils.toLong(range[0].trim(), -1L);
+			long end = NumberUtils.toLong(range[1].trim(), -1L);
+			if (begin >= 0 && begin < end && end - begin < MAX_RANGE_LENGTH) {
+				for (long i = begin; i <= end; i++) {
+					result.add(String.valueOf(i));
+				}
+				return result;
+			}
+		}
+		
+		result.add(number);
+		return result;
+	}
+	
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import lombok.EqualsAndHashCode;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of catalog numbers.
+ *
+ * Numeric catalog numbers are kept as sorted ranges of primitive integers, so "1-200"
+ * takes two ints instead of 200 strings. Other numbers (like "2317a" or "012") are kept
+ * as-is in the order of their appearance.
+ */
+@EqualsAndHashCode
+public final class CatalogNumberRanges {
+	
+	private static final CatalogNumberRanges EMPTY =
+		new CatalogNumberRanges(new int[0], Collections.emptyList());
+	
+	// a longer number might not fit into int
+	private static final int MAX_DIGITS = 9;
+	
+	// two elements (a beginning and an end, inclusively) per range
+	private final int[] ranges;
+	private final List<String> others;
+	
+	private CatalogNumberRanges(int[] ranges, List<String> others) {
+		this.ranges = ranges;
+		this.others = others;
+	}
+	
+	/**
+	 * Parses comma-delimited string of catalog numbers and ranges of numbers ("1-3").
+	 */
+	public static CatalogNumberRanges parse(String catalogNumbers) {
+		if (StringUtils.isEmpty(catalogNumbers)) {
+			return EMPTY;
+		}
+		
+		Builder builder = new Builder();
+		for (String number : StringUtils.split(catalogNumbers, ',')) {
+			Validate.isTrue(!number.trim().isEmpty(), "Catalog number must be non empty");
+			
+			int separator = number.indexOf('-');
+			if (separator < 0) {
+				builder.add(number);
+				continue;
+			}
+			
+			Validate.isTrue(
+				number.indexOf('-', separator + 1) < 0,
+				"Unexpected number of separators found: expected to have only one"
+			);
+			
+			int begin = parseInt(number, 0, separator);
+			int end = parseInt(number, separator + 1, number.length());
+			Validate.isTrue(begin >= 0 && end >= 0, "Unexpected a non-numeric range found");
+			Validate.isTrue(begin < end, "Range must be in an ascending order");
+			
+			builder.addRange(begin, end);
+		}
+		
+		return builder.build();
+	}
+	
+	public static CatalogNumberRanges of(Collection<String> catalogNumbers) {
+		Validate.isTrue(catalogNumbers != null, "Catalog numbers must be non null");
+		
+		Builder builder = new Builder();
+		for (String number : catalogNumbers) {
+			builder.add(number);
+		}
+		return builder.build();
+	}
+	
+	public CatalogNumberRanges merge(CatalogNumberRanges other) {
+		Builder builder = new Builder();
+		for (int i = 0; i < ranges.length; i += 2) {
+			builder.addRange(ranges[i], ranges[i + 1]);
+		}
+		for (int i = 0; i < other.ranges.length; i += 2) {
+			builder.addRange(other.ranges[i], other.ranges[i + 1]);
+		}
+		others.forEach(builder::add);
+		other.others.forEach(builder::add);
+		return builder.build();
+	}
+	
+	public boolean isEmpty() {
+		return ranges.length == 0 && others.isEmpty();
+	}
+	
+	public int size() {
+		int size = others.size();
+		for (int i = 0; i < ranges.length; i += 2) {
+			size += ranges[i + 1] - ranges[i] + 1;
+		}
+		return size;
+	}
+	
+	/**
+	 * Returns all the numbers: numeric ones in an ascending order followed by the others.
+	 */
+	public Set<String> toSet() {
+		Set<String> result = new LinkedHashSet<>();
+		for (int i = 0; i < ranges.length; i += 2) {
+			for (int number = ranges[i]; number <= ranges[i + 1]; number++) {
+				result.add(String.valueOf(number));
+			}
+		}
+		result.addAll(others);
+		return result;
+	}
+	
+	/**
+	 * Formats numbers as a comma-separated list where sequences are replaced by ranges:
+	 * "1, 2, 5-7, 2317a".
+	 */
+	public String toShortForm() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < ranges.length; i += 2) {
+			int begin = ranges[i];
+			int end = ranges[i + 1];
+			appendSeparator(sb, ", ").append(begin);
+			if (end == begin + 1) {
+				sb.append(", ").append(end);
+			} else if (end > begin) {
+				sb.append('-').append(end);
+			}
+		}
+		for (String number : others) {
+			appendSeparator(sb, ", ").append(number);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Formats numbers as a comma-separated list without ranges: "1,2,3".
+	 */
+	public String toLongForm() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < ranges.length; i += 2) {
+			for (int number = ranges[i]; number <= ranges[i + 1]; number++) {
+				appendSeparator(sb, ",").append(number);
+			}
+		}
+		for (String number : others) {
+			appendSeparator(sb, ",").append(number);
+		}
+		return sb.toString();
+	}
+	
+	@Override
+	public String toString() {
+		return toShortForm();
+	}
+	
+	private static StringBuilder appendSeparator(StringBuilder sb, String separator) {
+		if (sb.length() > 0) {
+			sb.append(separator);
+		}
+		return sb;
+	}
+	
+	/**
+	 * Parses a non-negative integer without creating a substring.
+	 *
+	 * @return parsed number or -1 when a value isn't a number or it's too long
+	 */
+	private static int parseInt(String value, int from, int to) {
+		if (from >= to || to - from > MAX_DIGITS) {
+			return -1;
+		}
+		
+		int result = 0;
+		for (int i = from; i < to; i++) {
+			char ch = value.charAt(i);
+			if (ch < '0' || ch > '9') {
+				return -1;
+			}
+			result = result * 10 + (ch - '0');
+		}
+		return result;
+	}
+	
+	// Number like "012" is parseable but it's a different number from "12"
+	private static boolean isCanonicalInt(String value) {
+		return !value.isEmpty() && (value.length() == 1 || value.charAt(0) != '0');
+	}
+	
+	private static final class Builder {
+		// a range is encoded as (begin << 32 | end), so sorting orders ranges by beginning
+		private long[] encoded = new long[8];
+		private int count;
+		private final Set<String> others = new LinkedHashSet<>();
+		
+		public void add(String number) {
+			int value = parseInt(number, 0, number.length());
+			if (value >= 0 && isCanonicalInt(number)) {
+				addRange(value, value);
+			} else {
+				others.add(number);
+			}
+		}
+		
+		public void addRange(int begin, int end) {
+			if (count == encoded.length) {
+				encoded = Arrays.copyOf(encoded, count * 2);
+			}
+			encoded[count++] = ((long)begin << 32) | end;
+		}
+		
+		public CatalogNumberRanges build() {
+			if (count == 0 && others.isEmpty()) {
+				return EMPTY;
+			}
+			
+			Arrays.sort(encoded, 0, count);
+			
+			int[] merged = new int[count * 2];
+			int size = 0;
+			for (int i = 0; i < count; i++) {
+				int begin = (int)(encoded[i] >>> 32);
+				int end = (int)encoded[i];
+				
+				// overlapping or adjacent ranges are merged
+				if (size > 0 && begin <= merged[size - 1] + 1) {
+					merged[size - 1] = Math.max(merged[size - 1], end);
+					continue;
+				}
+				merged[size++] = begin;
+				merged[size++] = end;
+			}
+			
+			return new CatalogNumberRanges(
+				Arrays.copyOf(merged, size),
+				Collections.unmodifiableList(new ArrayList<>(others))
+			);
+		}
+	}
+	
+}
@@ -30,6 +30,9 @@ import ru.mystamps.web.support.spring.security.SecurityContextUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Converts image URL to an image by downloading it from a server and binding to a form field.
@@ -66,6 +69,11 @@ public class DownloadImageInterceptor extends HandlerInterceptorAdapter {
 	 */
 	public static final String ERROR_CODE_ATTR_NAME = "DownloadedImage.ErrorCode";
 	
+	/**
+	 * Name of request attribute, that is used for storing a path to a downloaded file.
+	 */
+	private static final String DOWNLOADED_FILE_ATTR_NAME = "DownloadedImage.File";
+	
 	private static final Logger LOG = LoggerFactory.getLogger(DownloadImageInterceptor.class);
 	
 	private final DownloaderService downloaderService;
@@ -129,12 +137,39 @@ public class DownloadImageInterceptor extends HandlerInterceptorAdapter {
 			return true;
 		}
 		
-		MultipartFile downloadedImage =
-			new ByteArrayMultipartFile(result.getData(), result.getContentType(), imageUrl);
+		// a downloaded image is kept in a temporary file that will be removed in afterCompletion()
+		request.setAttribute(DOWNLOADED_FILE_ATTR_NAME, result.getFile());
+		
+		MultipartFile downloadedImage = new FileMultipartFile(
+			result.getFile(),
+			result.getSize(),
+			result.getContentType(),
+			imageUrl
+		);
 		
 		multipartRequest.getMultiFileMap().set(DOWNLOADED_IMAGE_FIELD_NAME, downloadedImage);
 		
 		return true;
 	}
 	
+	@Override
+	public void afterCompletion(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		Object handler,
+		Exception ex) {
+		
+		Object file = request.getAttribute(DOWNLOADED_FILE_ATTR_NAME);
+		if (!(file instanceof Path)) {
+			return;
+		}
+		
+		try {
+			Files.deleteIfExists((Path)file);
+			
+		} catch (IOException ioEx) {
+			LOG.warn("Couldn't remove temporary file {}: {}", file, ioEx.getMessage());
+		}
+	}
+	
 }
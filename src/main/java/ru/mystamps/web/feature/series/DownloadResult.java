@@ -26,8 +26,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -36,6 +40,12 @@ public class DownloadResult {
 	
 	private final Code code;
 	private final byte[] data;
+	
+	// A file where a content has been saved to (in this case, data is null).
+	// It's a temporary file and a caller is responsible for removing it.
+	private final Path file;
+	
+	private final long size;
 	private final String contentType;
 	private final Charset charset;
 	
@@ -43,17 +53,51 @@ public class DownloadResult {
 		return new DownloadResult(
 			code,
 			ArrayUtils.EMPTY_BYTE_ARRAY,
+			null,
+			0,
 			StringUtils.EMPTY,
 			StandardCharsets.UTF_8
 		);
 	}
 	
 	public static DownloadResult succeeded(byte[] data, String contentType) {
-		Charset charset = extractCharset(contentType);
-		if (charset == null) {
-			charset = StandardCharsets.UTF_8;
+		return new DownloadResult(
+			Code.SUCCESS,
+			data,
+			null,
+			data.length,
+			contentType,
+			extractCharsetOrDefault(contentType)
+		);
+	}
+	
+	public static DownloadResult succeeded(Path file, long size, String contentType) {
+		return new DownloadResult(
+			Code.SUCCESS,
+			null,
+			file,
+			size,
+			contentType,
+			extractCharsetOrDefault(contentType)
+		);
+	}
+	
+	/**
+	 * Returns a downloaded content.
+	 *
+	 * When a content has been saved to a file, the whole file is read into memory, so
+	 * consider using {@link #getFile()} instead.
+	 */
+	public byte[] getData() {
+		if (file == null) {
+			return data; // NOPMD: MethodReturnsInternalArray
+		}
+		
+		try {
+			return Files.readAllBytes(file);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
 		}
-		return new DownloadResult(Code.SUCCESS, data, contentType, charset);
 	}
 	
 	public boolean hasFailed() {
@@ -65,7 +109,7 @@ public class DownloadResult {
 	}
 	
 	public String getDataAsString() {
-		return new String(data, charset);
+		return new String(getData(), charset);
 	}
 	
 	public enum Code {
@@ -74,10 +118,19 @@ public class DownloadResult {
 		INVALID_REDIRECT,
 		INVALID_FILE_TYPE,
 		FILE_NOT_FOUND,
+		FILE_TOO_LARGE,
 		INSUFFICIENT_PERMISSIONS,
 		UNEXPECTED_ERROR,
 	}
 	
+	private static Charset extractCharsetOrDefault(String contentType) {
+		Charset charset = extractCharset(contentType);
+		if (charset == null) {
+			return StandardCharsets.UTF_8;
+		}
+		return charset;
+	}
+	
 	private static Charset extractCharset(String contentType) {
 		try {
 			MediaType mediaType = MediaType.parseMediaType(contentType);
@@ -20,16 +20,21 @@ package ru.mystamps.web.feature.series;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
 
+/**
+ * Represents a downloaded file as an uploaded one.
+ *
+ * A content isn't loaded into memory: it's read from a file when it's needed.
+ */
 @RequiredArgsConstructor
-class ByteArrayMultipartFile implements MultipartFile {
-	private final byte[] content;
+class FileMultipartFile implements MultipartFile {
+	private final Path file;
+	private final long size;
 	private final String contentType;
 	private final String link;
 
@@ -55,31 +60,23 @@ class ByteArrayMultipartFile implements MultipartFile {
 
 	@Override
 	public long getSize() {
-		if (content == null) {
-			return 0;
-		}
-		return content.length;
+		return size;
 	}
 
 	@Override
 	public byte[] getBytes() throws IOException {
-		return content; // NOPMD: MethodReturnsInternalArray
+		return Files.readAllBytes(file);
 	}
 
 	@Override
 	public InputStream getInputStream() throws IOException {
-		return new ByteArrayInputStream(content);
+		return Files.newInputStream(file);
 	}
 
 	@Override
 	public void transferTo(File dest) throws IOException {
-		// Default mode is: CREATE, WRITE, and TRUNCATE_EXISTING.
-		// To prevent unexpected rewriting of existing file, we're overriding this behavior by
-		// explicitly specifying options.
-		Files.write(
-			dest.toPath(),
-			content,
-			StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE
-		);
+		// Files.copy() doesn't rewrite an existing file. We copy a file instead of moving it
+		// because DownloadImageInterceptor removes it at the end of a request.
+		Files.copy(file, dest.toPath());
 	}
 }
@@ -59,15 +59,24 @@ public class JdbcSeriesDao implements SeriesDao {
 	@Value("${series.find_all_for_sitemap}")
 	private String findAllForSitemapSql;
 	
+	@Value("${series.find_for_sitemap_updated_since}")
+	private String findForSitemapUpdatedSinceSql;
+	
 	@Value("${series.find_similar_series}")
 	private String findSimilarSeriesSql;
 	
 	@Value("${series.find_last_added}")
 	private String findLastAddedSeriesSql;
 	
+	@Value("${series.find_link_by_id}")
+	private String findLinkByIdSql;
+	
 	@Value("${series.find_full_info_by_id}")
 	private String findFullInfoByIdSql;
 	
+	@Value("${series.find_numbers_and_images_by_id}")
+	private String findNumbersAndImagesByIdSql;
+	
 	@Value("${series.find_by_ids}")
 	private String findByIdsSql;
 	
@@ -221,6 +230,15 @@ public class JdbcSeriesDao implements SeriesDao {
 		);
 	}
 	
+	@Override
+	public List<SitemapInfoDto> findForSitemapUpdatedSince(Date date) {
+		return jdbcTemplate.query(
+			findForSitemapUpdatedSinceSql,
+			Collections.singletonMap("date", date),
+			RowMappers::forSitemapInfoDto
+		);
+	}
+	
 	@Override
 	public List<SeriesLinkDto> findSimilarSeries(Integer seriesId, String lang) {
 		Map<String, Object> params = new HashMap<>();
@@ -239,6 +257,23 @@ public class JdbcSeriesDao implements SeriesDao {
 		return jdbcTemplate.query(findLastAddedSeriesSql, params, RowMappers::forSeriesLinkDto);
 	}
 	
+	@Override
+	public SeriesLinkDto findLinkById(Integer seriesId, String lang) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("series_id", seriesId);
+		params.put("lang", lang);
+		
+		try {
+			return jdbcTemplate.queryForObject(
+				findLinkByIdSql,
+				params,
+				RowMappers::forSeriesLinkDto
+			);
+		} catch (EmptyResultDataAccessException ignored) {
+			return null;
+		}
+	}
+	
 	@Override
 	public SeriesFullInfoDto findByIdAsSeriesFullInfo(Integer seriesId, String lang) {
 		Map<String, Object> params = new HashMap<>();
@@ -256,6 +291,22 @@ public class JdbcSeriesDao implements SeriesDao {
 		}
 	}
 	
+	@Override
+	public SeriesNumbersAndImagesDto findNumbersAndImagesById(
+		Integer seriesId,
+		boolean canSeeHidden) {
+		
+		Map<String, Object> params = new HashMap<>();
+		params.put("series_id", seriesId);
+		params.put("can_see_hidden", canSeeHidden);
+		
+		return jdbcTemplate.query(
+			findNumbersAndImagesByIdSql,
+			params,
+			new SeriesNumbersAndImagesResultSetExtractor()
+		);
+	}
+	
 	/**
 	 * @author Sergey Chechenev
 	 */
@@ -19,12 +19,15 @@ package ru.mystamps.web.feature.series;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.Validate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -35,25 +38,58 @@ public class JdbcStampsCatalogDao implements StampsCatalogDao {
 	
 	private final NamedParameterJdbcTemplate jdbcTemplate;
 	private final String addCatalogNumberSql;
+	private final String findExistingCodesSql;
 	private final String addCatalogNumbersToSeriesSql;
 	private final String findBySeriesIdSql;
-	private final String findSeriesIdsByNumberSql;
+	private final String findAllSeriesIdsSql;
 	
+	/**
+	 * Creates the catalog numbers that don't exist yet.
+	 *
+	 * It makes two queries regardless of a number of the catalog numbers: one to find
+	 * the existing numbers and another one to insert the missing ones.
+	 *
+	 * @return the numbers that have been created
+	 */
 	@Override
 	public List<String> add(Set<String> catalogNumbers) {
 		Validate.validState(!EMPTY.equals(addCatalogNumberSql), "Query must be non empty");
+		Validate.validState(!EMPTY.equals(findExistingCodesSql), "Query must be non empty");
+		
+		// a database compares codes case-insensitively, so we have to do the same
+		Set<String> existing = new HashSet<>();
+		jdbcTemplate.queryForList(
+			findExistingCodesSql,
+			Collections.singletonMap("numbers", catalogNumbers),
+			String.class
+		).forEach(code -> existing.add(code.toLowerCase(Locale.ENGLISH)));
 		
 		List<String> inserted = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
 		for (String number : catalogNumbers) {
-			int affected = jdbcTemplate.update(
-				addCatalogNumberSql,
-				Collections.singletonMap("code", number)
-			);
-			if (affected > 0) {
+			if (existing.add(number.toLowerCase(Locale.ENGLISH))) {
 				inserted.add(number);
+				rows.add(new Object[]{number});
 			}
 		}
 		
+		if (rows.isEmpty()) {
+			return inserted;
+		}
+		
+		// a list of arrays is expanded to "(?), (?), ..."
+		int affected = jdbcTemplate.update(
+			addCatalogNumberSql,
+			Collections.singletonMap("codes", rows)
+		);
+		
+		Validate.validState(
+			affected == rows.size(),
+			"Unexpected number of affected rows after creation of %d catalog numbers: %d",
+			rows.size(),
+			affected
+		);
+		
 		return inserted;
 	}
 	
@@ -80,12 +116,16 @@ public class JdbcStampsCatalogDao implements StampsCatalogDao {
 	}
 	
 	@Override
-	public List<Integer> findSeriesIdsByNumber(String catalogNumber) {
-		return jdbcTemplate.queryForList(
-			findSeriesIdsByNumberSql,
-			Collections.singletonMap("number", catalogNumber),
-			Integer.class
-		);
+	public Map<String, List<Integer>> findAllSeriesIdsByNumber() {
+		Map<String, List<Integer>> result = new HashMap<>();
+		
+		RowCallbackHandler handler = rs -> result
+			.computeIfAbsent(rs.getString("code"), code -> new ArrayList<>())
+			.add(rs.getInt("series_id"));
+		
+		jdbcTemplate.query(findAllSeriesIdsSql, Collections.emptyMap(), handler);
+		
+		return result;
 	}
 	
 }
@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import ru.mystamps.web.feature.series.DownloadResult.Code;
+import ru.mystamps.web.support.spring.security.HasAuthority;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Downloads files over HTTP by reusing connections to the same site.
+ *
+ * Connections are kept alive by the JDK's connection cache (see "http.keepAlive" and
+ * "http.maxConnections" system properties). A connection is returned to the cache only when
+ * a response body has been read to the end and its stream has been closed, so the bodies of
+ * the error responses are drained too. A body is requested in a compressed form and its size
+ * limit is enforced on the decompressed content while it's being read.
+ *
+ * When a page has been requested recently, it's requested conditionally (with If-None-Match
+ * and If-Modified-Since headers) and the same result is returned on "304 Not Modified" response.
+ * The files that have been rejected because of their type or size are remembered too (when
+ * a server has sent validators for them), so a retry of such a failed import doesn't download
+ * the same body again. Other failures (error statuses, timeouts) are never remembered.
+ */
+public class KeepAliveDownloaderService implements DownloaderService {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(KeepAliveDownloaderService.class);
+	
+	private static final int BUFFER_SIZE = 8 * 1024;
+	
+	// Error responses that are larger than that aren't drained and their connections are closed
+	private static final int MAX_DRAINED_SIZE = 64 * 1024;
+	
+	// Brotli isn't listed because JDK can't decode it
+	private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+	
+	// "deflate" must be a zlib stream (RFC 2616) but some servers send a raw deflate stream
+	private static final int ZLIB_HEADER_SIZE = 2;
+	private static final int ZLIB_DEFLATE_METHOD = 8;
+	private static final int ZLIB_HEADER_CHECK_BASE = 31;
+	
+	// Only types listed here will be downloaded. For other types, INVALID_FILE_TYPE error
+	// will be returned. An empty array (or null) means that all types are allowed.
+	private final String[] allowedContentTypes;
+	
+	// Max time to wait during opening a connection to a resource (in milliseconds).
+	// Also is used for setting a max time for reading data from it. A timeout
+	// of zero is interpreted as an infinite timeout.
+	private final int timeout;
+	
+	// Max size of a file (in bytes). Larger files aren't downloaded and FILE_TOO_LARGE error
+	// is returned.
+	private final long maxSize;
+	
+	// When it's true, a file is saved into a temporary file instead of being kept in memory.
+	// Removing of this file is a caller's responsibility.
+	private final boolean saveToFile;
+	
+	// URL -> result of a recent download with its validators. It's null when conditional
+	// requests are disabled.
+	private final Cache<String, RecentResponse> recentResponses;
+	
+	/**
+	 * @param recentResponsesMaxSize max total size (in bytes) of the recently downloaded content
+	 *                               that is kept for conditional requests; zero disables them.
+	 *                               Content that is saved to files is never kept.
+	 */
+	@SuppressWarnings("PMD.ArrayIsStoredDirectly")
+	public KeepAliveDownloaderService(
+		String[] allowedContentTypes,
+		int timeout,
+		long maxSize,
+		boolean saveToFile,
+		long recentResponsesMaxSize) {
+		
+		this.allowedContentTypes = allowedContentTypes;
+		this.timeout = timeout;
+		this.maxSize = maxSize;
+		this.saveToFile = saveToFile;
+		
+		if (saveToFile || recentResponsesMaxSize <= 0) {
+			this.recentResponses = null;
+		} else {
+			this.recentResponses = Caffeine.newBuilder()
+				.maximumWeight(recentResponsesMaxSize)
+				.weigher((String url, RecentResponse response) ->
+					url.length() + response.getData().length
+				)
+				.build();
+		}
+	}
+	
+	@Override
+	@PreAuthorize(HasAuthority.DOWNLOAD_IMAGE)
+	public DownloadResult download(String fileUrl) {
+		// FIXME(security): fix possible log injection
+		LOG.debug("Downloading '{}'", fileUrl);
+		
+		try {
+			URLConnection connection = new URL(fileUrl).openConnection();
+			if (!(connection instanceof HttpURLConnection)) {
+				LOG.warn("Couldn't open connection: unknown type of connection ({})", connection);
+				return DownloadResult.failed(Code.UNEXPECTED_ERROR);
+			}
+			
+			HttpURLConnection conn = (HttpURLConnection)connection;
+			RecentResponse recent = recentResponses == null
+				? null
+				: recentResponses.getIfPresent(fileUrl);
+			
+			configure(conn, recent);
+			
+			int status = getResponseCode(conn);
+			if (status == -1) {
+				return DownloadResult.failed(Code.UNEXPECTED_ERROR);
+			}
+			
+			if (status == HttpURLConnection.HTTP_NOT_MODIFIED && recent != null) {
+				discard(conn);
+				LOG.debug("File hasn't been modified since the last downloading");
+				return recent.toResult();
+			}
+			
+			Code validationResult = validateResponseCode(status);
+			if (validationResult != Code.SUCCESS) {
+				discard(conn);
+				return DownloadResult.failed(validationResult);
+			}
+			
+			validationResult = validateContentType(conn);
+			if (validationResult == Code.SUCCESS) {
+				validationResult = validateContentLength(conn);
+			}
+			if (validationResult != Code.SUCCESS) {
+				discard(conn);
+				// an unmodified file will fail in the same way, so a retry can get by with 304
+				remember(fileUrl, conn, validationResult, ArrayUtils.EMPTY_BYTE_ARRAY, null);
+				return DownloadResult.failed(validationResult);
+			}
+			
+			return readBody(fileUrl, conn);
+			
+		} catch (MalformedURLException ex) {
+			LOG.error("Couldn't download file: invalid URL: {}", ex.getMessage());
+			return DownloadResult.failed(Code.INVALID_URL);
+			
+		} catch (IOException ex) {
+			LOG.warn("Couldn't download file", ex);
+			return DownloadResult.failed(Code.UNEXPECTED_ERROR);
+		}
+	}
+	
+	private void configure(HttpURLConnection conn, RecentResponse recent) {
+		// FIXME: make it configurable
+		conn.setRequestProperty(
+			HttpHeaders.USER_AGENT,
+			"Mozilla/5.0 (X11; Fedora; Linux x86_64; rv:46.0) Gecko/20100101 Firefox/46.0"
+		);
+		conn.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+		conn.setConnectTimeout(timeout);
+		conn.setReadTimeout(timeout);
+		
+		// We don't support redirects because they allow to bypass some of our validations.
+		conn.setInstanceFollowRedirects(false);
+		
+		if (recent != null) {
+			if (recent.getEtag() != null) {
+				conn.setRequestProperty(HttpHeaders.IF_NONE_MATCH, recent.getEtag());
+			}
+			if (recent.getLastModified() > 0) {
+				conn.setIfModifiedSince(recent.getLastModified());
+			}
+		}
+	}
+	
+	// Returns a response status or -1 when a connection has failed
+	private static int getResponseCode(HttpURLConnection conn) {
+		try {
+			return conn.getResponseCode();
+			
+		} catch (IOException ex) {
+			LOG.debug("Couldn't download file: connection has failed: {}", ex.getMessage());
+			return -1;
+		}
+	}
+	
+	private DownloadResult readBody(String fileUrl, HttpURLConnection conn) throws IOException {
+		String contentType = conn.getContentType();
+		
+		try (InputStream raw = conn.getInputStream();
+			InputStream stream = decode(conn.getContentEncoding(), raw)) {
+			
+			if (stream == null) {
+				drain(raw);
+				return DownloadResult.failed(Code.UNEXPECTED_ERROR);
+			}
+			
+			if (saveToFile) {
+				return downloadToFile(stream, contentType);
+			}
+			
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			if (copy(stream, data) < 0) {
+				remember(fileUrl, conn, Code.FILE_TOO_LARGE, ArrayUtils.EMPTY_BYTE_ARRAY, null);
+				return DownloadResult.failed(Code.FILE_TOO_LARGE);
+			}
+			
+			// a decoder might not read a body to the end and the connection wouldn't be reused
+			drain(raw);
+			
+			byte[] content = data.toByteArray();
+			remember(fileUrl, conn, Code.SUCCESS, content, contentType);
+			
+			return DownloadResult.succeeded(content, contentType);
+		}
+	}
+	
+	private static InputStream decode(String contentEncoding, InputStream stream)
+		throws IOException {
+		
+		if (StringUtils.isEmpty(contentEncoding) || "identity".equalsIgnoreCase(contentEncoding)) {
+			return stream;
+		}
+		
+		if ("gzip".equalsIgnoreCase(contentEncoding)) {
+			return new GZIPInputStream(stream, BUFFER_SIZE);
+		}
+		
+		if ("deflate".equalsIgnoreCase(contentEncoding)) {
+			return inflate(stream);
+		}
+		
+		// FIXME(security): fix possible log injection
+		LOG.debug("Couldn't download file: unsupported encoding '{}'", contentEncoding);
+		return null;
+	}
+	
+	// Decodes a zlib stream or, when it doesn't start with a zlib header, a raw deflate stream
+	private static InputStream inflate(InputStream stream) throws IOException {
+		PushbackInputStream in = new PushbackInputStream(stream, ZLIB_HEADER_SIZE);
+		
+		byte[] header = new byte[ZLIB_HEADER_SIZE];
+		int size = 0;
+		int read;
+		while (size < header.length && (read = in.read(header, size, header.length - size)) != -1) {
+			size += read;
+		}
+		in.unread(header, 0, size);
+		
+		boolean zlib = size == ZLIB_HEADER_SIZE
+			&& (header[0] & 0x0F) == ZLIB_DEFLATE_METHOD
+			&& (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % ZLIB_HEADER_CHECK_BASE == 0;
+		
+		return new ClosingInflaterInputStream(in, new Inflater(!zlib));
+	}
+	
+	private void remember(
+		String url,
+		URLConnection conn,
+		Code code,
+		byte[] content,
+		String contentType) {
+		
+		if (recentResponses == null) {
+			return;
+		}
+		
+		String etag = conn.getHeaderField(HttpHeaders.ETAG);
+		long lastModified = conn.getLastModified();
+		if (etag == null && lastModified <= 0) {
+			recentResponses.invalidate(url);
+			return;
+		}
+		
+		RecentResponse response = new RecentResponse(code, content, contentType, etag, lastModified);
+		recentResponses.put(url, response);
+	}
+	
+	private DownloadResult downloadToFile(InputStream stream, String contentType)
+		throws IOException {
+		
+		Path file = Files.createTempFile("download-", ".tmp");
+		try {
+			long size;
+			try (OutputStream out = Files.newOutputStream(file)) {
+				size = copy(stream, out);
+			}
+			
+			if (size < 0) {
+				Files.deleteIfExists(file);
+				return DownloadResult.failed(Code.FILE_TOO_LARGE);
+			}
+			
+			return DownloadResult.succeeded(file, size, contentType);
+			
+		} catch (IOException ex) {
+			Files.deleteIfExists(file);
+			throw ex;
+		}
+	}
+	
+	// Copies not more than maxSize bytes. Returns a number of copied bytes or -1 when
+	// the limit has been exceeded.
+	private long copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long total = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			total += read;
+			if (total > maxSize) {
+				LOG.debug("Couldn't download file: it's larger than {} bytes", maxSize);
+				return -1;
+			}
+			out.write(buffer, 0, read);
+		}
+		return total;
+	}
+	
+	// Reads and closes a body of a response that we aren't interested in to let
+	// the connection be reused
+	private static void discard(HttpURLConnection conn) {
+		try (InputStream stream = getAnyStream(conn)) {
+			if (stream != null) {
+				drain(stream);
+			}
+		} catch (IOException ignored) {
+			// the connection will be closed and it's fine
+		}
+	}
+	
+	private static InputStream getAnyStream(HttpURLConnection conn) throws IOException {
+		InputStream errorStream = conn.getErrorStream();
+		if (errorStream != null) {
+			return errorStream;
+		}
+		
+		return conn.getInputStream();
+	}
+	
+	private static void drain(InputStream stream) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long total = 0;
+		int read;
+		while (total <= MAX_DRAINED_SIZE && (read = stream.read(buffer)) != -1) {
+			total += read;
+		}
+	}
+	
+	private static Code validateResponseCode(int status) {
+		if (status == HttpURLConnection.HTTP_MOVED_TEMP
+			|| status == HttpURLConnection.HTTP_MOVED_PERM) {
+			LOG.debug("Couldn't download file: redirects are disallowed");
+			return Code.INVALID_REDIRECT;
+		}
+		
+		if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+			LOG.debug("Couldn't download file: not found on the server");
+			return Code.FILE_NOT_FOUND;
+		}
+		
+		if (status != HttpURLConnection.HTTP_OK) {
+			LOG.debug("Couldn't download file: unexpected response status {}", status);
+			return Code.UNEXPECTED_ERROR;
+		}
+		
+		return Code.SUCCESS;
+	}
+	
+	private Code validateContentLength(URLConnection conn) {
+		// it's an optimization for the case when a server has specified a size of a file.
+		// Otherwise, a size will be checked during downloading. A compressed content is never
+		// larger than a decompressed one, so this check is also valid for it.
+		long length = conn.getContentLengthLong();
+		if (length > maxSize) {
+			LOG.debug(
+				"Couldn't download file: its size ({}) is larger than {} bytes",
+				length,
+				maxSize
+			);
+			return Code.FILE_TOO_LARGE;
+		}
+		
+		return Code.SUCCESS;
+	}
+	
+	private Code validateContentType(URLConnection conn) {
+		String contentType = conn.getContentType();
+		
+		// We need only the first part from "text/html; charset=UTF-8"
+		contentType = StringUtils.substringBefore(contentType, ";");
+		
+		if (!ArrayUtils.contains(allowedContentTypes, contentType)) {
+			// FIXME(security): fix possible log injection
+			LOG.debug("Couldn't download file: unsupported file type '{}'", contentType);
+			return Code.INVALID_FILE_TYPE;
+		}
+		
+		return Code.SUCCESS;
+	}
+	
+	// InflaterInputStream doesn't release a native memory of an inflater that it hasn't created
+	private static class ClosingInflaterInputStream extends InflaterInputStream {
+		private final Inflater inflater;
+		
+		ClosingInflaterInputStream(InputStream in, Inflater inflater) {
+			super(in, inflater, BUFFER_SIZE);
+			this.inflater = inflater;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				inflater.end();
+			}
+		}
+	}
+	
+	@Getter
+	@RequiredArgsConstructor
+	private static class RecentResponse {
+		private final Code code;
+		private final byte[] data;
+		private final String contentType;
+		private final String etag;
+		private final long lastModified;
+		
+		public DownloadResult toResult() {
+			if (code == Code.SUCCESS) {
+				return DownloadResult.succeeded(data, contentType);
+			}
+			return DownloadResult.failed(code);
+		}
+	}
+	
+}
@@ -23,9 +23,11 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.mystamps.web.feature.category.CategoryService;
 import ru.mystamps.web.feature.collection.CollectionService;
 import ru.mystamps.web.feature.country.CountryService;
@@ -33,7 +35,10 @@ import ru.mystamps.web.feature.image.ImageService;
 import ru.mystamps.web.feature.participant.ParticipantService;
 import ru.mystamps.web.feature.series.importing.SeriesImportService;
 import ru.mystamps.web.feature.series.sale.SeriesSalesService;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 
+import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -82,6 +87,8 @@ public class SeriesConfig {
 		
 		private final ImageService imageService;
 		private final Map<String, StampsCatalogDao> stampsCatalogDaos;
+		private final Environment env;
+		private final PlatformTransactionManager transactionManager;
 		
 		@Bean
 		public SeriesService seriesService(
@@ -91,7 +98,8 @@ public class SeriesConfig {
 			@Qualifier("yvertCatalog") StampsCatalogService yvertCatalogService,
 			@Qualifier("gibbonsCatalog") StampsCatalogService gibbonsCatalogService,
 			@Qualifier("solovyovCatalog") StampsCatalogService solovyovCatalogService,
-			@Qualifier("zagorskiCatalog") StampsCatalogService zagorskiCatalogService) {
+			@Qualifier("zagorskiCatalog") StampsCatalogService zagorskiCatalogService,
+			@Lazy SiteStatisticsListener siteStatistics) {
 			
 			return new SeriesServiceImpl(
 				LoggerFactory.getLogger(SeriesServiceImpl.class),
@@ -102,7 +110,34 @@ public class SeriesConfig {
 				yvertCatalogService,
 				gibbonsCatalogService,
 				solovyovCatalogService,
-				zagorskiCatalogService
+				zagorskiCatalogService,
+				seriesInfoCache(),
+				catalogNumberIndex(),
+				siteStatistics
+			);
+		}
+		
+		@Bean
+		public SeriesInfoCache seriesInfoCache() {
+			return new SeriesInfoCache(
+				LoggerFactory.getLogger(SeriesInfoCache.class),
+				transactionManager,
+				env.getRequiredProperty("app.series_info_cache.size", Long.class),
+				env.getRequiredProperty("app.series_info_cache.ttl", Long.class)
+			);
+		}
+		
+		@Bean
+		public CatalogNumberIndex catalogNumberIndex() {
+			Map<StampsCatalog, StampsCatalogDao> daos = new EnumMap<>(StampsCatalog.class);
+			for (StampsCatalog catalog : StampsCatalog.values()) {
+				String name = catalog.name().toLowerCase(Locale.ENGLISH) + "CatalogDao";
+				daos.put(catalog, stampsCatalogDaos.get(name));
+			}
+			
+			return new CatalogNumberIndex(
+				LoggerFactory.getLogger(CatalogNumberIndex.class),
+				daos
 			);
 		}
 		
@@ -110,8 +145,10 @@ public class SeriesConfig {
 		public StampsCatalogService michelCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.MICHEL,
 				"Michel",
-				stampsCatalogDaos.get("michelCatalogDao")
+				stampsCatalogDaos.get("michelCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -119,8 +156,10 @@ public class SeriesConfig {
 		public StampsCatalogService scottCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.SCOTT,
 				"Scott",
-				stampsCatalogDaos.get("scottCatalogDao")
+				stampsCatalogDaos.get("scottCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -128,8 +167,10 @@ public class SeriesConfig {
 		public StampsCatalogService yvertCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.YVERT,
 				"Yvert",
-				stampsCatalogDaos.get("yvertCatalogDao")
+				stampsCatalogDaos.get("yvertCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -137,8 +178,10 @@ public class SeriesConfig {
 		public StampsCatalogService gibbonsCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.GIBBONS,
 				"Gibbons",
-				stampsCatalogDaos.get("gibbonsCatalogDao")
+				stampsCatalogDaos.get("gibbonsCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -146,8 +189,10 @@ public class SeriesConfig {
 		public StampsCatalogService solovyovCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.SOLOVYOV,
 				"Solovyov",
-				stampsCatalogDaos.get("solovyovCatalogDao")
+				stampsCatalogDaos.get("solovyovCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -155,8 +200,10 @@ public class SeriesConfig {
 		public StampsCatalogService zagorskiCatalogService() {
 			return new StampsCatalogServiceImpl(
 				LoggerFactory.getLogger(StampsCatalogServiceImpl.class),
+				StampsCatalog.ZAGORSKI,
 				"Zagorski",
-				stampsCatalogDaos.get("zagorskiCatalogDao")
+				stampsCatalogDaos.get("zagorskiCatalogDao"),
+				catalogNumberIndex()
 			);
 		}
 		
@@ -179,9 +226,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("michel.create"),
+				env.getRequiredProperty("michel.find_existing_codes"),
 				env.getRequiredProperty("series_michel.add"),
 				env.getRequiredProperty("series_michel.find_by_series_id"),
-				env.getRequiredProperty("series_michel.find_series_ids_by_number")
+				env.getRequiredProperty("series_michel.find_all_series_ids")
 			);
 		}
 		
@@ -190,9 +238,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("scott.create"),
+				env.getRequiredProperty("scott.find_existing_codes"),
 				env.getRequiredProperty("series_scott.add"),
 				env.getRequiredProperty("series_scott.find_by_series_id"),
-				env.getRequiredProperty("series_scott.find_series_ids_by_number")
+				env.getRequiredProperty("series_scott.find_all_series_ids")
 			);
 		}
 		
@@ -201,9 +250,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("yvert.create"),
+				env.getRequiredProperty("yvert.find_existing_codes"),
 				env.getRequiredProperty("series_yvert.add"),
 				env.getRequiredProperty("series_yvert.find_by_series_id"),
-				env.getRequiredProperty("series_yvert.find_series_ids_by_number")
+				env.getRequiredProperty("series_yvert.find_all_series_ids")
 			);
 		}
 		
@@ -212,9 +262,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("gibbons.create"),
+				env.getRequiredProperty("gibbons.find_existing_codes"),
 				env.getRequiredProperty("series_gibbons.add"),
 				env.getRequiredProperty("series_gibbons.find_by_series_id"),
-				env.getRequiredProperty("series_gibbons.find_series_ids_by_number")
+				env.getRequiredProperty("series_gibbons.find_all_series_ids")
 			);
 		}
 		
@@ -223,9 +274,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("solovyov.create"),
+				env.getRequiredProperty("solovyov.find_existing_codes"),
 				env.getRequiredProperty("series_solovyov.add"),
 				env.getRequiredProperty("series_solovyov.find_by_series_id"),
-				env.getRequiredProperty("series_solovyov.find_series_ids_by_number")
+				env.getRequiredProperty("series_solovyov.find_all_series_ids")
 			);
 		}
 		
@@ -234,9 +286,10 @@ public class SeriesConfig {
 			return new JdbcStampsCatalogDao(
 				jdbcTemplate,
 				env.getRequiredProperty("zagorski.create"),
+				env.getRequiredProperty("zagorski.find_existing_codes"),
 				env.getRequiredProperty("series_zagorski.add"),
 				env.getRequiredProperty("series_zagorski.find_by_series_id"),
-				env.getRequiredProperty("series_zagorski.find_series_ids_by_number")
+				env.getRequiredProperty("series_zagorski.find_all_series_ids")
 			);
 		}
 		
@@ -18,6 +18,7 @@
 package ru.mystamps.web.feature.series;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +77,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.EMPTY;
@@ -89,6 +91,9 @@ public class SeriesController {
 
 	private static final Logger LOG = LoggerFactory.getLogger(SeriesController.class);
 	
+	// a value of the catalogName parameter for a search in all the catalogs
+	private static final String ANY_CATALOG = "any";
+	
 	private static final Integer CURRENT_YEAR;
 	private static final Map<Integer, Integer> YEARS;
 	
@@ -572,40 +577,28 @@ public class SeriesController {
 		}
 		
 		String lang = LocaleUtils.getLanguageOrNull(userLocale);
+		StampsCatalog catalog = EnumUtils.getEnum(
+			StampsCatalog.class,
+			StringUtils.upperCase(catalogName, Locale.ENGLISH)
+		);
+		
 		List<SeriesInfoDto> series;
-		switch (catalogName) {
-			case "michel":
-				series = seriesService.findByMichelNumber(catalogNumber, lang);
-				break;
-			case "scott":
-				series = seriesService.findByScottNumber(catalogNumber, lang);
-				break;
-			case "yvert":
-				series = seriesService.findByYvertNumber(catalogNumber, lang);
-				break;
-			case "gibbons":
-				series = seriesService.findByGibbonsNumber(catalogNumber, lang);
-				break;
-			case "solovyov":
-				series = seriesService.findBySolovyovNumber(catalogNumber, lang);
-				break;
-			case "zagorski":
-				series = seriesService.findByZagorskiNumber(catalogNumber, lang);
-				break;
-			default:
-				series = Collections.emptyList();
-				break;
-		}
-		
-		// @todo #1098 Optimize a search within user's collection
+		if (catalog != null || ANY_CATALOG.equals(catalogName)) {
+			series = seriesService.findByCatalogNumber(catalog, catalogNumber, lang);
+		} else {
+			series = Collections.emptyList();
+		}
+		
 		if (Features.SEARCH_IN_COLLECTION.isActive()
 			&& inCollection
 			&& currentUserId != null) {
+			Set<Integer> seriesInCollection = collectionService.findSeriesIdsInCollection(
+				currentUserId,
+				series.stream().map(SeriesInfoDto::getId).collect(Collectors.toList())
+			);
 			series = series
 					.stream()
-					.filter(
-						e -> collectionService.isSeriesInCollection(currentUserId, e.getId())
-					)
+					.filter(e -> seriesInCollection.contains(e.getId()))
 					.collect(Collectors.toList());
 		}
 		
@@ -637,10 +630,7 @@ public class SeriesController {
 	
 	// "public" in order to be accessible from SeriesImportController
 	public void addCategoriesToModel(Model model, String lang) {
-		List<EntityWithParentDto> categories = categoryService.findCategoriesWithParents(lang);
-		
-		List<SelectItem> groupedCategories = GroupByParent.transformEntities(categories);
-		
+		List<SelectItem> groupedCategories = categoryService.findGroupedCategories(lang);
 		model.addAttribute("categories", groupedCategories);
 	}
 	
@@ -718,12 +708,12 @@ public class SeriesController {
 		List<SeriesLinkDto> similarSeries = seriesService.findSimilarSeries(seriesId, lang);
 		model.put("similarSeries", similarSeries);
 		
-		String michelNumbers   = CatalogUtils.toShortForm(series.getMichel().getNumbers());
-		String scottNumbers    = CatalogUtils.toShortForm(series.getScott().getNumbers());
-		String yvertNumbers    = CatalogUtils.toShortForm(series.getYvert().getNumbers());
-		String gibbonsNumbers  = CatalogUtils.toShortForm(series.getGibbons().getNumbers());
-		String solovyovNumbers = CatalogUtils.toShortForm(series.getSolovyov().getNumbers());
-		String zagorskiNumbers = CatalogUtils.toShortForm(series.getZagorski().getNumbers());
+		String michelNumbers   = toShortForm(series.getMichel());
+		String scottNumbers    = toShortForm(series.getScott());
+		String yvertNumbers    = toShortForm(series.getYvert());
+		String gibbonsNumbers  = toShortForm(series.getGibbons());
+		String solovyovNumbers = toShortForm(series.getSolovyov());
+		String zagorskiNumbers = toShortForm(series.getZagorski());
 		model.put("michelNumbers", michelNumbers);
 		model.put("scottNumbers", scottNumbers);
 		model.put("yvertNumbers", yvertNumbers);
@@ -793,6 +783,10 @@ public class SeriesController {
 		model.addAttribute("addToCollectionForm", form);
 	}
 	
+	private static String toShortForm(CatalogInfoDto catalog) {
+		return CatalogNumberRanges.of(catalog.getNumbers()).toShortForm();
+	}
+	
 	private static boolean isAllowedToAddingImages(SeriesDto series) {
 		return series.getImageIds().size() <= series.getQuantity();
 	}
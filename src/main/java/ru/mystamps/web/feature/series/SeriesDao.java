@@ -28,9 +28,12 @@ public interface SeriesDao {
 	void addReleaseYear(AddReleaseYearDbDto dto);
 	void markAsModified(Integer seriesId, Date updateAt, Integer updatedBy);
 	List<SitemapInfoDto> findAllForSitemap();
+	List<SitemapInfoDto> findForSitemapUpdatedSince(Date date);
 	List<SeriesLinkDto> findSimilarSeries(Integer seriesId, String lang);
 	List<SeriesLinkDto> findLastAdded(int quantity, String lang);
+	SeriesLinkDto findLinkById(Integer seriesId, String lang);
 	SeriesFullInfoDto findByIdAsSeriesFullInfo(Integer seriesId, String lang);
+	SeriesNumbersAndImagesDto findNumbersAndImagesById(Integer seriesId, boolean canSeeHidden);
 	List<SeriesInfoDto> findByIdsAsSeriesInfo(List<Integer> seriesIds, String lang);
 	List<SeriesInfoDto> findByCategorySlugAsSeriesInfo(String slug, String lang);
 	List<SeriesInGalleryDto> findByCountrySlug(String slug, String lang);
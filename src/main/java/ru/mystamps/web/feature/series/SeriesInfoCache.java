@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the info that is shown on a series page.
+ *
+ * An entry is evicted when the cache exceeds its size, when an entry is older than TTL or
+ * when {@link #evict(Integer)} has been called for the series.
+ *
+ * A missing entry is loaded within a read-only transaction, so all the queries of a loader see
+ * the same snapshot, while a cache hit doesn't acquire a database connection at all.
+ */
+public class SeriesInfoCache {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	private final Logger log;
+	private final Cache<Key, SeriesDto> cache;
+	private final TransactionTemplate readOnlyTransaction;
+	
+	public SeriesInfoCache(
+		Logger log,
+		PlatformTransactionManager transactionManager,
+		long maxSize,
+		long ttlInSeconds) {
+		
+		this.log = log;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(ttlInSeconds, TimeUnit.SECONDS)
+			.recordStats()
+			.build();
+	}
+	
+	/**
+	 * Returns a cached info or loads it.
+	 *
+	 * When the loader returns {@code null}, nothing is cached.
+	 */
+	public SeriesDto get(
+		Integer seriesId,
+		String lang,
+		boolean canSeeHiddenImages,
+		Supplier<SeriesDto> loader) {
+		
+		return cache.get(
+			new Key(seriesId, lang, canSeeHiddenImages),
+			key -> readOnlyTransaction.execute(status -> loader.get())
+		);
+	}
+	
+	/**
+	 * Removes all the cached entries of a series.
+	 *
+	 * When it's called within a transaction, the entries are removed once again after commit
+	 * because a concurrent request might have cached a stale info before that.
+	 */
+	public void evict(Integer seriesId) {
+		remove(seriesId);
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(
+				new TransactionSynchronizationAdapter() {
+					@Override
+					public void afterCommit() {
+						remove(seriesId);
+					}
+				}
+			);
+		}
+	}
+	
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		CacheStats stats = cache.stats();
+		log.info(
+			"Series info cache: {} entries, {} hits, {} misses, {} evictions",
+			cache.estimatedSize(),
+			stats.hitCount(),
+			stats.missCount(),
+			stats.evictionCount()
+		);
+	}
+	
+	private void remove(Integer seriesId) {
+		cache.asMap().keySet().removeIf(key -> key.getSeriesId().equals(seriesId));
+	}
+	
+	@Getter
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static class Key {
+		private final Integer seriesId;
+		private final String lang;
+		private final boolean canSeeHiddenImages;
+	}
+	
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog numbers and image ids of a series that are loaded by a single query.
+ */
+@Getter
+@ToString
+public class SeriesNumbersAndImagesDto {
+	private final List<String> michelNumbers = new ArrayList<>();
+	private final List<String> scottNumbers = new ArrayList<>();
+	private final List<String> yvertNumbers = new ArrayList<>();
+	private final List<String> gibbonsNumbers = new ArrayList<>();
+	private final List<String> solovyovNumbers = new ArrayList<>();
+	private final List<String> zagorskiNumbers = new ArrayList<>();
+	private final List<Integer> imageIds = new ArrayList<>();
+	private final List<Integer> hiddenImageIds = new ArrayList<>();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Splits rows of the {@code series.find_numbers_and_images_by_id} query by their kind.
+ */
+class SeriesNumbersAndImagesResultSetExtractor
+	implements ResultSetExtractor<SeriesNumbersAndImagesDto> {
+	
+	@Override
+	@SuppressWarnings("PMD.ModifiedCyclomaticComplexity")
+	public SeriesNumbersAndImagesDto extractData(ResultSet rs)
+		throws SQLException, DataAccessException {
+		
+		SeriesNumbersAndImagesDto result = new SeriesNumbersAndImagesDto();
+		
+		while (rs.next()) {
+			String kind = rs.getString("kind");
+			
+			switch (kind) {
+				case "michel":       result.getMichelNumbers().add(rs.getString("code"));   break;
+				case "scott":        result.getScottNumbers().add(rs.getString("code"));    break;
+				case "yvert":        result.getYvertNumbers().add(rs.getString("code"));    break;
+				case "gibbons":      result.getGibbonsNumbers().add(rs.getString("code"));  break;
+				case "solovyov":     result.getSolovyovNumbers().add(rs.getString("code")); break;
+				case "zagorski":     result.getZagorskiNumbers().add(rs.getString("code")); break;
+				case "image":        result.getImageIds().add(rs.getInt("image_id"));       break;
+				case "hidden_image": result.getHiddenImageIds().add(rs.getInt("image_id")); break;
+				default:
+					throw new IllegalStateException("Unknown kind of row: " + kind);
+			}
+		}
+		
+		return result;
+	}
+	
+}
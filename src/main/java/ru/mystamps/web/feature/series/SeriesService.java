@@ -40,18 +40,15 @@ public interface SeriesService {
 	
 	SeriesDto findFullInfoById(Integer seriesId, String lang, boolean userCanSeeHiddenImages);
 	
-	List<SeriesInfoDto> findByMichelNumber(String michelNumberCode, String lang);
-	List<SeriesInfoDto> findByScottNumber(String scottNumberCode, String lang);
-	List<SeriesInfoDto> findByYvertNumber(String yvertNumberCode, String lang);
-	List<SeriesInfoDto> findByGibbonsNumber(String gibbonsNumberCode, String lang);
-	List<SeriesInfoDto> findBySolovyovNumber(String solovyovCatalogNumber, String lang);
-	List<SeriesInfoDto> findByZagorskiNumber(String zagorskiCatalogNumber, String lang);
+	List<SeriesInfoDto> findByCatalogNumber(StampsCatalog catalog, String number, String lang);
 	
 	List<SeriesInfoDto> findByCategorySlug(String slug, String lang);
 	List<SeriesInGalleryDto> findByCountrySlug(String slug, String lang);
 	List<SeriesLinkDto> findRecentlyAdded(int quantity, String lang);
+	SeriesLinkDto findLinkById(Integer seriesId, String lang);
 	List<SeriesLinkDto> findSimilarSeries(Integer seriesId, String lang);
 	List<SitemapInfoDto> findAllForSitemap();
+	List<SitemapInfoDto> findForSitemapUpdatedSince(Date date);
 	
 	void markAsSimilar(AddSimilarSeriesForm dto);
 }
@@ -18,15 +18,18 @@
 package ru.mystamps.web.feature.series;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.feature.image.ImageInfoDto;
 import ru.mystamps.web.feature.image.ImageService;
+import ru.mystamps.web.feature.site.SiteStatisticsListener;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -49,6 +52,9 @@ public class SeriesServiceImpl implements SeriesService {
 	private final StampsCatalogService gibbonsCatalogService;
 	private final StampsCatalogService solovyovCatalogService;
 	private final StampsCatalogService zagorskiCatalogService;
+	private final SeriesInfoCache seriesInfoCache;
+	private final CatalogNumberIndex catalogNumberIndex;
+	private final SiteStatisticsListener siteStatistics;
 	
 	@Override
 	@Transactional
@@ -115,6 +121,8 @@ public class SeriesServiceImpl implements SeriesService {
 			throw ex;
 		}
 		
+		siteStatistics.seriesAdded(id, series.getQuantity());
+		
 		log.info("Series #{} has been created ({})", id, series);
 		
 		return id;
@@ -133,6 +141,7 @@ public class SeriesServiceImpl implements SeriesService {
 		// - updated_at field is used by logic for sitemap.xml generation
 		//   and we don't want to affect this
 		seriesDao.addComment(seriesId, comment);
+		seriesInfoCache.evict(seriesId);
 		
 		log.info("Series #{}: a comment has been added", seriesId);
 	}
@@ -155,6 +164,7 @@ public class SeriesServiceImpl implements SeriesService {
 		dto.setUpdatedAt(now);
 		
 		seriesDao.addReleaseYear(dto);
+		seriesInfoCache.evict(seriesId);
 		
 		log.info("Series #{}: release year set to {}", seriesId, year);
 	}
@@ -189,6 +199,8 @@ public class SeriesServiceImpl implements SeriesService {
 				throw new IllegalStateException("Unknown stamps catalog: " + catalog);
 		}
 		
+		seriesInfoCache.evict(seriesId);
+		
 		log.info(
 			"Series #{}: {} price set to {}",
 			seriesId,
@@ -208,6 +220,7 @@ public class SeriesServiceImpl implements SeriesService {
 		Validate.isTrue(userId != null, "User id must be non null");
 		
 		seriesDao.markAsModified(seriesId, new Date(), userId);
+		seriesInfoCache.evict(seriesId);
 		
 		// CheckStyle: ignore LineLength for next 7 lines
 		switch (catalog) {
@@ -231,6 +244,7 @@ public class SeriesServiceImpl implements SeriesService {
 		Validate.isTrue(userId != null, "User id must be non null");
 		
 		seriesDao.markAsModified(seriesId, new Date(), userId);
+		seriesInfoCache.evict(seriesId);
 		
 		ImageInfoDto imageInfo = imageService.save(dto.getImage());
 		Integer imageId = imageInfo.getId();
@@ -254,6 +268,7 @@ public class SeriesServiceImpl implements SeriesService {
 		Validate.isTrue(userId != null, "User id must be non null");
 		
 		seriesDao.markAsModified(seriesId, new Date(), userId);
+		seriesInfoCache.evict(seriesId);
 		
 		imageService.replace(dto.getImageId(), dto.getImage());
 	}
@@ -302,8 +317,9 @@ public class SeriesServiceImpl implements SeriesService {
 		return seriesDao.findQuantityById(seriesId);
 	}
 	
+	// Not transactional on purpose: a cache hit shouldn't acquire a database connection.
+	// A cache miss is loaded within a read-only transaction by SeriesInfoCache.
 	@Override
-	@Transactional(readOnly = true)
 	public SeriesDto findFullInfoById(
 		Integer seriesId,
 		String lang,
@@ -311,73 +327,34 @@ public class SeriesServiceImpl implements SeriesService {
 		
 		Validate.isTrue(seriesId != null, "Series id must be non null");
 		
-		SeriesFullInfoDto seriesBaseInfo = seriesDao.findByIdAsSeriesFullInfo(seriesId, lang);
-		if (seriesBaseInfo == null) {
-			return null;
-		}
-		
-		List<String> michelNumbers  = michelCatalogService.findBySeriesId(seriesId);
-		List<String> scottNumbers   = scottCatalogService.findBySeriesId(seriesId);
-		List<String> yvertNumbers   = yvertCatalogService.findBySeriesId(seriesId);
-		List<String> gibbonsNumbers = gibbonsCatalogService.findBySeriesId(seriesId);
-		List<String> solovyovNumbers = solovyovCatalogService.findBySeriesId(seriesId);
-		List<String> zagorskiNumbers = zagorskiCatalogService.findBySeriesId(seriesId);
-		
-		List<Integer> imageIds = imageService.findBySeriesId(seriesId, false);
-		
-		// @todo #1356 SeriesServiceImpl.findFullInfoById(): add unit test for hidden images
-		List<Integer> hiddenImageIds = Collections.emptyList();
-		if (userCanSeeHiddenImages) {
-			hiddenImageIds = imageService.findBySeriesId(seriesId, true);
-		}
-		
-		return new SeriesDto(
-			seriesBaseInfo,
-			michelNumbers,
-			scottNumbers,
-			yvertNumbers,
-			gibbonsNumbers,
-			solovyovNumbers,
-			zagorskiNumbers,
-			imageIds,
-			hiddenImageIds
+		return seriesInfoCache.get(
+			seriesId,
+			lang,
+			userCanSeeHiddenImages,
+			() -> loadFullInfo(seriesId, lang, userCanSeeHiddenImages)
 		);
 	}
 	
+	/**
+	 * Finds series by a catalog number (or numbers) in the in-memory index.
+	 *
+	 * @param catalog a catalog to search in or {@code null} to search in all the catalogs
+	 */
 	@Override
 	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findByMichelNumber(String michelNumberCode, String lang) {
-		return findByCatalogNumber(michelCatalogService, michelNumberCode, lang);
-	}
-	
-	@Override
-	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findByScottNumber(String scottNumberCode, String lang) {
-		return findByCatalogNumber(scottCatalogService, scottNumberCode, lang);
-	}
-	
-	@Override
-	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findByYvertNumber(String yvertNumberCode, String lang) {
-		return findByCatalogNumber(yvertCatalogService, yvertNumberCode, lang);
-	}
-	
-	@Override
-	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findByGibbonsNumber(String gibbonsNumberCode, String lang) {
-		return findByCatalogNumber(gibbonsCatalogService, gibbonsNumberCode, lang);
-	}
-	
-	@Override
-	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findBySolovyovNumber(String solovyovNumberCode, String lang) {
-		return findByCatalogNumber(solovyovCatalogService, solovyovNumberCode, lang);
-	}
-	
-	@Override
-	@Transactional(readOnly = true)
-	public List<SeriesInfoDto> findByZagorskiNumber(String zagorskiNumberCode, String lang) {
-		return findByCatalogNumber(zagorskiCatalogService, zagorskiNumberCode, lang);
+	public List<SeriesInfoDto> findByCatalogNumber(
+		StampsCatalog catalog,
+		String number,
+		String lang) {
+		
+		Validate.isTrue(StringUtils.isNotBlank(number), "Catalog number must be non-blank");
+		
+		Set<Integer> seriesIds = catalogNumberIndex.find(catalog, number);
+		if (seriesIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		return seriesDao.findByIdsAsSeriesInfo(new ArrayList<>(seriesIds), lang);
 	}
 	
 	@Override
@@ -404,6 +381,14 @@ public class SeriesServiceImpl implements SeriesService {
 		return seriesDao.findLastAdded(quantity, lang);
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public SeriesLinkDto findLinkById(Integer seriesId, String lang) {
+		Validate.isTrue(seriesId != null, "Series id must be non null");
+		
+		return seriesDao.findLinkById(seriesId, lang);
+	}
+	
 	@Override
 	@Transactional(readOnly = true)
 	public List<SeriesLinkDto> findSimilarSeries(Integer seriesId, String lang) {
@@ -418,6 +403,14 @@ public class SeriesServiceImpl implements SeriesService {
 		return seriesDao.findAllForSitemap();
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<SitemapInfoDto> findForSitemapUpdatedSince(Date date) {
+		Validate.isTrue(date != null, "Date must be non null");
+		
+		return seriesDao.findForSitemapUpdatedSince(date);
+	}
+	
 	// @todo #1280 SeriesServiceImpl.markAsSimilar(): add unit tests
 	@Override
 	@Transactional
@@ -431,23 +424,37 @@ public class SeriesServiceImpl implements SeriesService {
 		Set<Integer> similarSeriesIds = dto.getSimilarSeriesIds();
 		Validate.isTrue(similarSeriesIds != null, "Similar series ids must be non null");
 
+		seriesInfoCache.evict(seriesId);
+		
 		// @todo #1448 SeriesServiceImpl.markAsSimilar(): mark multiple series at once in DAO
 		for (Integer similarSeriesId : similarSeriesIds) {
 			seriesDao.markAsSimilar(seriesId, similarSeriesId);
+			seriesInfoCache.evict(similarSeriesId);
 			log.info("Series #{} has been marked as similar to #{}", seriesId, similarSeriesId);
 		}
 	}
 	
-	private List<SeriesInfoDto> findByCatalogNumber(
-		StampsCatalogService catalogService,
-		String number, String lang) {
-		
-		List<Integer> seriesIds = catalogService.findSeriesIdsByNumber(number);
-		if (seriesIds.isEmpty()) {
-			return Collections.emptyList();
+	private SeriesDto loadFullInfo(Integer seriesId, String lang, boolean userCanSeeHiddenImages) {
+		SeriesFullInfoDto seriesBaseInfo = seriesDao.findByIdAsSeriesFullInfo(seriesId, lang);
+		if (seriesBaseInfo == null) {
+			return null;
 		}
 		
-		return seriesDao.findByIdsAsSeriesInfo(seriesIds, lang);
+		// @todo #1356 SeriesServiceImpl.findFullInfoById(): add unit test for hidden images
+		SeriesNumbersAndImagesDto numbersAndImages =
+			seriesDao.findNumbersAndImagesById(seriesId, userCanSeeHiddenImages);
+		
+		return new SeriesDto(
+			seriesBaseInfo,
+			numbersAndImages.getMichelNumbers(),
+			numbersAndImages.getScottNumbers(),
+			numbersAndImages.getYvertNumbers(),
+			numbersAndImages.getGibbonsNumbers(),
+			numbersAndImages.getSolovyovNumbers(),
+			numbersAndImages.getZagorskiNumbers(),
+			numbersAndImages.getImageIds(),
+			numbersAndImages.getHiddenImageIds()
+		);
 	}
 	
 	private static void setDateOfReleaseIfProvided(AddSeriesDto dto, AddSeriesDbDto series) {
@@ -472,10 +479,11 @@ public class SeriesServiceImpl implements SeriesService {
 		StampsCatalogService catalogService,
 		String numbers) {
 		
-		Set<String> parsedNumbers = CatalogUtils.parseCatalogNumbers(numbers);
+		CatalogNumberRanges parsedNumbers = CatalogNumberRanges.parse(numbers);
 		if (!parsedNumbers.isEmpty()) {
-			catalogService.add(parsedNumbers);
-			catalogService.addToSeries(seriesId, parsedNumbers);
+			Set<String> catalogNumbers = parsedNumbers.toSet();
+			catalogService.add(catalogNumbers);
+			catalogService.addToSeries(seriesId, catalogNumbers);
 		}
 	}
 	
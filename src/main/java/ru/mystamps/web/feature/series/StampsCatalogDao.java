@@ -18,11 +18,12 @@
 package ru.mystamps.web.feature.series;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface StampsCatalogDao {
 	List<String> add(Set<String> catalogNumbers);
 	void addToSeries(Integer seriesId, Set<String> catalogNumbers);
 	List<String> findBySeriesId(Integer seriesId);
-	List<Integer> findSeriesIdsByNumber(String catalogNumber);
+	Map<String, List<Integer>> findAllSeriesIdsByNumber();
 }
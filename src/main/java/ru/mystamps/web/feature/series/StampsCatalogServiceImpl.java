@@ -18,7 +18,6 @@
 package ru.mystamps.web.feature.series;
 
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,8 +31,10 @@ import java.util.Set;
 public class StampsCatalogServiceImpl implements StampsCatalogService {
 	
 	private final Logger log;
+	private final StampsCatalog catalog;
 	private final String catalogName;
 	private final StampsCatalogDao stampsCatalogDao;
+	private final CatalogNumberIndex catalogNumberIndex;
 	
 	@Override
 	@Transactional
@@ -58,6 +59,7 @@ public class StampsCatalogServiceImpl implements StampsCatalogService {
 		Validate.isTrue(!catalogNumbers.isEmpty(), "%s numbers must be non empty", catalogName);
 		
 		stampsCatalogDao.addToSeries(seriesId, catalogNumbers);
+		catalogNumberIndex.add(catalog, seriesId, catalogNumbers);
 		
 		log.info("Series #{}: {} numbers {} were added", seriesId, catalogName, catalogNumbers);
 	}
@@ -70,17 +72,4 @@ public class StampsCatalogServiceImpl implements StampsCatalogService {
 		return stampsCatalogDao.findBySeriesId(seriesId);
 	}
 	
-	@Override
-	@Transactional(readOnly = true)
-	public List<Integer> findSeriesIdsByNumber(String catalogNumber) {
-		Validate.isTrue(catalogNumber != null, "%s number must be non null", catalogName);
-		Validate.isTrue(
-			StringUtils.isNotBlank(catalogNumber),
-			"%s number must be non-blank",
-			catalogName
-		);
-		
-		return stampsCatalogDao.findSeriesIdsByNumber(catalogNumber);
-	}
-	
 }
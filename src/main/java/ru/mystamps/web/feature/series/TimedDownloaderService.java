@@ -17,17 +17,31 @@
  */
 package ru.mystamps.web.feature.series;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @RequiredArgsConstructor
 public class TimedDownloaderService implements DownloaderService {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
 	
 	private final Logger log;
 	private final DownloaderService service;
 	
-	// @todo #665 TimedDownloaderService: add unit tests
+	// host -> statistics of the downloads from it since the start
+	private final Map<String, HostStats> stats = new ConcurrentHashMap<>();
+	
 	@Override
 	public DownloadResult download(String url) {
 		// Why we don't use Spring's StopWatch?
@@ -46,12 +60,90 @@ public class TimedDownloaderService implements DownloaderService {
 		if (result.hasSucceeded()) {
 			log.debug(
 				"{} bytes have been downloaded in {} msecs",
-				result.getData().length,
+				result.getSize(),
 				timer.getTime()
 			);
 		}
 		
+		stats.computeIfAbsent(extractHost(url), host -> new HostStats())
+			.add(result, timer.getTime());
+		
 		return result;
 	}
 	
+	/**
+	 * Returns a snapshot of the per-host statistics, sorted by a host name.
+	 */
+	public Map<String, HostStats> getStats() {
+		return Collections.unmodifiableMap(new TreeMap<>(stats));
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		getStats().forEach((host, hostStats) ->
+			log.info(
+				"Downloads from {}: {} succeeded, {} failed, {} bytes, {}/{} msecs avg/max",
+				host,
+				hostStats.getSucceeded(),
+				hostStats.getFailed(),
+				hostStats.getBytes(),
+				hostStats.getAverageTime(),
+				hostStats.getMaxTime()
+			)
+		);
+	}
+	
+	private static String extractHost(String url) {
+		try {
+			String host = new URL(url).getHost();
+			return StringUtils.defaultIfEmpty(host, "unknown");
+			
+		} catch (MalformedURLException ignored) {
+			return "unknown";
+		}
+	}
+	
+	public static class HostStats {
+		private final LongAdder succeeded = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder totalTime = new LongAdder();
+		
+		@Getter
+		private volatile long maxTime;
+		
+		private void add(DownloadResult result, long time) {
+			if (result.hasSucceeded()) {
+				succeeded.increment();
+				bytes.add(result.getSize());
+			} else {
+				failed.increment();
+			}
+			totalTime.add(time);
+			
+			// it's fine to lose an update of a maximum under a race
+			if (time > maxTime) {
+				maxTime = time;
+			}
+		}
+		
+		public long getSucceeded() {
+			return succeeded.sum();
+		}
+		
+		public long getFailed() {
+			return failed.sum();
+		}
+		
+		public long getBytes() {
+			return bytes.sum();
+		}
+		
+		public long getAverageTime() {
+			long count = succeeded.sum() + failed.sum();
+			return count == 0 ? 0 : totalTime.sum() / count;
+		}
+		
+	}
+	
 }
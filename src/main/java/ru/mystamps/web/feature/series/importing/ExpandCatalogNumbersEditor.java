@@ -19,10 +19,9 @@ package ru.mystamps.web.feature.series.importing;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.util.StringUtils;
-import ru.mystamps.web.feature.series.CatalogUtils;
+import ru.mystamps.web.feature.series.CatalogNumberRanges;
 
 import java.beans.PropertyEditorSupport;
-import java.util.Set;
 
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.SPACE;
@@ -55,9 +54,7 @@ public class ExpandCatalogNumbersEditor extends PropertyEditorSupport {
 				try {
 					// @todo #694 /series/import/request/{id}:
 					//  add integration test for trimming of michel numbers
-					// @todo #694 CatalogUtils: consider introducing toLongForm(String) method
-					Set<String> catalogNumbers = CatalogUtils.parseCatalogNumbers(value);
-					result = String.join(",", catalogNumbers);
+					result = CatalogNumberRanges.parse(value).toLongForm();
 					
 				} catch (IllegalArgumentException ignored) { // NOPMD: EmptyCatchBlock
 					// Intentionally empty: invalid values should be retain as-is.
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportRequestStatus;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress of a batch import job that is calculated from the states of its requests.
+ */
+@Getter
+@ToString
+public class ImportJobInfo {
+	private static final double MILLIS_IN_MINUTE = 60 * 1000.0;
+	
+	private final Integer id;
+	private final Date createdAt;
+	private final List<ImportRequestFullInfo> requests;
+	
+	// status -> number of requests, in the order of the request processing
+	private final Map<String, Integer> counters = new LinkedHashMap<>();
+	
+	// number of requests that have been downloaded and parsed (or failed)
+	private final int processedCount;
+	
+	// number of processed requests per minute or null when nothing has been processed yet
+	private final Double throughput;
+	
+	public ImportJobInfo(Integer id, Date createdAt, List<ImportRequestFullInfo> requests) {
+		this.id = id;
+		this.createdAt = createdAt;
+		this.requests = requests;
+		
+		counters.put(SeriesImportRequestStatus.UNPROCESSED, 0);
+		counters.put(SeriesImportRequestStatus.DOWNLOADING_SUCCEEDED, 0);
+		counters.put(SeriesImportRequestStatus.DOWNLOADING_FAILED, 0);
+		counters.put(SeriesImportRequestStatus.PARSING_SUCCEEDED, 0);
+		counters.put(SeriesImportRequestStatus.PARSING_FAILED, 0);
+		counters.put(SeriesImportRequestStatus.IMPORT_SUCCEEDED, 0);
+		
+		int processed = 0;
+		long lastProcessedAt = 0;
+		for (ImportRequestFullInfo request : requests) {
+			String status = request.getStatus();
+			counters.merge(status, 1, Integer::sum);
+			
+			if (isProcessed(status)) {
+				processed++;
+				lastProcessedAt = Math.max(lastProcessedAt, request.getUpdatedAt().getTime());
+			}
+		}
+		this.processedCount = processed;
+		
+		if (processed == 0) {
+			this.throughput = null;
+		} else {
+			// at least a second to not get an infinite value when the requests are fast
+			long elapsed = Math.max(lastProcessedAt - createdAt.getTime(), 1000L);
+			this.throughput = processed / (elapsed / MILLIS_IN_MINUTE);
+		}
+	}
+	
+	public int getTotalCount() {
+		return requests.size();
+	}
+	
+	public boolean isCompleted() {
+		return processedCount == requests.size();
+	}
+	
+	private static boolean isProcessed(String status) {
+		return !SeriesImportRequestStatus.UNPROCESSED.equals(status)
+			&& !SeriesImportRequestStatus.DOWNLOADING_SUCCEEDED.equals(status);
+	}
+	
+}
@@ -23,10 +23,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import ru.mystamps.web.common.JdbcUtils;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -58,6 +61,9 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 	@Value("${series_import_requests.find_raw_content_by_request_id}")
 	private String findRawContentSql;
 	
+	@Value("${series_import_requests.remove_raw_content}")
+	private String removeRawContentSql;
+	
 	@Value("${series_import_requests.add_series_parsed_data}")
 	private String addParsedDataSql;
 	
@@ -70,6 +76,24 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 	@Value("${series_import_requests.find_all}")
 	private String findAllSql;
 	
+	@Value("${series_import_requests.find_all_with_statuses}")
+	private String findAllWithStatusesSql;
+	
+	@Value("${series_import_requests.find_all_by_job_id}")
+	private String findAllByJobIdSql;
+	
+	@Value("${series_import_requests.find_all_by_urls}")
+	private String findAllByUrlsSql;
+	
+	@Value("${series_import_requests.create_for_job}")
+	private String createSeriesImportRequestForJobSql;
+	
+	@Value("${series_import_jobs.create}")
+	private String createJobSql;
+	
+	@Value("${series_import_jobs.find_created_at_by_id}")
+	private String findJobCreatedAtSql;
+	
 	@Override
 	public Integer add(ImportSeriesDbDto importRequest) {
 		Map<String, Object> params = new HashMap<>();
@@ -97,6 +121,60 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 		return Integer.valueOf(holder.getKey().intValue());
 	}
 
+	@Override
+	public void addAll(Integer jobId, List<ImportSeriesDbDto> importRequests) {
+		SqlParameterSource[] batch = new SqlParameterSource[importRequests.size()];
+		for (int i = 0; i < batch.length; i++) {
+			ImportSeriesDbDto importRequest = importRequests.get(i);
+			batch[i] = new MapSqlParameterSource()
+				.addValue("url", importRequest.getUrl())
+				.addValue("status", importRequest.getStatus())
+				.addValue("updated_at", importRequest.getUpdatedAt())
+				.addValue("requested_at", importRequest.getRequestedAt())
+				.addValue("requested_by", importRequest.getRequestedBy())
+				.addValue("job_id", jobId);
+		}
+		
+		jdbcTemplate.batchUpdate(createSeriesImportRequestForJobSql, batch);
+	}
+	
+	@Override
+	public Integer addJob(Date createdAt, Integer createdBy) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("created_at", createdAt);
+		params.put("created_by", createdBy);
+		
+		KeyHolder holder = new GeneratedKeyHolder();
+		
+		int affected = jdbcTemplate.update(
+			createJobSql,
+			new MapSqlParameterSource(params),
+			holder,
+			JdbcUtils.ID_KEY_COLUMN
+		);
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after adding an import job: %d",
+			affected
+		);
+		
+		return Integer.valueOf(holder.getKey().intValue());
+	}
+	
+	@Override
+	public Date findJobCreatedAt(Integer jobId) {
+		try {
+			return jdbcTemplate.queryForObject(
+				findJobCreatedAtSql,
+				Collections.singletonMap("id", jobId),
+				Date.class
+			);
+		} catch (EmptyResultDataAccessException ignored) {
+			return null;
+		}
+	}
+	
 	// CheckStyle: ignore LineLength for next 2 lines
 	@Override
 	public void setSeriesIdAndChangeStatus(Integer seriesId, UpdateImportRequestStatusDbDto requestStatus) {
@@ -155,7 +233,7 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 		params.put("request_id", requestId);
 		params.put("created_at", createdAt);
 		params.put("updated_at", updatedAt);
-		params.put("content", content);
+		params.put("content", RawContentUtils.compress(content));
 		
 		KeyHolder holder = new GeneratedKeyHolder();
 		
@@ -174,18 +252,26 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 	}
 	
 	@Override
-	public String findRawContentByRequestId(Integer requestId) {
+	public InputStream findRawContentByRequestId(Integer requestId) {
 		try {
 			return jdbcTemplate.queryForObject(
 				findRawContentSql,
 				Collections.singletonMap("request_id", requestId),
-				String.class
+				RowMappers::forRawContent
 			);
 		} catch (EmptyResultDataAccessException ignored) {
 			return null;
 		}
 	}
 	
+	@Override
+	public void removeRawContent(Integer requestId) {
+		jdbcTemplate.update(
+			removeRawContentSql,
+			Collections.singletonMap("request_id", requestId)
+		);
+	}
+	
 	@Override
 	public void addParsedData(Integer requestId, AddSeriesParsedDataDbDto data) {
 		Map<String, Object> params = new HashMap<>();
@@ -253,4 +339,31 @@ public class JdbcSeriesImportDao implements SeriesImportDao {
 		);
 	}
 	
+	@Override
+	public List<ImportRequestFullInfo> findAllWithStatuses(Collection<String> statuses) {
+		return jdbcTemplate.query(
+			findAllWithStatusesSql,
+			Collections.singletonMap("statuses", statuses),
+			RowMappers::forImportRequestFullInfo
+		);
+	}
+	
+	@Override
+	public List<ImportRequestFullInfo> findAllByJobId(Integer jobId) {
+		return jdbcTemplate.query(
+			findAllByJobIdSql,
+			Collections.singletonMap("job_id", jobId),
+			RowMappers::forImportRequestFullInfo
+		);
+	}
+	
+	@Override
+	public List<ImportRequestFullInfo> findAllByUrls(Collection<String> urls) {
+		return jdbcTemplate.query(
+			findAllByUrlsSql,
+			Collections.singletonMap("urls", urls),
+			RowMappers::forImportRequestFullInfo
+		);
+	}
+	
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Helpers for storing a content of the downloaded pages.
+ *
+ * A content is kept in UTF-8 and compressed with deflate algorithm.
+ **/
+public final class RawContentUtils {
+	
+	// These elements are never used by the site parsers
+	private static final String IRRELEVANT_ELEMENTS = "script, style, noscript, template";
+	
+	private static final NodeFilter COMMENTS_REMOVER = new NodeFilter() {
+		@Override
+		public FilterResult head(Node node, int depth) {
+			return node instanceof Comment ? FilterResult.REMOVE : FilterResult.CONTINUE;
+		}
+		
+		@Override
+		public FilterResult tail(Node node, int depth) {
+			return FilterResult.CONTINUE;
+		}
+	};
+	
+	private RawContentUtils() {
+	}
+	
+	/**
+	 * Removes scripts, styles and comments from a page.
+	 *
+	 * @param htmlPage a content of a page, must be non-null
+	 * @return the same page without the irrelevant markup
+	 **/
+	public static String stripIrrelevantMarkup(String htmlPage) {
+		Document doc = Jsoup.parse(htmlPage);
+		doc.outputSettings().prettyPrint(false);
+		
+		doc.select(IRRELEVANT_ELEMENTS).remove();
+		NodeTraversor.filter(COMMENTS_REMOVER, doc);
+		
+		return doc.outerHtml();
+	}
+	
+	/**
+	 * Compresses a content without making its intermediate copy in UTF-8.
+	 **/
+	public static byte[] compress(String content) {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		
+		try (Writer out = new OutputStreamWriter(
+			new DeflaterOutputStream(result),
+			StandardCharsets.UTF_8
+		)) {
+			out.write(content);
+		} catch (IOException ex) {
+			// it never happens as we are writing to memory
+			throw new UncheckedIOException(ex);
+		}
+		
+		return result.toByteArray();
+	}
+	
+	/**
+	 * Returns a stream that decompresses a content on the fly.
+	 *
+	 * @return a stream with a content in UTF-8
+	 **/
+	public static InputStream decompress(byte[] compressed) {
+		return new InflaterInputStream(new ByteArrayInputStream(compressed));
+	}
+	
+}
@@ -20,6 +20,9 @@ package ru.mystamps.web.feature.series.importing;
 import ru.mystamps.web.common.JdbcUtils;
 import ru.mystamps.web.common.LinkEntityDto;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -95,4 +98,22 @@ final class RowMappers {
 		);
 	}
 	
+	/**
+	 * Returns a stream with a page content in UTF-8.
+	 *
+	 * A content is read from the database as a compressed array, so the stream stays valid
+	 * after a result set has been closed.
+	 */
+	/* default */ static InputStream forRawContent(ResultSet rs, int unused)
+		throws SQLException {
+		
+		byte[] compressed = rs.getBytes("compressed_content");
+		if (compressed != null) {
+			return RawContentUtils.decompress(compressed);
+		}
+		
+		String content = rs.getString("page_content");
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+	
 }
@@ -29,6 +29,8 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.mystamps.web.feature.participant.ParticipantService;
 import ru.mystamps.web.feature.series.SeriesController;
 import ru.mystamps.web.feature.series.SeriesService;
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool;
+import ru.mystamps.web.feature.series.importing.extractor.SiteParserService;
 import ru.mystamps.web.feature.series.importing.sale.SeriesSalesImportService;
 import ru.mystamps.web.feature.series.sale.SeriesSalesService;
 
@@ -51,6 +53,8 @@ public class SeriesImportConfig {
 		private final SeriesSalesImportService seriesSalesImportService;
 		private final SeriesController seriesController;
 		private final ApplicationEventPublisher eventPublisher;
+		private final ImportWorkerPool importWorkerPool;
+		private final SiteParserService siteParserService;
 		
 		@Bean
 		public SeriesImportController seriesImportController() {
@@ -59,7 +63,9 @@ public class SeriesImportConfig {
 				seriesSalesImportService,
 				seriesController,
 				participantService,
-				eventPublisher
+				eventPublisher,
+				importWorkerPool,
+				siteParserService
 			);
 		}
 		
@@ -30,14 +30,18 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import ru.mystamps.web.common.LocaleUtils;
 import ru.mystamps.web.feature.participant.EntityWithIdDto;
 import ru.mystamps.web.feature.participant.ParticipantService;
-import ru.mystamps.web.feature.series.CatalogUtils;
+import ru.mystamps.web.feature.series.CatalogNumberRanges;
 import ru.mystamps.web.feature.series.SeriesController;
 import ru.mystamps.web.feature.series.SeriesUrl;
 import ru.mystamps.web.feature.series.importing.event.ImportRequestCreated;
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool;
 import ru.mystamps.web.feature.series.importing.event.RetryDownloading;
+import ru.mystamps.web.feature.series.importing.extractor.SiteParserService;
 import ru.mystamps.web.feature.series.importing.sale.SeriesSaleParsedDataDto;
 import ru.mystamps.web.feature.series.importing.sale.SeriesSalesImportService;
 import ru.mystamps.web.support.spring.security.CurrentUser;
@@ -46,6 +50,10 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -61,6 +69,8 @@ public class SeriesImportController {
 	private final SeriesController seriesController;
 	private final ParticipantService participantService;
 	private final ApplicationEventPublisher eventPublisher;
+	private final ImportWorkerPool importWorkerPool;
+	private final SiteParserService siteParserService;
 	
 	@InitBinder("requestImportForm")
 	protected void initRequestImportForm(WebDataBinder binder) {
@@ -98,6 +108,9 @@ public class SeriesImportController {
 			new ImportRequestCreated(this, requestId, form.getUrl());
 		eventPublisher.publishEvent(requestCreated);
 		
+		// a request is processed in background but usually it's fast enough to show the result
+		importWorkerPool.awaitCompletion(requestId);
+		
 		return redirectTo(SeriesImportUrl.REQUEST_IMPORT_PAGE, requestId);
 	}
 
@@ -116,10 +129,84 @@ public class SeriesImportController {
 		
 		RetryDownloading retryDownloading = new RetryDownloading(this, requestId);
 		eventPublisher.publishEvent(retryDownloading);
+		importWorkerPool.awaitCompletion(requestId);
 		
 		return redirectTo(SeriesImportUrl.REQUEST_IMPORT_PAGE, requestId);
 	}
 	
+	@GetMapping(SeriesImportUrl.REQUEST_BATCH_IMPORT_PAGE)
+	public void showRequestBatchImportForm(Model model) {
+		model.addAttribute("batchImportForm", new RequestSeriesBatchImportForm());
+	}
+	
+	@PostMapping(SeriesImportUrl.REQUEST_BATCH_IMPORT_PAGE)
+	public String processRequestBatchImportForm(
+		@ModelAttribute("batchImportForm") RequestSeriesBatchImportForm form,
+		BindingResult result,
+		@CurrentUser Integer currentUserId,
+		RedirectAttributes redirectAttributes)
+		throws IOException {
+		
+		List<String> urls = new ArrayList<>(UrlListUtils.parse(form.getUrls()));
+		
+		MultipartFile file = form.getFile();
+		if (file != null && !file.isEmpty()) {
+			String content = new String(file.getBytes(), StandardCharsets.UTF_8);
+			for (String url : UrlListUtils.parse(content)) {
+				if (!urls.contains(url)) {
+					urls.add(url);
+				}
+			}
+		}
+		
+		validateBatchImportUrls(urls, result);
+		if (result.hasErrors()) {
+			return null;
+		}
+		
+		BatchImportResult importResult = seriesImportService.addBatchRequest(urls, currentUserId);
+		Integer jobId = importResult.getJobId();
+		
+		// the requests are processed in background by a worker pool; a job page shows the progress.
+		// They may occupy only a part of the pool's queue to leave room for the single requests.
+		ImportJobInfo job = seriesImportService.findJobInfo(jobId);
+		for (ImportRequestFullInfo request : job.getRequests()) {
+			ImportRequestCreated requestCreated =
+				new ImportRequestCreated(this, request.getId(), request.getUrl(), true);
+			eventPublisher.publishEvent(requestCreated);
+		}
+		
+		List<ImportRequestFullInfo> skippedRequests = importResult.getSkippedRequests();
+		if (!skippedRequests.isEmpty()) {
+			redirectAttributes.addFlashAttribute("skippedRequests", skippedRequests);
+		}
+		
+		return redirectTo(SeriesImportUrl.BATCH_IMPORT_JOB_PAGE, jobId);
+	}
+	
+	@GetMapping(SeriesImportUrl.BATCH_IMPORT_JOB_PAGE)
+	public String showBatchImportJob(
+		@PathVariable("id") Integer jobId,
+		Model model,
+		HttpServletResponse response)
+		throws IOException {
+		
+		if (jobId == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
+		}
+		
+		ImportJobInfo job = seriesImportService.findJobInfo(jobId);
+		if (job == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
+		}
+		
+		model.addAttribute("job", job);
+		
+		return "series/import/job";
+	}
+	
 	@SuppressWarnings({ "PMD.ModifiedCyclomaticComplexity", "PMD.NPathComplexity" })
 	@GetMapping(SeriesImportUrl.REQUEST_IMPORT_PAGE)
 	public String showRequestAndImportSeriesForm(
@@ -160,7 +247,9 @@ public class SeriesImportController {
 			if (series.getPerforated() != null) {
 				form.setPerforated(series.getPerforated());
 			}
-			form.setMichelNumbers(CatalogUtils.toShortForm(series.getMichelNumbers()));
+			form.setMichelNumbers(
+				CatalogNumberRanges.parse(series.getMichelNumbers()).toShortForm()
+			);
 		}
 		
 		SeriesSaleParsedDataDto seriesSale = seriesSalesImportService.getParsedData(requestId);
@@ -275,5 +364,44 @@ public class SeriesImportController {
 		return "series/import/list";
 	}
 	
+	private void validateBatchImportUrls(List<String> urls, BindingResult result) {
+		if (urls.isEmpty()) {
+			result.rejectValue("urls", "value.empty");
+			return;
+		}
+		
+		if (urls.size() > SeriesImportValidation.BATCH_IMPORT_MAX_URLS) {
+			result.rejectValue(
+				"urls",
+				"ru.mystamps.web.feature.series.importing.batch-import.too-many-urls",
+				new Object[]{SeriesImportValidation.BATCH_IMPORT_MAX_URLS},
+				"Too many URLs"
+			);
+			return;
+		}
+		
+		for (String url : urls) {
+			boolean tooLong = url.length() > SeriesImportValidation.IMPORT_REQUEST_URL_MAX_LENGTH;
+			if (tooLong || !isValidUri(url) || siteParserService.findForUrl(url) == null) {
+				result.rejectValue(
+					"urls",
+					"ru.mystamps.web.feature.series.importing.batch-import.unsupported-url",
+					new Object[]{url},
+					"Import from this site isn't supported"
+				);
+				return;
+			}
+		}
+	}
+	
+	private static boolean isValidUri(String url) {
+		try {
+			new URI(url); // NOPMD: UnusedObjectAllocation
+			return true;
+		} catch (URISyntaxException ignored) {
+			return false;
+		}
+	}
+	
 }
 
@@ -17,18 +17,27 @@
  */
 package ru.mystamps.web.feature.series.importing;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 public interface SeriesImportDao {
 	Integer add(ImportSeriesDbDto importRequest);
+	void addAll(Integer jobId, List<ImportSeriesDbDto> importRequests);
+	Integer addJob(Date createdAt, Integer createdBy);
+	Date findJobCreatedAt(Integer jobId);
 	void setSeriesIdAndChangeStatus(Integer seriesId, UpdateImportRequestStatusDbDto requestStatus);
 	void changeStatus(UpdateImportRequestStatusDbDto requestStatus);
 	ImportRequestDto findById(Integer id);
 	void addRawContent(Integer requestId, Date createdAt, Date updatedAt, String content);
-	String findRawContentByRequestId(Integer requestId);
+	InputStream findRawContentByRequestId(Integer requestId);
+	void removeRawContent(Integer requestId);
 	void addParsedData(Integer requestId, AddSeriesParsedDataDbDto data);
 	SeriesParsedDataDto findParsedDataByRequestId(Integer requestId, String lang);
 	ImportRequestInfo findRequestInfo(Integer seriesId);
 	List<ImportRequestFullInfo> findAll();
+	List<ImportRequestFullInfo> findAllWithStatuses(Collection<String> statuses);
+	List<ImportRequestFullInfo> findAllByJobId(Integer jobId);
+	List<ImportRequestFullInfo> findAllByUrls(Collection<String> urls);
 }
@@ -21,10 +21,12 @@ import ru.mystamps.web.feature.participant.AddParticipantDto;
 import ru.mystamps.web.feature.series.AddSeriesDto;
 import ru.mystamps.web.feature.series.sale.AddSeriesSalesDto;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface SeriesImportService {
 	Integer addRequest(RequestImportDto dto, Integer userId);
+	BatchImportResult addBatchRequest(List<String> urls, Integer userId);
 	// @todo #695 SeriesImportService.addSeries(): introduce DTO object
 	Integer addSeries(
 		AddSeriesDto dto,
@@ -36,9 +38,11 @@ public interface SeriesImportService {
 	void changeStatus(Integer requestId, String oldStatus, String newStatus);
 	ImportRequestDto findById(Integer requestId);
 	void saveDownloadedContent(Integer requestId, String content, boolean retry);
-	String getDownloadedContent(Integer requestId);
+	InputStream getDownloadedContent(Integer requestId);
 	void saveParsedData(Integer requestId, SeriesExtractedInfo seriesInfo, String imageUrl);
 	SeriesParsedDataDto getParsedData(Integer requestId, String lang);
 	ImportRequestInfo findRequestInfo(Integer seriesId);
 	List<ImportRequestFullInfo> findAll();
+	List<ImportRequestFullInfo> findUnfinished();
+	ImportJobInfo findJobInfo(Integer jobId);
 }
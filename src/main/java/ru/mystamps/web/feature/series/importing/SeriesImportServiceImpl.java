@@ -27,7 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.feature.participant.AddParticipantDto;
 import ru.mystamps.web.feature.participant.ParticipantService;
 import ru.mystamps.web.feature.series.AddSeriesDto;
-import ru.mystamps.web.feature.series.CatalogUtils;
+import ru.mystamps.web.feature.series.CatalogNumberRanges;
 import ru.mystamps.web.feature.series.SeriesService;
 import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportParsedData;
 import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportRequestStatus;
@@ -39,10 +39,14 @@ import ru.mystamps.web.feature.series.sale.SeriesCondition;
 import ru.mystamps.web.feature.series.sale.SeriesSalesService;
 import ru.mystamps.web.support.spring.security.HasAuthority;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -70,13 +74,7 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		
 		ImportSeriesDbDto importRequest = new ImportSeriesDbDto();
 		importRequest.setStatus(SeriesImportRequestStatus.UNPROCESSED);
-		
-		try {
-			String encodedUrl = new URI(dto.getUrl()).toASCIIString();
-			importRequest.setUrl(encodedUrl);
-		} catch (URISyntaxException ex) {
-			throw new RuntimeException(ex); // NOPMD: AvoidThrowingRawExceptionTypes
-		}
+		importRequest.setUrl(encodeUrl(dto.getUrl()));
 		
 		Date now = new Date();
 		importRequest.setUpdatedAt(now);
@@ -90,6 +88,61 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		return id;
 	}
 	
+	/**
+	 * Creates a job and import requests for all the URLs that haven't been requested yet.
+	 *
+	 * The requests are created by a single batch and they aren't processed by this method.
+	 * The URLs that have been requested before (even if their requests have failed)
+	 * aren't added to the job but are returned to the caller to let a user know about them.
+	 *
+	 * @return id of the created job and the requests for the skipped URLs
+	 */
+	@Override
+	@Transactional
+	@PreAuthorize(HasAuthority.IMPORT_SERIES)
+	public BatchImportResult addBatchRequest(List<String> urls, Integer userId) {
+		Validate.isTrue(urls != null, "URLs must be non null");
+		Validate.isTrue(!urls.isEmpty(), "URLs must be non empty");
+		Validate.isTrue(userId != null, "User id must be non null");
+		
+		Set<String> encodedUrls = new LinkedHashSet<>();
+		for (String url : urls) {
+			encodedUrls.add(encodeUrl(url));
+		}
+		
+		List<ImportRequestFullInfo> existingRequests = seriesImportDao.findAllByUrls(encodedUrls);
+		for (ImportRequestFullInfo request : existingRequests) {
+			encodedUrls.remove(request.getUrl());
+		}
+		
+		Date now = new Date();
+		Integer jobId = seriesImportDao.addJob(now, userId);
+		
+		List<ImportSeriesDbDto> importRequests = new ArrayList<>(encodedUrls.size());
+		for (String url : encodedUrls) {
+			ImportSeriesDbDto importRequest = new ImportSeriesDbDto();
+			importRequest.setUrl(url);
+			importRequest.setStatus(SeriesImportRequestStatus.UNPROCESSED);
+			importRequest.setUpdatedAt(now);
+			importRequest.setRequestedAt(now);
+			importRequest.setRequestedBy(userId);
+			importRequests.add(importRequest);
+		}
+		
+		if (!importRequests.isEmpty()) {
+			seriesImportDao.addAll(jobId, importRequests);
+		}
+		
+		log.info(
+			"Job #{} for importing {} series has been created ({} URLs have been requested before)",
+			jobId,
+			importRequests.size(),
+			existingRequests.size()
+		);
+		
+		return new BatchImportResult(jobId, existingRequests);
+	}
+	
 	@Override
 	@Transactional
 	@PreAuthorize(HasAuthority.IMPORT_SERIES)
@@ -120,6 +173,9 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		
 		seriesImportDao.setSeriesIdAndChangeStatus(seriesId, status);
 		
+		// a page content isn't needed anymore
+		seriesImportDao.removeRawContent(requestId);
+		
 		return seriesId;
 	}
 	
@@ -155,9 +211,15 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		
 		Date now = new Date();
 		
-		seriesImportDao.addRawContent(requestId, now, now, content);
+		String strippedContent = RawContentUtils.stripIrrelevantMarkup(content);
+		seriesImportDao.addRawContent(requestId, now, now, strippedContent);
 		
-		log.info("Request #{}: page were downloaded ({} characters)", requestId, content.length());
+		log.info(
+			"Request #{}: page were downloaded ({} characters, {} after cleanup)",
+			requestId,
+			content.length(),
+			strippedContent.length()
+		);
 		
 		String oldStatus = retry
 			? SeriesImportRequestStatus.DOWNLOADING_FAILED
@@ -168,7 +230,7 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 	
 	@Override
 	@Transactional(readOnly = true)
-	public String getDownloadedContent(Integer requestId) {
+	public InputStream getDownloadedContent(Integer requestId) {
 		Validate.isTrue(requestId != null, "Request id must be non null");
 		
 		return seriesImportDao.findRawContentByRequestId(requestId);
@@ -199,7 +261,7 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		// @todo #694 SeriesImportServiceImpl.saveParsedData(): add unit tests for michel numbers
 		Set<String> michelNumbers = seriesInfo.getMichelNumbers();
 		if (!michelNumbers.isEmpty()) {
-			String shortenedNumbers = CatalogUtils.toShortForm(michelNumbers);
+			String shortenedNumbers = CatalogNumberRanges.of(michelNumbers).toShortForm();
 			Validate.validState(
 				shortenedNumbers.length() <= SeriesImportParsedData.MICHEL_NUMBERS_LENGTH,
 				"Michel numbers (%s) length exceeds max length of the field (%d)",
@@ -291,6 +353,42 @@ public class SeriesImportServiceImpl implements SeriesImportService {
 		return seriesImportDao.findAll();
 	}
 	
+	/**
+	 * Finds the requests that have to be downloaded or parsed.
+	 *
+	 * It's invoked in background and that's why it doesn't require any authority.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<ImportRequestFullInfo> findUnfinished() {
+		return seriesImportDao.findAllWithStatuses(Arrays.asList(
+			SeriesImportRequestStatus.UNPROCESSED,
+			SeriesImportRequestStatus.DOWNLOADING_SUCCEEDED
+		));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	@PreAuthorize(HasAuthority.IMPORT_SERIES)
+	public ImportJobInfo findJobInfo(Integer jobId) {
+		Validate.isTrue(jobId != null, "Job id must be non null");
+		
+		Date createdAt = seriesImportDao.findJobCreatedAt(jobId);
+		if (createdAt == null) {
+			return null;
+		}
+		
+		return new ImportJobInfo(jobId, createdAt, seriesImportDao.findAllByJobId(jobId));
+	}
+	
+	private static String encodeUrl(String url) {
+		try {
+			return new URI(url).toASCIIString();
+		} catch (URISyntaxException ex) {
+			throw new RuntimeException(ex); // NOPMD: AvoidThrowingRawExceptionTypes
+		}
+	}
+	
 	private static Integer getFirstElement(List<Integer> list) {
 		if (list.isEmpty()) {
 			return null;
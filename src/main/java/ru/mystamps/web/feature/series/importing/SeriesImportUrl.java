@@ -31,13 +31,17 @@ public final class SeriesImportUrl {
 	
 	public static final String REQUEST_IMPORT_SERIES_PAGE = "/series/import/request";
 	public static final String REQUEST_IMPORT_PAGE        = "/series/import/request/{id}";
+	public static final String REQUEST_BATCH_IMPORT_PAGE  = "/series/import/batch";
+	public static final String BATCH_IMPORT_JOB_PAGE      = "/series/import/batch/{id}";
 	static final String LIST_IMPORT_REQUESTS_PAGE         = "/series/import/requests";
 	
 	private SeriesImportUrl() {
 	}
 	
 	public static void exposeUrlsToView(Map<String, String> urls) {
+		urls.put("BATCH_IMPORT_JOB_PAGE", BATCH_IMPORT_JOB_PAGE);
 		urls.put("LIST_IMPORT_REQUESTS_PAGE", LIST_IMPORT_REQUESTS_PAGE);
+		urls.put("REQUEST_BATCH_IMPORT_PAGE", REQUEST_BATCH_IMPORT_PAGE);
 		urls.put("REQUEST_IMPORT_PAGE", REQUEST_IMPORT_PAGE);
 		urls.put("REQUEST_IMPORT_SERIES_PAGE", REQUEST_IMPORT_SERIES_PAGE);
 	}
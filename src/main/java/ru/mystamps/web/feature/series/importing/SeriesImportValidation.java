@@ -23,6 +23,7 @@ import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportReque
 final class SeriesImportValidation {
 	
 	static final int IMPORT_REQUEST_URL_MAX_LENGTH  = SeriesImportRequest.URL_LENGTH;
+	static final int BATCH_IMPORT_MAX_URLS          = 1000;
 	
 	private SeriesImportValidation() {
 	}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Helpers for dealing with a list of URLs of a batch import.
+ **/
+public final class UrlListUtils {
+	
+	private static final String COLUMN_SEPARATORS = ",;\t";
+	private static final String QUOTE = "\"";
+	
+	private UrlListUtils() {
+	}
+	
+	/**
+	 * Extracts URLs from a text with a URL per line or from a CSV content.
+	 *
+	 * For CSV, a URL is taken from the first column and the first non-empty line is skipped
+	 * when it doesn't look like a URL (a header). Empty lines and lines that start with
+	 * a "#" are ignored. Duplicates are removed, an original order is preserved.
+	 *
+	 * @param text a list of URLs, may be null
+	 * @return non-null list of URLs
+	 **/
+	public static List<String> parse(String text) {
+		if (StringUtils.isBlank(text)) {
+			return new ArrayList<>();
+		}
+		
+		Set<String> result = new LinkedHashSet<>();
+		
+		// the empty lines are omitted by split()
+		boolean firstLine = true;
+		for (String line : StringUtils.split(text, "\r\n")) {
+			String url = extractFirstColumn(line.trim());
+			if (url.isEmpty() || url.startsWith("#")) {
+				continue;
+			}
+			
+			boolean header = firstLine && !url.contains("://");
+			firstLine = false;
+			if (header) {
+				continue;
+			}
+			
+			result.add(url);
+		}
+		
+		return new ArrayList<>(result);
+	}
+	
+	private static String extractFirstColumn(String line) {
+		if (line.startsWith(QUOTE)) {
+			String value = StringUtils.substringBetween(line, QUOTE, QUOTE);
+			return value == null ? line.substring(1).trim() : value.trim();
+		}
+		
+		int separator = StringUtils.indexOfAny(line, COLUMN_SEPARATORS);
+		if (separator == -1) {
+			return line;
+		}
+		
+		return line.substring(0, separator).trim();
+	}
+	
+}
@@ -31,6 +31,9 @@ import ru.mystamps.web.feature.series.importing.extractor.SiteParser;
 import ru.mystamps.web.feature.series.importing.extractor.SiteParserService;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 /**
  * Listener of the {@link DownloadingSucceeded} event.
@@ -72,14 +75,22 @@ public class DownloadingSucceededEventListener
 			return;
 		}
 		
-		String content = seriesImportService.getDownloadedContent(requestId);
-		if (content == null) {
-			// FIXME: how to handle error? maybe publish UnexpectedErrorEvent?
-			LOG.error("Request #{}: could not load a content from database", requestId);
+		SeriesInfo info;
+		try (InputStream content = seriesImportService.getDownloadedContent(requestId)) {
+			if (content == null) {
+				// FIXME: how to handle error? maybe publish UnexpectedErrorEvent?
+				LOG.error("Request #{}: could not load a content from database", requestId);
+				return;
+			}
+			
+			info = parser.parse(content);
+			
+		} catch (IOException | UncheckedIOException ex) {
+			LOG.error("Request #{}: could not read a content: {}", requestId, ex.getMessage());
+			eventPublisher.publishEvent(new ParsingFailed(this, requestId));
 			return;
 		}
 		
-		SeriesInfo info = parser.parse(content);
 		if (info.isEmpty()) {
 			eventPublisher.publishEvent(new ParsingFailed(this, requestId));
 			return;
@@ -23,6 +23,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.mystamps.web.config.ServicesConfig;
 import ru.mystamps.web.feature.category.CategoryService;
@@ -34,6 +35,7 @@ import ru.mystamps.web.feature.series.importing.SeriesInfoExtractorServiceImpl;
 import ru.mystamps.web.feature.series.importing.TimedSeriesInfoExtractorService;
 import ru.mystamps.web.feature.series.importing.extractor.JdbcSiteParserDao;
 import ru.mystamps.web.feature.series.importing.extractor.SiteParserDao;
+import ru.mystamps.web.feature.series.importing.extractor.SiteParserRegistry;
 import ru.mystamps.web.feature.series.importing.extractor.SiteParserService;
 import ru.mystamps.web.feature.series.importing.extractor.SiteParserServiceImpl;
 
@@ -48,11 +50,20 @@ public class EventsConfig {
 	private final ServicesConfig servicesConfig;
 	private final ApplicationEventPublisher eventPublisher;
 	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final Environment env;
 	
 	@Bean
-	public SiteParserService siteParserService(SiteParserDao siteParserDao) {
+	public SiteParserService siteParserService(SiteParserRegistry siteParserRegistry) {
 		return new SiteParserServiceImpl(
 			LoggerFactory.getLogger(SiteParserServiceImpl.class),
+			siteParserRegistry
+		);
+	}
+	
+	@Bean
+	public SiteParserRegistry siteParserRegistry(SiteParserDao siteParserDao) {
+		return new SiteParserRegistry(
+			LoggerFactory.getLogger(SiteParserRegistry.class),
 			siteParserDao
 		);
 	}
@@ -76,20 +87,62 @@ public class EventsConfig {
 	}
 	
 	@Bean
-	public ApplicationListener<ImportRequestCreated> importRequestCreatedEventListener() {
+	public ImportWorkerPool importWorkerPool() {
+		int poolSize = env.getRequiredProperty("app.series_import.pool_size", Integer.class);
+		int queueCapacity =
+			env.getRequiredProperty("app.series_import.queue_capacity", Integer.class);
+		int backgroundQueueCapacity =
+			env.getRequiredProperty("app.series_import.background_queue_capacity", Integer.class);
+		int maxDownloadsPerHost =
+			env.getRequiredProperty("app.series_import.max_downloads_per_host", Integer.class);
+		long politenessDelay =
+			env.getRequiredProperty("app.series_import.politeness_delay", Long.class);
+		long waitTimeout = env.getRequiredProperty("app.series_import.wait_timeout", Long.class);
+		
+		return new ImportWorkerPool(
+			LoggerFactory.getLogger(ImportWorkerPool.class),
+			poolSize,
+			queueCapacity,
+			backgroundQueueCapacity,
+			maxDownloadsPerHost,
+			politenessDelay,
+			waitTimeout
+		);
+	}
+	
+	@Bean
+	public UnfinishedImportRequestsResumer unfinishedImportRequestsResumer(
+		ImportWorkerPool workerPool) {
+		
+		return new UnfinishedImportRequestsResumer(
+			LoggerFactory.getLogger(UnfinishedImportRequestsResumer.class),
+			seriesImportService,
+			workerPool,
+			eventPublisher
+		);
+	}
+	
+	@Bean
+	public ApplicationListener<ImportRequestCreated> importRequestCreatedEventListener(
+		ImportWorkerPool workerPool) {
+		
 		return new ImportRequestCreatedEventListener(
 			servicesConfig.getSeriesDownloaderService(),
 			seriesImportService,
-			eventPublisher
+			eventPublisher,
+			workerPool
 		);
 	}
 	
 	@Bean
-	public ApplicationListener<RetryDownloading> retryDownloadingEventListener() {
+	public ApplicationListener<RetryDownloading> retryDownloadingEventListener(
+		ImportWorkerPool workerPool) {
+		
 		return new RetryDownloadingEventListener(
 			servicesConfig.getSeriesDownloaderService(),
 			seriesImportService,
-			eventPublisher
+			eventPublisher,
+			workerPool
 		);
 	}
 	
@@ -28,10 +28,18 @@ public class ImportRequestCreated extends ApplicationEvent {
 	private final Integer requestId;
 	private final String url;
 	
+	// true when nobody waits for the result (batch import or a resumed request)
+	private final boolean background;
+	
 	public ImportRequestCreated(Object source, Integer requestId, String url) {
+		this(source, requestId, url, false);
+	}
+	
+	public ImportRequestCreated(Object source, Integer requestId, String url, boolean background) {
 		super(source);
 		this.requestId = requestId;
 		this.url = url;
+		this.background = background;
 	}
 	
 }
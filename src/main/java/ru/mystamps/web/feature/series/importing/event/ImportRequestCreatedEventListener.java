@@ -26,14 +26,17 @@ import ru.mystamps.web.feature.series.DownloadResult;
 import ru.mystamps.web.feature.series.DownloaderService;
 import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportRequestStatus;
 import ru.mystamps.web.feature.series.importing.SeriesImportService;
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool.Stage;
 
 /**
  * Listener of the {@link ImportRequestCreated} event.
  *
- * Downloads a file, saves it to database and publish the {@link DownloadingSucceeded} event.
- * When downloading of a file fails, it changes request status to 'DownloadingFailed'.
+ * In background, downloads a file, saves it to database and submits a parsing task that
+ * publishes the {@link DownloadingSucceeded} event. When downloading of a file fails, it changes
+ * request status to 'DownloadingFailed'.
  *
  * @see DownloadingSucceededEventListener
+ * @see ImportWorkerPool
  */
 @RequiredArgsConstructor
 public class ImportRequestCreatedEventListener
@@ -45,12 +48,22 @@ public class ImportRequestCreatedEventListener
 	private final DownloaderService downloaderService;
 	private final SeriesImportService seriesImportService;
 	private final ApplicationEventPublisher eventPublisher;
+	private final ImportWorkerPool workerPool;
 	
 	@Override
 	public void onApplicationEvent(ImportRequestCreated event) {
 		String url = event.getUrl();
 		Integer requestId = event.getRequestId();
 		
+		Runnable task = () -> download(requestId, url);
+		if (event.isBackground()) {
+			workerPool.submitInBackground(Stage.DOWNLOADING, requestId, url, task);
+		} else {
+			workerPool.submit(Stage.DOWNLOADING, requestId, url, task);
+		}
+	}
+	
+	private void download(Integer requestId, String url) {
 		LOG.info("Request #{}: start downloading '{}'", requestId, url);
 		
 		DownloadResult result = downloaderService.download(url);
@@ -68,7 +81,13 @@ public class ImportRequestCreatedEventListener
 		
 		seriesImportService.saveDownloadedContent(requestId, result.getDataAsString(), false);
 		
-		eventPublisher.publishEvent(new DownloadingSucceeded(this, requestId, url));
+		// parsing is a separate task in order to free the host's slot for the next download
+		workerPool.submitNext(
+			Stage.PARSING,
+			requestId,
+			url,
+			() -> eventPublisher.publishEvent(new DownloadingSucceeded(this, requestId, url))
+		);
 	}
 	
 }
@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.event;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool that processes the series import requests in background.
+ *
+ * At most "maxDownloadsPerHost" downloads from the same host are run concurrently and they are
+ * started with at least "politenessDelay" milliseconds between them. When more than
+ * "queueCapacity" tasks are waiting, new tasks are rejected. A rejected request keeps its status
+ * in a database and it's submitted again by {@link UnfinishedImportRequestsResumer}.
+ *
+ * Background tasks (requests of a batch import and resumed requests) may occupy at most
+ * "backgroundQueueCapacity" places in the queue, so a large batch doesn't prevent requests
+ * that have been submitted by a user from being processed.
+ *
+ * A request is processed by a single task at a time: while it's in progress, other tasks
+ * for the same request are ignored. A task may pass a request to the next stage with
+ * {@link #submitNext(Stage, Integer, String, Runnable)}.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public class ImportWorkerPool {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	public enum Stage {
+		DOWNLOADING,
+		PARSING
+	}
+	
+	private final Logger log;
+	private final ScheduledExecutorService executor;
+	private final int queueCapacity;
+	private final int backgroundQueueCapacity;
+	private final int maxDownloadsPerHost;
+	private final long politenessDelayInMillis;
+	private final long waitTimeoutInMillis;
+	
+	// request id -> a future that is completed when processing of the request is finished
+	private final Map<Integer, CompletableFuture<Void>> activeRequests = new ConcurrentHashMap<>();
+	
+	// request id -> a task that is submitted when the current task of the request is finished
+	private final Map<Integer, Task> nextTasks = new ConcurrentHashMap<>();
+	
+	private final Map<Stage, StageStats> stats = new EnumMap<>(Stage.class);
+	private final AtomicLong rejectedCount = new AtomicLong();
+	
+	// host -> its downloads. Guarded by "this".
+	private final Map<String, HostQueue> hosts = new HashMap<>();
+	
+	// guarded by "this"
+	private int queueLength;
+	
+	// guarded by "this"
+	private int backgroundQueueLength;
+	
+	@SuppressWarnings("checkstyle:parameternumber")
+	public ImportWorkerPool(
+		Logger log,
+		int poolSize,
+		int queueCapacity,
+		int backgroundQueueCapacity,
+		int maxDownloadsPerHost,
+		long politenessDelayInMillis,
+		long waitTimeoutInMillis) {
+		
+		Validate.isTrue(
+			backgroundQueueCapacity <= queueCapacity,
+			"Background queue capacity must not be greater than queue capacity"
+		);
+		
+		this.log = log;
+		this.queueCapacity = queueCapacity;
+		this.backgroundQueueCapacity = backgroundQueueCapacity;
+		this.maxDownloadsPerHost = maxDownloadsPerHost;
+		this.politenessDelayInMillis = politenessDelayInMillis;
+		this.waitTimeoutInMillis = waitTimeoutInMillis;
+		
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = Executors.newScheduledThreadPool(poolSize, runnable -> {
+			Thread thread = new Thread(runnable, "import-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		for (Stage stage : Stage.values()) {
+			stats.put(stage, new StageStats());
+		}
+	}
+	
+	/**
+	 * Submits a task that processes a request.
+	 *
+	 * @return false when the task has been rejected or the request is already in progress
+	 */
+	public boolean submit(Stage stage, Integer requestId, String url, Runnable task) {
+		return submit(stage, requestId, url, task, false);
+	}
+	
+	/**
+	 * Submits a task that processes a request that nobody waits for.
+	 *
+	 * Such tasks are rejected when they occupy "backgroundQueueCapacity" places in the queue.
+	 *
+	 * @return false when the task has been rejected or the request is already in progress
+	 */
+	public boolean submitInBackground(Stage stage, Integer requestId, String url, Runnable task) {
+		return submit(stage, requestId, url, task, true);
+	}
+	
+	/**
+	 * Submits the next stage of a request that is being processed.
+	 *
+	 * It must be invoked by a task of the same request. The new task is queued after the current
+	 * one has finished, so a download doesn't hold a host's slot while its result is parsed.
+	 * The request stays in progress until the new task is finished.
+	 */
+	public void submitNext(Stage stage, Integer requestId, String url, Runnable task) {
+		CompletableFuture<Void> completion = activeRequests.get(requestId);
+		Validate.validState(completion != null, "Request #%d must be in progress", requestId);
+		
+		// the next stage isn't limited by the background queue capacity because its request
+		// has already waited for its turn
+		nextTasks.put(requestId, new Task(stage, requestId, url, task, completion, false));
+	}
+	
+	/**
+	 * Waits for completion of a request but not longer than a timeout.
+	 *
+	 * It's used to show the result to a user right after submitting a request when it's
+	 * processed quickly.
+	 */
+	public void awaitCompletion(Integer requestId) {
+		CompletableFuture<Void> completion = activeRequests.get(requestId);
+		if (completion == null) {
+			return;
+		}
+		
+		try {
+			completion.get(waitTimeoutInMillis, TimeUnit.MILLISECONDS);
+		
+		} catch (TimeoutException ignored) {
+			log.debug("Request #{}: is still in progress", requestId);
+		
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		
+		} catch (ExecutionException ex) {
+			// it never happens because a future is always completed normally
+			log.warn("Request #{}: processing failed", requestId, ex);
+		}
+	}
+	
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+	
+	public synchronized int getQueueLength() {
+		return queueLength;
+	}
+	
+	public void shutdown() {
+		// the interrupted and not started requests keep their statuses and they will be
+		// resumed after a restart
+		executor.shutdownNow();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			Iterator<HostQueue> it = hosts.values().iterator();
+			while (it.hasNext()) {
+				HostQueue host = it.next();
+				if (host.isIdle(now)) {
+					it.remove();
+				}
+			}
+		}
+		
+		for (Map.Entry<Stage, StageStats> entry : stats.entrySet()) {
+			StageStats stageStats = entry.getValue();
+			long completed = stageStats.completed.get();
+			log.info(
+				"Import worker pool, {}: {} queued, {} completed, {} failed, "
+				+ "wait time avg/max: {}/{} msecs, execution time avg/max: {}/{} msecs",
+				entry.getKey(),
+				stageStats.queued.get(),
+				completed,
+				stageStats.failed.get(),
+				average(stageStats.totalWaitTimeInMillis.get(), completed),
+				stageStats.maxWaitTimeInMillis.get(),
+				average(stageStats.totalExecutionTimeInMillis.get(), completed),
+				stageStats.maxExecutionTimeInMillis.get()
+			);
+		}
+		log.info("Import worker pool: {} tasks rejected", rejectedCount.get());
+	}
+	
+	private boolean submit(
+		Stage stage,
+		Integer requestId,
+		String url,
+		Runnable task,
+		boolean background) {
+		
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		if (activeRequests.putIfAbsent(requestId, completion) != null) {
+			log.debug("Request #{}: is already in progress", requestId);
+			return false;
+		}
+		
+		return enqueue(new Task(stage, requestId, url, task, completion, background));
+	}
+	
+	private boolean enqueue(Task task) {
+		synchronized (this) {
+			boolean full = queueLength >= queueCapacity
+				|| (task.background && backgroundQueueLength >= backgroundQueueCapacity);
+			if (full) {
+				rejectedCount.incrementAndGet();
+				log.warn(
+					"Request #{}: rejected as {} tasks ({} in background) are waiting. "
+					+ "It'll be resumed later",
+					task.requestId,
+					queueLength,
+					backgroundQueueLength
+				);
+				finish(task);
+				return false;
+			}
+			
+			queueLength++;
+			if (task.background) {
+				backgroundQueueLength++;
+			}
+			stats.get(task.stage).queued.incrementAndGet();
+			task.submittedAt = System.currentTimeMillis();
+			
+			if (task.stage != Stage.DOWNLOADING) {
+				schedule(task, null, 0);
+				return true;
+			}
+			
+			HostQueue host = hosts.computeIfAbsent(getHost(task.url), name -> new HostQueue());
+			host.waiting.add(task);
+			startDownloads(host);
+		}
+		
+		return true;
+	}
+	
+	// Must be invoked with a lock on "this"
+	private void startDownloads(HostQueue host) {
+		while (host.running < maxDownloadsPerHost && !host.waiting.isEmpty()) {
+			Task task = host.waiting.remove();
+			host.running++;
+			
+			long now = System.currentTimeMillis();
+			long startAt = Math.max(now, host.nextStartAt);
+			host.nextStartAt = startAt + politenessDelayInMillis;
+			
+			schedule(task, host, startAt - now);
+		}
+	}
+	
+	// A future isn't needed: run() logs the errors and a result is reported through
+	// the task's completion
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private void schedule(Task task, HostQueue host, long delayInMillis) {
+		try {
+			executor.schedule(() -> run(task, host), delayInMillis, TimeUnit.MILLISECONDS);
+		
+		} catch (RejectedExecutionException ignored) {
+			// the pool is being shut down. The request will be resumed after a restart.
+			finish(task);
+		}
+	}
+	
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	private void run(Task task, HostQueue host) {
+		long startedAt = System.currentTimeMillis();
+		StageStats stageStats = stats.get(task.stage);
+		
+		synchronized (this) {
+			queueLength--;
+			if (task.background) {
+				backgroundQueueLength--;
+			}
+		}
+		stageStats.queued.decrementAndGet();
+		
+		boolean failed = false;
+		try {
+			task.action.run();
+		
+		} catch (RuntimeException ex) {
+			failed = true;
+			stageStats.failed.incrementAndGet();
+			log.error("Request #{}: {} failed", task.requestId, task.stage, ex);
+		
+		} finally {
+			long finishedAt = System.currentTimeMillis();
+			stageStats.completed(startedAt - task.submittedAt, finishedAt - startedAt);
+			
+			if (host != null) {
+				synchronized (this) {
+					host.running--;
+					startDownloads(host);
+				}
+			}
+			
+			Task next = nextTasks.remove(task.requestId);
+			if (next == null || failed) {
+				finish(task);
+			} else {
+				enqueue(next);
+			}
+		}
+	}
+	
+	private void finish(Task task) {
+		activeRequests.remove(task.requestId);
+		task.completion.complete(null);
+	}
+	
+	private static String getHost(String url) {
+		try {
+			return new URL(url).getHost();
+		} catch (MalformedURLException ignored) {
+			return url;
+		}
+	}
+	
+	private static long average(long total, long count) {
+		return count == 0 ? 0 : total / count;
+	}
+	
+	private static class Task {
+		private final Stage stage;
+		private final Integer requestId;
+		private final String url;
+		private final Runnable action;
+		private final CompletableFuture<Void> completion;
+		private final boolean background;
+		
+		// it's set under a lock on the pool before a task is scheduled
+		private long submittedAt;
+		
+		Task(
+			Stage stage,
+			Integer requestId,
+			String url,
+			Runnable action,
+			CompletableFuture<Void> completion,
+			boolean background) {
+			
+			this.stage = stage;
+			this.requestId = requestId;
+			this.url = url;
+			this.action = action;
+			this.completion = completion;
+			this.background = background;
+		}
+	}
+	
+	private static class HostQueue {
+		private final Queue<Task> waiting = new ArrayDeque<>();
+		private int running;
+		private long nextStartAt;
+		
+		public boolean isIdle(long now) {
+			return running == 0 && waiting.isEmpty() && nextStartAt <= now;
+		}
+	}
+	
+	private static class StageStats {
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicLong completed = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong totalWaitTimeInMillis = new AtomicLong();
+		private final AtomicLong maxWaitTimeInMillis = new AtomicLong();
+		private final AtomicLong totalExecutionTimeInMillis = new AtomicLong();
+		private final AtomicLong maxExecutionTimeInMillis = new AtomicLong();
+		
+		public void completed(long waitTimeInMillis, long executionTimeInMillis) {
+			completed.incrementAndGet();
+			totalWaitTimeInMillis.addAndGet(waitTimeInMillis);
+			maxWaitTimeInMillis.accumulateAndGet(waitTimeInMillis, Math::max);
+			totalExecutionTimeInMillis.addAndGet(executionTimeInMillis);
+			maxExecutionTimeInMillis.accumulateAndGet(executionTimeInMillis, Math::max);
+		}
+	}
+	
+}
@@ -27,11 +27,13 @@ import ru.mystamps.web.feature.series.DownloaderService;
 import ru.mystamps.web.feature.series.importing.ImportRequestDto;
 import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportRequestStatus;
 import ru.mystamps.web.feature.series.importing.SeriesImportService;
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool.Stage;
 
 /**
  * Listener of the {@link RetryDownloading} event.
  *
- * Downloads a file, saves it to database and publish the {@link DownloadingSucceeded} event.
+ * In background, downloads a file, saves it to database and submits a parsing task that
+ * publishes the {@link DownloadingSucceeded} event.
  *
  * It is similar to {@link ImportRequestCreatedEventListener} with the following differences:
  * - it loads a request from database as we have only id
@@ -49,11 +51,13 @@ public class RetryDownloadingEventListener implements ApplicationListener<RetryD
 	private final DownloaderService downloaderService;
 	private final SeriesImportService seriesImportService;
 	private final ApplicationEventPublisher eventPublisher;
+	private final ImportWorkerPool workerPool;
 	
 	@Override
 	public void onApplicationEvent(RetryDownloading event) {
 		Integer requestId = event.getRequestId();
 
+		// a request is checked on a caller's thread because findById() requires an authority
 		ImportRequestDto request = seriesImportService.findById(requestId);
 		if (request == null) {
 			// FIXME: how to handle error? maybe publish UnexpectedErrorEvent?
@@ -68,6 +72,10 @@ public class RetryDownloadingEventListener implements ApplicationListener<RetryD
 		}
 		
 		String url = request.getUrl();
+		workerPool.submit(Stage.DOWNLOADING, requestId, url, () -> download(requestId, url));
+	}
+	
+	private void download(Integer requestId, String url) {
 		LOG.info("Request #{}: retry downloading '{}'", requestId, url);
 		
 		DownloadResult result = downloaderService.download(url);
@@ -87,7 +95,13 @@ public class RetryDownloadingEventListener implements ApplicationListener<RetryD
 		// FIXME: do we need updated_by field?
 		seriesImportService.saveDownloadedContent(requestId, result.getDataAsString(), true);
 		
-		eventPublisher.publishEvent(new DownloadingSucceeded(this, requestId, url));
+		// parsing is a separate task in order to free the host's slot for the next download
+		workerPool.submitNext(
+			Stage.PARSING,
+			requestId,
+			url,
+			() -> eventPublisher.publishEvent(new DownloadingSucceeded(this, requestId, url))
+		);
 	}
 	
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.event;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.mystamps.web.feature.series.importing.ImportRequestFullInfo;
+import ru.mystamps.web.feature.series.importing.SeriesImportDb.SeriesImportRequestStatus;
+import ru.mystamps.web.feature.series.importing.SeriesImportService;
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool.Stage;
+
+import java.util.List;
+
+/**
+ * Submits the import requests that haven't been downloaded or parsed.
+ *
+ * Such requests are left after a restart or when {@link ImportWorkerPool} has rejected them
+ * because its queue was full. All the unfinished requests are resumed once after a start
+ * and after that only when the pool has rejected something.
+ */
+@RequiredArgsConstructor
+public class UnfinishedImportRequestsResumer {
+	private static final long ONE_MINUTE = 60 * 1000L;
+	private static final long TEN_MINUTES = 10 * ONE_MINUTE;
+	
+	private final Logger log;
+	private final SeriesImportService seriesImportService;
+	private final ImportWorkerPool workerPool;
+	private final ApplicationEventPublisher eventPublisher;
+	
+	// it's accessed only by a scheduler's thread
+	private Long lastRejectedCount;
+	
+	@Scheduled(fixedDelay = TEN_MINUTES, initialDelay = ONE_MINUTE)
+	public void resume() {
+		long rejectedCount = workerPool.getRejectedCount();
+		if (lastRejectedCount != null && lastRejectedCount == rejectedCount) {
+			return;
+		}
+		lastRejectedCount = rejectedCount;
+		
+		List<ImportRequestFullInfo> requests = seriesImportService.findUnfinished();
+		if (requests.isEmpty()) {
+			return;
+		}
+		
+		log.info("Resuming {} unfinished import request(s)", requests.size());
+		
+		for (ImportRequestFullInfo request : requests) {
+			Integer requestId = request.getId();
+			String url = request.getUrl();
+			
+			if (SeriesImportRequestStatus.UNPROCESSED.equals(request.getStatus())) {
+				eventPublisher.publishEvent(new ImportRequestCreated(this, requestId, url, true));
+				continue;
+			}
+			
+			workerPool.submitInBackground(
+				Stage.PARSING,
+				requestId,
+				url,
+				() -> eventPublisher.publishEvent(new DownloadingSucceeded(this, requestId, url))
+			);
+		}
+	}
+	
+}
@@ -19,64 +19,42 @@ package ru.mystamps.web.feature.series.importing.extractor;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import ru.mystamps.web.support.spring.jdbc.MapStringStringResultSetExtractor;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @RequiredArgsConstructor
 public class JdbcSiteParserDao implements SiteParserDao {
 	
-	private static final ResultSetExtractor<Map<String, String>> PARAMS_EXTRACTOR =
-		new MapStringStringResultSetExtractor("name", "value");
-	
 	private final NamedParameterJdbcTemplate jdbcTemplate;
 	
-	@Value("${site_parser.find_like_matched_url}")
-	private String findParserIdByMatchedUrlSql;
-	
-	@Value("${site_parser.find_names}")
-	private String findParserNamesSql;
-	
 	@SuppressWarnings("PMD.LongVariable")
-	@Value("${site_parser_param.find_all_with_parser_name}")
-	private String findParametersWithParserNameSql;
+	@Value("${site_parser_param.find_all_with_parser_id}")
+	private String findAllParametersWithParserIdSql;
 	
 	@Override
-	public Integer findParserIdForUrl(String url) {
-		try {
-			return jdbcTemplate.queryForObject(
-				findParserIdByMatchedUrlSql,
-				Collections.singletonMap("url", url),
-				Integer.class
-			);
-		} catch (EmptyResultDataAccessException ignored) {
-			return null;
+	public List<SiteParserConfiguration> findAllConfigurations() {
+		// parser id -> (param name -> param value), ordered by parser id
+		Map<Integer, Map<String, String>> paramsByParser = new TreeMap<>();
+		
+		RowCallbackHandler handler = rs -> paramsByParser
+			.computeIfAbsent(rs.getInt("parser_id"), id -> new HashMap<>())
+			.put(rs.getString("name"), rs.getString("value"));
+		
+		jdbcTemplate.query(findAllParametersWithParserIdSql, Collections.emptyMap(), handler);
+		
+		List<SiteParserConfiguration> result = new ArrayList<>(paramsByParser.size());
+		for (Map<String, String> params : paramsByParser.values()) {
+			result.add(new SiteParserConfiguration(params));
 		}
-	}
-	
-	@Override
-	public List<String> findParserNames() {
-		return jdbcTemplate.queryForList(
-			findParserNamesSql,
-			Collections.emptyMap(),
-			String.class
-		);
-	}
-	
-	@Override
-	public SiteParserConfiguration findConfigurationForParser(Integer parserId) {
-		Map<String, String> params = jdbcTemplate.query(
-			findParametersWithParserNameSql,
-			Collections.singletonMap("parser_id", parserId),
-			PARAMS_EXTRACTOR
-		);
 		
-		return new SiteParserConfiguration(params);
+		return result;
 	}
 	
 }
@@ -27,9 +27,24 @@ import org.apache.commons.lang3.Validate;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.QueryParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 // Getters/setters/no-arg constructor are being used in unit tests
 @Getter(AccessLevel.PROTECTED)
 @Setter(AccessLevel.PROTECTED)
@@ -60,6 +75,11 @@ public class JsoupSiteParser implements SiteParser {
 	private String altPriceLocator;
 	private String altCurrencyLocator;
 	
+	// Locators that have been compiled to the evaluators. A parser is shared between threads,
+	// so the locators are parsed only once instead of on every call of selectFirst(String).
+	@Getter(AccessLevel.NONE)
+	private final Map<String, Evaluator> evaluators = new ConcurrentHashMap<>();
+	
 	// @todo #975 SiteParserServiceImpl: add unit tests for constructor
 	public JsoupSiteParser(SiteParserConfiguration cfg) {
 		name                    = cfg.getName();
@@ -77,6 +97,9 @@ public class JsoupSiteParser implements SiteParser {
 		currencyValue           = cfg.getCurrencyValue();
 		altPriceLocator         = cfg.getAltPriceLocator();
 		altCurrencyLocator      = cfg.getAltCurrencyLocator();
+		
+		// compile all the locators at once to fail early when some of them is invalid
+		getEvaluators();
 	}
 	
 	/**
@@ -89,25 +112,47 @@ public class JsoupSiteParser implements SiteParser {
 		Validate.isTrue(StringUtils.isNotBlank(htmlPage), "Page content must be non-blank");
 		
 		String baseUri = matchedUrl;
-		Document doc = Jsoup.parse(htmlPage, baseUri);
-		Element body = doc.body();
+		return parse(Jsoup.parse(htmlPage, baseUri));
+	}
+	
+	/**
+	 * Parse HTML document in UTF-8 encoding directly from a stream.
+	 *
+	 * A caller is responsible for closing the stream.
+	 *
+	 * @return info about a series from the document
+	 */
+	@Override
+	public SeriesInfo parse(InputStream htmlPage) {
+		Validate.isTrue(htmlPage != null, "Page content must be non null");
+		
+		String baseUri = matchedUrl;
+		try {
+			return parse(Jsoup.parse(htmlPage, StandardCharsets.UTF_8.name(), baseUri));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	
+	private SeriesInfo parse(Document doc) {
+		LocatedElements elements = locate(doc.body());
 		
 		SeriesInfo info = new SeriesInfo();
 		
-		info.setCategoryName(extractCategory(body));
-		info.setCountryName(extractCountry(body));
-		info.setImageUrl(extractImageUrl(body));
-		info.setIssueDate(extractIssueDate(body));
-		info.setQuantity(extractQuantity(body));
-		info.setPerforated(extractPerforated(body));
-		info.setMichelNumbers(extractMichelNumbers(body));
-		info.setSellerName(extractSellerName(body));
-		info.setSellerUrl(extractSellerUrl(body));
-		info.setPrice(extractPrice(body));
-		info.setCurrency(extractCurrency(body));
-		info.setAltPrice(extractAltPrice(body));
-		info.setAltCurrency(extractAltCurrency(body));
-		info.setCondition(extractCondition(body));
+		info.setCategoryName(extractCategory(elements));
+		info.setCountryName(extractCountry(elements));
+		info.setImageUrl(extractImageUrl(elements));
+		info.setIssueDate(extractIssueDate(elements));
+		info.setQuantity(extractQuantity(elements));
+		info.setPerforated(extractPerforated(elements));
+		info.setMichelNumbers(extractMichelNumbers(elements));
+		info.setSellerName(extractSellerName(elements));
+		info.setSellerUrl(extractSellerUrl(elements));
+		info.setPrice(extractPrice(elements));
+		info.setCurrency(extractCurrency(elements));
+		info.setAltPrice(extractAltPrice(elements));
+		info.setAltCurrency(extractAltCurrency(elements));
+		info.setCondition(extractCondition(elements));
 		
 		return info;
 	}
@@ -117,10 +162,10 @@ public class JsoupSiteParser implements SiteParser {
 		return name;
 	}
 	
-	protected String extractCategory(Element body) {
+	protected String extractCategory(LocatedElements elements) {
 		String locator = ObjectUtils.firstNonNull(categoryLocator, shortDescriptionLocator);
 		
-		String category = getTextOfTheFirstElement(body, locator);
+		String category = elements.getTextOfTheFirstElement(locator);
 		if (category == null) {
 			return null;
 		}
@@ -129,10 +174,10 @@ public class JsoupSiteParser implements SiteParser {
 		return category;
 	}
 	
-	protected String extractCountry(Element body) {
+	protected String extractCountry(LocatedElements elements) {
 		String locator = ObjectUtils.firstNonNull(countryLocator, shortDescriptionLocator);
 		
-		String country = getTextOfTheFirstElement(body, locator);
+		String country = elements.getTextOfTheFirstElement(locator);
 		if (country == null) {
 			return null;
 		}
@@ -141,8 +186,8 @@ public class JsoupSiteParser implements SiteParser {
 		return country;
 	}
 	
-	protected String extractImageUrl(Element body) {
-		Element elem = getFirstElement(body, imageUrlLocator);
+	protected String extractImageUrl(LocatedElements elements) {
+		Element elem = elements.getFirstElement(imageUrlLocator);
 		if (elem == null) {
 			return null;
 		}
@@ -153,10 +198,10 @@ public class JsoupSiteParser implements SiteParser {
 		return StringUtils.trimToNull(url);
 	}
 	
-	protected String extractIssueDate(Element body) {
+	protected String extractIssueDate(LocatedElements elements) {
 		String locator = ObjectUtils.firstNonNull(issueDateLocator, shortDescriptionLocator);
 		
-		String date = getTextOfTheFirstElement(body, locator);
+		String date = elements.getTextOfTheFirstElement(locator);
 		if (date == null) {
 			return null;
 		}
@@ -165,8 +210,8 @@ public class JsoupSiteParser implements SiteParser {
 		return date;
 	}
 	
-	protected String extractQuantity(Element body) {
-		String quantity = getTextOfTheFirstElement(body, shortDescriptionLocator);
+	protected String extractQuantity(LocatedElements elements) {
+		String quantity = elements.getTextOfTheFirstElement(shortDescriptionLocator);
 		if (quantity == null) {
 			return null;
 		}
@@ -175,8 +220,8 @@ public class JsoupSiteParser implements SiteParser {
 		return quantity;
 	}
 	
-	protected String extractPerforated(Element body) {
-		String perforated = getTextOfTheFirstElement(body, shortDescriptionLocator);
+	protected String extractPerforated(LocatedElements elements) {
+		String perforated = elements.getTextOfTheFirstElement(shortDescriptionLocator);
 		if (perforated == null) {
 			return null;
 		}
@@ -186,8 +231,8 @@ public class JsoupSiteParser implements SiteParser {
 	}
 	
 	// @todo #694 Support for a separate locator for a field with michel numbers
-	protected String extractMichelNumbers(Element body) {
-		String description = getTextOfTheFirstElement(body, shortDescriptionLocator);
+	protected String extractMichelNumbers(LocatedElements elements) {
+		String description = elements.getTextOfTheFirstElement(shortDescriptionLocator);
 		if (description == null) {
 			return null;
 		}
@@ -197,8 +242,8 @@ public class JsoupSiteParser implements SiteParser {
 		
 	}
 	
-	protected String extractSellerName(Element body) {
-		String sellerName = getTextOfTheFirstElement(body, sellerLocator);
+	protected String extractSellerName(LocatedElements elements) {
+		String sellerName = elements.getTextOfTheFirstElement(sellerLocator);
 		if (sellerName == null) {
 			return null;
 		}
@@ -207,10 +252,10 @@ public class JsoupSiteParser implements SiteParser {
 		return sellerName;
 	}
 	
-	protected String extractSellerUrl(Element body) {
+	protected String extractSellerUrl(LocatedElements elements) {
 		String locator = ObjectUtils.firstNonNull(sellerUrlLocator, sellerLocator);
 		
-		Element elem = getFirstElement(body, locator);
+		Element elem = elements.getFirstElement(locator);
 		if (elem == null) {
 			return null;
 		}
@@ -220,8 +265,8 @@ public class JsoupSiteParser implements SiteParser {
 		return url;
 	}
 	
-	protected String extractPrice(Element body) {
-		Element elem = getFirstElement(body, priceLocator);
+	protected String extractPrice(LocatedElements elements) {
+		Element elem = elements.getFirstElement(priceLocator);
 		if (elem == null) {
 			return null;
 		}
@@ -235,9 +280,9 @@ public class JsoupSiteParser implements SiteParser {
 		return price;
 	}
 	
-	protected String extractCurrency(Element body) {
+	protected String extractCurrency(LocatedElements elements) {
 		if (currencyLocator != null) {
-			String currency = getTextOfTheFirstElement(body, currencyLocator);
+			String currency = elements.getTextOfTheFirstElement(currencyLocator);
 			if (currency != null) {
 				LOG.debug("Extracted currency: '{}'", currency);
 				return currency;
@@ -252,8 +297,8 @@ public class JsoupSiteParser implements SiteParser {
 		return currencyValue;
 	}
 	
-	protected String extractAltPrice(Element body) {
-		String price = getTextOfTheFirstElement(body, altPriceLocator);
+	protected String extractAltPrice(LocatedElements elements) {
+		String price = elements.getTextOfTheFirstElement(altPriceLocator);
 		if (price == null) {
 			return null;
 		}
@@ -262,8 +307,8 @@ public class JsoupSiteParser implements SiteParser {
 		return price;
 	}
 	
-	protected String extractAltCurrency(Element body) {
-		String currency = getTextOfTheFirstElement(body, altCurrencyLocator);
+	protected String extractAltCurrency(LocatedElements elements) {
+		String currency = elements.getTextOfTheFirstElement(altCurrencyLocator);
 		if (currency == null) {
 			return null;
 		}
@@ -273,8 +318,8 @@ public class JsoupSiteParser implements SiteParser {
 	}
 	
 	// @todo #1326 JsoupSiteParser.extractCondition(): add unit tests
-	protected String extractCondition(Element body) {
-		String description = getTextOfTheFirstElement(body, shortDescriptionLocator);
+	protected String extractCondition(LocatedElements elements) {
+		String description = elements.getTextOfTheFirstElement(shortDescriptionLocator);
 		if (description == null) {
 			return null;
 		}
@@ -283,21 +328,71 @@ public class JsoupSiteParser implements SiteParser {
 		return description;
 	}
 	
-	private static Element getFirstElement(Element body, String locator) {
-		if (locator == null) {
-			return null;
-		}
+	/**
+	 * Finds the first elements for all the locators by a single traversal of a document.
+	 *
+	 * Many fields are extracted by the same locator (usually, by a short description
+	 * locator), so every distinct locator is evaluated only once. The traversal stops
+	 * as soon as all the locators have been matched.
+	 */
+	protected LocatedElements locate(Element body) {
+		Map<String, Evaluator> pending = getEvaluators();
+		Map<String, Element> found = new HashMap<>();
 		
-		return body.selectFirst(locator);
+		NodeTraversor.filter(new NodeFilter() {
+			@Override
+			public FilterResult head(Node node, int depth) {
+				if (!(node instanceof Element)) {
+					return FilterResult.CONTINUE;
+				}
+				
+				Element elem = (Element)node;
+				Iterator<Map.Entry<String, Evaluator>> it = pending.entrySet().iterator();
+				while (it.hasNext()) {
+					Map.Entry<String, Evaluator> entry = it.next();
+					if (entry.getValue().matches(body, elem)) {
+						found.put(entry.getKey(), elem);
+						it.remove();
+					}
+				}
+				
+				return pending.isEmpty() ? FilterResult.STOP : FilterResult.CONTINUE;
+			}
+			
+			@Override
+			public FilterResult tail(Node node, int depth) {
+				return FilterResult.CONTINUE;
+			}
+		}, body);
+		
+		return new LocatedElements(found);
 	}
 	
-	private static String getTextOfTheFirstElement(Element body, String locator) {
-		Element elem = getFirstElement(body, locator);
-		if (elem == null) {
-			return null;
+	// Returns a new map of the distinct locators and their compiled evaluators
+	private Map<String, Evaluator> getEvaluators() {
+		Map<String, Evaluator> result = new LinkedHashMap<>();
+		for (String locator : new String[]{
+			categoryLocator,
+			countryLocator,
+			shortDescriptionLocator,
+			imageUrlLocator,
+			issueDateLocator,
+			sellerLocator,
+			sellerUrlLocator,
+			priceLocator,
+			currencyLocator,
+			altPriceLocator,
+			altCurrencyLocator
+		}) {
+			if (locator != null) {
+				result.computeIfAbsent(locator, this::compile);
+			}
 		}
-		
-		return elem.text();
+		return result;
+	}
+	
+	private Evaluator compile(String locator) {
+		return evaluators.computeIfAbsent(locator, QueryParser::parse);
 	}
 	
 }
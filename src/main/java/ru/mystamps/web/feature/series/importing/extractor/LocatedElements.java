@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.extractor;
+
+import lombok.RequiredArgsConstructor;
+import org.jsoup.nodes.Element;
+
+import java.util.Map;
+
+/**
+ * The first elements of a page that have been found by the locators of a site parser.
+ *
+ * @see JsoupSiteParser#locate(Element)
+ */
+@RequiredArgsConstructor
+class LocatedElements {
+	
+	// locator -> the first matched element. Locators without matches are absent.
+	private final Map<String, Element> elements;
+	
+	public Element getFirstElement(String locator) {
+		if (locator == null) {
+			return null;
+		}
+		
+		return elements.get(locator);
+	}
+	
+	public String getTextOfTheFirstElement(String locator) {
+		Element elem = getFirstElement(locator);
+		if (elem == null) {
+			return null;
+		}
+		
+		return elem.text();
+	}
+	
+}
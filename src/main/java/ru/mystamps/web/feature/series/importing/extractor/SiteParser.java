@@ -17,6 +17,9 @@
  */
 package ru.mystamps.web.feature.series.importing.extractor;
 
+import java.io.InputStream;
+
 public interface SiteParser {
 	SeriesInfo parse(String htmlPage);
+	SeriesInfo parse(InputStream htmlPage);
 }
@@ -20,7 +20,5 @@ package ru.mystamps.web.feature.series.importing.extractor;
 import java.util.List;
 
 public interface SiteParserDao {
-	Integer findParserIdForUrl(String url);
-	List<String> findParserNames();
-	SiteParserConfiguration findConfigurationForParser(Integer parserId);
+	List<SiteParserConfiguration> findAllConfigurations();
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.extractor;
+
+import lombok.RequiredArgsConstructor;
+import org.jsoup.select.Selector;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory registry of the site parsers.
+ *
+ * All the parsers are loaded by a single query on first use and then they are shared between
+ * threads. A parser for a URL is found by the longest matching prefix. The configurations are
+ * periodically re-read from a database and the parsers are re-created only when they have been
+ * changed.
+ */
+@RequiredArgsConstructor
+public class SiteParserRegistry {
+	private static final long FIVE_MINUTES = 5 * 60 * 1000L;
+	
+	private final Logger log;
+	private final SiteParserDao siteParserDao;
+	
+	// null until the first load. The object is never modified, a refresh replaces it.
+	private volatile Parsers parsers;
+	
+	public SiteParser findForUrl(String url) {
+		return getParsers().findForUrl(url);
+	}
+	
+	public List<String> getParserNames() {
+		return getParsers().getNames();
+	}
+	
+	@Scheduled(fixedDelay = FIVE_MINUTES, initialDelay = FIVE_MINUTES)
+	public void refresh() {
+		if (parsers == null) {
+			// nobody has used it so far
+			return;
+		}
+		
+		// scheduled tasks must not throw, otherwise they won't be executed anymore
+		try {
+			load();
+		} catch (RuntimeException ex) { // NOPMD: AvoidCatchingGenericException
+			log.warn("Couldn't refresh site parsers", ex);
+		}
+	}
+	
+	private Parsers getParsers() {
+		Parsers result = parsers;
+		if (result != null) {
+			return result;
+		}
+		return load();
+	}
+	
+	private synchronized Parsers load() {
+		List<SiteParserConfiguration> configurations = siteParserDao.findAllConfigurations();
+		
+		Parsers current = parsers;
+		if (current != null && current.getConfigurations().equals(configurations)) {
+			return current;
+		}
+		
+		Parsers result = new Parsers(log, configurations);
+		parsers = result;
+		
+		log.info("Loaded site parsers: {}", result.getNames());
+		
+		return result;
+	}
+	
+	private static class Parsers {
+		private final List<SiteParserConfiguration> configurations;
+		private final List<String> names;
+		private final UrlPrefixTrie trie = new UrlPrefixTrie();
+		
+		Parsers(Logger log, List<SiteParserConfiguration> configurations) {
+			this.configurations = configurations;
+			
+			List<String> parserNames = new ArrayList<>(configurations.size());
+			for (SiteParserConfiguration cfg : configurations) {
+				String url = cfg.getMatchedUrl();
+				if (url == null) {
+					log.warn("Parser '{}' has no matched url. Skipped", cfg.getName());
+					continue;
+				}
+				
+				JsoupSiteParser parser;
+				try {
+					parser = new JsoupSiteParser(cfg);
+				} catch (Selector.SelectorParseException | IllegalArgumentException ex) {
+					log.warn("Parser '{}' has invalid locator: {}", cfg.getName(), ex.getMessage());
+					continue;
+				}
+				
+				trie.put(url, parser);
+				parserNames.add(cfg.getName());
+			}
+			this.names = Collections.unmodifiableList(parserNames);
+		}
+		
+		public List<SiteParserConfiguration> getConfigurations() {
+			return configurations;
+		}
+		
+		public List<String> getNames() {
+			return names;
+		}
+		
+		public SiteParser findForUrl(String url) {
+			return trie.findByLongestPrefix(url);
+		}
+		
+	}
+	
+	/**
+	 * Trie of URL prefixes. It's populated once and then it's only read.
+	 */
+	private static class UrlPrefixTrie {
+		private final Map<Character, UrlPrefixTrie> children = new HashMap<>();
+		private SiteParser value;
+		
+		public void put(String prefix, SiteParser parser) {
+			UrlPrefixTrie node = this;
+			for (int i = 0; i < prefix.length(); i++) {
+				node = node.children.computeIfAbsent(prefix.charAt(i), ch -> new UrlPrefixTrie());
+			}
+			// when two parsers have the same url, the first one wins like it was with a query
+			if (node.value == null) {
+				node.value = parser;
+			}
+		}
+		
+		public SiteParser findByLongestPrefix(String url) {
+			SiteParser result = value;
+			UrlPrefixTrie node = this;
+			for (int i = 0; i < url.length(); i++) {
+				node = node.children.get(url.charAt(i));
+				if (node == null) {
+					break;
+				}
+				if (node.value != null) {
+					result = node.value;
+				}
+			}
+			return result;
+		}
+		
+	}
+	
+}
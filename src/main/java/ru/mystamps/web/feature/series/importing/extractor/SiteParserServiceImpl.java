@@ -20,7 +20,6 @@ package ru.mystamps.web.feature.series.importing.extractor;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -28,34 +27,26 @@ import java.util.List;
 public class SiteParserServiceImpl implements SiteParserService {
 	
 	private final Logger log;
-	private final SiteParserDao siteParserDao;
+	private final SiteParserRegistry siteParserRegistry;
 	
 	// @todo #975 SiteParserServiceImpl.findForUrl(): add unit tests
 	@Override
-	@Transactional(readOnly = true)
 	public SiteParser findForUrl(String url) {
 		Validate.isTrue(url != null, "Url must be non null");
 		
-		Integer parserId = siteParserDao.findParserIdForUrl(url);
-		if (parserId == null) {
+		SiteParser parser = siteParserRegistry.findForUrl(url);
+		if (parser == null) {
 			log.info("Could not find parser for '{}'", url);
 			return null;
 		}
 		
-		SiteParserConfiguration cfg = siteParserDao.findConfigurationForParser(parserId);
-		if (cfg == null) {
-			log.warn("Could not find configuration for parser #{}", parserId);
-			return null;
-		}
-		
-		return new JsoupSiteParser(cfg);
+		return parser;
 	}
 	
 	// @todo #975 SiteParserServiceImpl.findParserNames(): add unit tests
 	@Override
-	@Transactional(readOnly = true)
 	public List<String> findParserNames() {
-		return siteParserDao.findParserNames();
+		return siteParserRegistry.getParserNames();
 	}
 	
 }
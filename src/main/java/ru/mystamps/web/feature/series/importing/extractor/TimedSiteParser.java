@@ -22,6 +22,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 
+import java.io.InputStream;
+
 // @todo #801 TimedSiteParser: add unit tests
 @RequiredArgsConstructor
 public class TimedSiteParser implements SiteParser {
@@ -55,6 +57,21 @@ public class TimedSiteParser implements SiteParser {
 		return result;
 	}
 	
+	@Override
+	public SeriesInfo parse(InputStream htmlPage) {
+		StopWatch timer = new StopWatch();
+		
+		timer.start();
+		SeriesInfo result = parser.parse(htmlPage);
+		timer.stop();
+		
+		if (result != null) {
+			log.debug("HTML page has been parsed from a stream in {} msecs", timer.getTime());
+		}
+		
+		return result;
+	}
+	
 	@Override
 	public String toString() {
 		return parser.toString();
@@ -26,6 +26,7 @@ import java.util.Date;
 @Setter
 public class AddSuspiciousActivityDbDto {
 	private String type;
+	private Integer typeId;
 	private Date occurredAt;
 	private String page;
 	private String method;
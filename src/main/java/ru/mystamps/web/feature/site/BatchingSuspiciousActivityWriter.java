@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateUtils;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes suspicious activities to a database in batches by a background thread.
+ *
+ * Activities are put into a bounded queue and are written when {@code batchSize} of them
+ * have been collected or when {@code flushIntervalInMillis} has elapsed. When the queue
+ * is full (or a batch couldn't be written), activities are dropped and counted, so they
+ * can be shown in a daily report. The remaining activities are written on shutdown.
+ */
+public class BatchingSuspiciousActivityWriter implements SuspiciousActivityWriter {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	// we need only counters for yesterday and today but keep a few more days just in case
+	private static final int KEEP_DROPPED_COUNTERS_DAYS = 7;
+	
+	private final Logger log;
+	private final SuspiciousActivityDao suspiciousActivities;
+	private final TransactionTemplate transactionTemplate;
+	private final int capacity;
+	private final int batchSize;
+	private final ScheduledExecutorService executor;
+	private final ScheduledFuture<?> periodicFlush;
+	
+	// The size of ConcurrentLinkedQueue isn't a constant-time operation, so we track it
+	// separately. It's incremented before an element is added and, therefore, may be
+	// slightly greater than the real size of the queue.
+	private final Queue<AddSuspiciousActivityDbDto> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queueLength = new AtomicInteger();
+	private final Lock flushLock = new ReentrantLock();
+	
+	private final ConcurrentMap<String, Integer> typeIds = new ConcurrentHashMap<>();
+	private final ConcurrentNavigableMap<Date, AtomicLong> droppedPerDay =
+		new ConcurrentSkipListMap<>();
+	
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	
+	@SuppressWarnings("checkstyle:parameternumber")
+	public BatchingSuspiciousActivityWriter(
+		Logger log,
+		SuspiciousActivityDao suspiciousActivities,
+		PlatformTransactionManager transactionManager,
+		int capacity,
+		int batchSize,
+		long flushIntervalInMillis) {
+		
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than zero");
+		Validate.isTrue(capacity >= batchSize, "Capacity must be not less than batch size");
+		Validate.isTrue(flushIntervalInMillis > 0, "Flush interval must be greater than zero");
+		
+		this.log = log;
+		this.suspiciousActivities = suspiciousActivities;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.executor = Executors.newSingleThreadScheduledExecutor(
+			new CustomizableThreadFactory("suspicious-activity-")
+		);
+		this.periodicFlush = executor.scheduleWithFixedDelay(
+			this::flush,
+			flushIntervalInMillis,
+			flushIntervalInMillis,
+			TimeUnit.MILLISECONDS
+		);
+	}
+	
+	@Override
+	public void add(AddSuspiciousActivityDbDto activity) {
+		int length = queueLength.incrementAndGet();
+		if (length > capacity) {
+			queueLength.decrementAndGet();
+			drop(activity);
+			return;
+		}
+		
+		queue.offer(activity);
+		
+		// don't wait for a timer when a batch is ready
+		if (length % batchSize == 0) {
+			try {
+				executor.execute(this::flush);
+			} catch (RejectedExecutionException ignored) {
+				// we're shutting down and the remaining activities will be written by shutdown()
+			}
+		}
+	}
+	
+	@Override
+	public long countDroppedSince(Date date) {
+		Date day = DateUtils.truncate(date, Calendar.DAY_OF_MONTH);
+		
+		long dropped = 0L;
+		for (AtomicLong counter : droppedPerDay.tailMap(day).values()) {
+			dropped = Math.addExact(dropped, counter.get());
+		}
+		return dropped;
+	}
+	
+	public int getQueueLength() {
+		return queueLength.get();
+	}
+	
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+	
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+	
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		log.info(
+			"Suspicious activities: {} written in {} batches, {} dropped, {} in queue",
+			getWrittenCount(),
+			getBatchCount(),
+			getDroppedCount(),
+			getQueueLength()
+		);
+		
+		Date today = DateUtils.truncate(new Date(), Calendar.DAY_OF_MONTH);
+		droppedPerDay.headMap(DateUtils.addDays(today, -KEEP_DROPPED_COUNTERS_DAYS)).clear();
+	}
+	
+	// Invoked by Spring when the context is closing
+	public void shutdown() {
+		// a flush that is in progress will be completed but the next ones won't be started
+		periodicFlush.cancel(false);
+		executor.shutdown();
+		flush();
+	}
+	
+	/**
+	 * Writes all the queued activities.
+	 */
+	// package-private for using in unit tests
+	void flush() {
+		flushLock.lock();
+		try {
+			List<AddSuspiciousActivityDbDto> batch = pollBatch();
+			while (!batch.isEmpty()) {
+				write(batch);
+				batch = pollBatch();
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	private List<AddSuspiciousActivityDbDto> pollBatch() {
+		List<AddSuspiciousActivityDbDto> batch = new ArrayList<>(batchSize);
+		while (batch.size() < batchSize) {
+			AddSuspiciousActivityDbDto activity = queue.poll();
+			if (activity == null) {
+				break;
+			}
+			queueLength.decrementAndGet();
+			batch.add(activity);
+		}
+		return batch;
+	}
+	
+	// this method is invoked by a scheduler and it should never throw an exception
+	// because the next executions will be cancelled
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	private void write(List<AddSuspiciousActivityDbDto> batch) {
+		try {
+			List<AddSuspiciousActivityDbDto> activities = resolveTypes(batch);
+			if (activities.isEmpty()) {
+				return;
+			}
+			
+			transactionTemplate.execute(status -> {
+				suspiciousActivities.addAll(activities);
+				return null;
+			});
+			writtenCount.addAndGet(activities.size());
+			batchCount.incrementAndGet();
+			
+		} catch (RuntimeException ex) {
+			log.error("Failed to write {} suspicious activities", batch.size(), ex);
+			batch.forEach(this::drop);
+		}
+	}
+	
+	private List<AddSuspiciousActivityDbDto> resolveTypes(
+		List<AddSuspiciousActivityDbDto> batch) {
+		
+		List<AddSuspiciousActivityDbDto> activities = new ArrayList<>(batch.size());
+		for (AddSuspiciousActivityDbDto activity : batch) {
+			Integer typeId = findTypeId(activity.getType());
+			if (typeId == null) {
+				log.error("Unknown type of suspicious activity: '{}'", activity.getType());
+				continue;
+			}
+			activity.setTypeId(typeId);
+			activities.add(activity);
+		}
+		return activities;
+	}
+	
+	private Integer findTypeId(String type) {
+		Integer typeId = typeIds.get(type);
+		if (typeId == null) {
+			// types are added only by migrations, so we reload them only when
+			// an unknown type has been encountered
+			typeIds.putAll(suspiciousActivities.findTypeIds());
+			typeId = typeIds.get(type);
+		}
+		return typeId;
+	}
+	
+	private void drop(AddSuspiciousActivityDbDto activity) {
+		Date day = DateUtils.truncate(activity.getOccurredAt(), Calendar.DAY_OF_MONTH);
+		droppedPerDay.computeIfAbsent(day, key -> new AtomicLong()).incrementAndGet();
+		droppedCount.incrementAndGet();
+	}
+	
+}
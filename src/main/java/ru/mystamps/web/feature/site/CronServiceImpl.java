@@ -56,7 +56,7 @@ public class CronServiceImpl implements CronService {
 
 	@Override
 	@Scheduled(cron = EVERY_DAY_AT_00_00)
-	@Transactional(readOnly = true)
+	@Transactional
 	public void sendDailyStatistics() {
 		mailService.sendDailyStatisticsToAdmin(getDailyReport());
 	}
@@ -109,6 +109,9 @@ public class CronServiceImpl implements CronService {
 		);
 		report.setInvalidCsrfCounter(invalidCsrfCounter);
 		
+		long droppedEventsCounter = suspiciousActivityService.countDroppedSince(yesterday);
+		report.setDroppedEventsCounter(droppedEventsCounter);
+		
 		return report;
 	}
 	
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.mystamps.web.support.mailgun.MailgunEmail;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class JdbcMailOutboxDao implements MailOutboxDao {
+	
+	// see size of the last_error field in the mail_outbox table
+	private static final int MAX_ERROR_LENGTH = 255;
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	
+	@Value("${mail_outbox.create}")
+	private String addMailSql;
+	
+	@Value("${mail_outbox.find_ready_to_send}")
+	private String findReadyToSendSql;
+	
+	@Value("${mail_outbox.remove_by_id}")
+	private String removeByIdSql;
+	
+	@Value("${mail_outbox.mark_as_failed}")
+	private String markAsFailedSql;
+	
+	@Value("${mail_outbox.count_pending}")
+	private String countPendingSql;
+	
+	@Value("${mail_outbox.count_undeliverable}")
+	private String countUndeliverableSql;
+	
+	@Override
+	public void add(MailgunEmail email, Date createdAt) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("recipient_address", email.recipientAddress());
+		params.put("sender_address", email.senderAddress());
+		params.put("sender_name", email.senderName());
+		params.put("subject", email.subject());
+		params.put("text", email.text());
+		params.put("tag", email.tag());
+		params.put("test_mode", email.testMode());
+		params.put("created_at", createdAt);
+		
+		int affected = jdbcTemplate.update(addMailSql, params);
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after adding e-mail to outbox: %d",
+			affected
+		);
+	}
+	
+	@Override
+	public List<OutboxMailDto> findReadyToSend(Date now, int limit) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("now", now);
+		params.put("limit", limit);
+		
+		return jdbcTemplate.query(findReadyToSendSql, params, RowMappers::forOutboxMailDto);
+	}
+	
+	@Override
+	public void removeById(Integer id) {
+		int affected = jdbcTemplate.update(removeByIdSql, Collections.singletonMap("id", id));
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after removing e-mail #%d from outbox: %d",
+			id,
+			affected
+		);
+	}
+	
+	@Override
+	public void markAsFailed(Integer id, Date nextAttemptAt, String error) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", id);
+		params.put("next_attempt_at", nextAttemptAt);
+		params.put("last_error", StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+		
+		int affected = jdbcTemplate.update(markAsFailedSql, params);
+		
+		Validate.validState(
+			affected == 1,
+			"Unexpected number of affected rows after updating e-mail #%d in outbox: %d",
+			id,
+			affected
+		);
+	}
+	
+	@Override
+	public long countPending() {
+		return jdbcTemplate.queryForObject(
+			countPendingSql,
+			Collections.<String, Object>emptyMap(),
+			Long.class
+		);
+	}
+	
+	@Override
+	public long countUndeliverable() {
+		return jdbcTemplate.queryForObject(
+			countUndeliverableSql,
+			Collections.<String, Object>emptyMap(),
+			Long.class
+		);
+	}
+	
+}
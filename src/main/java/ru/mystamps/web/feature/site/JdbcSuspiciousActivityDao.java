@@ -20,7 +20,11 @@ package ru.mystamps.web.feature.site;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.Validate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.mystamps.web.support.spring.jdbc.MapStringIntegerResultSetExtractor;
 
 import java.util.Collections;
 import java.util.Date;
@@ -31,11 +35,17 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JdbcSuspiciousActivityDao implements SuspiciousActivityDao {
 	
+	private static final ResultSetExtractor<Map<String, Integer>> NAME_ID_EXTRACTOR =
+		new MapStringIntegerResultSetExtractor("name", "id");
+	
 	private final NamedParameterJdbcTemplate jdbcTemplate;
 	
 	@Value("${suspicious_activity.create}")
 	private String addSuspiciousActivitySql;
 	
+	@Value("${suspicious_activity.create_with_type_id}")
+	private String addSuspiciousActivityWithTypeIdSql;
+	
 	@Value("${suspicious_activity.count_all}")
 	private String countAllSql;
 	
@@ -45,6 +55,9 @@ public class JdbcSuspiciousActivityDao implements SuspiciousActivityDao {
 	@Value("${suspicious_activity.find_all}")
 	private String findAllSql;
 	
+	@Value("${suspicious_activity_type.find_all}")
+	private String findTypeIdsSql;
+	
 	@Override
 	public void add(AddSuspiciousActivityDbDto activity) {
 		Map<String, Object> params = new HashMap<>();
@@ -69,6 +82,32 @@ public class JdbcSuspiciousActivityDao implements SuspiciousActivityDao {
 		);
 	}
 	
+	/**
+	 * Inserts activities in a single batch.
+	 *
+	 * Unlike {@link #add(AddSuspiciousActivityDbDto)}, it expects that a type id
+	 * has been already resolved.
+	 */
+	@Override
+	public void addAll(List<AddSuspiciousActivityDbDto> activities) {
+		SqlParameterSource[] batch = new SqlParameterSource[activities.size()];
+		int i = 0;
+		for (AddSuspiciousActivityDbDto activity : activities) {
+			Map<String, Object> params = new HashMap<>();
+			params.put("type_id", activity.getTypeId());
+			params.put("occurred_at", activity.getOccurredAt());
+			params.put("page", activity.getPage());
+			params.put("user_id", activity.getUserId());
+			params.put("ip", activity.getIp());
+			params.put("method", activity.getMethod());
+			params.put("referer_page", activity.getRefererPage());
+			params.put("user_agent", activity.getUserAgent());
+			batch[i++] = new MapSqlParameterSource(params);
+		}
+		
+		jdbcTemplate.batchUpdate(addSuspiciousActivityWithTypeIdSql, batch);
+	}
+	
 	@Override
 	public long countAll() {
 		return jdbcTemplate.queryForObject(
@@ -108,4 +147,13 @@ public class JdbcSuspiciousActivityDao implements SuspiciousActivityDao {
 		);
 	}
 	
+	@Override
+	public Map<String, Integer> findTypeIds() {
+		return jdbcTemplate.query(
+			findTypeIdsSql,
+			Collections.emptyMap(),
+			NAME_ID_EXTRACTOR
+		);
+	}
+	
 }
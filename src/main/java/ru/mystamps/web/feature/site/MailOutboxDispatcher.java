@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ru.mystamps.web.support.mailgun.MailgunEmail;
+import ru.mystamps.web.support.mailgun.MailgunEmailSendingStrategy;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends e-mails from an outbox by a background thread.
+ *
+ * The outbox is checked every {@code pollIntervalInMillis} after the application context has
+ * been started (and also when an e-mail has been added). E-mails are taken in batches of
+ * {@code batchSize} and are sent by using at most {@code concurrency} parallel requests.
+ * An e-mail that couldn't be sent is retried later with an exponentially growing delay
+ * (starting from {@code retryDelayInMillis}) and after {@code maxAttempts} it's left
+ * in the outbox as undeliverable.
+ *
+ * An e-mail is removed from the outbox after it has been sent, so if an application has been
+ * stopped in between, the e-mail will be sent again.
+ */
+public class MailOutboxDispatcher implements ApplicationListener<ContextRefreshedEvent> {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	// an upper bound of a delay between attempts
+	private static final long MAX_RETRY_DELAY = 6 * ONE_HOUR;
+	
+	private final Logger log;
+	private final MailOutboxDao outbox;
+	private final MailgunEmailSendingStrategy mailer;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final long pollIntervalInMillis;
+	private final long retryDelayInMillis;
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService senders;
+	
+	// guarded by "this"
+	private ScheduledFuture<?> polling;
+	
+	private final LongAdder sentCount = new LongAdder();
+	private final LongAdder failedCount = new LongAdder();
+	private final LongAdder undeliverableCount = new LongAdder();
+	private final LongAdder totalSendingTime = new LongAdder();
+	private final LongAccumulator maxSendingTime = new LongAccumulator(Math::max, 0L);
+	private final LongAdder totalDeliveryDelay = new LongAdder();
+	
+	@SuppressWarnings("checkstyle:parameternumber")
+	public MailOutboxDispatcher(
+		Logger log,
+		MailOutboxDao outbox,
+		MailgunEmailSendingStrategy mailer,
+		int batchSize,
+		int concurrency,
+		long pollIntervalInMillis,
+		int maxAttempts,
+		long retryDelayInMillis) {
+		
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than zero");
+		Validate.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+		Validate.isTrue(pollIntervalInMillis > 0, "Poll interval must be greater than zero");
+		Validate.isTrue(maxAttempts > 0, "Max attempts must be greater than zero");
+		Validate.isTrue(retryDelayInMillis > 0, "Retry delay must be greater than zero");
+		
+		this.log = log;
+		this.outbox = outbox;
+		this.mailer = mailer;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.pollIntervalInMillis = pollIntervalInMillis;
+		this.retryDelayInMillis = retryDelayInMillis;
+		this.senders = Executors.newFixedThreadPool(
+			concurrency,
+			new CustomizableThreadFactory("mail-sender-")
+		);
+		
+		// dispatching is always performed by a single thread, so the same e-mail
+		// can't be taken twice
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(
+			new CustomizableThreadFactory("mail-outbox-")
+		);
+	}
+	
+	/**
+	 * Starts polling the outbox when the application context has been refreshed.
+	 */
+	@Override
+	public synchronized void onApplicationEvent(ContextRefreshedEvent event) {
+		if (polling != null || scheduler.isShutdown()) {
+			// a context might be refreshed more than once
+			return;
+		}
+		
+		polling = scheduler.scheduleWithFixedDelay(
+			this::dispatch,
+			pollIntervalInMillis,
+			pollIntervalInMillis,
+			TimeUnit.MILLISECONDS
+		);
+	}
+	
+	/**
+	 * Checks the outbox without waiting for a timer.
+	 */
+	public void wakeUp() {
+		try {
+			scheduler.execute(this::dispatch);
+		} catch (RejectedExecutionException ignored) {
+			// we're shutting down and the e-mail will be sent after a restart
+		}
+	}
+	
+	public long getSentCount() {
+		return sentCount.sum();
+	}
+	
+	public long getFailedCount() {
+		return failedCount.sum();
+	}
+	
+	public long getUndeliverableCount() {
+		return undeliverableCount.sum();
+	}
+	
+	public long getAverageSendingTime() {
+		long sent = getSentCount();
+		return sent == 0 ? 0 : totalSendingTime.sum() / sent;
+	}
+	
+	public long getMaxSendingTime() {
+		return maxSendingTime.get();
+	}
+	
+	public long getAverageDeliveryDelay() {
+		long sent = getSentCount();
+		return sent == 0 ? 0 : totalDeliveryDelay.sum() / sent;
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		log.info(
+			"Mail outbox: {} sent (avg {} msec, max {} msec per request, avg delay {} msec), "
+			+ "{} attempts failed, {} given up, {} pending, {} undeliverable in total",
+			getSentCount(),
+			getAverageSendingTime(),
+			getMaxSendingTime(),
+			getAverageDeliveryDelay(),
+			getFailedCount(),
+			getUndeliverableCount(),
+			outbox.countPending(),
+			outbox.countUndeliverable()
+		);
+	}
+	
+	// Invoked by Spring when the context is closing
+	public synchronized void shutdown() {
+		if (polling != null) {
+			polling.cancel(false);
+		}
+		
+		// e-mails that are being sent will be completed but the next ones won't be taken
+		scheduler.shutdown();
+		senders.shutdown();
+	}
+	
+	/**
+	 * Sends all the e-mails that are ready to be sent.
+	 */
+	// package-private for using in unit tests.
+	// This method is invoked by a scheduler and it should never throw an exception
+	// because the next executions will be cancelled.
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	void dispatch() {
+		try {
+			List<OutboxMailDto> batch;
+			do {
+				batch = outbox.findReadyToSend(new Date(), batchSize);
+				if (!sendAll(batch)) {
+					return;
+				}
+			} while (batch.size() == batchSize);
+			
+		} catch (RuntimeException ex) {
+			log.error("Failed to dispatch e-mails from outbox", ex);
+		}
+	}
+	
+	// package-private for using in unit tests
+	long getRetryDelay(int attempts) {
+		// 1, 2, 4, 8 and so on times of the initial delay
+		long delay = retryDelayInMillis;
+		for (int i = 1; i < attempts && delay < MAX_RETRY_DELAY; i++) {
+			delay *= 2;
+		}
+		return Math.min(delay, MAX_RETRY_DELAY);
+	}
+	
+	/**
+	 * @return false when processing of some e-mails has failed and we should stop
+	 */
+	private boolean sendAll(List<OutboxMailDto> batch) {
+		List<Future<?>> results = new ArrayList<>(batch.size());
+		for (OutboxMailDto mail : batch) {
+			results.add(senders.submit(() -> send(mail)));
+		}
+		
+		boolean success = true;
+		for (Future<?> result : results) {
+			try {
+				result.get();
+				
+			} catch (ExecutionException ex) {
+				log.error("Failed to process e-mail from outbox", ex.getCause());
+				success = false;
+				
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		
+		return success;
+	}
+	
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	private void send(OutboxMailDto mail) {
+		MailgunEmail email = mail.getEmail();
+		
+		long startedAt = System.currentTimeMillis();
+		try {
+			mailer.send(email);
+		} catch (RuntimeException ex) {
+			reschedule(mail, ex);
+			return;
+		}
+		long finishedAt = System.currentTimeMillis();
+		
+		outbox.removeById(mail.getId());
+		
+		long sendingTime = finishedAt - startedAt;
+		sentCount.increment();
+		totalSendingTime.add(sendingTime);
+		maxSendingTime.accumulate(sendingTime);
+		totalDeliveryDelay.add(finishedAt - mail.getCreatedAt().getTime());
+		
+		log.info(
+			"E-mail #{} ({}) has been sent to {} in {} msec",
+			mail.getId(),
+			email.tag(),
+			email.recipientAddress(),
+			sendingTime
+		);
+	}
+	
+	private void reschedule(OutboxMailDto mail, RuntimeException ex) {
+		failedCount.increment();
+		
+		String error = ExceptionUtils.getRootCauseMessage(ex);
+		int attempts = mail.getAttempts() + 1;
+		if (attempts >= maxAttempts) {
+			outbox.markAsFailed(mail.getId(), null, error);
+			undeliverableCount.increment();
+			log.error(
+				"Failed to send e-mail #{} to {}: giving up after {} attempts",
+				mail.getId(),
+				mail.getEmail().recipientAddress(),
+				attempts,
+				ex
+			);
+			return;
+		}
+		
+		long delay = getRetryDelay(attempts);
+		outbox.markAsFailed(mail.getId(), new Date(System.currentTimeMillis() + delay), error);
+		log.warn(
+			"Failed to send e-mail #{} to {} (attempt #{}), will retry in {} msec: {}",
+			mail.getId(),
+			mail.getEmail().recipientAddress(),
+			attempts,
+			delay,
+			error
+		);
+	}
+	
+}
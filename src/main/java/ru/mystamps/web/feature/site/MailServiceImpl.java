@@ -24,7 +24,7 @@ import org.apache.commons.text.StringSubstitutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.feature.account.AccountUrl;
 import ru.mystamps.web.feature.account.SendUsersActivationDto;
 import ru.mystamps.web.feature.report.AdminDailyReport;
@@ -69,7 +69,7 @@ public class MailServiceImpl implements MailService {
 	}
 	
 	@Override
-	@Async
+	@Transactional
 	public void sendActivationKeyToUser(SendUsersActivationDto activation) {
 		Validate.isTrue(activation != null, "Activation must be non null");
 		Validate.isTrue(activation.getEmail() != null, "E-mail must be non null");
@@ -85,14 +85,14 @@ public class MailServiceImpl implements MailService {
 		mailer.send(email);
 		
 		LOG.info(
-			"Email with activation code has been sent to {} (lang: {})",
+			"Email with activation code has been queued for sending to {} (lang: {})",
 			activation.getEmail(),
 			activation.getLang()
 		);
 	}
 	
 	@Override
-	@Async
+	@Transactional
 	public void sendDailyStatisticsToAdmin(AdminDailyReport report) {
 		
 		MailgunEmail email = prepareEmail()
@@ -106,7 +106,7 @@ public class MailServiceImpl implements MailService {
 		String date = shortDatePrinter.format(report.getStartDate());
 		
 		LOG.info(
-			"E-mail with daily statistics for {} has been sent to {} (lang: {})",
+			"E-mail with daily statistics for {} has been queued for sending to {} (lang: {})",
 			date,
 			adminEmail,
 			adminLang
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.mystamps.web.support.mailgun.MailgunEmail;
+
+import java.util.Date;
+
+@Getter
+@RequiredArgsConstructor
+public class OutboxMailDto {
+	private final Integer id;
+	private final MailgunEmail email;
+	private final Date createdAt;
+	private final int attempts;
+}
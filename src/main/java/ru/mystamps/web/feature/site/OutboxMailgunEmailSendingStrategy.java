@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mystamps.web.support.mailgun.MailgunEmail;
+import ru.mystamps.web.support.mailgun.MailgunEmailSendingStrategy;
+
+import java.util.Date;
+
+/**
+ * Puts e-mails into an outbox instead of sending them.
+ *
+ * An e-mail is saved within the current transaction, so it's only sent when the transaction
+ * has been committed and it won't be lost when a mail service isn't available.
+ * The e-mails are sent later by {@link MailOutboxDispatcher}.
+ */
+@RequiredArgsConstructor
+public class OutboxMailgunEmailSendingStrategy implements MailgunEmailSendingStrategy {
+	
+	private final MailOutboxDao outbox;
+	private final MailOutboxDispatcher dispatcher;
+	
+	@Override
+	public void send(MailgunEmail email) {
+		outbox.add(email, new Date());
+		
+		// don't wait for a timer: send an e-mail as soon as it becomes visible to a dispatcher
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			dispatcher.wakeUp();
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(
+			new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					dispatcher.wakeUp();
+				}
+			}
+		);
+	}
+	
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded list of the recently added items that overwrites the oldest item when it's full.
+ */
+class RingBuffer<T> {
+	
+	private final Object[] items;
+	
+	// an index of the slot for the next item
+	private int head;
+	private int size;
+	
+	/* default */ RingBuffer(int capacity) {
+		Validate.isTrue(capacity > 0, "Capacity must be greater than zero");
+		
+		this.items = new Object[capacity];
+	}
+	
+	public synchronized void add(T item) {
+		items[head] = item;
+		head = (head + 1) % items.length;
+		size = Math.min(size + 1, items.length);
+	}
+	
+	/**
+	 * Replaces the content of the buffer.
+	 *
+	 * @param newestFirst items in the same order as they are returned by {@link #toList()}
+	 */
+	public synchronized void reset(List<T> newestFirst) {
+		Arrays.fill(items, null);
+		head = 0;
+		size = 0;
+		for (int i = Math.min(newestFirst.size(), items.length) - 1; i >= 0; i--) {
+			add(newestFirst.get(i));
+		}
+	}
+	
+	/**
+	 * @return a snapshot of the items where the most recently added item goes first
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized List<T> toList() {
+		List<T> result = new ArrayList<>(size);
+		for (int i = 1; i <= size; i++) {
+			result.add((T)items[(head - i + items.length) % items.length]);
+		}
+		return Collections.unmodifiableList(result);
+	}
+	
+}
@@ -17,6 +17,8 @@
  */
 package ru.mystamps.web.feature.site;
 
+import ru.mystamps.web.support.mailgun.MailgunEmail;
+
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
@@ -53,4 +55,23 @@ final class RowMappers {
 		);
 	}
 	
+	/* default */ static OutboxMailDto forOutboxMailDto(ResultSet rs, int unused)
+		throws SQLException {
+		
+		Integer id     = rs.getInt("id");
+		Date createdAt = rs.getTimestamp("created_at");
+		int attempts   = rs.getInt("attempts");
+		
+		MailgunEmail email = new MailgunEmail()
+			.recipientAddress(rs.getString("recipient_address"))
+			.senderAddress(rs.getString("sender_address"))
+			.senderName(rs.getString("sender_name"))
+			.subject(rs.getString("subject"))
+			.text(rs.getString("text"))
+			.tag(rs.getString("tag"))
+			.testMode(rs.getBoolean("test_mode"));
+		
+		return new OutboxMailDto(id, email, createdAt, attempts);
+	}
+	
 }
@@ -26,6 +26,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.mystamps.web.feature.account.UserService;
 import ru.mystamps.web.feature.account.UsersActivationService;
 import ru.mystamps.web.feature.category.CategoryService;
@@ -50,11 +51,9 @@ public class SiteConfig {
 	@RequiredArgsConstructor
 	public static class Controllers {
 		
-		private final CategoryService categoryService;
-		private final CountryService countryService;
-		private final CollectionService collectionService;
-		private final SeriesService seriesService;
 		private final SiteService siteService;
+		private final SitemapCache sitemapCache;
+		private final SiteStatistics siteStatistics;
 		private final SuspiciousActivityService suspiciousActivityService;
 		
 		@Bean
@@ -69,18 +68,12 @@ public class SiteConfig {
 		
 		@Bean
 		public SiteController siteController() {
-			return new SiteController(
-				categoryService,
-				collectionService,
-				countryService,
-				seriesService,
-				suspiciousActivityService
-			);
+			return new SiteController(siteStatistics, suspiciousActivityService);
 		}
 		
 		@Bean
 		public SitemapController sitemapController() {
-			return new SitemapController(seriesService);
+			return new SitemapController(sitemapCache);
 		}
 		
 		@Bean
@@ -124,11 +117,30 @@ public class SiteConfig {
 		}
 		
 		@Bean
-		public MailService mailService() {
+		public MailService mailService(
+			MailOutboxDao mailOutboxDao,
+			MailOutboxDispatcher mailOutboxDispatcher) {
+			
 			Profiles prod = Profiles.of("prod");
 			boolean isProductionEnvironment = env.acceptsProfiles(prod);
 			boolean enableTestMode = !isProductionEnvironment;
 			
+			MailgunEmailSendingStrategy mailStrategy =
+				new OutboxMailgunEmailSendingStrategy(mailOutboxDao, mailOutboxDispatcher);
+			
+			return new MailServiceImpl(
+				reportService,
+				mailStrategy,
+				messageSource,
+				env.getProperty("app.mail.admin.email", "root@localhost"),
+				new Locale(env.getProperty("app.mail.admin.lang", "en")),
+				env.getRequiredProperty("app.mail.robot.email"),
+				enableTestMode
+			);
+		}
+		
+		@Bean
+		public MailOutboxDispatcher mailOutboxDispatcher(MailOutboxDao mailOutboxDao) {
 			String user = "api";
 			String password = env.getRequiredProperty("mailgun.password");
 			String endpoint = env.getRequiredProperty("mailgun.endpoint");
@@ -140,30 +152,72 @@ public class SiteConfig {
 				password
 			);
 			
-			return new MailServiceImpl(
-				reportService,
+			return new MailOutboxDispatcher(
+				LoggerFactory.getLogger(MailOutboxDispatcher.class),
+				mailOutboxDao,
 				mailStrategy,
-				messageSource,
-				env.getProperty("app.mail.admin.email", "root@localhost"),
-				new Locale(env.getProperty("app.mail.admin.lang", "en")),
-				env.getRequiredProperty("app.mail.robot.email"),
-				enableTestMode
+				env.getRequiredProperty("app.mail.outbox.batch_size", Integer.class),
+				env.getRequiredProperty("app.mail.outbox.concurrency", Integer.class),
+				env.getRequiredProperty("app.mail.outbox.poll_interval", Long.class),
+				env.getRequiredProperty("app.mail.outbox.max_attempts", Integer.class),
+				env.getRequiredProperty("app.mail.outbox.retry_delay", Long.class)
 			);
 		}
 		
 		@Bean
-		public SiteService siteService(SuspiciousActivityDao suspiciousActivityDao) {
+		public MailOutboxDao mailOutboxDao() {
+			return new JdbcMailOutboxDao(jdbcTemplate);
+		}
+		
+		@Bean
+		public SiteService siteService(SuspiciousActivityWriter suspiciousActivityWriter) {
 			return new SiteServiceImpl(
 				LoggerFactory.getLogger(SiteServiceImpl.class),
-				suspiciousActivityDao
+				suspiciousActivityWriter
+			);
+		}
+		
+		@Bean
+		public SitemapCache sitemapCache() {
+			return new SitemapCache(seriesService);
+		}
+		
+		@Bean
+		public SiteStatistics siteStatistics() {
+			return new SiteStatistics(
+				LoggerFactory.getLogger(SiteStatistics.class),
+				categoryService,
+				countryService,
+				collectionService,
+				seriesService,
+				env.getRequiredProperty("app.site_statistics.recent_items", Integer.class)
 			);
 		}
 		
 		@Bean
 		public SuspiciousActivityService suspiciousActivityService(
-			SuspiciousActivityDao suspiciousActivityDao) {
+			SuspiciousActivityDao suspiciousActivityDao,
+			SuspiciousActivityWriter suspiciousActivityWriter) {
 			
-			return new SuspiciousActivityServiceImpl(suspiciousActivityDao);
+			return new SuspiciousActivityServiceImpl(
+				suspiciousActivityDao,
+				suspiciousActivityWriter
+			);
+		}
+		
+		@Bean
+		public BatchingSuspiciousActivityWriter suspiciousActivityWriter(
+			SuspiciousActivityDao suspiciousActivityDao,
+			PlatformTransactionManager transactionManager) {
+			
+			return new BatchingSuspiciousActivityWriter(
+				LoggerFactory.getLogger(BatchingSuspiciousActivityWriter.class),
+				suspiciousActivityDao,
+				transactionManager,
+				env.getRequiredProperty("app.suspicious_activity.queue_capacity", Integer.class),
+				env.getRequiredProperty("app.suspicious_activity.batch_size", Integer.class),
+				env.getRequiredProperty("app.suspicious_activity.flush_interval", Long.class)
+			);
 		}
 		
 		@Bean
@@ -25,11 +25,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import ru.mystamps.web.common.LinkEntityDto;
 import ru.mystamps.web.common.LocaleUtils;
 import ru.mystamps.web.common.Pager;
-import ru.mystamps.web.feature.category.CategoryService;
-import ru.mystamps.web.feature.collection.CollectionService;
-import ru.mystamps.web.feature.country.CountryService;
 import ru.mystamps.web.feature.series.SeriesLinkDto;
-import ru.mystamps.web.feature.series.SeriesService;
 
 import java.util.List;
 import java.util.Locale;
@@ -38,34 +34,22 @@ import java.util.Locale;
 @RequiredArgsConstructor
 public class SiteController {
 	
-	@SuppressWarnings("PMD.LongVariable")
-	private static final int AMOUNT_OF_RECENTLY_ADDED_SERIES = 10;
-	
-	@SuppressWarnings("PMD.LongVariable")
-	private static final int AMOUNT_OF_RECENTLY_CREATED_COLLECTIONS = 10;
-	
 	private static final int RECORDS_PER_PAGE = 50;
 	
-	private final CategoryService categoryService;
-	private final CollectionService collectionService;
-	private final CountryService countryService;
-	private final SeriesService seriesService;
+	private final SiteStatistics siteStatistics;
 	private final SuspiciousActivityService suspiciousActivityService;
 	
 	@GetMapping(SiteUrl.INDEX_PAGE)
 	public String showIndexPage(Model model, Locale userLocale) {
-		long categoryCounter    = categoryService.countAll();
-		long countryCounter     = countryService.countAll();
-		long seriesCounter      = seriesService.countAll();
-		long stampsCounter      = seriesService.countAllStamps();
-		long collectionsCounter = collectionService.countCollectionsOfUsers();
+		long categoryCounter    = siteStatistics.getCategoryCounter();
+		long countryCounter     = siteStatistics.getCountryCounter();
+		long seriesCounter      = siteStatistics.getSeriesCounter();
+		long stampsCounter      = siteStatistics.getStampsCounter();
+		long collectionsCounter = siteStatistics.getCollectionsCounter();
 		
 		String lang = LocaleUtils.getLanguageOrNull(userLocale);
-		List<SeriesLinkDto> recentlyAdded =
-			seriesService.findRecentlyAdded(AMOUNT_OF_RECENTLY_ADDED_SERIES, lang);
-		
-		List<LinkEntityDto> recentlyCreated =
-			collectionService.findRecentlyCreated(AMOUNT_OF_RECENTLY_CREATED_COLLECTIONS);
+		List<SeriesLinkDto> recentlyAdded = siteStatistics.getRecentlyAddedSeries(lang);
+		List<LinkEntityDto> recentlyCreated = siteStatistics.getRecentlyCreatedCollections();
 		
 		model.addAttribute("categoryCounter", categoryCounter);
 		model.addAttribute("countryCounter", countryCounter);
@@ -22,8 +22,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.springframework.http.HttpHeaders;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.transaction.annotation.Transactional;
 import ru.mystamps.web.feature.site.SiteDb.SuspiciousActivity;
 import ru.mystamps.web.feature.site.SiteDb.SuspiciousActivityType;
 import ru.mystamps.web.support.spring.security.SecurityContextUtils;
@@ -35,12 +33,10 @@ import java.util.Date;
 public class SiteServiceImpl implements SiteService {
 	
 	private final Logger log;
-	private final SuspiciousActivityDao suspiciousActivities;
+	private final SuspiciousActivityWriter suspiciousActivities;
 	
 	@Override
 	@SuppressWarnings("PMD.UseObjectForClearerAPI")
-	@Async
-	@Transactional
 	public void logAboutAbsentPage(
 			String page,
 			String method,
@@ -63,7 +59,6 @@ public class SiteServiceImpl implements SiteService {
 	
 	@Override
 	@SuppressWarnings("PMD.UseObjectForClearerAPI")
-	@Transactional
 	public void logAboutFailedAuthentication(
 			String page,
 			String method,
@@ -89,7 +84,6 @@ public class SiteServiceImpl implements SiteService {
 	 * @author Sergey Chechenev
 	 */
 	@Override
-	@Transactional
 	public void logAboutMissingCsrfToken(HttpServletRequest request) {
 		
 		logEvent(
@@ -109,7 +103,6 @@ public class SiteServiceImpl implements SiteService {
 	 * @author Sergey Chechenev
 	 */
 	@Override
-	@Transactional
 	public void logAboutInvalidCsrfToken(HttpServletRequest request) {
 		
 		logEvent(
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mystamps.web.common.LinkEntityDto;
+import ru.mystamps.web.feature.category.CategoryService;
+import ru.mystamps.web.feature.collection.CollectionService;
+import ru.mystamps.web.feature.country.CountryService;
+import ru.mystamps.web.feature.series.SeriesLinkDto;
+import ru.mystamps.web.feature.series.SeriesService;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Site-wide counters and the lists of the recently added series and collections
+ * that are shown on the index page.
+ *
+ * The data is loaded on the first access and then it's updated incrementally by the services
+ * when a category, a country or a series has been added or when a collection has got its first
+ * series or lost its last one. The changes are applied only after a transaction has been
+ * committed. In order to fix a drift that might happen because of the concurrent updates
+ * or changes that were made bypassing the services, everything is reloaded periodically.
+ */
+public class SiteStatistics implements SiteStatisticsListener {
+	private static final long FIFTEEN_MINUTES = 15 * 60 * 1000L;
+	
+	// see also the queries that return localized names of the countries
+	private static final String RUSSIAN = "ru";
+	private static final String ENGLISH = "en";
+	
+	private final Logger log;
+	private final CategoryService categoryService;
+	private final CountryService countryService;
+	private final CollectionService collectionService;
+	private final SeriesService seriesService;
+	private final int recentItemsSize;
+	
+	private final AtomicLong categoryCounter = new AtomicLong();
+	private final AtomicLong countryCounter = new AtomicLong();
+	private final AtomicLong seriesCounter = new AtomicLong();
+	private final AtomicLong stampsCounter = new AtomicLong();
+	private final AtomicLong collectionsCounter = new AtomicLong();
+	
+	private final RingBuffer<SeriesLinkDto> recentlyAddedSeriesEn;
+	private final RingBuffer<SeriesLinkDto> recentlyAddedSeriesRu;
+	private final RingBuffer<LinkEntityDto> recentlyCreatedCollections;
+	
+	private volatile boolean loaded;
+	
+	@SuppressWarnings("checkstyle:parameternumber")
+	public SiteStatistics(
+		Logger log,
+		CategoryService categoryService,
+		CountryService countryService,
+		CollectionService collectionService,
+		SeriesService seriesService,
+		int recentItemsSize) {
+		
+		this.log = log;
+		this.categoryService = categoryService;
+		this.countryService = countryService;
+		this.collectionService = collectionService;
+		this.seriesService = seriesService;
+		this.recentItemsSize = recentItemsSize;
+		this.recentlyAddedSeriesEn = new RingBuffer<>(recentItemsSize);
+		this.recentlyAddedSeriesRu = new RingBuffer<>(recentItemsSize);
+		this.recentlyCreatedCollections = new RingBuffer<>(recentItemsSize);
+	}
+	
+	public long getCategoryCounter() {
+		loadIfNeeded();
+		return categoryCounter.get();
+	}
+	
+	public long getCountryCounter() {
+		loadIfNeeded();
+		return countryCounter.get();
+	}
+	
+	public long getSeriesCounter() {
+		loadIfNeeded();
+		return seriesCounter.get();
+	}
+	
+	public long getStampsCounter() {
+		loadIfNeeded();
+		return stampsCounter.get();
+	}
+	
+	public long getCollectionsCounter() {
+		loadIfNeeded();
+		return collectionsCounter.get();
+	}
+	
+	public List<SeriesLinkDto> getRecentlyAddedSeries(String lang) {
+		loadIfNeeded();
+		return getRecentlyAddedSeriesBuffer(lang).toList();
+	}
+	
+	public List<LinkEntityDto> getRecentlyCreatedCollections() {
+		loadIfNeeded();
+		return recentlyCreatedCollections.toList();
+	}
+	
+	@Override
+	public void categoryAdded() {
+		afterCommit(categoryCounter::incrementAndGet);
+	}
+	
+	@Override
+	public void countryAdded() {
+		afterCommit(countryCounter::incrementAndGet);
+	}
+	
+	/**
+	 * Must be called within a transaction that has added a series.
+	 */
+	@Override
+	public void seriesAdded(Integer seriesId, int quantity) {
+		if (!loaded) {
+			return;
+		}
+		
+		// a new series is visible only within the current transaction,
+		// so we have to find it right now
+		SeriesLinkDto seriesEn = seriesService.findLinkById(seriesId, ENGLISH);
+		SeriesLinkDto seriesRu = seriesService.findLinkById(seriesId, RUSSIAN);
+		
+		afterCommit(() -> {
+			seriesCounter.incrementAndGet();
+			stampsCounter.addAndGet(quantity);
+			if (seriesEn != null) {
+				recentlyAddedSeriesEn.add(seriesEn);
+			}
+			if (seriesRu != null) {
+				recentlyAddedSeriesRu.add(seriesRu);
+			}
+		});
+	}
+	
+	/**
+	 * Must be called within a transaction that has added the first series to a collection.
+	 */
+	@Override
+	public void collectionAdded() {
+		collectionChanged(+1);
+	}
+	
+	/**
+	 * Must be called within a transaction that has removed the last series from a collection.
+	 */
+	@Override
+	public void collectionRemoved() {
+		collectionChanged(-1);
+	}
+	
+	/**
+	 * Reloads all the counters and the lists.
+	 *
+	 * The changes are applied under the same lock, so they can't be lost. But a change that has
+	 * been committed while the counters were being read is counted twice. Such a drift is
+	 * accepted as it's rare and will be fixed by the next reload.
+	 */
+	@Scheduled(fixedDelay = FIFTEEN_MINUTES, initialDelay = FIFTEEN_MINUTES)
+	public synchronized void reload() {
+		long categories  = categoryService.countAll();
+		long countries   = countryService.countAll();
+		long series      = seriesService.countAll();
+		long stamps      = seriesService.countAllStamps();
+		long collections = collectionService.countCollectionsOfUsers();
+		
+		recentlyAddedSeriesEn.reset(seriesService.findRecentlyAdded(recentItemsSize, ENGLISH));
+		recentlyAddedSeriesRu.reset(seriesService.findRecentlyAdded(recentItemsSize, RUSSIAN));
+		recentlyCreatedCollections.reset(collectionService.findRecentlyCreated(recentItemsSize));
+		
+		if (loaded) {
+			logDrift("categories", categoryCounter.get(), categories);
+			logDrift("countries", countryCounter.get(), countries);
+			logDrift("series", seriesCounter.get(), series);
+			logDrift("stamps", stampsCounter.get(), stamps);
+			logDrift("collections", collectionsCounter.get(), collections);
+		}
+		
+		categoryCounter.set(categories);
+		countryCounter.set(countries);
+		seriesCounter.set(series);
+		stampsCounter.set(stamps);
+		collectionsCounter.set(collections);
+		
+		loaded = true;
+	}
+	
+	private void loadIfNeeded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (!loaded) {
+				reload();
+			}
+		}
+	}
+	
+	private void collectionChanged(int delta) {
+		if (!loaded) {
+			return;
+		}
+		
+		// the list depends on whether the collections have series, so we can't just add
+		// or remove an item and have to load it from scratch
+		List<LinkEntityDto> collections = collectionService.findRecentlyCreated(recentItemsSize);
+		
+		afterCommit(() -> {
+			collectionsCounter.addAndGet(delta);
+			recentlyCreatedCollections.reset(collections);
+		});
+	}
+	
+	private RingBuffer<SeriesLinkDto> getRecentlyAddedSeriesBuffer(String lang) {
+		return RUSSIAN.equals(lang) ? recentlyAddedSeriesRu : recentlyAddedSeriesEn;
+	}
+	
+	private void logDrift(String name, long expected, long actual) {
+		if (expected != actual) {
+			log.info("Counter of {} has been reconciled: {} -> {}", name, expected, actual);
+		}
+	}
+	
+	private void afterCommit(Runnable change) {
+		// there is nothing to update yet: the changes will be loaded along with everything else
+		if (!loaded) {
+			return;
+		}
+		
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply(change);
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(
+			new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					apply(change);
+				}
+			}
+		);
+	}
+	
+	// don't let a change to be overwritten by a concurrent reload()
+	private synchronized void apply(Runnable change) {
+		change.run();
+	}
+	
+}
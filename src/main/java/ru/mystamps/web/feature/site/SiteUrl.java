@@ -45,6 +45,7 @@ public final class SiteUrl {
 	
 	static final String ROBOTS_TXT                 = "/robots.txt";
 	static final String SITEMAP_XML                = "/sitemap.xml";
+	static final String SITEMAP_PART_XML           = "/sitemap-{part}.xml";
 	
 	private SiteUrl() {
 	}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.mystamps.web.feature.series.SeriesService;
+import ru.mystamps.web.feature.series.SeriesUrl;
+import ru.mystamps.web.feature.series.SitemapInfoDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Pre-rendered sitemap.xml that is updated incrementally.
+ *
+ * On each refresh only the series that have been modified since the previous refresh
+ * are fetched and only the parts of the sitemap that contain them are rendered again.
+ * When there are more than {@value #MAX_URLS_PER_PART} URLs, the sitemap is split into
+ * parts and sitemap.xml becomes a sitemap index.
+ */
+@RequiredArgsConstructor
+public class SitemapCache {
+	
+	// See https://www.sitemaps.org/protocol.html#index
+	/* default */ static final int MAX_URLS_PER_PART = 50_000;
+	
+	// A series becomes visible only after a commit but its updated_at is set earlier, when
+	// a transaction was in progress. So the series that were modified a bit earlier than
+	// the last known modification are fetched again to not lose such a late commit.
+	/* default */ static final long REFRESH_OVERLAP_IN_MILLIS = 10 * 60 * 1000L;
+	
+	// According to http://www.w3.org/TR/NOTE-datetime
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter
+		.ofPattern("yyyy-MM-dd'T'HH:mmXXX", Locale.ENGLISH)
+		.withZone(ZoneOffset.UTC);
+	
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+	
+	private static final String INDEX_URL_ENTRY =
+		"<url><loc>"
+		+ SiteUrl.PUBLIC_URL + SiteUrl.INDEX_PAGE
+		+ "</loc></url>\n";
+	
+	private static final String SERIES_URL_PREFIX = SiteUrl.PUBLIC_URL
+		+ SeriesUrl.INFO_SERIES_PAGE.substring(0, SeriesUrl.INFO_SERIES_PAGE.indexOf("{id}"));
+	
+	private static final String SERIES_URL_SUFFIX = SeriesUrl.INFO_SERIES_PAGE
+		.substring(SeriesUrl.INFO_SERIES_PAGE.indexOf("{id}") + "{id}".length());
+	
+	// roughly a length of the <url> element with a series
+	private static final int URL_ENTRY_LENGTH = 100;
+	
+	private static final Comparator<SitemapInfoDto> BY_ID =
+		Comparator.comparing(SitemapInfoDto::getId);
+	
+	private final SeriesService seriesService;
+	
+	// sorted by id, the index page is located before the first element
+	private final List<SitemapInfoDto> entries = new ArrayList<>();
+	private final List<byte[]> parts = new ArrayList<>();
+	private Date lastUpdatedAt;
+	
+	private volatile Snapshot snapshot;
+	
+	/**
+	 * Returns the up-to-date sitemap.
+	 *
+	 * A query for the modified series is executed on each call and usually it returns
+	 * only the most recently modified series.
+	 */
+	public Snapshot getSnapshot() {
+		refresh();
+		return snapshot;
+	}
+	
+	@SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+	private synchronized void refresh() {
+		List<SitemapInfoDto> modified;
+		if (lastUpdatedAt == null) {
+			modified = seriesService.findAllForSitemap();
+		} else {
+			// NOTE: the series that were updated within the overlap are always returned again
+			// but they are skipped by merge() when they weren't modified since that
+			Date since = new Date(lastUpdatedAt.getTime() - REFRESH_OVERLAP_IN_MILLIS);
+			modified = seriesService.findForSitemapUpdatedSince(since);
+		}
+		
+		SortedSet<Integer> dirtyParts = merge(modified);
+		if (snapshot != null && dirtyParts.isEmpty()) {
+			return;
+		}
+		
+		int partsCount = (entries.size() + 1 + MAX_URLS_PER_PART - 1) / MAX_URLS_PER_PART;
+		while (parts.size() > partsCount) {
+			parts.remove(parts.size() - 1);
+		}
+		for (int part = 0; part < partsCount; part++) {
+			if (part >= parts.size()) {
+				parts.add(renderPart(part));
+			} else if (dirtyParts.contains(part)) {
+				parts.set(part, renderPart(part));
+			}
+		}
+		
+		long lastModified = lastUpdatedAt == null ? -1 : lastUpdatedAt.getTime();
+		String etag = String.format("\"%d-%d\"", entries.size(), lastModified);
+		byte[] index = parts.size() > 1 ? renderIndex(parts.size(), lastUpdatedAt) : null;
+		
+		snapshot = new Snapshot(
+			Collections.unmodifiableList(new ArrayList<>(parts)),
+			index,
+			etag,
+			lastModified
+		);
+	}
+	
+	/**
+	 * Applies modified series to the entries and returns indexes of the parts that have to be
+	 * rendered again.
+	 *
+	 * When a new series is inserted in the middle, all the parts after it are shifted and
+	 * have to be rendered again too.
+	 */
+	private SortedSet<Integer> merge(List<SitemapInfoDto> modified) {
+		SortedSet<Integer> dirtyParts = new TreeSet<>();
+		
+		for (SitemapInfoDto item : modified) {
+			int idx = Collections.binarySearch(entries, item, BY_ID);
+			if (idx >= 0) {
+				if (entries.get(idx).getUpdatedAt().getTime() == item.getUpdatedAt().getTime()) {
+					continue;
+				}
+				entries.set(idx, item);
+				dirtyParts.add(partOf(idx));
+			} else {
+				idx = -idx - 1;
+				entries.add(idx, item);
+				int lastPart = partOf(entries.size() - 1);
+				for (int part = partOf(idx); part <= lastPart; part++) {
+					dirtyParts.add(part);
+				}
+			}
+			
+			if (lastUpdatedAt == null || item.getUpdatedAt().after(lastUpdatedAt)) {
+				lastUpdatedAt = item.getUpdatedAt();
+			}
+		}
+		
+		return dirtyParts;
+	}
+	
+	private static int partOf(int entryIdx) {
+		// + 1 because the first URL is the index page
+		return (entryIdx + 1) / MAX_URLS_PER_PART;
+	}
+	
+	private byte[] renderPart(int part) {
+		int from = Math.max(0, part * MAX_URLS_PER_PART - 1);
+		int to = Math.min(entries.size(), (part + 1) * MAX_URLS_PER_PART - 1);
+		
+		StringBuilder sb = new StringBuilder((to - from + 1) * URL_ENTRY_LENGTH);
+		sb.append(XML_HEADER);
+		sb.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+		
+		if (part == 0) {
+			sb.append(INDEX_URL_ENTRY);
+		}
+		
+		for (int i = from; i < to; i++) {
+			SitemapInfoDto item = entries.get(i);
+			sb.append("<url><loc>")
+				.append(SERIES_URL_PREFIX)
+				.append(item.getId())
+				.append(SERIES_URL_SUFFIX)
+				.append("</loc><lastmod>");
+			DATE_FORMATTER.formatTo(item.getUpdatedAt().toInstant(), sb);
+			sb.append("</lastmod></url>\n");
+		}
+		
+		sb.append("</urlset>\n");
+		
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	private static byte[] renderIndex(int partsCount, Date lastModified) {
+		StringBuilder sb = new StringBuilder(partsCount * URL_ENTRY_LENGTH);
+		sb.append(XML_HEADER);
+		sb.append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+		
+		for (int part = 1; part <= partsCount; part++) {
+			sb.append("<sitemap><loc>")
+				.append(SiteUrl.PUBLIC_URL)
+				.append(SiteUrl.SITEMAP_PART_XML.replace("{part}", String.valueOf(part)))
+				.append("</loc><lastmod>");
+			DATE_FORMATTER.formatTo(lastModified.toInstant(), sb);
+			sb.append("</lastmod></sitemap>\n");
+		}
+		
+		sb.append("</sitemapindex>\n");
+		
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	@Getter
+	@RequiredArgsConstructor
+	public static class Snapshot {
+		// 0-based parts, each of them is a complete urlset
+		private final List<byte[]> parts;
+		
+		// sitemap index, null when the sitemap consists of a single part
+		private final byte[] index;
+		
+		private final String etag;
+		private final long lastModified;
+	}
+	
+}
@@ -23,76 +23,67 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
-import ru.mystamps.web.feature.series.SeriesService;
-import ru.mystamps.web.feature.series.SeriesUrl;
-import ru.mystamps.web.feature.series.SitemapInfoDto;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
 public class SitemapController {
 	private static final Logger LOG = LoggerFactory.getLogger(SitemapController.class);
 	
-	// FIXME: convert dates to UTC and omit server-specific timezone part
-	// According to http://www.w3.org/TR/NOTE-datetime
-	private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mmXXX";
+	private final SitemapCache sitemapCache;
 	
-	private static final String INDEX_URL_ENTRY =
-		"<url><loc>"
-		+ SiteUrl.PUBLIC_URL + SiteUrl.INDEX_PAGE
-		+ "</loc></url>\n";
+	@GetMapping(SiteUrl.SITEMAP_XML)
+	public void generateSitemapXml(WebRequest request, HttpServletResponse response) {
+		SitemapCache.Snapshot sitemap = sitemapCache.getSnapshot();
+		if (request.checkNotModified(sitemap.getEtag(), sitemap.getLastModified())) {
+			return;
+		}
+		
+		// when the sitemap is too big, it's split into parts and we return an index instead
+		byte[] content = sitemap.getIndex();
+		if (content == null) {
+			content = sitemap.getParts().get(0);
+		}
+		
+		writeXml(response, content);
+	}
 	
-	private final SeriesService seriesService;
+	@GetMapping(SiteUrl.SITEMAP_PART_XML)
+	public void getSitemapPart(
+		@PathVariable("part") Integer part,
+		WebRequest request,
+		HttpServletResponse response) throws IOException {
+		
+		SitemapCache.Snapshot sitemap = sitemapCache.getSnapshot();
+		
+		List<byte[]> parts = sitemap.getParts();
+		if (part == null || part < 1 || part > parts.size()) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		
+		if (request.checkNotModified(sitemap.getEtag(), sitemap.getLastModified())) {
+			return;
+		}
+		
+		writeXml(response, parts.get(part - 1));
+	}
 	
-	@GetMapping(SiteUrl.SITEMAP_XML)
-	public void generateSitemapXml(HttpServletResponse response) {
+	private static void writeXml(HttpServletResponse response, byte[] content) {
 		response.setContentType(MediaType.APPLICATION_XML_VALUE);
 		response.setCharacterEncoding("UTF-8");
-		
-		DateFormat dateFormatter = new SimpleDateFormat(DATE_FORMAT, Locale.ENGLISH);
-		dateFormatter.setLenient(false);
+		response.setContentLength(content.length);
 		
 		try {
-			PrintWriter writer = response.getWriter();
-			
-			writer.print("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-			writer.print("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-			
-			writer.print(INDEX_URL_ENTRY);
-			
-			for (SitemapInfoDto item : seriesService.findAllForSitemap()) {
-				writer.print(createUrlEntry(dateFormatter, item));
-			}
-			
-			writer.print("</urlset>\n");
+			response.getOutputStream().write(content);
 		} catch (IOException ex) {
 			LOG.error("Can't return sitemap.xml: {}", ex.getMessage());
 		}
 	}
 	
-	private static String createUrlEntry(DateFormat dateFormatter, SitemapInfoDto item) {
-		return new StringBuilder("<url><loc>")
-			.append(createLocEntry(item))
-			.append("</loc><lastmod>")
-			.append(createLastModEntry(dateFormatter, item))
-			.append("</lastmod></url>\n")
-			.toString();
-	}
-	
-	private static String createLocEntry(SitemapInfoDto item) {
-		return SiteUrl.PUBLIC_URL
-			+ SeriesUrl.INFO_SERIES_PAGE.replace("{id}", String.valueOf(item.getId()));
-	}
-	
-	private static String createLastModEntry(DateFormat dateFormatter, SitemapInfoDto item) {
-		return dateFormatter.format(item.getUpdatedAt());
-	}
-	
 }
-
@@ -19,10 +19,13 @@ package ru.mystamps.web.feature.site;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface SuspiciousActivityDao {
 	void add(AddSuspiciousActivityDbDto activity);
+	void addAll(List<AddSuspiciousActivityDbDto> activities);
 	long countAll();
 	long countByTypeSince(String type, Date date);
 	List<SuspiciousActivityDto> findAll(int page, int recordsPerPage);
+	Map<String, Integer> findTypeIds();
 }
@@ -27,5 +27,6 @@ import java.util.List;
 public interface SuspiciousActivityService {
 	long countAll();
 	long countByTypeSince(String type, Date date);
+	long countDroppedSince(Date date);
 	List<SuspiciousActivityDto> findSuspiciousActivities(int page, int recordsPerPage);
 }
@@ -34,6 +34,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SuspiciousActivityServiceImpl implements SuspiciousActivityService {
 	private final SuspiciousActivityDao suspiciousActivityDao;
+	private final SuspiciousActivityWriter suspiciousActivityWriter;
 	
 	@Override
 	@Transactional(readOnly = true)
@@ -51,6 +52,13 @@ public class SuspiciousActivityServiceImpl implements SuspiciousActivityService
 		return suspiciousActivityDao.countByTypeSince(type, date);
 	}
 	
+	@Override
+	public long countDroppedSince(Date date) {
+		Validate.isTrue(date != null, "Date must be non null");
+		
+		return suspiciousActivityWriter.countDroppedSince(date);
+	}
+	
 	@Override
 	@Transactional(readOnly = true)
 	@PreAuthorize(HasAuthority.VIEW_SITE_EVENTS)
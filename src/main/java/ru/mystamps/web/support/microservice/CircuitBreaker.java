@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.microservice;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a service that keeps failing.
+ *
+ * After {@code failureThreshold} consecutive failures the breaker opens and rejects all
+ * the requests for {@code openDuration} milliseconds. Then it lets a single trial request
+ * through: its success closes the breaker while its failure opens it again.
+ */
+public class CircuitBreaker {
+	
+	private final int failureThreshold;
+	private final long openDuration;
+	private final LongSupplier clock;
+	
+	// guarded by "this"
+	private int consecutiveFailures;
+	private long openedAt;
+	private boolean trialInProgress;
+	
+	public CircuitBreaker(int failureThreshold, long openDuration) {
+		this(failureThreshold, openDuration, System::currentTimeMillis);
+	}
+	
+	// for tests
+	CircuitBreaker(int failureThreshold, long openDuration, LongSupplier clock) {
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+		this.clock = clock;
+	}
+	
+	public synchronized boolean allowRequest() {
+		if (!isOpen()) {
+			return true;
+		}
+		
+		if (trialInProgress || clock.getAsLong() - openedAt < openDuration) {
+			return false;
+		}
+		
+		trialInProgress = true;
+		return true;
+	}
+	
+	public synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+		trialInProgress = false;
+	}
+	
+	/**
+	 * @return true when the breaker has been opened by this failure
+	 */
+	public synchronized boolean recordFailure() {
+		boolean wasOpen = isOpen();
+		boolean wasTrial = trialInProgress;
+		trialInProgress = false;
+		
+		if (!wasOpen) {
+			consecutiveFailures++;
+		}
+		
+		boolean justOpened = wasOpen ? wasTrial : isOpen();
+		if (justOpened) {
+			openedAt = clock.getAsLong();
+		}
+		
+		return justOpened;
+	}
+	
+	public synchronized boolean isOpen() {
+		return consecutiveFailures >= failureThreshold;
+	}
+	
+}
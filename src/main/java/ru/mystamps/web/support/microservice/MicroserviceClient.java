@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.microservice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.apache.commons.lang3.time.StopWatch;
+import org.slf4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client that performs GET requests to a microservice.
+ *
+ * The responses are cached for {@code cacheTtl} milliseconds and the concurrent requests
+ * to the same endpoint are coalesced into a single call. A service that keeps failing isn't
+ * called until its circuit breaker lets a trial request through; meanwhile the calls fail fast
+ * with {@link ServiceUnavailableException} so a caller could use a fallback.
+ */
+public class MicroserviceClient {
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	private static final long MAX_CACHED_RESPONSES = 1000;
+	
+	private final Logger log;
+	private final String serviceName;
+	private final RestTemplate restTemplate;
+	private final CircuitBreaker circuitBreaker;
+	private final Cache<String, Object> responses;
+	
+	// endpoint -> statistics of the calls to it since the start
+	private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+	
+	public MicroserviceClient(
+		Logger log,
+		String serviceName,
+		RestTemplate restTemplate,
+		CircuitBreaker circuitBreaker,
+		long cacheTtl) {
+		
+		this.log = log;
+		this.serviceName = serviceName;
+		this.restTemplate = restTemplate;
+		this.circuitBreaker = circuitBreaker;
+		this.responses = Caffeine.newBuilder()
+			.maximumSize(MAX_CACHED_RESPONSES)
+			.expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+			.build();
+	}
+	
+	public <T> T get(String endpoint, Class<T> responseType) {
+		// the concurrent callers wait for a response that is being loaded by the first of them
+		Object response = responses.get(endpoint, key -> call(key, responseType));
+		return responseType.cast(response);
+	}
+	
+	/**
+	 * Returns a snapshot of the per-endpoint statistics, sorted by an endpoint.
+	 */
+	public Map<String, EndpointStats> getStats() {
+		return Collections.unmodifiableMap(new TreeMap<>(stats));
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		getStats().forEach((endpoint, endpointStats) ->
+			log.info(
+				"Calls of {} service {}: {} succeeded, {} failed, {}/{} msecs avg/max",
+				serviceName,
+				endpoint,
+				endpointStats.getSucceeded(),
+				endpointStats.getFailed(),
+				endpointStats.getAverageTime(),
+				endpointStats.getMaxTime()
+			)
+		);
+	}
+	
+	@SuppressWarnings("PMD.AvoidCatchingGenericException")
+	private <T> T call(String endpoint, Class<T> responseType) {
+		if (!circuitBreaker.allowRequest()) {
+			throw new ServiceUnavailableException(
+				"Circuit breaker of " + serviceName + " service is open"
+			);
+		}
+		
+		log.debug("GET {}", endpoint);
+		
+		StopWatch timer = StopWatch.createStarted();
+		boolean succeeded = false;
+		try {
+			ResponseEntity<T> response = restTemplate.getForEntity(endpoint, responseType);
+			T result = response.getBody();
+			
+			log.debug("Result: {} => {}", response.getStatusCodeValue(), result);
+			
+			succeeded = true;
+			circuitBreaker.recordSuccess();
+			
+			return result;
+			
+		} catch (HttpClientErrorException ex) {
+			// the service is working, it's the request that is wrong
+			circuitBreaker.recordSuccess();
+			throw ex;
+			
+		} catch (RuntimeException ex) {
+			if (circuitBreaker.recordFailure()) {
+				log.warn(
+					"Circuit breaker of {} service has been opened: {}",
+					serviceName,
+					ex.getMessage()
+				);
+			}
+			throw ex;
+			
+		} finally {
+			timer.stop();
+			stats.computeIfAbsent(endpoint, key -> new EndpointStats())
+				.add(succeeded, timer.getTime());
+		}
+	}
+	
+	public static class EndpointStats {
+		private final LongAdder succeeded = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder totalTime = new LongAdder();
+		
+		@Getter
+		private volatile long maxTime;
+		
+		private void add(boolean success, long time) {
+			if (success) {
+				succeeded.increment();
+			} else {
+				failed.increment();
+			}
+			totalTime.add(time);
+			
+			// it's fine to lose an update of a maximum under a race
+			if (time > maxTime) {
+				maxTime = time;
+			}
+		}
+		
+		public long getSucceeded() {
+			return succeeded.sum();
+		}
+		
+		public long getFailed() {
+			return failed.sum();
+		}
+		
+		public long getAverageTime() {
+			long count = succeeded.sum() + failed.sum();
+			return count == 0 ? 0 : totalTime.sum() / count;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,7 @@
+/**
+ * Calling the microservices over HTTP.
+ *
+ * The code from this package must not be coupled with the application.
+ * Think about it as a library that could be consumed from different applications.
+ */
+package ru.mystamps.web.support.microservice;
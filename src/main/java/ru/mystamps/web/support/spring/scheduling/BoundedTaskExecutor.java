@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.spring.scheduling;
+
+import org.slf4j.Logger;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool with a bounded queue that is shared by different types of tasks.
+ *
+ * Tasks are submitted via executors that are returned by {@link #forTaskType(String, boolean)}.
+ * When all the threads are busy and the queue is full, a task is either dropped or executed
+ * by a caller thread, depending on its type.
+ *
+ * Statistics (a number of completed and rejected tasks, time in queue, execution time) are
+ * collected per task type and are logged periodically.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public class BoundedTaskExecutor extends ThreadPoolTaskExecutor {
+	private static final long serialVersionUID = 1L;
+	
+	private static final long ONE_HOUR = 60 * 60 * 1000L;
+	
+	// a type of tasks that are submitted to this pool directly
+	private static final String UNKNOWN_TASK_TYPE = "unknown";
+	
+	private final transient Logger log;
+	
+	private final transient Map<String, TaskStats> stats = new ConcurrentHashMap<>();
+	
+	public BoundedTaskExecutor(Logger log) {
+		this.log = log;
+	}
+	
+	/**
+	 * Returns an executor that submits tasks of the given type to this pool.
+	 *
+	 * @param taskType name of the tasks that is used in the statistics
+	 * @param mayBeDropped whether a task may be dropped when the pool is overloaded.
+	 *                     When it's {@code false}, a task is executed by a caller thread.
+	 */
+	public TaskExecutor forTaskType(String taskType, boolean mayBeDropped) {
+		return task -> execute(new TypedTask(taskType, mayBeDropped, task));
+	}
+	
+	public int getQueueLength() {
+		return getThreadPoolExecutor().getQueue().size();
+	}
+	
+	public long getCompletedCount(String taskType) {
+		TaskStats taskStats = stats.get(taskType);
+		return taskStats == null ? 0 : taskStats.completedCount.get();
+	}
+	
+	public long getRejectedCount(String taskType) {
+		TaskStats taskStats = stats.get(taskType);
+		return taskStats == null ? 0 : taskStats.rejectedCount.get();
+	}
+	
+	@Scheduled(fixedDelay = ONE_HOUR, initialDelay = ONE_HOUR)
+	public void logStats() {
+		log.info(
+			"{}: {} tasks in queue, {} in progress",
+			getThreadNamePrefix(),
+			getQueueLength(),
+			getActiveCount()
+		);
+		
+		stats.forEach((taskType, taskStats) -> log.info(
+			"{}{}: {} tasks completed (in queue avg {} msecs, max {} msecs; "
+			+ "execution avg {} msecs, max {} msecs), {} rejected",
+			getThreadNamePrefix(),
+			taskType,
+			taskStats.completedCount.get(),
+			taskStats.getAverageWaitTimeInMillis(),
+			taskStats.maxWaitTimeInMillis.get(),
+			taskStats.getAverageExecutionTimeInMillis(),
+			taskStats.maxExecutionTimeInMillis.get(),
+			taskStats.rejectedCount.get()
+		));
+	}
+	
+	@Override
+	protected ExecutorService initializeExecutor(
+		ThreadFactory threadFactory,
+		RejectedExecutionHandler rejectedExecutionHandler) {
+		
+		// a decorator must be set before an executor is created
+		setTaskDecorator(this::measure);
+		
+		return super.initializeExecutor(threadFactory, this::reject);
+	}
+	
+	private TaskStats getStats(String taskType) {
+		return stats.computeIfAbsent(taskType, type -> new TaskStats());
+	}
+	
+	// it's invoked by a thread that submits a task
+	private Runnable measure(Runnable task) {
+		if (task instanceof TypedTask) {
+			return new MeasuredTask((TypedTask)task);
+		}
+		
+		return new MeasuredTask(new TypedTask(UNKNOWN_TASK_TYPE, true, task));
+	}
+	
+	// Tasks that may be dropped are submitted during request processing (for example, logging
+	// of absent pages): when the pool is overloaded, it's better to lose some of them than
+	// to fail or to slow down a request. Other tasks (for example, deduplication of images)
+	// must not be lost, so they are executed by a caller thread.
+	private void reject(Runnable runnable, ThreadPoolExecutor executor) {
+		MeasuredTask task = (MeasuredTask)runnable;
+		String taskType = task.getType();
+		long rejected = getStats(taskType).rejectedCount.incrementAndGet();
+		
+		boolean runByCaller = !task.mayBeDropped() && !executor.isShutdown();
+		log.warn(
+			"{}{}: task has been rejected and {} ({} in queue, {} in progress, "
+			+ "{} rejected in total)",
+			getThreadNamePrefix(),
+			taskType,
+			runByCaller ? "is executed by a caller" : "dropped",
+			executor.getQueue().size(),
+			executor.getActiveCount(),
+			rejected
+		);
+		
+		if (runByCaller) {
+			task.run();
+		}
+	}
+	
+	private static final class TypedTask implements Runnable {
+		private final String type;
+		private final boolean mayBeDropped;
+		private final Runnable task;
+		
+		TypedTask(String type, boolean mayBeDropped, Runnable task) {
+			this.type = type;
+			this.mayBeDropped = mayBeDropped;
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			task.run();
+		}
+	}
+	
+	private final class MeasuredTask implements Runnable {
+		private final TypedTask task;
+		private final long submittedAt = System.currentTimeMillis();
+		
+		MeasuredTask(TypedTask task) {
+			this.task = task;
+		}
+		
+		public String getType() {
+			return task.type;
+		}
+		
+		public boolean mayBeDropped() {
+			return task.mayBeDropped;
+		}
+		
+		@Override
+		public void run() {
+			long startedAt = System.currentTimeMillis();
+			try {
+				task.run();
+			} finally {
+				long waitTime = startedAt - submittedAt;
+				long executionTime = System.currentTimeMillis() - startedAt;
+				getStats(task.type).add(waitTime, executionTime);
+			}
+		}
+	}
+	
+	private static final class TaskStats {
+		private final AtomicLong rejectedCount = new AtomicLong();
+		private final AtomicLong completedCount = new AtomicLong();
+		private final AtomicLong totalWaitTimeInMillis = new AtomicLong();
+		private final AtomicLong maxWaitTimeInMillis = new AtomicLong();
+		private final AtomicLong totalExecutionTimeInMillis = new AtomicLong();
+		private final AtomicLong maxExecutionTimeInMillis = new AtomicLong();
+		
+		public void add(long waitTime, long executionTime) {
+			completedCount.incrementAndGet();
+			totalWaitTimeInMillis.addAndGet(waitTime);
+			maxWaitTimeInMillis.accumulateAndGet(waitTime, Math::max);
+			totalExecutionTimeInMillis.addAndGet(executionTime);
+			maxExecutionTimeInMillis.accumulateAndGet(executionTime, Math::max);
+		}
+		
+		public long getAverageWaitTimeInMillis() {
+			long count = completedCount.get();
+			return count == 0 ? 0 : totalWaitTimeInMillis.get() / count;
+		}
+		
+		public long getAverageExecutionTimeInMillis() {
+			long count = completedCount.get();
+			return count == 0 ? 0 : totalExecutionTimeInMillis.get() / count;
+		}
+	}
+	
+}
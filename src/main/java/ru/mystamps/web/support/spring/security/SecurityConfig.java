@@ -114,6 +114,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 				.mvcMatchers(HttpMethod.PATCH, SeriesUrl.INFO_SERIES_PAGE)
 					.hasAnyAuthority(StringAuthority.CREATE_SERIES, StringAuthority.ADD_COMMENTS_TO_SERIES)
 				.mvcMatchers(SeriesImportUrl.REQUEST_IMPORT_SERIES_PAGE).hasAuthority(StringAuthority.IMPORT_SERIES)
+				.mvcMatchers(SeriesImportUrl.REQUEST_BATCH_IMPORT_PAGE).hasAuthority(StringAuthority.IMPORT_SERIES)
+				.mvcMatchers(SeriesImportUrl.BATCH_IMPORT_JOB_PAGE).hasAuthority(StringAuthority.IMPORT_SERIES)
 				.mvcMatchers(SiteUrl.SITE_EVENTS_PAGE).hasAuthority(StringAuthority.VIEW_SITE_EVENTS)
 				.mvcMatchers(CategoryUrl.SUGGEST_SERIES_CATEGORY).hasAuthority(StringAuthority.CREATE_SERIES)
 				.mvcMatchers(CountryUrl.SUGGEST_SERIES_COUNTRY).hasAuthority(StringAuthority.CREATE_SERIES)
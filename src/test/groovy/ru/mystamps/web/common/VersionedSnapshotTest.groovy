@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.common
+
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class VersionedSnapshotTest extends Specification {
+	
+	private final Supplier<String> loader = Mock()
+	private final VersionedSnapshot<String> snapshot = new VersionedSnapshot<>(loader)
+	
+	def "get() should load a snapshot only once"() {
+		when:
+			String first = snapshot.get()
+			String second = snapshot.get()
+		then:
+			1 * loader.get() >> 'data'
+		and:
+			first == 'data'
+			second == 'data'
+	}
+	
+	def "get() should reload a snapshot after invalidation"() {
+		when:
+			snapshot.get()
+			snapshot.invalidate()
+			String result = snapshot.get()
+		then:
+			2 * loader.get() >>> [ 'old', 'new' ]
+		and:
+			result == 'new'
+	}
+	
+	def "get() shouldn't keep a snapshot that has been invalidated during loading"() {
+		when:
+			String first = snapshot.get()
+			String second = snapshot.get()
+		then:
+			2 * loader.get() >> { snapshot.invalidate(); 'stale' } >> 'fresh'
+		and:
+			first == 'stale'
+			second == 'fresh'
+	}
+	
+	def "invalidateAfterCommit() should invalidate immediately without a transaction"() {
+		when:
+			snapshot.get()
+			snapshot.invalidateAfterCommit()
+			snapshot.get()
+		then:
+			2 * loader.get() >> 'data'
+	}
+	
+}
@@ -21,6 +21,8 @@ import org.slf4j.helpers.NOPLogger
 import ru.mystamps.web.common.EntityWithParentDto
 import ru.mystamps.web.common.LinkEntityDto
 import ru.mystamps.web.common.SlugUtils
+import ru.mystamps.web.feature.series.SelectItem
+import ru.mystamps.web.feature.site.SiteStatisticsListener
 import ru.mystamps.web.service.TestObjects
 import ru.mystamps.web.tests.DateUtils
 import ru.mystamps.web.tests.Random
@@ -44,7 +46,9 @@ import static io.qala.datagen.StringModifier.Impls.oneOf
 class CategoryServiceImplTest extends Specification {
 	
 	private final CategoryDao categoryDao = Mock()
-	private final CategoryService service = new CategoryServiceImpl(NOPLogger.NOP_LOGGER, categoryDao)
+	private final SiteStatisticsListener siteStatistics = Mock()
+	private final CategoryService service =
+		new CategoryServiceImpl(NOPLogger.NOP_LOGGER, categoryDao, siteStatistics)
 	
 	private AddCategoryForm form
 	
@@ -99,6 +103,13 @@ class CategoryServiceImplTest extends Specification {
 			actualSlug == expectedSlug
 	}
 	
+	def 'add() should update site statistics'() {
+		when:
+			service.add(form, Random.userId())
+		then:
+			1 * siteStatistics.categoryAdded()
+	}
+	
 	def "add() should throw exception when name can't be converted to slug"() {
 		given:
 			form.setName('-')
@@ -222,7 +233,7 @@ class CategoryServiceImplTest extends Specification {
 	// Tests for findAllAsLinkEntities()
 	//
 	
-	def 'findAllAsLinkEntities() should call dao'() {
+	def 'findAllAsLinkEntities() should return categories from dao'() {
 		given:
 			LinkEntityDto category1 = new LinkEntityDto(1, 'first-category', 'First Category')
 		and:
@@ -231,22 +242,55 @@ class CategoryServiceImplTest extends Specification {
 			List<LinkEntityDto> expectedCategories = [ category1, category2 ]
 		and:
 			categoryDao.findAllAsLinkEntities(_ as String) >> expectedCategories
+			categoryDao.findCategoriesWithParents(_ as String) >> []
 		when:
-			List<LinkEntityDto> resultCategories = service.findAllAsLinkEntities('fr')
+			List<LinkEntityDto> resultCategories = service.findAllAsLinkEntities('ru')
 		then:
 			resultCategories == expectedCategories
 	}
 	
 	@Unroll
-	def "findAllAsLinkEntities() should pass language '#expectedLanguage' to dao"(String expectedLanguage) {
+	def "findAllAsLinkEntities() should return English names for language '#lang'"(String lang) {
+		given:
+			List<LinkEntityDto> expectedCategories = [ TestObjects.createLinkEntityDto() ]
+		and:
+			categoryDao.findAllAsLinkEntities('en') >> expectedCategories
+			categoryDao.findAllAsLinkEntities('ru') >> []
+			categoryDao.findCategoriesWithParents(_ as String) >> []
 		when:
-			service.findAllAsLinkEntities(expectedLanguage)
+			List<LinkEntityDto> resultCategories = service.findAllAsLinkEntities(lang)
 		then:
-			1 * categoryDao.findAllAsLinkEntities(expectedLanguage)
+			resultCategories == expectedCategories
 		where:
-			expectedLanguage | _
-			'ru'             | _
-			null             | _
+			lang | _
+			'fr' | _
+			null | _
+	}
+	
+	def 'findAllAsLinkEntities() should load categories only once'() {
+		when:
+			service.findAllAsLinkEntities('en')
+		and:
+			service.findAllAsLinkEntities('ru')
+		then:
+			1 * categoryDao.findAllAsLinkEntities('en') >> []
+			1 * categoryDao.findAllAsLinkEntities('ru') >> []
+			2 * categoryDao.findCategoriesWithParents(_ as String) >> []
+	}
+	
+	def 'findAllAsLinkEntities() should reload categories after a category has been added'() {
+		given:
+			categoryDao.findCategoriesWithParents(_ as String) >> []
+			categoryDao.add(_ as AddCategoryDbDto) >> Random.id()
+		when:
+			service.findAllAsLinkEntities('en')
+		and:
+			service.add(form, Random.userId())
+		and:
+			service.findAllAsLinkEntities('en')
+		then:
+			2 * categoryDao.findAllAsLinkEntities('en') >> []
+			2 * categoryDao.findAllAsLinkEntities('ru') >> []
 	}
 	
 	//
@@ -255,16 +299,36 @@ class CategoryServiceImplTest extends Specification {
 	
 	def 'findCategoriesWithParents() should invoke dao and return its result'() {
 		given:
-			String expectedLang = nullOr(Random.lang())
 			List<EntityWithParentDto> expectedResult = Random.listOfEntityWithParentDto()
+		and:
+			categoryDao.findAllAsLinkEntities(_ as String) >> []
+			categoryDao.findCategoriesWithParents(_ as String) >> expectedResult
 		when:
-			List<EntityWithParentDto> result = service.findCategoriesWithParents(expectedLang)
+			List<EntityWithParentDto> result = service.findCategoriesWithParents(Random.lang())
 		then:
-			1 * categoryDao.findCategoriesWithParents(expectedLang) >> expectedResult
-		and:
 			result == expectedResult
 	}
 	
+	//
+	// Tests for findGroupedCategories()
+	//
+	
+	def 'findGroupedCategories() should group categories by their parents'() {
+		given:
+			categoryDao.findAllAsLinkEntities(_ as String) >> []
+			categoryDao.findCategoriesWithParents(_ as String) >> [
+				new EntityWithParentDto('cats', 'Cats', 'Animals'),
+				new EntityWithParentDto('dogs', 'Dogs', 'Animals'),
+				new EntityWithParentDto('sport', 'Sport', null),
+			]
+		when:
+			List<SelectItem> result = service.findGroupedCategories(Random.lang())
+		then:
+			result*.name == [ 'Animals', 'Sport' ]
+		and:
+			result[0].children*.value == [ 'cats', 'dogs' ]
+	}
+	
 	//
 	// Tests for findOneAsLinkEntity()
 	//
@@ -290,13 +354,30 @@ class CategoryServiceImplTest extends Specification {
 			''   | _
 	}
 	
-	def 'findOneAsLinkEntity() should pass arguments to dao'() {
+	def 'findOneAsLinkEntity() should return a category without querying dao'() {
+		given:
+			LinkEntityDto expectedDto = TestObjects.createLinkEntityDto()
+		and:
+			categoryDao.findAllAsLinkEntities(_ as String) >> [ expectedDto ]
+			categoryDao.findCategoriesWithParents(_ as String) >> []
+		when:
+			LinkEntityDto actualDto = service.findOneAsLinkEntity(expectedDto.slug, 'ru')
+		then:
+			0 * categoryDao.findOneAsLinkEntity(_ as String, _ as String)
+		and:
+			actualDto == expectedDto
+	}
+	
+	def 'findOneAsLinkEntity() should pass arguments to dao for an unknown category'() {
 		given:
 			String expectedSlug = 'people'
 		and:
 			String expectedLang = 'fr'
 		and:
 			LinkEntityDto expectedDto = TestObjects.createLinkEntityDto()
+		and:
+			categoryDao.findAllAsLinkEntities(_ as String) >> []
+			categoryDao.findCategoriesWithParents(_ as String) >> []
 		when:
 			LinkEntityDto actualDto = service.findOneAsLinkEntity(expectedSlug, expectedLang)
 		then:
@@ -20,6 +20,7 @@ package ru.mystamps.web.feature.collection
 import org.slf4j.helpers.NOPLogger
 import ru.mystamps.web.common.Currency
 import ru.mystamps.web.common.SlugUtils
+import ru.mystamps.web.feature.site.SiteStatisticsListener
 import ru.mystamps.web.service.TestObjects
 import ru.mystamps.web.tests.DateUtils
 import ru.mystamps.web.tests.Random
@@ -40,11 +41,17 @@ import static io.qala.datagen.RandomShortApi.positiveLong
 class CollectionServiceImplTest extends Specification {
 	
 	private final CollectionDao collectionDao = Mock()
+	private final SiteStatisticsListener siteStatistics = Mock()
 	
 	private CollectionService service
 	
 	def setup() {
-		service = new CollectionServiceImpl(NOPLogger.NOP_LOGGER, collectionDao)
+		service = new CollectionServiceImpl(
+			NOPLogger.NOP_LOGGER,
+			collectionDao,
+			new CollectionSeriesCache(NOPLogger.NOP_LOGGER, 10, 60),
+			siteStatistics
+		)
 	}
 	
 	//
@@ -205,6 +212,26 @@ class CollectionServiceImplTest extends Specification {
 			)
 	}
 	
+	def 'addToCollection() should update site statistics when collection was empty'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.addToCollection(userId, TestObjects.createAddToCollectionDto())
+		then:
+			1 * collectionDao.countSeriesOfUserCollection(userId) >> 0
+			1 * siteStatistics.collectionAdded()
+	}
+	
+	def 'addToCollection() should not update site statistics when collection had series'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.addToCollection(userId, TestObjects.createAddToCollectionDto())
+		then:
+			1 * collectionDao.countSeriesOfUserCollection(userId) >> 1
+			0 * siteStatistics.collectionAdded()
+	}
+	
 	//
 	// Tests for removeFromCollection()
 	//
@@ -253,6 +280,26 @@ class CollectionServiceImplTest extends Specification {
 			)
 	}
 	
+	def 'removeFromCollection() should update site statistics when collection became empty'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.removeFromCollection(userId, Random.id(), Random.id())
+		then:
+			1 * collectionDao.countSeriesOfUserCollection(userId) >> 0
+			1 * siteStatistics.collectionRemoved()
+	}
+	
+	def 'removeFromCollection() should not update site statistics when collection has series'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.removeFromCollection(userId, Random.id(), Random.id())
+		then:
+			1 * collectionDao.countSeriesOfUserCollection(userId) >> 2
+			0 * siteStatistics.collectionRemoved()
+	}
+	
 	//
 	// Tests for isSeriesInCollection()
 	//
@@ -291,6 +338,61 @@ class CollectionServiceImplTest extends Specification {
 			serviceResult == expectedResult
 	}
 	
+	//
+	// Tests for findSeriesIdsInCollection()
+	//
+	
+	def 'findSeriesIdsInCollection() should throw exception when series ids are null'() {
+		when:
+			service.findSeriesIdsInCollection(Random.userId(), null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Series ids must be non null'
+	}
+	
+	def 'findSeriesIdsInCollection() should return empty result for anonymous'() {
+		when:
+			Set<Integer> result = service.findSeriesIdsInCollection(null, [1, 2])
+		then:
+			result.isEmpty()
+		and:
+			0 * collectionDao.findSeriesIdsInUserCollection(_ as Integer)
+	}
+	
+	def 'findSeriesIdsInCollection() should return only series from collection'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			Set<Integer> result = service.findSeriesIdsInCollection(userId, [1, 2, 3, 4])
+		then:
+			1 * collectionDao.findSeriesIdsInUserCollection(userId) >> [2, 4, 5]
+		and:
+			result == [2, 4] as Set
+	}
+	
+	def 'findSeriesIdsInCollection() should query dao only once'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.findSeriesIdsInCollection(userId, [1])
+			service.findSeriesIdsInCollection(userId, [2])
+		then:
+			1 * collectionDao.findSeriesIdsInUserCollection(userId) >> [1, 2]
+	}
+	
+	def 'findSeriesIdsInCollection() should query dao again after series has been removed'() {
+		given:
+			Integer userId = Random.userId()
+		when:
+			service.findSeriesIdsInCollection(userId, [1])
+			service.removeFromCollection(userId, 1, Random.id())
+			Set<Integer> result = service.findSeriesIdsInCollection(userId, [1])
+		then:
+			2 * collectionDao.findSeriesIdsInUserCollection(userId) >>> [[1], []]
+		and:
+			result.isEmpty()
+	}
+	
 	//
 	// Tests for countCollectionsOfUsers()
 	//
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.collection
+
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class CollectionStatisticsTest extends Specification {
+	
+	def "should compute counters in a single pass over the series"() {
+		given:
+			List<SeriesInCollectionDto> series = [
+				createSeries(1, 'Animals', 'Italy', 5),
+				createSeries(1, 'Animals', 'Spain', 2),
+				createSeries(2, 'Sport', 'Italy', 3),
+			]
+		when:
+			CollectionStatistics stat = new CollectionStatistics(series)
+		then:
+			stat.categoryCounter == 2
+			stat.countryCounter == 2
+			stat.seriesCounter == 3
+			stat.stampsCounter == 10
+	}
+	
+	def "should sum number of stamps by categories and countries"() {
+		given:
+			List<SeriesInCollectionDto> series = [
+				createSeries(1, 'Animals', 'Italy', 5),
+				createSeries(1, 'Animals', 'Spain', 2),
+				createSeries(2, 'Sport', 'Italy', 3),
+			]
+		when:
+			CollectionStatistics stat = new CollectionStatistics(series)
+		then:
+			stat.statOfCollectionByCategories == [ 'Animals': 7, 'Sport': 3 ]
+			stat.statOfCollectionByCountries == [ 'Italy': 8, 'Spain': 2 ]
+	}
+	
+	def "should count series without a country as an unknown country"() {
+		given:
+			List<SeriesInCollectionDto> series = [
+				createSeries(1, 'Animals', null, 4),
+				createSeries(1, 'Animals', null, 1),
+				createSeries(1, 'Animals', 'Italy', 2),
+			]
+		when:
+			CollectionStatistics stat = new CollectionStatistics(series)
+		then:
+			stat.countryCounter == 2
+			stat.statOfCollectionByCountries == [ 'Unknown': 5, 'Italy': 2 ]
+	}
+	
+	private static SeriesInCollectionDto createSeries(
+		Integer categoryId,
+		String category,
+		String country,
+		Integer numberOfStamps) {
+		
+		// in the tests a country id is derived from its name
+		Integer countryId = country?.hashCode()
+		
+		return new SeriesInCollectionDto(
+			1, category, categoryId, country, countryId, 2000, true, 5, null, numberOfStamps, 0
+		)
+	}
+	
+}
@@ -20,6 +20,7 @@ package ru.mystamps.web.feature.country
 import org.slf4j.helpers.NOPLogger
 import ru.mystamps.web.common.LinkEntityDto
 import ru.mystamps.web.common.SlugUtils
+import ru.mystamps.web.feature.site.SiteStatisticsListener
 import ru.mystamps.web.service.TestObjects
 import ru.mystamps.web.tests.DateUtils
 import ru.mystamps.web.tests.Random
@@ -43,7 +44,9 @@ import static io.qala.datagen.StringModifier.Impls.oneOf
 class CountryServiceImplTest extends Specification {
 	
 	private final CountryDao countryDao = Mock()
-	private final CountryService service = new CountryServiceImpl(NOPLogger.NOP_LOGGER, countryDao)
+	private final SiteStatisticsListener siteStatistics = Mock()
+	private final CountryService service =
+		new CountryServiceImpl(NOPLogger.NOP_LOGGER, countryDao, siteStatistics)
 	
 	private AddCountryForm form
 	
@@ -98,6 +101,13 @@ class CountryServiceImplTest extends Specification {
 			actualSlug == expectedSlug
 	}
 	
+	def 'add() should update site statistics'() {
+		when:
+			service.add(form, Random.userId())
+		then:
+			1 * siteStatistics.countryAdded()
+	}
+	
 	def "add() should throw exception when name can't be converted to slug"() {
 		given:
 			form.setName('-')
@@ -237,15 +247,44 @@ class CountryServiceImplTest extends Specification {
 	}
 	
 	@Unroll
-	def "findAllAsLinkEntities() should pass language '#expectedLanguage' to dao"(String expectedLanguage) {
+	def "findAllAsLinkEntities() should return English names for language '#lang'"(String lang) {
+		given:
+			List<LinkEntityDto> expectedCountries = [ TestObjects.createLinkEntityDto() ]
+		and:
+			countryDao.findAllAsLinkEntities('en') >> expectedCountries
+			countryDao.findAllAsLinkEntities('ru') >> []
 		when:
-			service.findAllAsLinkEntities(expectedLanguage)
+			List<LinkEntityDto> resultCountries = service.findAllAsLinkEntities(lang)
 		then:
-			1 * countryDao.findAllAsLinkEntities(expectedLanguage)
+			resultCountries == expectedCountries
 		where:
-			expectedLanguage | _
-			'ru'             | _
-			null             | _
+			lang | _
+			'fr' | _
+			null | _
+	}
+	
+	def 'findAllAsLinkEntities() should load countries only once'() {
+		when:
+			service.findAllAsLinkEntities('en')
+		and:
+			service.findAllAsLinkEntities('ru')
+		then:
+			1 * countryDao.findAllAsLinkEntities('en') >> []
+			1 * countryDao.findAllAsLinkEntities('ru') >> []
+	}
+	
+	def 'findAllAsLinkEntities() should reload countries after a country has been added'() {
+		given:
+			countryDao.add(_ as AddCountryDbDto) >> Random.id()
+		when:
+			service.findAllAsLinkEntities('en')
+		and:
+			service.add(form, Random.userId())
+		and:
+			service.findAllAsLinkEntities('en')
+		then:
+			2 * countryDao.findAllAsLinkEntities('en') >> []
+			2 * countryDao.findAllAsLinkEntities('ru') >> []
 	}
 	
 	//
@@ -273,13 +312,28 @@ class CountryServiceImplTest extends Specification {
 			''   | _
 	}
 	
-	def 'findOneAsLinkEntity() should pass arguments to dao'() {
+	def 'findOneAsLinkEntity() should return a country without querying dao'() {
+		given:
+			LinkEntityDto expectedDto = TestObjects.createLinkEntityDto()
+		and:
+			countryDao.findAllAsLinkEntities(_ as String) >> [ expectedDto ]
+		when:
+			LinkEntityDto actualDto = service.findOneAsLinkEntity(expectedDto.slug, 'ru')
+		then:
+			0 * countryDao.findOneAsLinkEntity(_ as String, _ as String)
+		and:
+			actualDto == expectedDto
+	}
+	
+	def 'findOneAsLinkEntity() should pass arguments to dao for an unknown country'() {
 		given:
 			String expectedSlug = 'france'
 		and:
 			String expectedLang = 'fr'
 		and:
 			LinkEntityDto expectedDto = TestObjects.createLinkEntityDto()
+		and:
+			countryDao.findAllAsLinkEntities(_ as String) >> []
 		when:
 			LinkEntityDto actualDto = service.findOneAsLinkEntity(expectedSlug, expectedLang)
 		then:
@@ -47,7 +47,7 @@ class DatabaseImagePersistenceStrategyTest extends Specification {
 	
 	def "save() should convert IOException to ImagePersistenceException"() {
 		given:
-			multipartFile.bytes >> { throw new IOException('oops') }
+			multipartFile.inputStream >> { throw new IOException('oops') }
 		when:
 			strategy.save(multipartFile, imageInfoDto)
 		then:
@@ -62,14 +62,16 @@ class DatabaseImagePersistenceStrategyTest extends Specification {
 		given:
 			Integer expectedImageId = imageInfoDto.id
 		and:
-			byte[] expectedContent = 'test'.bytes
-			multipartFile.bytes >> expectedContent
+			InputStream expectedContent = new ByteArrayInputStream('test'.bytes)
+			multipartFile.inputStream >> expectedContent
+			multipartFile.size >> 4L
 		when:
 			strategy.save(multipartFile, imageInfoDto)
 		then:
 			1 * imageDataDao.add({ AddImageDataDbDto imageData ->
 				assert imageData?.imageId == expectedImageId
 				assert imageData?.content == expectedContent
+				assert imageData?.contentLength == 4L
 				assert imageData?.preview == false
 				return true
 			})
@@ -90,12 +92,43 @@ class DatabaseImagePersistenceStrategyTest extends Specification {
 		then:
 			1 * imageDataDao.add({ AddImageDataDbDto imageData ->
 				assert imageData?.imageId == expectedImageId
-				assert imageData?.content == expectedContent
+				assert imageData?.content?.bytes == expectedContent
+				assert imageData?.contentLength == expectedContent.length
 				assert imageData?.preview == true
 				return true
 			})
 	}
 	
+	//
+	// Tests for saveRendition()
+	//
+	
+	def "saveRendition() should replace an existing rendition"() {
+		given:
+			Integer expectedImageId = imageInfoDto.id
+		and:
+			byte[] expectedContent = 'test'.bytes
+		when:
+			strategy.saveRendition(expectedContent, imageInfoDto, 100)
+		then:
+			1 * imageDataDao.replaceRendition(expectedImageId, 100, expectedContent) >> 1
+		and:
+			0 * imageDataDao.addRendition(_ as Integer, _ as Integer, _ as byte[])
+	}
+	
+	def "saveRendition() should add a rendition when it doesn't exist"() {
+		given:
+			Integer expectedImageId = imageInfoDto.id
+		and:
+			byte[] expectedContent = 'test'.bytes
+		and:
+			imageDataDao.replaceRendition(_ as Integer, _ as Integer, _ as byte[]) >> 0
+		when:
+			strategy.saveRendition(expectedContent, imageInfoDto, 100)
+		then:
+			1 * imageDataDao.addRendition(expectedImageId, 100, expectedContent)
+	}
+	
 	//
 	// Tests for get()
 	//
@@ -148,6 +181,32 @@ class DatabaseImagePersistenceStrategyTest extends Specification {
 			result == expectedImageDto
 	}
 	
+	//
+	// Tests for getRendition()
+	//
+	
+	def 'getRendition() should return null when image data dao returned null'() {
+		given:
+			imageDataDao.findRenditionByImageId(_ as Integer, _ as Integer) >> null
+		when:
+			ImageDto result = strategy.getRendition(imageInfoDto, 100)
+		then:
+			result == null
+	}
+	
+	def 'getRendition() should return result of image data dao'() {
+		given:
+			Integer expectedImageId = imageInfoDto.id
+		and:
+			ImageDto expectedImageDto = TestObjects.createImageDto()
+		when:
+			ImageDto result = strategy.getRendition(imageInfoDto, 100)
+		then:
+			1 * imageDataDao.findRenditionByImageId(expectedImageId, 100) >> expectedImageDto
+		and:
+			result == expectedImageDto
+	}
+	
 	//
 	// Tests for removeIfPossible()
 	//
@@ -18,6 +18,8 @@
 package ru.mystamps.web.feature.image
 
 import org.slf4j.helpers.NOPLogger
+import org.springframework.core.io.ByteArrayResource
+import org.springframework.core.io.Resource
 import org.springframework.web.multipart.MultipartFile
 import ru.mystamps.web.service.TestObjects
 import spock.lang.Specification
@@ -91,52 +93,79 @@ class FilesystemImagePersistenceStrategyTest extends Specification {
 	}
 	
 	//
-	// Tests for get()
+	// Tests for link()
 	//
 	
-	def 'get() should return null when file doesn\'t exist'() {
+	def 'link() should return false when original file doesn\'t exist'() {
 		given:
-			strategy.exists(_ as Path) >> false
+			ImageInfoDto original = new ImageInfoDto(1, 'PNG')
 		and:
-			strategy.generateFilePath(_ as File, _ as ImageInfoDto) >> mockFile
+			strategy.exists(_ as Path) >> false
 		when:
-			ImageDto result = strategy.get(imageInfoDto)
+			boolean result = strategy.link(original, imageInfoDto)
 		then:
-			result == null
+			0 * strategy.linkFile(_ as Path, _ as Path)
+		and:
+			!result
 	}
 	
-	def 'get() should convert IOException to ImagePersistenceException'() {
+	def 'link() should return false when file couldn\'t be linked'() {
 		given:
+			ImageInfoDto original = new ImageInfoDto(1, 'PNG')
+		and:
 			strategy.exists(_ as Path) >> true
+		when:
+			boolean result = strategy.link(original, imageInfoDto)
+		then:
+			1 * strategy.linkFile(_ as Path, _ as Path) >> { throw new IOException('oops') }
 		and:
-			strategy.generateFilePath(_ as File, _ as ImageInfoDto) >> mockFile
+			!result
+	}
+	
+	def 'link() should link image and its preview'() {
+		given:
+			ImageInfoDto original = new ImageInfoDto(1, 'PNG')
 		and:
-			strategy.toByteArray(_ as Path) >> { throw new IOException('oops') }
+			strategy.exists(_ as Path) >> true
 		when:
-			strategy.get(imageInfoDto)
+			boolean result = strategy.link(original, imageInfoDto)
 		then:
-			ImagePersistenceException ex = thrown()
+			2 * strategy.linkFile(_ as Path, _ as Path) >> { }
 		and:
-			ex.cause instanceof IOException
-			ex.cause?.message == 'oops'
+			result
+	}
+	
+	//
+	// Tests for get()
+	//
+	
+	def 'get() should return null when file doesn\'t exist'() {
+		given:
+			strategy.exists(_ as Path) >> false
+		and:
+			strategy.generateFilePath(_ as File, _ as ImageInfoDto) >> mockFile
+		when:
+			ImageDto result = strategy.get(imageInfoDto)
+		then:
+			result == null
 	}
 	
 	def 'get() should return result with correct type and content'() {
 		given:
 			String expectedType = imageInfoDto.type
 		and:
-			byte[] expectedData = 'any data'.bytes
+			Resource expectedContent = new ByteArrayResource('any data'.bytes)
 		and:
 			strategy.exists(_ as Path) >> true
 		and:
 			strategy.generateFilePath(_ as File, _ as ImageInfoDto) >> mockFile
-		and:
-			strategy.toByteArray(_ as Path) >> expectedData
 		when:
 			ImageDto result = strategy.get(imageInfoDto)
 		then:
+			1 * strategy.toResource(mockFile) >> expectedContent
+		and:
 			result.type == expectedType
-			result.data == expectedData
+			result.content == expectedContent
 	}
 	
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image
+
+import org.slf4j.helpers.NOPLogger
+import ru.mystamps.web.service.TestObjects
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class ImagePreviewGeneratorTest extends Specification {
+	
+	private ImagePreviewGenerator generator
+	
+	def cleanup() {
+		generator?.shutdown()
+	}
+	
+	//
+	// Tests for generate()
+	//
+	
+	def "generate() should return result of generator"() {
+		given:
+			generator = new ImagePreviewGenerator(NOPLogger.NOP_LOGGER, 1, 1, 1000L)
+		and:
+			ImageDto expectedPreview = TestObjects.createImageDto()
+		when:
+			ImageDto result = generator.generate(1, { expectedPreview } as Supplier<ImageDto>)
+		then:
+			result == expectedPreview
+		and:
+			generator.generatedCount == 1
+	}
+	
+	def "generate() should return null when generator has failed"() {
+		given:
+			generator = new ImagePreviewGenerator(NOPLogger.NOP_LOGGER, 1, 1, 1000L)
+		when:
+			ImageDto result = generator.generate(
+				1,
+				{ throw new CreateImagePreviewException('oops') } as Supplier<ImageDto>
+			)
+		then:
+			result == null
+		and:
+			generator.failedCount == 1
+	}
+	
+	def "generate() should return null when preview isn't generated in time"() {
+		given:
+			generator = new ImagePreviewGenerator(NOPLogger.NOP_LOGGER, 1, 1, 10L)
+		and:
+			CountDownLatch latch = new CountDownLatch(1)
+		when:
+			ImageDto result = generator.generate(
+				1,
+				{ latch.await(); TestObjects.createImageDto() } as Supplier<ImageDto>
+			)
+		then:
+			result == null
+		cleanup:
+			latch.countDown()
+	}
+	
+	def "generate() should return null when queue is full"() {
+		given:
+			generator = new ImagePreviewGenerator(NOPLogger.NOP_LOGGER, 1, 1, 10L)
+		and:
+			CountDownLatch latch = new CountDownLatch(1)
+		and:
+			// the first task occupies a worker and the second one occupies a queue
+			generator.generateInBackground(1, { latch.await(); null } as Supplier<ImageDto>)
+			generator.generateInBackground(2, { latch.await(); null } as Supplier<ImageDto>)
+		when:
+			ImageDto result = generator.generate(
+				3,
+				{ TestObjects.createImageDto() } as Supplier<ImageDto>
+			)
+		then:
+			result == null
+		and:
+			generator.rejectedCount == 1
+		cleanup:
+			latch.countDown()
+	}
+	
+	def "generate() should generate preview of the same image only once"() {
+		given:
+			generator = new ImagePreviewGenerator(NOPLogger.NOP_LOGGER, 1, 1, 1000L)
+		and:
+			CountDownLatch latch = new CountDownLatch(1)
+			AtomicInteger invocations = new AtomicInteger()
+			ImageDto expectedPreview = TestObjects.createImageDto()
+		and:
+			generator.generateInBackground(1, {
+				invocations.incrementAndGet()
+				latch.await()
+				expectedPreview
+			} as Supplier<ImageDto>)
+		when:
+			Thread releaser = Thread.start { Thread.sleep(50); latch.countDown() }
+			ImageDto result = generator.generate(
+				1,
+				{ invocations.incrementAndGet(); null } as Supplier<ImageDto>
+			)
+		then:
+			result == expectedPreview
+		and:
+			invocations.get() == 1
+		cleanup:
+			releaser?.join()
+	}
+	
+}
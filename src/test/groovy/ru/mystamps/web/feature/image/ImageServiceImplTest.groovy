@@ -34,19 +34,26 @@ class ImageServiceImplTest extends Specification {
 	private final MultipartFile multipartFile = Mock()
 	private final ImagePreviewStrategy imagePreviewStrategy = Mock()
 	private final ImagePersistenceStrategy imagePersistenceStrategy = Mock()
+	private final ImagePreviewGenerator previewGenerator = Mock(
+		ImagePreviewGenerator,
+		constructorArgs:[NOPLogger.NOP_LOGGER, 1, 1, 1L]
+	)
 	
 	private final ImageService service = new ImageServiceImpl(
 		NOPLogger.NOP_LOGGER,
 		imagePersistenceStrategy,
 		imagePreviewStrategy,
-		imageDao
+		imageDao,
+		previewGenerator,
+		new PreviewRenditions(250, [ 100, 500 ])
 	)
 	
 	def setup() {
 		multipartFile.size >> 1024L
 		multipartFile.contentType >> 'image/png'
 		multipartFile.originalFilename >> 'super-image.png'
-		imageDao.add(_ as String, _ as String) >> 17
+		multipartFile.inputStream >> { new ByteArrayInputStream('super-image'.bytes) }
+		imageDao.add(_ as String, _ as String, _ as String) >> 17
 	}
 	
 	//
@@ -106,7 +113,7 @@ class ImageServiceImplTest extends Specification {
 			1 * imageDao.add({ String type ->
 				assert type == expectedType
 				return true
-			}, _ as String) >> 19
+			}, _ as String, _ as String) >> 19
 		where:
 			contentType                 || expectedType
 			'image/jpeg'                || 'JPEG'
@@ -132,7 +139,8 @@ class ImageServiceImplTest extends Specification {
 				{ String actualFilename ->
 					assert actualFilename == expectedFilename
 					return true
-				}
+				},
+				_ as String
 			) >> Random.id()
 		where:
 			filename                  || expectedFilename
@@ -159,7 +167,8 @@ class ImageServiceImplTest extends Specification {
 				{ String actualFilename ->
 					assert actualFilename == expectedFilename
 					return true
-				}
+				},
+				_ as String
 			) >> Random.id()
 	}
 	
@@ -167,7 +176,7 @@ class ImageServiceImplTest extends Specification {
 		when:
 			service.save(multipartFile)
 		then:
-			imageDao.add(_ as String, _ as String) >> null
+			imageDao.add(_ as String, _ as String, _ as String) >> null
 		and:
 			0 * imagePersistenceStrategy.save(_ as MultipartFile, _ as ImageInfoDto)
 		and:
@@ -182,7 +191,7 @@ class ImageServiceImplTest extends Specification {
 		when:
 			service.save(multipartFile)
 		then:
-			imageDao.add(_ as String, _ as String) >> image.id
+			imageDao.add(_ as String, _ as String, _ as String) >> image.id
 		and:
 			1 * imagePersistenceStrategy.save({ MultipartFile passedFile ->
 				assert passedFile == multipartFile
@@ -202,11 +211,62 @@ class ImageServiceImplTest extends Specification {
 		when:
 			ImageInfoDto actualImageInfo = service.save(multipartFile)
 		then:
-			imageDao.add(_ as String, _ as String) >> expectedImageId
+			imageDao.add(_ as String, _ as String, _ as String) >> expectedImageId
 		and:
 			actualImageInfo == expectedImageInfo
 	}
 	
+	def "save() should pass content hash to image dao"() {
+		given:
+			String expectedHash = ImageContentHash.calculate('super-image'.bytes)
+		when:
+			service.save(multipartFile)
+		then:
+			1 * imageDao.findFirstIdByContentHash(expectedHash, 'PNG') >> null
+		and:
+			1 * imageDao.add(_ as String, _ as String, expectedHash) >> 17
+	}
+	
+	def "save() should share content with the same image instead of saving it"() {
+		given:
+			Integer originalImageId = 10
+			Integer expectedImageId = 17
+		when:
+			service.save(multipartFile)
+		then:
+			imageDao.findFirstIdByContentHash(_ as String, 'PNG') >> originalImageId
+			imageDao.add(_ as String, _ as String, _ as String) >> expectedImageId
+		and:
+			1 * imagePersistenceStrategy.link(
+				new ImageInfoDto(originalImageId, 'PNG'),
+				new ImageInfoDto(expectedImageId, 'PNG')
+			) >> true
+		and:
+			0 * imagePersistenceStrategy.save(_ as MultipartFile, _ as ImageInfoDto)
+	}
+	
+	def "save() should save content when it couldn't be shared with the same image"() {
+		when:
+			service.save(multipartFile)
+		then:
+			imageDao.findFirstIdByContentHash(_ as String, 'PNG') >> 10
+		and:
+			1 * imagePersistenceStrategy.link(_ as ImageInfoDto, _ as ImageInfoDto) >> false
+		and:
+			1 * imagePersistenceStrategy.save(multipartFile, _ as ImageInfoDto)
+	}
+	
+	def "save() should schedule generation of a preview"() {
+		given:
+			Integer expectedImageId = 17
+		when:
+			service.save(multipartFile)
+		then:
+			imageDao.add(_ as String, _ as String, _ as String) >> expectedImageId
+		and:
+			1 * previewGenerator.generateInBackground(expectedImageId, _)
+	}
+	
 	//
 	// Tests for get()
 	//
@@ -325,6 +385,91 @@ class ImageServiceImplTest extends Specification {
 				assert passedImage?.type == expectedImageType
 				return true
 			}) >> expectedImageDto
+		and:
+			0 * previewGenerator.generate(_, _)
+		and:
+			actualImageDto == expectedImageDto
+	}
+	
+	def "getOrCreatePreview() should generate preview when it doesn't exist"() {
+		given:
+			Integer expectedImageId = 7
+		and:
+			ImageDto expectedImageDto = TestObjects.createImageDto()
+		when:
+			ImageDto actualImageDto = service.getOrCreatePreview(expectedImageId)
+		then:
+			1 * imagePersistenceStrategy.getPreview(_ as ImageInfoDto) >> null
+		and:
+			1 * previewGenerator.generate(expectedImageId, _) >> expectedImageDto
+		and:
+			actualImageDto == expectedImageDto
+	}
+	
+	@Unroll
+	def "getOrCreatePreview() should throw exception if width is #width"(Integer width) {
+		when:
+			service.getOrCreatePreview(1, width)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Width must be greater than zero'
+		where:
+			width | _
+			-1    | _
+			0     | _
+	}
+	
+	@Unroll
+	def "getOrCreatePreview() should return default preview when width is #width"(Integer width) {
+		given:
+			ImageDto expectedImageDto = TestObjects.createImageDto()
+		when:
+			ImageDto actualImageDto = service.getOrCreatePreview(7, width)
+		then:
+			1 * imagePersistenceStrategy.getPreview(_ as ImageInfoDto) >> expectedImageDto
+		and:
+			0 * imagePersistenceStrategy.getRendition(_, _)
+		and:
+			actualImageDto == expectedImageDto
+		where:
+			width | _
+			null  | _
+			200   | _
+			250   | _
+	}
+	
+	@Unroll
+	def "getOrCreatePreview() should return rendition of width #expectedWidth for #width"(
+		Integer width,
+		Integer expectedWidth) {
+		
+		given:
+			ImageDto expectedImageDto = TestObjects.createImageDto()
+		when:
+			ImageDto actualImageDto = service.getOrCreatePreview(7, width)
+		then:
+			1 * imagePersistenceStrategy.getRendition(_ as ImageInfoDto, expectedWidth) >> expectedImageDto
+		and:
+			0 * previewGenerator.generate(_, _, _)
+		and:
+			actualImageDto == expectedImageDto
+		where:
+			width || expectedWidth
+			50    || 100
+			100   || 100
+			300   || 500
+			1000  || 500
+	}
+	
+	def "getOrCreatePreview() should generate rendition when it doesn't exist"() {
+		given:
+			ImageDto expectedImageDto = TestObjects.createImageDto()
+		when:
+			ImageDto actualImageDto = service.getOrCreatePreview(7, 100)
+		then:
+			1 * imagePersistenceStrategy.getRendition(_ as ImageInfoDto, 100) >> null
+		and:
+			1 * previewGenerator.generate(7, 100, _) >> expectedImageDto
 		and:
 			actualImageDto == expectedImageDto
 	}
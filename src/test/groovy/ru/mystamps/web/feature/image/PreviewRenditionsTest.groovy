@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.image
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class PreviewRenditionsTest extends Specification {
+	
+	private final PreviewRenditions renditions = new PreviewRenditions(250, [ 500, 100, 250 ])
+	
+	@Unroll
+	def "constructor should throw exception when width is #width"(Integer width) {
+		when:
+			new PreviewRenditions(250, [ 100, width ])
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message.startsWith('Rendition widths must be greater than zero')
+		where:
+			width | _
+			null  | _
+			0     | _
+	}
+	
+	def "getWidths() should return sorted widths without default one"() {
+		expect:
+			renditions.widths == [ 100, 500 ]
+	}
+	
+	@Unroll
+	def "resolve() should return #expected for #width"(Integer width, Integer expected) {
+		expect:
+			renditions.resolve(width) == expected
+		where:
+			width || expected
+			null  || null
+			1     || 100
+			100   || 100
+			101   || null
+			250   || null
+			251   || 500
+			500   || 500
+			2000  || 500
+	}
+	
+	def "resolve() should return null when there are no renditions"() {
+		expect:
+			new PreviewRenditions(250, []).resolve(1000) == null
+	}
+	
+}
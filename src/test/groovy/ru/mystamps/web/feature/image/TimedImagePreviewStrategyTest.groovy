@@ -51,4 +51,16 @@ class TimedImagePreviewStrategyTest extends Specification {
 			'foo'.bytes  || 'foobar'.bytes
 	}
 	
+	def 'createPreview() should pass width to original strategy'() {
+		given:
+			byte[] expectedData = 'foo'.bytes
+			byte[] expectedResult = 'bar'.bytes
+		when:
+			byte[] result = strategy.createPreview(expectedData, 100)
+		then:
+			1 * origStrategy.createPreview(expectedData, 100) >> expectedResult
+		and:
+			result == expectedResult
+	}
+	
 }
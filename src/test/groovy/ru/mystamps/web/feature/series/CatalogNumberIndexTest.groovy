@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series
+
+import org.slf4j.helpers.NOPLogger
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class CatalogNumberIndexTest extends Specification {
+	
+	private final StampsCatalogDao michelCatalogDao = Mock()
+	private final StampsCatalogDao scottCatalogDao = Mock()
+	
+	private final CatalogNumberIndex index = new CatalogNumberIndex(
+		NOPLogger.NOP_LOGGER,
+		[(StampsCatalog.MICHEL): michelCatalogDao, (StampsCatalog.SCOTT): scottCatalogDao]
+	)
+	
+	def setup() {
+		michelCatalogDao.findAllSeriesIdsByNumber() >> [
+			'1': [ 10 ],
+			'2': [ 10, 20 ],
+			'10': [ 30 ],
+			'11a': [ 40 ],
+		]
+		scottCatalogDao.findAllSeriesIdsByNumber() >> [
+			'1': [ 50 ],
+			'3': [ 60 ],
+		]
+	}
+	
+	//
+	// Tests for find()
+	//
+	
+	@Unroll
+	def "find() should return #expected for query '#query' in Michel catalog"(String query, List<Integer> expected) {
+		expect:
+			index.find(StampsCatalog.MICHEL, query) == expected as Set
+		where:
+			query     || expected
+			'2'       || [ 10, 20 ]
+			' 10 '    || [ 30 ]
+			'3'       || [ ]
+			'1, 10'   || [ 10, 30 ]
+			'1-3'     || [ 10, 20 ]
+			'1*'      || [ 10, 30, 40 ]
+			'11*'     || [ 40 ]
+			'11A'     || [ 40 ]
+			'11A*'    || [ 40 ]
+			'*'       || [ ]
+			'3-1'     || [ ]
+			''        || [ ]
+	}
+	
+	def "find() should search in all catalogs when catalog isn't specified"() {
+		expect:
+			index.find(null, '1') == [ 10, 50 ] as Set
+	}
+	
+	def "find() should return series ids in an ascending order"() {
+		expect:
+			index.find(null, '1-3') as List == [ 10, 20, 50, 60 ]
+	}
+	
+	def "find() should load numbers only once"() {
+		given:
+			StampsCatalogDao dao = Mock()
+			CatalogNumberIndex index = new CatalogNumberIndex(
+				NOPLogger.NOP_LOGGER,
+				[(StampsCatalog.MICHEL): dao]
+			)
+		when:
+			index.find(StampsCatalog.MICHEL, '1')
+			index.find(StampsCatalog.MICHEL, '2')
+		then:
+			1 * dao.findAllSeriesIdsByNumber() >> [:]
+	}
+	
+	//
+	// Tests for add()
+	//
+	
+	def "add() should make numbers searchable"() {
+		when:
+			index.add(StampsCatalog.SCOTT, 70, [ '3', '4' ])
+		then:
+			index.find(StampsCatalog.SCOTT, '3') == [ 60, 70 ] as Set
+			index.find(StampsCatalog.SCOTT, '4') == [ 70 ] as Set
+			index.find(StampsCatalog.MICHEL, '4').empty
+	}
+	
+	def "add() should keep numbers that were added before index has been loaded"() {
+		when:
+			index.add(StampsCatalog.MICHEL, 80, [ '2' ])
+		then:
+			index.find(StampsCatalog.MICHEL, '2') == [ 10, 20, 80 ] as Set
+	}
+	
+	def "add() should make numbers searchable regardless of their case"() {
+		when:
+			index.add(StampsCatalog.SCOTT, 90, [ '5B' ])
+		then:
+			index.find(StampsCatalog.SCOTT, '5b') == [ 90 ] as Set
+			index.find(StampsCatalog.SCOTT, '5B') == [ 90 ] as Set
+	}
+	
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class CatalogNumberRangesTest extends Specification {
+	
+	//
+	// Tests for parse()
+	//
+	
+	@Unroll
+	def 'parse() should return empty set for "#numbers"'(String numbers) {
+		expect:
+			CatalogNumberRanges.parse(numbers).isEmpty()
+		where:
+			numbers | _
+			null    | _
+			''      | _
+	}
+	
+	@Unroll
+	def 'parse() should parse "#numbers" into #expected'(String numbers, List<String> expected) {
+		when:
+			CatalogNumberRanges result = CatalogNumberRanges.parse(numbers)
+		then:
+			result.toSet() as List == expected
+		and:
+			result.size() == expected.size()
+		where:
+			numbers       || expected
+			'1'           || [ '1' ]
+			'1,'          || [ '1' ]
+			'2,1'         || [ '1', '2' ]
+			'1,1'         || [ '1' ]
+			'1-3'         || [ '1', '2', '3' ]
+			'1-3,2-4'     || [ '1', '2', '3', '4' ]
+			'5,1-3'       || [ '1', '2', '3', '5' ]
+			'2317a,1'     || [ '1', '2317a' ]
+			'012,12'      || [ '12', '012' ]
+			'1234567890'  || [ '1234567890' ]
+	}
+	
+	@Unroll
+	def 'parse() should throw exception for an invalid value (#numbers)'(
+		String numbers, String message) {
+		
+		when:
+			CatalogNumberRanges.parse(numbers)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == message
+		where:
+			numbers   | message
+			'1, '     | 'Catalog number must be non empty'
+			'1-2-3'   | 'Unexpected number of separators found: expected to have only one'
+			'1-z'     | 'Unexpected a non-numeric range found'
+			'z-2'     | 'Unexpected a non-numeric range found'
+			' 1 - 2 ' | 'Unexpected a non-numeric range found'
+			'1-1'     | 'Range must be in an ascending order'
+			'2-1'     | 'Range must be in an ascending order'
+	}
+	
+	//
+	// Tests for of()
+	//
+	
+	def 'of() should throw exception if numbers is null'() {
+		when:
+			CatalogNumberRanges.of(null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Catalog numbers must be non null'
+	}
+	
+	def 'of() should merge sequences into ranges'() {
+		expect:
+			CatalogNumberRanges.of([ '3', '1', '2', '7' ]) == CatalogNumberRanges.parse('1-3,7')
+	}
+	
+	//
+	// Tests for merge()
+	//
+	
+	def 'merge() should combine numbers of both sets'() {
+		given:
+			CatalogNumberRanges first = CatalogNumberRanges.parse('1-3,10a')
+			CatalogNumberRanges second = CatalogNumberRanges.parse('4,6,10a,11a')
+		when:
+			CatalogNumberRanges result = first.merge(second)
+		then:
+			result.toShortForm() == '1-4, 6, 10a, 11a'
+	}
+	
+	//
+	// Tests for toShortForm()
+	//
+	
+	@Unroll
+	def 'toShortForm() should format #numbers as "#expected"'(List<String> numbers, String expected) {
+		expect:
+			CatalogNumberRanges.of(numbers).toShortForm() == expected
+		where:
+			numbers                             || expected
+			[ ]                                 || ''
+			[ '1' ]                             || '1'
+			[ '1', '2' ]                        || '1, 2'
+			[ '1', '2', '3' ]                   || '1-3'
+			[ '1', '3' ]                        || '1, 3'
+			[ '1', '2', '4', '5' ]              || '1, 2, 4, 5'
+			[ '1', '2', '3', '10', '11', '12' ] || '1-3, 10-12'
+			[ '1', '2', '3', '10', '19', '20' ] || '1-3, 10, 19, 20'
+			[ '2317a' ]                         || '2317a'
+			[ '2317a', '2319a' ]                || '2317a, 2319a'
+			[ '2317a', '2318a', '2319a' ]       || '2317a, 2318a, 2319a'
+			[ '2317a', '10', '2319a' ]          || '10, 2317a, 2319a'
+			[ '2317a', '9', '10', '11' ]        || '9-11, 2317a'
+	}
+	
+	//
+	// Tests for toLongForm()
+	//
+	
+	def 'toLongForm() should expand ranges'() {
+		expect:
+			CatalogNumberRanges.parse('5,1-3,2317a').toLongForm() == '1,2,3,5,2317a'
+	}
+	
+}
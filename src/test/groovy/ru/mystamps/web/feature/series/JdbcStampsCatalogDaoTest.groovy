@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series
+
+import org.springframework.jdbc.core.JdbcOperations
+import org.springframework.jdbc.core.PreparedStatementCreator
+import org.springframework.jdbc.core.RowMapper
+import org.springframework.jdbc.core.SqlProvider
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class JdbcStampsCatalogDaoTest extends Specification {
+	
+	private final JdbcOperations jdbcOperations = Mock()
+	
+	private final StampsCatalogDao dao = new JdbcStampsCatalogDao(
+		new NamedParameterJdbcTemplate(jdbcOperations),
+		'INSERT INTO t(code) VALUES :codes',
+		'SELECT code FROM t WHERE code IN (:numbers)',
+		'',
+		'',
+		''
+	)
+	
+	//
+	// Tests for add()
+	//
+	
+	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
+	def "add() should insert only missing numbers by a single statement"() {
+		when:
+			List<String> result = dao.add([ '1', '2', '3' ] as LinkedHashSet)
+		then:
+			1 * jdbcOperations.query({ PreparedStatementCreator creator ->
+				assert (creator as SqlProvider).sql == 'SELECT code FROM t WHERE code IN (?, ?, ?)'
+				return true
+			}, _ as RowMapper) >> [ '2' ]
+		and:
+			1 * jdbcOperations.update({ PreparedStatementCreator creator ->
+				assert (creator as SqlProvider).sql == 'INSERT INTO t(code) VALUES (?), (?)'
+				return true
+			}) >> 2
+		and:
+			result == [ '1', '3' ]
+	}
+	
+	def "add() should compare numbers case-insensitively"() {
+		given:
+			jdbcOperations.query(_ as PreparedStatementCreator, _ as RowMapper) >> [ '11a' ]
+		when:
+			List<String> result = dao.add([ '11A' ] as Set)
+		then:
+			0 * jdbcOperations.update(_ as PreparedStatementCreator)
+		and:
+			result.empty
+	}
+	
+	def "add() should fail when not all the numbers have been inserted"() {
+		given:
+			jdbcOperations.query(_ as PreparedStatementCreator, _ as RowMapper) >> []
+		and:
+			jdbcOperations.update(_ as PreparedStatementCreator) >> 1
+		when:
+			dao.add([ '1', '2' ] as Set)
+		then:
+			IllegalStateException ex = thrown()
+			ex.message == 'Unexpected number of affected rows after creation of 2 catalog numbers: 1'
+	}
+	
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpHandler
+import com.sun.net.httpserver.HttpServer
+import ru.mystamps.web.feature.series.DownloadResult.Code
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class KeepAliveDownloaderServiceTest extends Specification {
+	
+	private static final String CONTENT = '<html><body>Some series</body></html>'
+	
+	private HttpServer server
+	private String pageUrl
+	private KeepAliveDownloaderService service
+	
+	def setup() {
+		server = HttpServer.create(new InetSocketAddress('127.0.0.1', 0), 0)
+		server.start()
+		pageUrl = "http://127.0.0.1:${server.address.port}/page.html"
+		
+		String[] allowedTypes = [ 'text/html' ] as String[]
+		service = new KeepAliveDownloaderService(allowedTypes, 1000, 1024, false, 1024)
+	}
+	
+	def cleanup() {
+		server.stop(0)
+	}
+	
+	//
+	// Tests for download()
+	//
+	
+	def 'download() should decode a deflate body with a zlib header'() {
+		given:
+			serve(200, 'text/html', [ 'Content-Encoding': 'deflate' ], deflate(CONTENT, false))
+		when:
+			DownloadResult result = service.download(pageUrl)
+		then:
+			result.code == Code.SUCCESS
+			result.dataAsString == CONTENT
+	}
+	
+	def 'download() should decode a deflate body without a zlib header'() {
+		given:
+			serve(200, 'text/html', [ 'Content-Encoding': 'deflate' ], deflate(CONTENT, true))
+		when:
+			DownloadResult result = service.download(pageUrl)
+		then:
+			result.code == Code.SUCCESS
+			result.dataAsString == CONTENT
+	}
+	
+	def 'download() should reuse a content of an unmodified page'() {
+		given:
+			List<String> receivedEtags = []
+			serveWithEtag(receivedEtags, 'text/html', CONTENT.getBytes(StandardCharsets.UTF_8))
+		when:
+			service.download(pageUrl)
+		and:
+			DownloadResult result = service.download(pageUrl)
+		then:
+			receivedEtags == [ null, '"v1"' ]
+		and:
+			result.code == Code.SUCCESS
+			result.dataAsString == CONTENT
+	}
+	
+	def 'download() should return the same error for an unmodified file of unsupported type'() {
+		given:
+			List<String> receivedEtags = []
+			serveWithEtag(receivedEtags, 'application/pdf', [ 1, 2, 3 ] as byte[])
+		when:
+			DownloadResult firstResult = service.download(pageUrl)
+		and:
+			DownloadResult secondResult = service.download(pageUrl)
+		then:
+			receivedEtags == [ null, '"v1"' ]
+		and:
+			firstResult.code == Code.INVALID_FILE_TYPE
+			secondResult.code == Code.INVALID_FILE_TYPE
+	}
+	
+	def 'download() should not send a conditional request after an error status'() {
+		given:
+			List<String> receivedEtags = []
+			serve(404, 'text/html', [ 'ETag': '"v1"' ], new byte[0], receivedEtags)
+		when:
+			service.download(pageUrl)
+		and:
+			DownloadResult result = service.download(pageUrl)
+		then:
+			receivedEtags == [ null, null ]
+		and:
+			result.code == Code.FILE_NOT_FOUND
+	}
+	
+	private void serve(int status, String contentType, Map<String, String> headers, byte[] body) {
+		serve(status, contentType, headers, body, [])
+	}
+	
+	private void serve(
+		int status,
+		String contentType,
+		Map<String, String> headers,
+		byte[] body,
+		List<String> receivedEtags) {
+		
+		server.createContext('/page.html', { HttpExchange exchange ->
+			receivedEtags.add(exchange.requestHeaders.getFirst('If-None-Match'))
+			exchange.responseHeaders.add('Content-Type', contentType)
+			headers.each { name, value -> exchange.responseHeaders.add(name, value) }
+			exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length)
+			exchange.responseBody.write(body)
+			exchange.close()
+		} as HttpHandler)
+	}
+	
+	// Responds by "304 Not Modified" when a request has a matching If-None-Match header
+	private void serveWithEtag(List<String> receivedEtags, String contentType, byte[] body) {
+		server.createContext('/page.html', { HttpExchange exchange ->
+			String etag = exchange.requestHeaders.getFirst('If-None-Match')
+			receivedEtags.add(etag)
+			exchange.responseHeaders.add('ETag', '"v1"')
+			if (etag == '"v1"') {
+				exchange.sendResponseHeaders(304, -1)
+			} else {
+				exchange.responseHeaders.add('Content-Type', contentType)
+				exchange.sendResponseHeaders(200, body.length)
+				exchange.responseBody.write(body)
+			}
+			exchange.close()
+		} as HttpHandler)
+	}
+	
+	private static byte[] deflate(String content, boolean raw) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream()
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw)
+		DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)
+		stream.write(content.getBytes(StandardCharsets.UTF_8))
+		stream.close()
+		deflater.end()
+		return out.toByteArray()
+	}
+	
+}
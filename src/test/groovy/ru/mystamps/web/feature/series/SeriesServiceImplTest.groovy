@@ -18,10 +18,13 @@
 package ru.mystamps.web.feature.series
 
 import org.slf4j.helpers.NOPLogger
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
 import org.springframework.web.multipart.MultipartFile
 import ru.mystamps.web.common.LinkEntityDto
 import ru.mystamps.web.feature.image.ImageInfoDto
 import ru.mystamps.web.feature.image.ImageService
+import ru.mystamps.web.feature.site.SiteStatisticsListener
 import ru.mystamps.web.service.TestObjects
 import ru.mystamps.web.tests.DateUtils
 import ru.mystamps.web.tests.Random
@@ -50,7 +53,10 @@ class SeriesServiceImplTest extends Specification {
 	private final StampsCatalogService gibbonsCatalogService = Mock()
 	private final StampsCatalogService solovyovCatalogService = Mock()
 	private final StampsCatalogService zagorskiCatalogService = Mock()
+	private final StampsCatalogDao michelCatalogDao = Mock()
 	private final MultipartFile multipartFile = Mock()
+	private final PlatformTransactionManager transactionManager = Mock()
+	private final SiteStatisticsListener siteStatistics = Mock()
 	
 	private SeriesService service
 	private AddSeriesForm form
@@ -76,7 +82,10 @@ class SeriesServiceImplTest extends Specification {
 			yvertCatalogService,
 			gibbonsCatalogService,
 			solovyovCatalogService,
-			zagorskiCatalogService
+			zagorskiCatalogService,
+			new SeriesInfoCache(NOPLogger.NOP_LOGGER, transactionManager, 10, 60),
+			new CatalogNumberIndex(NOPLogger.NOP_LOGGER, [(StampsCatalog.MICHEL): michelCatalogDao]),
+			siteStatistics
 		)
 		
 		multipartFile.getOriginalFilename() >> '/path/to/test/file.ext'
@@ -322,6 +331,20 @@ class SeriesServiceImplTest extends Specification {
 			actual == expected
 	}
 	
+	def "add() should update site statistics"() {
+		given:
+			Integer expectedId = Random.id()
+		and:
+			Integer expectedQuantity = Random.quantity()
+			form.setQuantity(expectedQuantity)
+		and:
+			seriesDao.add(_ as AddSeriesDbDto) >> expectedId
+		when:
+			service.add(form, Random.userId(), bool())
+		then:
+			1 * siteStatistics.seriesAdded(expectedId, expectedQuantity)
+	}
+	
 	def "add() should add michel numbers to series"() {
 		given:
 			Set<String> expectedNumbers = [ '1', '2' ] as Set
@@ -535,6 +558,22 @@ class SeriesServiceImplTest extends Specification {
 			1 * imageService.addToSeries(expectedSeriesId, expectedImageId)
 	}
 	
+	def "addImageToSeries() should evict series info from cache"() {
+		given:
+			Integer expectedSeriesId = Random.id()
+			String expectedLang = Random.lang()
+		and:
+			service.findFullInfoById(expectedSeriesId, expectedLang, false)
+		when:
+			service.addImageToSeries(imageForm, expectedSeriesId, Random.userId())
+		and:
+			service.findFullInfoById(expectedSeriesId, expectedLang, false)
+		then:
+			1 * seriesDao.findByIdAsSeriesFullInfo(expectedSeriesId, expectedLang) >> TestObjects.createSeriesFullInfoDto()
+		and:
+			1 * seriesDao.findNumbersAndImagesById(expectedSeriesId, false) >> new SeriesNumbersAndImagesDto()
+	}
+	
 	def "addImageToSeries() should remove image when exception occurs"() {
 		given:
 			ImageInfoDto expectedImageInfo = TestObjects.createImageInfoDto()
@@ -702,11 +741,7 @@ class SeriesServiceImplTest extends Specification {
 		then:
 			1 * seriesDao.findByIdAsSeriesFullInfo(_ as Integer, _ as String)
 		and:
-			0 * michelCatalogService.findBySeriesId(_ as Integer)
-			0 * scottCatalogService.findBySeriesId(_ as Integer)
-			0 * yvertCatalogService.findBySeriesId(_ as Integer)
-			0 * gibbonsCatalogService.findBySeriesId(_ as Integer)
-			0 * imageService.findBySeriesId(_ as Integer)
+			0 * seriesDao.findNumbersAndImagesById(_ as Integer, _ as Boolean)
 		and:
 			result == null
 	}
@@ -724,24 +759,24 @@ class SeriesServiceImplTest extends Specification {
 			List<String> expectedZagorskiNumbers = Random.zagorskiNumbers().toList()
 			List<String> expectedSolovyovNumbers = Random.solovyovNumbers().toList()
 			List<Integer> expectedImageIds       = Random.listOfIntegers()
+		and:
+			SeriesNumbersAndImagesDto numbersAndImages = new SeriesNumbersAndImagesDto()
+			numbersAndImages.michelNumbers.addAll(expectedMichelNumbers)
+			numbersAndImages.scottNumbers.addAll(expectedScottNumbers)
+			numbersAndImages.yvertNumbers.addAll(expectedYvertNumbers)
+			numbersAndImages.gibbonsNumbers.addAll(expectedGibbonsNumbers)
+			numbersAndImages.solovyovNumbers.addAll(expectedSolovyovNumbers)
+			numbersAndImages.zagorskiNumbers.addAll(expectedZagorskiNumbers)
+			numbersAndImages.imageIds.addAll(expectedImageIds)
 		when:
 			SeriesDto result = service.findFullInfoById(expectedSeriesId, expectedLang, false)
 		then:
 			1 * seriesDao.findByIdAsSeriesFullInfo(expectedSeriesId, expectedLang) >> expectedInfo
 		and:
-			1 * michelCatalogService.findBySeriesId(expectedSeriesId) >> expectedMichelNumbers
+			1 * seriesDao.findNumbersAndImagesById(expectedSeriesId, false) >> numbersAndImages
 		and:
-			1 * scottCatalogService.findBySeriesId(expectedSeriesId) >> expectedScottNumbers
-		and:
-			1 * yvertCatalogService.findBySeriesId(expectedSeriesId) >> expectedYvertNumbers
-		and:
-			1 * gibbonsCatalogService.findBySeriesId(expectedSeriesId) >> expectedGibbonsNumbers
-		and:
-			1 * solovyovCatalogService.findBySeriesId(expectedSeriesId) >> expectedSolovyovNumbers
-		and:
-			1 * zagorskiCatalogService.findBySeriesId(expectedSeriesId) >> expectedZagorskiNumbers
-		and:
-			1 * imageService.findBySeriesId(expectedSeriesId, false) >> expectedImageIds
+			0 * michelCatalogService.findBySeriesId(_ as Integer)
+			0 * imageService.findBySeriesId(_ as Integer, _ as Boolean)
 		and:
 			result != null
 			result.id           == expectedInfo.id
@@ -778,244 +813,73 @@ class SeriesServiceImplTest extends Specification {
 			result.zagorski?.price    == expectedInfo.zagorskiPrice
 	}
 	
-	//
-	// Tests for findByMichelNumber()
-	//
-	
-	def "findByMichelNumber() should find series ids"() {
-		given:
-			String expectedNumber = Random.catalogNumber()
-		when:
-			service.findByMichelNumber(expectedNumber, Random.lang())
-		then:
-			1 * michelCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
-	}
-	
-	def "findByMichelNumber() shouldn't try to find series info if there are no series"() {
-		given:
-			michelCatalogService.findSeriesIdsByNumber(_ as String) >> []
-		when:
-			List<SeriesInfoDto> result = service.findByMichelNumber(Random.catalogNumber(), Random.lang())
-		then:
-			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
-		and:
-			result.empty
-	}
-	
-	def "findByMichelNumber() should find and return series info"() {
+	def "findFullInfoById() should return cached info on a subsequent call"() {
 		given:
+			Integer expectedSeriesId = Random.id()
 			String expectedLang = Random.lang()
-		and:
-			List<Integer> expectedSeriesIds = [ 1 ]
-		and:
-			michelCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
-		and:
-			List<SeriesInfoDto> expectedResult = []
 		when:
-			List<SeriesInfoDto> result = service.findByMichelNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
+			SeriesDto first = service.findFullInfoById(expectedSeriesId, expectedLang, false)
 		and:
-			result == expectedResult
-	}
-	
-	//
-	// Tests for findByScottNumber()
-	//
-	
-	def "findByScottNumber() should find series ids"() {
-		given:
-			String expectedNumber = Random.catalogNumber()
-		when:
-			service.findByScottNumber(expectedNumber, Random.lang())
+			SeriesDto second = service.findFullInfoById(expectedSeriesId, expectedLang, false)
 		then:
-			1 * scottCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
-	}
-	
-	def "findByScottNumber() shouldn't try to find series info if there are no series"() {
-		given:
-			scottCatalogService.findSeriesIdsByNumber(_ as String) >> []
-		when:
-			List<SeriesInfoDto> result = service.findByScottNumber(Random.catalogNumber(), Random.lang())
-		then:
-			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
-		and:
-			result.empty
-	}
-	
-	def "findByScottNumber() should find and return series info"() {
-		given:
-			String expectedLang = Random.lang()
-		and:
-			List<Integer> expectedSeriesIds = [ 1 ]
+			1 * seriesDao.findByIdAsSeriesFullInfo(expectedSeriesId, expectedLang) >> TestObjects.createSeriesFullInfoDto()
 		and:
-			scottCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
+			1 * seriesDao.findNumbersAndImagesById(expectedSeriesId, false) >> new SeriesNumbersAndImagesDto()
 		and:
-			List<SeriesInfoDto> expectedResult = []
-		when:
-			List<SeriesInfoDto> result = service.findByScottNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
-		and:
-			result == expectedResult
-	}
-	
-	//
-	// Tests for findByYvertNumber()
-	//
-	
-	def "findByYvertNumber() should find series ids"() {
-		given:
-			String expectedNumber = Random.catalogNumber()
-		when:
-			service.findByYvertNumber(expectedNumber, Random.lang())
-		then:
-			1 * yvertCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
+			first != null
+			second.is(first)
 	}
 	
-	def "findByYvertNumber() shouldn't try to find series info if there are no series"() {
-		given:
-			yvertCatalogService.findSeriesIdsByNumber(_ as String) >> []
+	def "findFullInfoById() should load info within a read-only transaction"() {
 		when:
-			List<SeriesInfoDto> result = service.findByYvertNumber(Random.catalogNumber(), Random.lang())
+			service.findFullInfoById(Random.id(), Random.lang(), false)
 		then:
-			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
-		and:
-			result.empty
-	}
-	
-	def "findByYvertNumber() should find and return series info"() {
-		given:
-			String expectedLang = Random.lang()
-		and:
-			List<Integer> expectedSeriesIds = [ 1 ]
-		and:
-			yvertCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
-		and:
-			List<SeriesInfoDto> expectedResult = []
-		when:
-			List<SeriesInfoDto> result = service.findByYvertNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
-		and:
-			result == expectedResult
+			1 * transactionManager.getTransaction({ TransactionDefinition definition ->
+				assert definition?.readOnly
+				return true
+			})
 	}
 	
 	//
-	// Tests for findByGibbonsNumber()
+	// Tests for findByCatalogNumber()
 	//
 	
-	def "findByGibbonsNumber() should find series ids"() {
-		given:
-			String expectedNumber = Random.catalogNumber()
+	@Unroll
+	def "findByCatalogNumber() should throw exception when number is '#number'"(String number) {
 		when:
-			service.findByGibbonsNumber(expectedNumber, Random.lang())
+			service.findByCatalogNumber(StampsCatalog.MICHEL, number, Random.lang())
 		then:
-			1 * gibbonsCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Catalog number must be non-blank'
+		where:
+			number | _
+			null   | _
+			''     | _
+			'  '   | _
 	}
 	
-	def "findByGibbonsNumber() shouldn't try to find series info if there are no series"() {
+	def "findByCatalogNumber() shouldn't try to find series info if there are no series"() {
 		given:
-			gibbonsCatalogService.findSeriesIdsByNumber(_ as String) >> []
+			michelCatalogDao.findAllSeriesIdsByNumber() >> [:]
 		when:
-			List<SeriesInfoDto> result = service.findByGibbonsNumber(Random.catalogNumber(), Random.lang())
+			List<SeriesInfoDto> result = service.findByCatalogNumber(null, '1', Random.lang())
 		then:
 			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
 		and:
 			result.empty
 	}
 	
-	def "findByGibbonsNumber() should find and return series info"() {
+	def "findByCatalogNumber() should find and return series info"() {
 		given:
 			String expectedLang = Random.lang()
 		and:
-			List<Integer> expectedSeriesIds = [ 1 ]
-		and:
-			gibbonsCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
+			michelCatalogDao.findAllSeriesIdsByNumber() >> [ '1': [ 20, 10 ], '2': [ 30 ] ]
 		and:
 			List<SeriesInfoDto> expectedResult = []
 		when:
-			List<SeriesInfoDto> result = service.findByGibbonsNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
-		and:
-			result == expectedResult
-	}
-	
-	//
-	// Tests for findBySolovyovNumber()
-	//
-	
-	def 'findBySolovyovNumber() should find series ids'() {
-		given:
-			String expectedNumber = Random.catalogNumber()
-		when:
-			service.findBySolovyovNumber(expectedNumber, Random.lang())
-		then:
-			1 * solovyovCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
-	}
-	
-	def 'findBySolovyovNumber() shouldn\'t try to find series info if there are no series'() {
-		given:
-			solovyovCatalogService.findSeriesIdsByNumber(_ as String) >> []
-		when:
-			List<SeriesInfoDto> result = service.findBySolovyovNumber(Random.catalogNumber(), Random.lang())
+			List<SeriesInfoDto> result = service.findByCatalogNumber(StampsCatalog.MICHEL, '1', expectedLang)
 		then:
-			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
-		and:
-			result.empty
-	}
-	
-	def 'findBySolovyovNumber() should find and return series info'() {
-		given:
-			String expectedLang = Random.lang()
-			List<Integer> expectedSeriesIds = Random.listOfIntegers()
-			List<SeriesInfoDto> expectedResult = Random.listOfSeriesInfoDto()
-		and:
-			solovyovCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
-		when:
-			List<SeriesInfoDto> result = service.findBySolovyovNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
-		and:
-			result == expectedResult
-	}
-	
-	//
-	// Tests for findByZagorskiNumber()
-	//
-	
-	def 'findByZagorskiNumber() should find series ids'() {
-		given:
-			String expectedNumber = Random.catalogNumber()
-		when:
-			service.findByZagorskiNumber(expectedNumber, Random.lang())
-		then:
-			1 * zagorskiCatalogService.findSeriesIdsByNumber(expectedNumber) >> []
-	}
-	
-	def 'findByZagorskiNumber() shouldn\'t try to find series info if there are no series'() {
-		given:
-			zagorskiCatalogService.findSeriesIdsByNumber(_ as String) >> []
-		when:
-			List<SeriesInfoDto> result = service.findByZagorskiNumber(Random.catalogNumber(), Random.lang())
-		then:
-			0 * seriesDao.findByIdsAsSeriesInfo(_ as List, _ as String)
-		and:
-			result.empty
-	}
-	
-	def 'findByZagorskiNumber() should find and return series info'() {
-		given:
-			String expectedLang = Random.lang()
-			List<Integer> expectedSeriesIds = Random.listOfIntegers()
-			List<SeriesInfoDto> expectedResult = Random.listOfSeriesInfoDto()
-		and:
-			zagorskiCatalogService.findSeriesIdsByNumber(_ as String) >> expectedSeriesIds
-		when:
-			List<SeriesInfoDto> result = service.findByZagorskiNumber(Random.catalogNumber(), expectedLang)
-		then:
-			1 * seriesDao.findByIdsAsSeriesInfo(expectedSeriesIds, expectedLang) >> expectedResult
+			1 * seriesDao.findByIdsAsSeriesInfo([ 10, 20 ], expectedLang) >> expectedResult
 		and:
 			result == expectedResult
 	}
@@ -1140,4 +1004,29 @@ class SeriesServiceImplTest extends Specification {
 			result == expectedResult
 	}
 	
+	//
+	// Tests for findForSitemapUpdatedSince()
+	//
+	
+	def "findForSitemapUpdatedSince() should throw exception when date is null"() {
+		when:
+			service.findForSitemapUpdatedSince(null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Date must be non null'
+	}
+	
+	def "findForSitemapUpdatedSince() should call dao and returns result"() {
+		given:
+			Date expectedDate = new Date()
+			List<SitemapInfoDto> expectedResult =
+				Collections.singletonList(TestObjects.createSitemapInfoDto())
+		when:
+			List<SitemapInfoDto> result = service.findForSitemapUpdatedSince(expectedDate)
+		then:
+			1 * seriesDao.findForSitemapUpdatedSince(expectedDate) >> expectedResult
+		and:
+			result == expectedResult
+	}
+	
 }
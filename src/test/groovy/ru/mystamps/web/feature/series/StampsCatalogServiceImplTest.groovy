@@ -20,17 +20,22 @@ package ru.mystamps.web.feature.series
 import org.slf4j.helpers.NOPLogger
 import ru.mystamps.web.tests.Random
 import spock.lang.Specification
-import spock.lang.Unroll
 
 @SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
 class StampsCatalogServiceImplTest extends Specification {
 	
 	private final StampsCatalogDao stampsCatalogDao = Mock()
+	private final CatalogNumberIndex catalogNumberIndex = new CatalogNumberIndex(
+		NOPLogger.NOP_LOGGER,
+		[(StampsCatalog.MICHEL): stampsCatalogDao]
+	)
 	
 	private final StampsCatalogService service = new StampsCatalogServiceImpl(
 		NOPLogger.NOP_LOGGER,
+		StampsCatalog.MICHEL,
 		'TestCatalog',
-		stampsCatalogDao
+		stampsCatalogDao,
+		catalogNumberIndex
 	)
 	
 	//
@@ -111,6 +116,15 @@ class StampsCatalogServiceImplTest extends Specification {
 			})
 	}
 	
+	def "addToSeries() should add catalog numbers to index"() {
+		given:
+			stampsCatalogDao.findAllSeriesIdsByNumber() >> [:]
+		when:
+			service.addToSeries(100, [ '8', '9' ] as Set)
+		then:
+			catalogNumberIndex.find(StampsCatalog.MICHEL, '8-9') == [ 100 ] as Set
+	}
+	
 	//
 	// Tests for findBySeriesId()
 	//
@@ -140,41 +154,4 @@ class StampsCatalogServiceImplTest extends Specification {
 			result == expectedResult
 	}
 	
-	//
-	// Tests for findSeriesIdsByNumber()
-	//
-	
-	def 'findSeriesIdsByNumber() should throw exception when argument is null'() {
-		when:
-			service.findSeriesIdsByNumber(null)
-		then:
-			IllegalArgumentException ex = thrown()
-			ex.message == 'TestCatalog number must be non null'
-	}
-	
-	@Unroll
-	def "findSeriesIdsByNumber() should throw exception when argument is '#catalogNumber'"(String catalogNumber) {
-		when:
-			service.findSeriesIdsByNumber(catalogNumber)
-		then:
-			IllegalArgumentException ex = thrown()
-			ex.message == 'TestCatalog number must be non-blank'
-		where:
-			catalogNumber | _
-			''            | _
-			'  '          | _
-	}
-	
-	def 'findSeriesIdsByNumber() should invoke dao and return its result'() {
-		given:
-			String expectedCatalogNumber = Random.catalogNumber()
-			List<Integer> expectedResult = Random.listOfIntegers()
-		when:
-			List<Integer> result = service.findSeriesIdsByNumber(expectedCatalogNumber)
-		then:
-			1 * stampsCatalogDao.findSeriesIdsByNumber(expectedCatalogNumber) >> expectedResult
-		and:
-			result == expectedResult
-	}
-	
 }
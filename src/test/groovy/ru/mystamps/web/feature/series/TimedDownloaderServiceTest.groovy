@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series
+
+import org.slf4j.helpers.NOPLogger
+import ru.mystamps.web.feature.series.DownloadResult.Code
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class TimedDownloaderServiceTest extends Specification {
+	
+	private final DownloaderService downloaderService = Mock()
+	
+	private TimedDownloaderService service
+	
+	def setup() {
+		service = new TimedDownloaderService(NOPLogger.NOP_LOGGER, downloaderService)
+	}
+	
+	//
+	// Tests for download()
+	//
+	
+	def 'download() should return a result of the underlying service'() {
+		given:
+			String url = 'http://example.org/image.png'
+			DownloadResult expectedResult =
+				DownloadResult.succeeded([ 1, 2 ] as byte[], 'image/png')
+		when:
+			DownloadResult result = service.download(url)
+		then:
+			1 * downloaderService.download(url) >> expectedResult
+		and:
+			result == expectedResult
+	}
+	
+	//
+	// Tests for getStats()
+	//
+	
+	def 'getStats() should count downloads per host'() {
+		given:
+			downloaderService.download('http://example.org/1') >>
+				DownloadResult.succeeded([ 1, 2, 3 ] as byte[], 'image/png')
+			downloaderService.download('http://example.org/2') >>
+				DownloadResult.failed(Code.FILE_NOT_FOUND)
+			downloaderService.download('http://example.com/1') >>
+				DownloadResult.succeeded([ 1 ] as byte[], 'image/png')
+		when:
+			service.download('http://example.org/1')
+			service.download('http://example.org/2')
+			service.download('http://example.com/1')
+		then:
+			Map<String, TimedDownloaderService.HostStats> stats = service.getStats()
+			stats.keySet() as List == [ 'example.com', 'example.org' ]
+		and:
+			with(stats['example.org']) {
+				succeeded == 1
+				failed == 1
+				bytes == 3
+			}
+		and:
+			with(stats['example.com']) {
+				succeeded == 1
+				failed == 0
+				bytes == 1
+			}
+	}
+	
+	def 'getStats() should count invalid urls under unknown host'() {
+		given:
+			downloaderService.download(_ as String) >> DownloadResult.failed(Code.INVALID_URL)
+		when:
+			service.download('not a url')
+		then:
+			service.getStats()['unknown']?.failed == 1
+	}
+	
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class RawContentUtilsTest extends Specification {
+	
+	//
+	// Tests for stripIrrelevantMarkup()
+	//
+	
+	def 'stripIrrelevantMarkup() should keep a page without scripts as is'() {
+		given:
+			String page = '<html><head><title>Series</title></head><body><p>text</p></body></html>'
+		expect:
+			RawContentUtils.stripIrrelevantMarkup(page) == page
+	}
+	
+	def 'stripIrrelevantMarkup() should remove scripts, styles and comments'() {
+		given:
+			String page = '<html><head><script src="/app.js"></script><style>p { }</style></head>' +
+				'<body><!-- banner --><p>text</p><noscript>no js</noscript>' +
+				'<template><b>tpl</b></template></body></html>'
+		expect:
+			RawContentUtils.stripIrrelevantMarkup(page) ==
+				'<html><head></head><body><p>text</p></body></html>'
+	}
+	
+	//
+	// Tests for compress() and decompress()
+	//
+	
+	def 'decompress() should return a content that has been compressed'() {
+		given:
+			String content = '<p>Почтовые марки</p>' * 1000
+		when:
+			byte[] compressed = RawContentUtils.compress(content)
+		then:
+			compressed.length < content.length()
+		and:
+			byte[] decompressed = RawContentUtils.decompress(compressed).bytes
+			new String(decompressed, StandardCharsets.UTF_8) == content
+	}
+	
+}
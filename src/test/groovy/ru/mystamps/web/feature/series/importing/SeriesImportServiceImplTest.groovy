@@ -171,6 +171,103 @@ class SeriesImportServiceImplTest extends Specification {
 			}) >> Random.id()
 	}
 	
+	//
+	// Tests for addBatchRequest()
+	//
+	
+	def 'addBatchRequest() should throw exception if urls are null'() {
+		when:
+			service.addBatchRequest(null, Random.userId())
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'URLs must be non null'
+	}
+	
+	def 'addBatchRequest() should throw exception if urls are empty'() {
+		when:
+			service.addBatchRequest([], Random.userId())
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'URLs must be non empty'
+	}
+	
+	def 'addBatchRequest() should throw exception if user id is null'() {
+		when:
+			service.addBatchRequest([ Random.url() ], null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'User id must be non null'
+	}
+	
+	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
+	def 'addBatchRequest() should create a job and add requests for new urls only'() {
+		given:
+			String existingUrl = 'http://example.org/1'
+			String newUrl = 'http://example.org/2'
+			String anotherNewUrl = 'http://example.org/3'
+		and:
+			ImportRequestFullInfo existingRequest = new ImportRequestFullInfo(
+				Random.id(),
+				existingUrl,
+				SeriesImportRequestStatus.DOWNLOADING_FAILED,
+				new Date()
+			)
+		and:
+			Integer expectedUserId = Random.userId()
+			Integer expectedJobId = Random.id()
+		when:
+			BatchImportResult result = service.addBatchRequest(
+				[ newUrl, existingUrl, newUrl, anotherNewUrl ],
+				expectedUserId
+			)
+		then:
+			1 * seriesImportDao.findAllByUrls({ Collection<String> urls ->
+				assert urls as List == [ newUrl, existingUrl, anotherNewUrl ]
+				return true
+			}) >> [ existingRequest ]
+		and:
+			1 * seriesImportDao.addJob(
+				{ Date date -> assert DateUtils.roughlyEqual(date, new Date()); return true },
+				expectedUserId
+			) >> expectedJobId
+		and:
+			1 * seriesImportDao.addAll(expectedJobId, { List<ImportSeriesDbDto> requests ->
+				assert requests*.url == [ newUrl, anotherNewUrl ]
+				assert requests.every { it.status == SeriesImportRequestStatus.UNPROCESSED }
+				assert requests.every { it.requestedBy == expectedUserId }
+				return true
+			})
+		and:
+			result.jobId == expectedJobId
+		and:
+			result.skippedRequests == [ existingRequest ]
+	}
+	
+	def 'addBatchRequest() should create an empty job when all urls have been requested before'() {
+		given:
+			String url = Random.url()
+			Integer expectedJobId = Random.id()
+		and:
+			ImportRequestFullInfo existingRequest = new ImportRequestFullInfo(
+				Random.id(),
+				url,
+				SeriesImportRequestStatus.IMPORT_SUCCEEDED,
+				new Date()
+			)
+		and:
+			seriesImportDao.findAllByUrls(_ as Collection<String>) >> [ existingRequest ]
+		when:
+			BatchImportResult result = service.addBatchRequest([ url ], Random.userId())
+		then:
+			1 * seriesImportDao.addJob(_ as Date, _ as Integer) >> expectedJobId
+		and:
+			0 * seriesImportDao.addAll(_ as Integer, _ as List<ImportSeriesDbDto>)
+		and:
+			result.jobId == expectedJobId
+		and:
+			result.skippedRequests == [ existingRequest ]
+	}
+	
 	//
 	// Tests for addSeries()
 	//
@@ -270,6 +367,21 @@ class SeriesImportServiceImplTest extends Specification {
 			)
 	}
 	
+	def 'addSeries() should remove a page content'() {
+		given:
+			Integer expectedRequestId = Random.id()
+		when:
+			service.addSeries(
+				TestObjects.createAddSeriesDto(),
+				nullOr(TestObjects.createAddParticipantDto()),
+				nullOr(TestObjects.createAddSeriesSalesDto()),
+				expectedRequestId,
+				Random.userId()
+			)
+		then:
+			1 * seriesImportDao.removeRawContent(expectedRequestId)
+	}
+	
 	//
 	// Tests for changeStatus()
 	//
@@ -389,7 +501,8 @@ class SeriesImportServiceImplTest extends Specification {
 	def 'saveDownloadedContent() should pass arguments to dao'() {
 		given:
 			Integer expectedRequestId = Random.id()
-			String expectedContent = between(1, 10).english()
+			String expectedContent =
+				"<html><head></head><body>${between(1, 10).english()}</body></html>"
 		when:
 			service.saveDownloadedContent(expectedRequestId, expectedContent, bool())
 		then:
@@ -407,6 +520,17 @@ class SeriesImportServiceImplTest extends Specification {
 			)
 	}
 	
+	def 'saveDownloadedContent() should remove scripts, styles and comments'() {
+		given:
+			String content = '<html><head><style>p { }</style><script>alert(1)</script></head>' +
+				'<body><!-- comment --><p>text</p><noscript>no js</noscript></body></html>'
+			String expectedContent = '<html><head></head><body><p>text</p></body></html>'
+		when:
+			service.saveDownloadedContent(Random.id(), content, bool())
+		then:
+			1 * seriesImportDao.addRawContent(_ as Integer, _ as Date, _ as Date, expectedContent)
+	}
+	
 	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
 	def 'saveDownloadedContent() should change status for new request'() {
 		given:
@@ -457,9 +581,9 @@ class SeriesImportServiceImplTest extends Specification {
 		and:
 			// exact length of the string doesn't matter, so we limit it to 10 to ensure that
 			// it won't produce a huge string that will eat a lot of memory
-			String expectedResult = english(5, 10)
+			InputStream expectedResult = new ByteArrayInputStream(english(5, 10).bytes)
 		when:
-			String result = service.getDownloadedContent(expectedRequestId)
+			InputStream result = service.getDownloadedContent(expectedRequestId)
 		then:
 			1 * seriesImportDao.findRawContentByRequestId(expectedRequestId) >> expectedResult
 		and:
@@ -665,4 +789,71 @@ class SeriesImportServiceImplTest extends Specification {
 			result == expectedResult
 	}
 	
+	//
+	// Tests for findUnfinished()
+	//
+	
+	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
+	def 'findUnfinished() should find requests that have to be downloaded or parsed'() {
+		given:
+			List<ImportRequestFullInfo> expectedResult = Random.listOfImportRequestFullInfo()
+		when:
+			List<ImportRequestFullInfo> result = service.findUnfinished()
+		then:
+			1 * seriesImportDao.findAllWithStatuses({ Collection<String> statuses ->
+				assert statuses as Set == [
+					SeriesImportRequestStatus.UNPROCESSED,
+					SeriesImportRequestStatus.DOWNLOADING_SUCCEEDED,
+				] as Set
+				return true
+			}) >> expectedResult
+		and:
+			result == expectedResult
+	}
+	
+	//
+	// Tests for findJobInfo()
+	//
+	
+	def 'findJobInfo() should throw exception when job id is null'() {
+		when:
+			service.findJobInfo(null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Job id must be non null'
+	}
+	
+	def 'findJobInfo() should return null when job not found'() {
+		given:
+			Integer jobId = Random.id()
+		when:
+			ImportJobInfo result = service.findJobInfo(jobId)
+		then:
+			1 * seriesImportDao.findJobCreatedAt(jobId) >> null
+		and:
+			0 * seriesImportDao.findAllByJobId(_ as Integer)
+		and:
+			result == null
+	}
+	
+	def 'findJobInfo() should return requests of a job'() {
+		given:
+			Integer expectedJobId = Random.id()
+			Date expectedCreatedAt = Random.date()
+			List<ImportRequestFullInfo> expectedRequests = Random.listOfImportRequestFullInfo()
+		and:
+			seriesImportDao.findJobCreatedAt(expectedJobId) >> expectedCreatedAt
+		when:
+			ImportJobInfo result = service.findJobInfo(expectedJobId)
+		then:
+			1 * seriesImportDao.findAllByJobId(expectedJobId) >> expectedRequests
+		and:
+			with(result) {
+				id == expectedJobId
+				createdAt == expectedCreatedAt
+				requests == expectedRequests
+				totalCount == expectedRequests.size()
+			}
+	}
+	
 }
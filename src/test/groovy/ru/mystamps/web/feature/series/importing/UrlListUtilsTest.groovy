@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class UrlListUtilsTest extends Specification {
+	
+	//
+	// Tests for parse()
+	//
+	
+	@Unroll
+	def "parse() should return empty list for '#text'"(String text) {
+		expect:
+			UrlListUtils.parse(text) == []
+		where:
+			text << [ null, '', '  ', '\n\n', '# comment' ]
+	}
+	
+	def 'parse() should return a URL per line'() {
+		given:
+			String text = 'http://example.org/1\r\n  http://example.org/2  \n\n' +
+				'http://example.org/3\n'
+		when:
+			List<String> urls = UrlListUtils.parse(text)
+		then:
+			urls == [ 'http://example.org/1', 'http://example.org/2', 'http://example.org/3' ]
+	}
+	
+	def 'parse() should skip comments'() {
+		given:
+			String text = 'http://example.org/1\n# http://example.org/2\nhttp://example.org/3'
+		when:
+			List<String> urls = UrlListUtils.parse(text)
+		then:
+			urls == [ 'http://example.org/1', 'http://example.org/3' ]
+	}
+	
+	def 'parse() should remove duplicates and preserve an order'() {
+		given:
+			String text = 'http://example.org/2\nhttp://example.org/1\nhttp://example.org/2'
+		when:
+			List<String> urls = UrlListUtils.parse(text)
+		then:
+			urls == [ 'http://example.org/2', 'http://example.org/1' ]
+	}
+	
+	@Unroll
+	def "parse() should take a URL from the first column of '#line'"(String line) {
+		expect:
+			UrlListUtils.parse(line) == [ 'http://example.org/1' ]
+		where:
+			line << [
+				'http://example.org/1,Germany,1990',
+				'http://example.org/1;Germany;1990',
+				'http://example.org/1\tGermany\t1990',
+				'"http://example.org/1",Germany',
+				'"http://example.org/1',
+			]
+	}
+	
+	def 'parse() should skip a CSV header'() {
+		given:
+			String text = 'url,country\nhttp://example.org/1,Germany\nhttp://example.org/2,Italy'
+		when:
+			List<String> urls = UrlListUtils.parse(text)
+		then:
+			urls == [ 'http://example.org/1', 'http://example.org/2' ]
+	}
+	
+	def 'parse() should skip a CSV header that follows empty lines'() {
+		given:
+			String text = '\r\n  \nurl,country\r\nhttp://example.org/1,Germany'
+		when:
+			List<String> urls = UrlListUtils.parse(text)
+		then:
+			urls == [ 'http://example.org/1' ]
+	}
+	
+}
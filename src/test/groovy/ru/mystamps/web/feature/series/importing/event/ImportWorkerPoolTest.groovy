@@ -0,0 +1,291 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.event
+
+import org.slf4j.helpers.NOPLogger
+import ru.mystamps.web.feature.series.importing.event.ImportWorkerPool.Stage
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class ImportWorkerPoolTest extends Specification {
+	
+	private static final String URL = 'http://example.com/series/1'
+	
+	private ImportWorkerPool pool
+	
+	def cleanup() {
+		pool?.shutdown()
+	}
+	
+	//
+	// Tests for submit()
+	//
+	
+	def "submit() should run a task in background"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch executed = new CountDownLatch(1)
+		when:
+			boolean submitted = pool.submit(Stage.DOWNLOADING, 1, URL, { executed.countDown() })
+		then:
+			submitted
+			executed.await(1, TimeUnit.SECONDS)
+	}
+	
+	def "submit() should ignore a request that is in progress"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			pool.submit(Stage.DOWNLOADING, 1, URL, { release.await() })
+		when:
+			boolean submitted = pool.submit(Stage.PARSING, 1, URL, { })
+		then:
+			!submitted
+		cleanup:
+			release.countDown()
+	}
+	
+	def "submit() should download from the same host one by one"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			CountDownLatch secondStarted = new CountDownLatch(1)
+		when:
+			pool.submit(Stage.DOWNLOADING, 1, URL, { release.await() })
+			pool.submit(Stage.DOWNLOADING, 2, URL, { secondStarted.countDown() })
+		then:
+			!secondStarted.await(200, TimeUnit.MILLISECONDS)
+		when:
+			release.countDown()
+		then:
+			secondStarted.await(1, TimeUnit.SECONDS)
+	}
+	
+	def "submit() should download from different hosts concurrently"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			CountDownLatch secondStarted = new CountDownLatch(1)
+		when:
+			pool.submit(Stage.DOWNLOADING, 1, URL, { release.await() })
+			pool.submit(Stage.DOWNLOADING, 2, 'http://example.org', { secondStarted.countDown() })
+		then:
+			secondStarted.await(1, TimeUnit.SECONDS)
+		cleanup:
+			release.countDown()
+	}
+	
+	def "submit() should wait for a politeness delay between downloads from the same host"() {
+		given:
+			long delay = 300
+			pool = createPool(10, delay)
+		and:
+			List<Long> startedAt = [].asSynchronized()
+			CountDownLatch executed = new CountDownLatch(2)
+			Closure task = { startedAt.add(System.currentTimeMillis()); executed.countDown() }
+		when:
+			pool.submit(Stage.DOWNLOADING, 1, URL, task)
+			pool.submit(Stage.DOWNLOADING, 2, URL, task)
+		then:
+			executed.await(2, TimeUnit.SECONDS)
+			// a small tolerance because a first task might start a bit later than it was scheduled
+			startedAt[1] - startedAt[0] >= delay - 50
+	}
+	
+	def "submit() should reject a task when a queue is full"() {
+		given:
+			pool = createPool(1, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			CountDownLatch firstStarted = new CountDownLatch(1)
+			pool.submit(Stage.DOWNLOADING, 1, URL, { firstStarted.countDown(); release.await() })
+			firstStarted.await(1, TimeUnit.SECONDS)
+		and:
+			// it waits for completion of the first task
+			pool.submit(Stage.DOWNLOADING, 2, URL, { })
+		when:
+			boolean submitted = pool.submit(Stage.DOWNLOADING, 3, URL, { })
+		then:
+			!submitted
+			pool.rejectedCount == 1
+			pool.queueLength == 1
+		cleanup:
+			release.countDown()
+	}
+	
+	def "submitInBackground() should reject a task when a background part of a queue is full"() {
+		given:
+			pool = createPool(2, 1, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			CountDownLatch firstStarted = new CountDownLatch(1)
+			pool.submit(Stage.DOWNLOADING, 1, URL, { firstStarted.countDown(); release.await() })
+			firstStarted.await(1, TimeUnit.SECONDS)
+		and:
+			// it waits for completion of the first task
+			pool.submitInBackground(Stage.DOWNLOADING, 2, URL, { })
+		when:
+			boolean submittedInBackground = pool.submitInBackground(Stage.DOWNLOADING, 3, URL, { })
+		and:
+			boolean submitted = pool.submit(Stage.DOWNLOADING, 4, URL, { })
+		then:
+			!submittedInBackground
+			submitted
+			pool.rejectedCount == 1
+			pool.queueLength == 2
+		cleanup:
+			release.countDown()
+	}
+	
+	def "constructor should throw exception when background queue capacity exceeds queue capacity"() {
+		when:
+			createPool(1, 2, 0)
+		then:
+			thrown IllegalArgumentException
+	}
+	
+	def "submit() should continue to work after a task has failed"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch executed = new CountDownLatch(1)
+		when:
+			pool.submit(Stage.DOWNLOADING, 1, URL, { throw new IllegalStateException('oops') })
+			pool.awaitCompletion(1)
+		and:
+			pool.submit(Stage.DOWNLOADING, 1, URL, { executed.countDown() })
+		then:
+			executed.await(1, TimeUnit.SECONDS)
+	}
+	
+	//
+	// Tests for submitNext()
+	//
+	
+	def "submitNext() should throw exception when a request isn't in progress"() {
+		given:
+			pool = createPool(10, 0)
+		when:
+			pool.submitNext(Stage.PARSING, 1, URL, { })
+		then:
+			thrown IllegalStateException
+	}
+	
+	def "submitNext() should run the next stage after a download has released a host"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			CountDownLatch release = new CountDownLatch(1)
+			CountDownLatch parsingStarted = new CountDownLatch(1)
+			CountDownLatch secondStarted = new CountDownLatch(1)
+		when:
+			pool.submit(Stage.DOWNLOADING, 1, URL, {
+				pool.submitNext(Stage.PARSING, 1, URL, { parsingStarted.countDown(); release.await() })
+			})
+		then:
+			parsingStarted.await(1, TimeUnit.SECONDS)
+		when:
+			pool.submit(Stage.DOWNLOADING, 2, URL, { secondStarted.countDown() })
+		then:
+			secondStarted.await(1, TimeUnit.SECONDS)
+		cleanup:
+			release.countDown()
+	}
+	
+	def "submitNext() should keep a request in progress until the next stage has finished"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			boolean parsed = false
+			pool.submit(Stage.DOWNLOADING, 1, URL, {
+				pool.submitNext(Stage.PARSING, 1, URL, { Thread.sleep(100); parsed = true })
+			})
+		when:
+			pool.awaitCompletion(1)
+		then:
+			parsed
+	}
+	
+	def "submitNext() should discard the next stage when a task has failed"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			boolean parsed = false
+			pool.submit(Stage.DOWNLOADING, 1, URL, {
+				pool.submitNext(Stage.PARSING, 1, URL, { parsed = true })
+				throw new IllegalStateException('oops')
+			})
+		when:
+			pool.awaitCompletion(1)
+		then:
+			!parsed
+	}
+	
+	//
+	// Tests for awaitCompletion()
+	//
+	
+	def "awaitCompletion() should wait until a request has been processed"() {
+		given:
+			pool = createPool(10, 0)
+		and:
+			boolean executed = false
+			pool.submit(Stage.PARSING, 1, URL, { Thread.sleep(100); executed = true })
+		when:
+			pool.awaitCompletion(1)
+		then:
+			executed
+	}
+	
+	def "awaitCompletion() should return immediately for an unknown request"() {
+		given:
+			pool = createPool(10, 0)
+		when:
+			pool.awaitCompletion(1)
+		then:
+			noExceptionThrown()
+	}
+	
+	private static ImportWorkerPool createPool(int queueCapacity, long politenessDelay) {
+		return createPool(queueCapacity, queueCapacity, politenessDelay)
+	}
+	
+	private static ImportWorkerPool createPool(
+		int queueCapacity,
+		int backgroundQueueCapacity,
+		long politenessDelay) {
+		
+		return new ImportWorkerPool(
+			NOPLogger.NOP_LOGGER,
+			2,
+			queueCapacity,
+			backgroundQueueCapacity,
+			1,
+			politenessDelay,
+			5000
+		)
+	}
+	
+}
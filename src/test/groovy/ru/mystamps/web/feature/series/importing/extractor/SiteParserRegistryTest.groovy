@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.series.importing.extractor
+
+import org.slf4j.helpers.NOPLogger
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class SiteParserRegistryTest extends Specification {
+	
+	private final SiteParserDao siteParserDao = Mock()
+	private final SiteParserRegistry registry = new SiteParserRegistry(
+		NOPLogger.NOP_LOGGER,
+		siteParserDao
+	)
+	
+	//
+	// Tests for findForUrl()
+	//
+	
+	@Unroll
+	def "findForUrl() should return parser '#expected' for '#url'"(String url, String expected) {
+		given:
+			siteParserDao.findAllConfigurations() >> [
+				config('site', 'http://example.com/'),
+				config('shop', 'http://example.com/shop/'),
+				config('other', 'https://example.org'),
+			]
+		when:
+			SiteParser parser = registry.findForUrl(url)
+		then:
+			parser?.toString() == expected
+		where:
+			url                              || expected
+			'http://example.com/'            || 'site'
+			'http://example.com/series/1'    || 'site'
+			'http://example.com/shop/item/1' || 'shop'
+			'https://example.org/1'          || 'other'
+			'http://example.org/1'           || null
+			''                               || null
+	}
+	
+	def "findForUrl() should load parsers only once"() {
+		when:
+			registry.findForUrl('http://example.com')
+			registry.findForUrl('http://example.com')
+		then:
+			1 * siteParserDao.findAllConfigurations() >> [ config('site', 'http://example.com') ]
+	}
+	
+	def "findForUrl() should return the same parser instance every time"() {
+		given:
+			siteParserDao.findAllConfigurations() >> [ config('site', 'http://example.com') ]
+		when:
+			SiteParser parser = registry.findForUrl('http://example.com/1')
+		then:
+			registry.findForUrl('http://example.com/2').is(parser)
+	}
+	
+	def "findForUrl() should skip a parser with invalid locator"() {
+		given:
+			SiteParserConfiguration invalid = config('invalid', 'http://example.com')
+			invalid.setCategoryLocator('#[')
+		and:
+			siteParserDao.findAllConfigurations() >> [ invalid ]
+		expect:
+			registry.findForUrl('http://example.com') == null
+		and:
+			registry.getParserNames() == [ ]
+	}
+	
+	//
+	// Tests for refresh()
+	//
+	
+	def "refresh() shouldn't load parsers when they haven't been used"() {
+		when:
+			registry.refresh()
+		then:
+			0 * siteParserDao.findAllConfigurations()
+	}
+	
+	def "refresh() should keep parsers when configurations haven't been changed"() {
+		given:
+			siteParserDao.findAllConfigurations() >> [ config('site', 'http://example.com') ]
+		and:
+			SiteParser parser = registry.findForUrl('http://example.com')
+		when:
+			registry.refresh()
+		then:
+			registry.findForUrl('http://example.com').is(parser)
+	}
+	
+	def "refresh() should replace parsers when configurations have been changed"() {
+		given:
+			siteParserDao.findAllConfigurations() >>> [
+				[ config('site', 'http://example.com') ],
+				[ config('shop', 'http://example.org') ],
+			]
+		and:
+			registry.findForUrl('http://example.com')
+		when:
+			registry.refresh()
+		then:
+			registry.findForUrl('http://example.com') == null
+			registry.findForUrl('http://example.org')?.toString() == 'shop'
+		and:
+			registry.getParserNames() == [ 'shop' ]
+	}
+	
+	def "refresh() should keep parsers when loading has failed"() {
+		given:
+			siteParserDao.findAllConfigurations() >>>
+				[ [ config('site', 'http://example.com') ] ] >>
+				{ throw new IllegalStateException('db is down') }
+		and:
+			SiteParser parser = registry.findForUrl('http://example.com')
+		when:
+			registry.refresh()
+		then:
+			noExceptionThrown()
+		and:
+			registry.findForUrl('http://example.com').is(parser)
+	}
+	
+	private static SiteParserConfiguration config(String name, String matchedUrl) {
+		return new SiteParserConfiguration(name, matchedUrl)
+	}
+	
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site
+
+import org.slf4j.helpers.NOPLogger
+import org.springframework.transaction.PlatformTransactionManager
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class BatchingSuspiciousActivityWriterTest extends Specification {
+	
+	private static final long ONE_HOUR = 60 * 60 * 1000L
+	
+	private final SuspiciousActivityDao suspiciousActivityDao = Mock()
+	private final PlatformTransactionManager transactionManager = Mock()
+	
+	private BatchingSuspiciousActivityWriter writer
+	
+	def cleanup() {
+		writer?.shutdown()
+	}
+	
+	//
+	// Tests for flush()
+	//
+	
+	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
+	def "flush() should write queued activities with resolved type ids"() {
+		given:
+			writer = createWriter(10, 10)
+		and:
+			writer.add(activity('PageNotFound'))
+			writer.add(activity('AuthenticationFailed'))
+		when:
+			writer.flush()
+		then:
+			1 * suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1, AuthenticationFailed: 2]
+			1 * suspiciousActivityDao.addAll({ List<AddSuspiciousActivityDbDto> activities ->
+				assert activities*.typeId == [1, 2]
+				return true
+			})
+		and:
+			writer.writtenCount == 2
+			writer.queueLength == 0
+	}
+	
+	def "flush() should load type ids only once"() {
+		given:
+			writer = createWriter(10, 10)
+		when:
+			writer.add(activity('PageNotFound'))
+			writer.flush()
+			writer.add(activity('PageNotFound'))
+			writer.flush()
+		then:
+			1 * suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			2 * suspiciousActivityDao.addAll(_ as List)
+	}
+	
+	def "flush() should skip activities of unknown type"() {
+		given:
+			writer = createWriter(10, 10)
+		and:
+			writer.add(activity('UnknownType'))
+		when:
+			writer.flush()
+		then:
+			1 * suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			0 * suspiciousActivityDao.addAll(_)
+	}
+	
+	def "flush() should count activities as dropped when they couldn't be written"() {
+		given:
+			writer = createWriter(10, 10)
+		and:
+			suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			suspiciousActivityDao.addAll(_) >> { throw new IllegalStateException('oops') }
+		and:
+			writer.add(activity('PageNotFound'))
+			writer.add(activity('PageNotFound'))
+		when:
+			writer.flush()
+		then:
+			noExceptionThrown()
+		and:
+			writer.droppedCount == 2
+			writer.writtenCount == 0
+	}
+	
+	//
+	// Tests for add()
+	//
+	
+	def "add() should drop activity when queue is full"() {
+		given:
+			writer = createWriter(1, 1)
+		and:
+			CountDownLatch writing = new CountDownLatch(1)
+			CountDownLatch release = new CountDownLatch(1)
+			suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			suspiciousActivityDao.addAll(_) >> { writing.countDown(); release.await() }
+		when:
+			writer.add(activity('PageNotFound'))
+			writing.await()
+		and:
+			writer.add(activity('PageNotFound'))
+			writer.add(activity('PageNotFound'))
+		then:
+			writer.droppedCount == 1
+			writer.countDroppedSince(new Date()) == 1
+		cleanup:
+			release.countDown()
+	}
+	
+	//
+	// Tests for countDroppedSince()
+	//
+	
+	def "countDroppedSince() should ignore activities that occurred before the date"() {
+		given:
+			writer = createWriter(10, 10)
+		and:
+			suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			suspiciousActivityDao.addAll(_) >> { throw new IllegalStateException('oops') }
+		and:
+			writer.add(activity('PageNotFound', new Date() - 3))
+			writer.flush()
+		expect:
+			writer.countDroppedSince(new Date() - 1) == 0
+			writer.countDroppedSince(new Date() - 4) == 1
+	}
+	
+	//
+	// Tests for shutdown()
+	//
+	
+	def "shutdown() should write queued activities"() {
+		given:
+			writer = createWriter(10, 10)
+		and:
+			writer.add(activity('PageNotFound'))
+		when:
+			writer.shutdown()
+		then:
+			1 * suspiciousActivityDao.findTypeIds() >> [PageNotFound: 1]
+			1 * suspiciousActivityDao.addAll({ it.size() == 1 })
+	}
+	
+	private BatchingSuspiciousActivityWriter createWriter(int capacity, int batchSize) {
+		return new BatchingSuspiciousActivityWriter(
+			NOPLogger.NOP_LOGGER,
+			suspiciousActivityDao,
+			transactionManager,
+			capacity,
+			batchSize,
+			ONE_HOUR
+		)
+	}
+	
+	private static AddSuspiciousActivityDbDto activity(String type, Date date = new Date()) {
+		return new AddSuspiciousActivityDbDto(type:type, occurredAt:date)
+	}
+	
+}
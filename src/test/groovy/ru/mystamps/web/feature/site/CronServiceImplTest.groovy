@@ -139,6 +139,10 @@ class CronServiceImplTest extends Specification {
 				assertMidnightOfYesterday(date)
 				return true
 			})
+			1 * suspiciousActivityService.countDroppedSince({ Date date ->
+				assertMidnightOfYesterday(date)
+				return true
+			})
 	}
 	
 	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
@@ -154,11 +158,12 @@ class CronServiceImplTest extends Specification {
 			usersActivationService.countCreatedSince(_ as Date) >> 5
 			userService.countRegisteredSince(_ as Date) >> 6
 		and:
-			long expectedEvents = 7 + 8 + 9 + 10
+			long expectedEvents = 7 + 8 + 9 + 10 + 14
 			suspiciousActivityService.countByTypeSince('PageNotFound', _ as Date) >> 7
 			suspiciousActivityService.countByTypeSince('AuthenticationFailed', _ as Date) >> 8
 			suspiciousActivityService.countByTypeSince('MissingCsrfToken', _ as Date) >> 9
 			suspiciousActivityService.countByTypeSince('InvalidCsrfToken', _ as Date) >> 10
+			suspiciousActivityService.countDroppedSince(_ as Date) >> 14
 		when:
 			service.sendDailyStatistics()
 		then:
@@ -179,6 +184,7 @@ class CronServiceImplTest extends Specification {
 				assert report.failedAuthCounter == 8
 				assert report.missingCsrfCounter == 9
 				assert report.invalidCsrfCounter == 10
+				assert report.droppedEventsCounter == 14
 				assert report.countEvents() == expectedEvents
 				return true
 			})
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site
+
+import org.slf4j.helpers.NOPLogger
+import ru.mystamps.web.support.mailgun.EmailSendingException
+import ru.mystamps.web.support.mailgun.MailgunEmail
+import ru.mystamps.web.support.mailgun.MailgunEmailSendingStrategy
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class MailOutboxDispatcherTest extends Specification {
+	
+	private static final long ONE_HOUR = 60 * 60 * 1000L
+	private static final long ONE_MINUTE = 60 * 1000L
+	
+	private final MailOutboxDao outbox = Mock()
+	private final MailgunEmailSendingStrategy mailer = Mock()
+	
+	private MailOutboxDispatcher dispatcher
+	
+	def cleanup() {
+		dispatcher?.shutdown()
+	}
+	
+	//
+	// Tests for dispatch()
+	//
+	
+	def "dispatch() should send e-mails and remove them from outbox"() {
+		given:
+			dispatcher = createDispatcher(10, 3)
+		and:
+			OutboxMailDto first = mail(1)
+			OutboxMailDto second = mail(2)
+		when:
+			dispatcher.dispatch()
+		then:
+			1 * outbox.findReadyToSend(_ as Date, 10) >> [first, second]
+			1 * mailer.send(first.email)
+			1 * mailer.send(second.email)
+			1 * outbox.removeById(1)
+			1 * outbox.removeById(2)
+			0 * outbox.markAsFailed(*_)
+		and:
+			dispatcher.sentCount == 2
+			dispatcher.failedCount == 0
+	}
+	
+	def "dispatch() should take the next batch when the current one was full"() {
+		given:
+			dispatcher = createDispatcher(2, 1)
+		when:
+			dispatcher.dispatch()
+		then:
+			1 * outbox.findReadyToSend(_ as Date, 2) >> [mail(1), mail(2)]
+		then:
+			1 * outbox.findReadyToSend(_ as Date, 2) >> [mail(3)]
+		and:
+			3 * mailer.send(_ as MailgunEmail)
+			dispatcher.sentCount == 3
+	}
+	
+	def "dispatch() should schedule the next attempt when e-mail couldn't be sent"() {
+		given:
+			dispatcher = createDispatcher(10, 1)
+		and:
+			outbox.findReadyToSend(_ as Date, _ as Integer) >> [mail(1, 2)]
+			mailer.send(_ as MailgunEmail) >> { throw new EmailSendingException('oops') }
+		and:
+			Date expectedNextAttempt = new Date(System.currentTimeMillis() + 4 * ONE_MINUTE)
+		when:
+			dispatcher.dispatch()
+		then:
+			1 * outbox.markAsFailed(1, { Date nextAttempt ->
+				nextAttempt >= expectedNextAttempt
+			}, { String error -> error.contains('oops') })
+			0 * outbox.removeById(_)
+		and:
+			noExceptionThrown()
+			dispatcher.failedCount == 1
+			dispatcher.undeliverableCount == 0
+	}
+	
+	def "dispatch() should give up e-mail after max attempts"() {
+		given:
+			dispatcher = createDispatcher(10, 1)
+		and:
+			outbox.findReadyToSend(_ as Date, _ as Integer) >> [mail(1, 4)]
+			mailer.send(_ as MailgunEmail) >> { throw new EmailSendingException('oops') }
+		when:
+			dispatcher.dispatch()
+		then:
+			1 * outbox.markAsFailed(1, null, _ as String)
+		and:
+			dispatcher.undeliverableCount == 1
+	}
+	
+	def "dispatch() should stop when e-mail couldn't be removed from outbox"() {
+		given:
+			dispatcher = createDispatcher(1, 1)
+		and:
+			outbox.removeById(_) >> { throw new IllegalStateException('oops') }
+		when:
+			dispatcher.dispatch()
+		then:
+			1 * outbox.findReadyToSend(_ as Date, 1) >> [mail(1)]
+			0 * outbox.findReadyToSend(*_)
+		and:
+			noExceptionThrown()
+	}
+	
+	def "dispatch() shouldn't throw exception when outbox isn't available"() {
+		given:
+			dispatcher = createDispatcher(10, 1)
+		and:
+			outbox.findReadyToSend(*_) >> { throw new IllegalStateException('oops') }
+		when:
+			dispatcher.dispatch()
+		then:
+			noExceptionThrown()
+			0 * mailer.send(_)
+	}
+	
+	//
+	// Tests for onApplicationEvent()
+	//
+	
+	def "onApplicationEvent() should start polling the outbox"() {
+		given:
+			dispatcher = createDispatcher(10, 1, 10)
+		and:
+			CountDownLatch polled = new CountDownLatch(2)
+			outbox.findReadyToSend(_ as Date, 10) >> { polled.countDown(); [] }
+		when:
+			dispatcher.onApplicationEvent(null)
+		then:
+			polled.await(1, TimeUnit.SECONDS)
+	}
+	
+	//
+	// Tests for shutdown()
+	//
+	
+	def "shutdown() should prevent polling when it hasn't been started"() {
+		given:
+			dispatcher = createDispatcher(10, 1, 10)
+		when:
+			dispatcher.shutdown()
+		and:
+			dispatcher.onApplicationEvent(null)
+			dispatcher.wakeUp()
+			Thread.sleep(100)
+		then:
+			0 * outbox.findReadyToSend(_ as Date, _ as Integer)
+	}
+	
+	//
+	// Tests for getRetryDelay()
+	//
+	
+	@Unroll
+	def "getRetryDelay() should return #expected for attempt #attempts"() {
+		given:
+			dispatcher = createDispatcher(10, 1)
+		expect:
+			dispatcher.getRetryDelay(attempts) == expected
+		where:
+			attempts || expected
+			1        || ONE_MINUTE
+			2        || 2 * ONE_MINUTE
+			3        || 4 * ONE_MINUTE
+			9        || 256 * ONE_MINUTE
+			10       || 6 * ONE_HOUR
+			100      || 6 * ONE_HOUR
+	}
+	
+	private MailOutboxDispatcher createDispatcher(
+		int batchSize,
+		int concurrency,
+		long pollInterval = ONE_HOUR) {
+		
+		return new MailOutboxDispatcher(
+			NOPLogger.NOP_LOGGER,
+			outbox,
+			mailer,
+			batchSize,
+			concurrency,
+			pollInterval,
+			5,
+			ONE_MINUTE
+		)
+	}
+	
+	private static OutboxMailDto mail(Integer id, int attempts = 0) {
+		MailgunEmail email = new MailgunEmail()
+			.recipientAddress("user${id}@example.com")
+			.subject('test')
+		return new OutboxMailDto(id, email, new Date(), attempts)
+	}
+	
+}
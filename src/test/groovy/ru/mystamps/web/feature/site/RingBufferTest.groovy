@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site
+
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class RingBufferTest extends Specification {
+	
+	def "toList() should return items in the reverse order of adding"() {
+		given:
+			RingBuffer<Integer> buffer = new RingBuffer<>(3)
+		when:
+			buffer.add(1)
+			buffer.add(2)
+		then:
+			buffer.toList() == [2, 1]
+	}
+	
+	def "add() should overwrite the oldest item when buffer is full"() {
+		given:
+			RingBuffer<Integer> buffer = new RingBuffer<>(3)
+		when:
+			(1..5).each { buffer.add(it) }
+		then:
+			buffer.toList() == [5, 4, 3]
+	}
+	
+	def "reset() should replace content and keep at most capacity items"() {
+		given:
+			RingBuffer<Integer> buffer = new RingBuffer<>(3)
+			buffer.add(100)
+		when:
+			buffer.reset([9, 8, 7, 6])
+		then:
+			buffer.toList() == [9, 8, 7]
+		when:
+			buffer.add(10)
+		then:
+			buffer.toList() == [10, 9, 8]
+	}
+	
+}
@@ -34,7 +34,7 @@ class SiteServiceImplTest extends Specification {
 	private static final String TEST_REFERER_PAGE = TestObjects.TEST_ACTIVITY_REFERER
 	private static final String TEST_USER_AGENT   = TestObjects.TEST_ACTIVITY_AGENT
 	
-	private final SuspiciousActivityDao suspiciousActivityDao = Mock()
+	private final SuspiciousActivityWriter suspiciousActivityWriter = Mock()
 	
 	private SiteServiceImpl serviceImpl
 	
@@ -42,7 +42,7 @@ class SiteServiceImplTest extends Specification {
 	def setup() {
 		serviceImpl = Spy(
 			SiteServiceImpl,
-			constructorArgs:[NOPLogger.NOP_LOGGER, suspiciousActivityDao]
+			constructorArgs:[NOPLogger.NOP_LOGGER, suspiciousActivityWriter]
 		)
 	}
 	
@@ -134,7 +134,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add(_ as AddSuspiciousActivityDbDto)
+			1 * suspiciousActivityWriter.add(_ as AddSuspiciousActivityDbDto)
 	}
 	
 	@SuppressWarnings(['ClosureAsLastMethodParameter', 'UnnecessaryReturnKeyword'])
@@ -144,7 +144,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(expectedType, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.type == expectedType
 				return true
 			})
@@ -157,7 +157,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, expectedDate)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert DateUtils.roughlyEqual(activity?.occurredAt, expectedDate)
 				return true
 			})
@@ -168,7 +168,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert DateUtils.roughlyEqual(activity?.occurredAt, new Date())
 				return true
 			})
@@ -179,7 +179,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.page == TEST_PAGE
 				return true
 			})
@@ -194,7 +194,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, longPageUrl, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.page == expectedPageUrl
 				return true
 			})
@@ -206,7 +206,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, expectedMethod, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.method == expectedMethod
 				return true
 			})
@@ -224,7 +224,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, method, null, null, null, TEST_USER_AGENT, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.method == exceptedMethod
 				return true
 			})
@@ -235,7 +235,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.userId == null
 				return true
 			})
@@ -248,7 +248,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, expectedUserId, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.userId == expectedUserId
 				return true
 			})
@@ -259,7 +259,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, TEST_IP, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.ip == TEST_IP
 				return true
 			})
@@ -270,7 +270,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.ip?.empty
 				return true
 			})
@@ -281,7 +281,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, TEST_REFERER_PAGE, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.refererPage == TEST_REFERER_PAGE
 				return true
 			})
@@ -296,7 +296,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, longRefererUrl, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.refererPage == expectedRefererUrl
 				return true
 			})
@@ -307,7 +307,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, refererPage, null, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.refererPage == null
 				return true
 			})
@@ -322,7 +322,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, TEST_USER_AGENT, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.userAgent == TEST_USER_AGENT
 				return true
 			})
@@ -337,7 +337,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, longUserAgent, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.userAgent == expectedUserAgent
 				return true
 			})
@@ -348,7 +348,7 @@ class SiteServiceImplTest extends Specification {
 		when:
 			serviceImpl.logEvent(TEST_TYPE, TEST_PAGE, TEST_METHOD, null, null, null, userAgent, null)
 		then:
-			1 * suspiciousActivityDao.add({ AddSuspiciousActivityDbDto activity ->
+			1 * suspiciousActivityWriter.add({ AddSuspiciousActivityDbDto activity ->
 				assert activity?.userAgent == null
 				return true
 			})
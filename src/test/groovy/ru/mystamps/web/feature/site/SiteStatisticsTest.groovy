@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site
+
+import org.slf4j.helpers.NOPLogger
+import ru.mystamps.web.common.LinkEntityDto
+import ru.mystamps.web.feature.category.CategoryService
+import ru.mystamps.web.feature.collection.CollectionService
+import ru.mystamps.web.feature.country.CountryService
+import ru.mystamps.web.feature.series.SeriesLinkDto
+import ru.mystamps.web.feature.series.SeriesService
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class SiteStatisticsTest extends Specification {
+	
+	private final CategoryService categoryService = Mock()
+	private final CountryService countryService = Mock()
+	private final CollectionService collectionService = Mock()
+	private final SeriesService seriesService = Mock()
+	
+	private final SiteStatistics statistics = new SiteStatistics(
+		NOPLogger.NOP_LOGGER,
+		categoryService,
+		countryService,
+		collectionService,
+		seriesService,
+		2
+	)
+	
+	//
+	// Tests for getters
+	//
+	
+	def "getters should load statistics only once"() {
+		when:
+			statistics.getCategoryCounter()
+			statistics.getSeriesCounter()
+			statistics.getRecentlyAddedSeries('en')
+		then:
+			1 * categoryService.countAll() >> 1
+			1 * countryService.countAll() >> 2
+			1 * seriesService.countAll() >> 3
+			1 * seriesService.countAllStamps() >> 4
+			1 * collectionService.countCollectionsOfUsers() >> 5
+			1 * seriesService.findRecentlyAdded(2, 'en') >> []
+			1 * seriesService.findRecentlyAdded(2, 'ru') >> []
+			1 * collectionService.findRecentlyCreated(2) >> []
+	}
+	
+	def "getRecentlyAddedSeries() should return series with names in a user's language"() {
+		given:
+			SeriesLinkDto seriesEn = series(1, 'Russia')
+			SeriesLinkDto seriesRu = series(1, 'Россия')
+		and:
+			seriesService.findRecentlyAdded(2, 'en') >> [seriesEn]
+			seriesService.findRecentlyAdded(2, 'ru') >> [seriesRu]
+			collectionService.findRecentlyCreated(2) >> []
+		expect:
+			statistics.getRecentlyAddedSeries('ru') == [seriesRu]
+			statistics.getRecentlyAddedSeries('en') == [seriesEn]
+			statistics.getRecentlyAddedSeries(null) == [seriesEn]
+	}
+	
+	//
+	// Tests for categoryAdded()
+	//
+	
+	def "categoryAdded() should increment counter"() {
+		given:
+			categoryService.countAll() >> 10
+			seriesService.findRecentlyAdded(2, _ as String) >> []
+			collectionService.findRecentlyCreated(2) >> []
+		and:
+			statistics.getCategoryCounter()
+		when:
+			statistics.categoryAdded()
+		then:
+			statistics.getCategoryCounter() == 11
+	}
+	
+	def "categoryAdded() should do nothing when statistics haven't been loaded yet"() {
+		when:
+			statistics.categoryAdded()
+		then:
+			0 * categoryService.countAll()
+	}
+	
+	//
+	// Tests for seriesAdded()
+	//
+	
+	def "seriesAdded() should increment counters and put series to the lists"() {
+		given:
+			seriesService.countAll() >> 5
+			seriesService.countAllStamps() >> 20
+			seriesService.findRecentlyAdded(2, 'en') >> [series(2, 'Italy'), series(1, 'UK')]
+			seriesService.findRecentlyAdded(2, 'ru') >> [series(2, 'Италия'), series(1, 'Англия')]
+			collectionService.findRecentlyCreated(2) >> []
+		and:
+			statistics.getSeriesCounter()
+		when:
+			statistics.seriesAdded(3, 4)
+		then:
+			1 * seriesService.findLinkById(3, 'en') >> series(3, 'France')
+			1 * seriesService.findLinkById(3, 'ru') >> series(3, 'Франция')
+		and:
+			statistics.getSeriesCounter() == 6
+			statistics.getStampsCounter() == 24
+			statistics.getRecentlyAddedSeries('en')*.country == ['France', 'Italy']
+			statistics.getRecentlyAddedSeries('ru')*.country == ['Франция', 'Италия']
+	}
+	
+	//
+	// Tests for collectionAdded() and collectionRemoved()
+	//
+	
+	def "collectionAdded() should increment counter and reload the list"() {
+		given:
+			LinkEntityDto collection = new LinkEntityDto(1, 'test', 'Test')
+		and:
+			collectionService.countCollectionsOfUsers() >> 3
+			collectionService.findRecentlyCreated(2) >>> [[], [collection]]
+			seriesService.findRecentlyAdded(2, _ as String) >> []
+		and:
+			statistics.getCollectionsCounter()
+		when:
+			statistics.collectionAdded()
+		then:
+			statistics.getCollectionsCounter() == 4
+			statistics.getRecentlyCreatedCollections() == [collection]
+	}
+	
+	def "collectionRemoved() should decrement counter"() {
+		given:
+			collectionService.countCollectionsOfUsers() >> 3
+			collectionService.findRecentlyCreated(2) >> []
+			seriesService.findRecentlyAdded(2, _ as String) >> []
+		and:
+			statistics.getCollectionsCounter()
+		when:
+			statistics.collectionRemoved()
+		then:
+			statistics.getCollectionsCounter() == 2
+	}
+	
+	//
+	// Tests for reload()
+	//
+	
+	def "reload() should replace the incrementally updated counters"() {
+		given:
+			countryService.countAll() >>> [7, 9]
+			seriesService.findRecentlyAdded(2, _ as String) >> []
+			collectionService.findRecentlyCreated(2) >> []
+		and:
+			statistics.getCountryCounter()
+			statistics.countryAdded()
+		when:
+			statistics.reload()
+		then:
+			statistics.getCountryCounter() == 9
+	}
+	
+	private static SeriesLinkDto series(Integer id, String country) {
+		return new SeriesLinkDto(id, 2000, 1, true, country)
+	}
+	
+}
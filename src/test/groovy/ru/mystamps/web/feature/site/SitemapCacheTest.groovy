@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.feature.site
+
+import ru.mystamps.web.feature.series.SeriesService
+import ru.mystamps.web.feature.series.SitemapInfoDto
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class SitemapCacheTest extends Specification {
+	
+	private final SeriesService seriesService = Mock()
+	
+	private SitemapCache cache
+	
+	def setup() {
+		cache = new SitemapCache(seriesService)
+	}
+	
+	def "getSnapshot() should render index page and all series on the first call"() {
+		when:
+			SitemapCache.Snapshot result = cache.getSnapshot()
+		then:
+			1 * seriesService.findAllForSitemap() >> [ new SitemapInfoDto(7, new Date(0)) ]
+		and:
+			result.index == null
+			result.parts.size() == 1
+		and:
+			String xml = new String(result.parts[0], StandardCharsets.UTF_8)
+			xml.contains('<url><loc>https://my-stamps.ru/</loc></url>')
+			xml.contains('<url><loc>https://my-stamps.ru/series/7</loc><lastmod>1970-01-01T00:00Z</lastmod></url>')
+	}
+	
+	def "getSnapshot() should fetch only modified series on a subsequent call"() {
+		given:
+			Date lastUpdatedAt = new Date(1000)
+			seriesService.findAllForSitemap() >> [ new SitemapInfoDto(1, lastUpdatedAt) ]
+		and:
+			SitemapCache.Snapshot first = cache.getSnapshot()
+		when:
+			SitemapCache.Snapshot second = cache.getSnapshot()
+		then:
+			1 * seriesService.findForSitemapUpdatedSince({ Date since ->
+				assert since.time == lastUpdatedAt.time - SitemapCache.REFRESH_OVERLAP_IN_MILLIS
+				return true
+			}) >> [ new SitemapInfoDto(1, lastUpdatedAt) ]
+		and:
+			second.is(first)
+	}
+	
+	def "getSnapshot() should add a series that was committed later than a more recent one"() {
+		given:
+			seriesService.findAllForSitemap() >> [ new SitemapInfoDto(1, new Date(2000)) ]
+		and:
+			cache.getSnapshot()
+		when:
+			SitemapCache.Snapshot result = cache.getSnapshot()
+		then:
+			1 * seriesService.findForSitemapUpdatedSince(_ as Date) >> [
+				new SitemapInfoDto(1, new Date(2000)),
+				new SitemapInfoDto(2, new Date(1000)),
+			]
+		and:
+			String xml = new String(result.parts[0], StandardCharsets.UTF_8)
+			xml.contains('/series/2<')
+			result.lastModified == 2000
+	}
+	
+	def "getSnapshot() should change etag when a series has been modified"() {
+		given:
+			seriesService.findAllForSitemap() >> [ new SitemapInfoDto(1, new Date(1000)) ]
+		and:
+			SitemapCache.Snapshot first = cache.getSnapshot()
+		when:
+			SitemapCache.Snapshot second = cache.getSnapshot()
+		then:
+			1 * seriesService.findForSitemapUpdatedSince(_ as Date) >> [ new SitemapInfoDto(1, new Date(2000)) ]
+		and:
+			second.etag != first.etag
+			second.lastModified == 2000
+	}
+	
+	def "getSnapshot() should split sitemap into parts when there are too many series"() {
+		given:
+			List<SitemapInfoDto> series = (1..SitemapCache.MAX_URLS_PER_PART).collect {
+				new SitemapInfoDto(it, new Date(0))
+			}
+		when:
+			SitemapCache.Snapshot result = cache.getSnapshot()
+		then:
+			1 * seriesService.findAllForSitemap() >> series
+		and:
+			result.parts.size() == 2
+			result.index != null
+		and:
+			String index = new String(result.index, StandardCharsets.UTF_8)
+			index.contains('<loc>https://my-stamps.ru/sitemap-1.xml</loc>')
+			index.contains('<loc>https://my-stamps.ru/sitemap-2.xml</loc>')
+		and:
+			String lastPart = new String(result.parts[1], StandardCharsets.UTF_8)
+			lastPart.contains("/series/${SitemapCache.MAX_URLS_PER_PART}<")
+	}
+	
+}
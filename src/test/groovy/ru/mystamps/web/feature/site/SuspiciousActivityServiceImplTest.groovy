@@ -25,8 +25,12 @@ import spock.lang.Unroll
 class SuspiciousActivityServiceImplTest extends Specification {
 	
 	private final SuspiciousActivityDao suspiciousActivityDao = Mock()
+	private final SuspiciousActivityWriter suspiciousActivityWriter = Mock()
 	
-	private final SuspiciousActivityService service = new SuspiciousActivityServiceImpl(suspiciousActivityDao)
+	private final SuspiciousActivityService service = new SuspiciousActivityServiceImpl(
+		suspiciousActivityDao,
+		suspiciousActivityWriter
+	)
 	
 	//
 	// Tests for countAll()
@@ -89,6 +93,30 @@ class SuspiciousActivityServiceImplTest extends Specification {
 			result == expectedResult
 	}
 	
+	//
+	// Tests for countDroppedSince()
+	//
+	
+	def "countDroppedSince() should throw exception when date is null"() {
+		when:
+			service.countDroppedSince(null)
+		then:
+			IllegalArgumentException ex = thrown()
+			ex.message == 'Date must be non null'
+	}
+	
+	def "countDroppedSince() should invoke writer and return its result"() {
+		given:
+			Date expectedDate = new Date() - 1
+			long expectedResult = 12
+		when:
+			long result = service.countDroppedSince(expectedDate)
+		then:
+			1 * suspiciousActivityWriter.countDroppedSince(expectedDate) >> expectedResult
+		and:
+			result == expectedResult
+	}
+	
 	//
 	// Tests for findSuspiciousActivities()
 	//
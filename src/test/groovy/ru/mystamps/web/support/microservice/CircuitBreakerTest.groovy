@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.microservice
+
+import spock.lang.Specification
+
+import java.util.function.LongSupplier
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class CircuitBreakerTest extends Specification {
+	
+	private long now = 1000
+	private final CircuitBreaker breaker =
+		new CircuitBreaker(2, 100, { now } as LongSupplier)
+	
+	def "allowRequest() should allow requests until threshold is reached"() {
+		when:
+			boolean opened = breaker.recordFailure()
+		then:
+			!opened
+			breaker.allowRequest()
+		when:
+			opened = breaker.recordFailure()
+		then:
+			opened
+			!breaker.allowRequest()
+	}
+	
+	def "recordSuccess() should reset the counter of consecutive failures"() {
+		when:
+			breaker.recordFailure()
+			breaker.recordSuccess()
+			breaker.recordFailure()
+		then:
+			!breaker.isOpen()
+	}
+	
+	def "allowRequest() should let a single trial request through after open duration"() {
+		given:
+			breaker.recordFailure()
+			breaker.recordFailure()
+		when:
+			now += 100
+		then:
+			breaker.allowRequest()
+			!breaker.allowRequest()
+	}
+	
+	def "recordSuccess() should close the breaker after a successful trial request"() {
+		given:
+			breaker.recordFailure()
+			breaker.recordFailure()
+			now += 100
+			breaker.allowRequest()
+		when:
+			breaker.recordSuccess()
+		then:
+			!breaker.isOpen()
+			breaker.allowRequest()
+	}
+	
+	def "recordFailure() should open the breaker again after a failed trial request"() {
+		given:
+			breaker.recordFailure()
+			breaker.recordFailure()
+			now += 100
+			breaker.allowRequest()
+		when:
+			boolean opened = breaker.recordFailure()
+		then:
+			opened
+			!breaker.allowRequest()
+		when:
+			now += 100
+		then:
+			breaker.allowRequest()
+	}
+	
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.microservice
+
+import org.slf4j.helpers.NOPLogger
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.web.client.HttpClientErrorException
+import org.springframework.web.client.ResourceAccessException
+import org.springframework.web.client.RestTemplate
+import spock.lang.Specification
+
+@SuppressWarnings(['ClassJavadoc', 'MethodName', 'NoDef', 'NoTabCharacter', 'TrailingWhitespace'])
+class MicroserviceClientTest extends Specification {
+	
+	private static final String ENDPOINT = '/v0.1/countries/count'
+	
+	private final RestTemplate restTemplate = Mock()
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, 60000)
+	private final MicroserviceClient client = new MicroserviceClient(
+		NOPLogger.NOP_LOGGER,
+		'country',
+		restTemplate,
+		circuitBreaker,
+		60000
+	)
+	
+	def "get() should return a response body"() {
+		when:
+			Long result = client.get(ENDPOINT, Long)
+		then:
+			1 * restTemplate.getForEntity(ENDPOINT, Long) >> ResponseEntity.ok(42L)
+		and:
+			result == 42L
+	}
+	
+	def "get() should cache a response"() {
+		when:
+			client.get(ENDPOINT, Long)
+			Long result = client.get(ENDPOINT, Long)
+		then:
+			1 * restTemplate.getForEntity(ENDPOINT, Long) >> ResponseEntity.ok(42L)
+		and:
+			result == 42L
+	}
+	
+	def "get() shouldn't call a service when its circuit breaker is open"() {
+		given:
+			restTemplate.getForEntity(ENDPOINT, Long) >> {
+				throw new ResourceAccessException('timeout')
+			}
+		and:
+			2.times {
+				try {
+					client.get(ENDPOINT, Long)
+				} catch (ResourceAccessException ignored) {
+				}
+			}
+		when:
+			client.get(ENDPOINT, Long)
+		then:
+			0 * restTemplate.getForEntity(_, _)
+		and:
+			thrown ServiceUnavailableException
+	}
+	
+	def "get() shouldn't count client errors as failures of a service"() {
+		given:
+			restTemplate.getForEntity(ENDPOINT, Long) >> {
+				throw new HttpClientErrorException(HttpStatus.NOT_FOUND)
+			}
+		when:
+			3.times {
+				try {
+					client.get(ENDPOINT, Long)
+				} catch (HttpClientErrorException ignored) {
+				}
+			}
+		then:
+			!circuitBreaker.isOpen()
+	}
+	
+	def "get() should collect statistics per endpoint"() {
+		given:
+			restTemplate.getForEntity(ENDPOINT, Long) >>
+				{ throw new ResourceAccessException('timeout') } >>
+				ResponseEntity.ok(42L)
+		when:
+			try {
+				client.get(ENDPOINT, Long)
+			} catch (ResourceAccessException ignored) {
+			}
+			client.get(ENDPOINT, Long)
+		then:
+			MicroserviceClient.EndpointStats stats = client.getStats().get(ENDPOINT)
+			stats.succeeded == 1
+			stats.failed == 1
+	}
+	
+}
@@ -24,6 +24,10 @@ import org.jsoup.nodes.Element;
 import org.junit.Before;
 import org.junit.Test;
 import ru.mystamps.web.tests.Random;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 import static io.qala.datagen.RandomShortApi.nullOr;
@@ -214,6 +218,49 @@ public class JsoupSiteParserTest implements WithAssertions {
 		assertThat(info).isEqualTo(expectedInfo);
 	}
 	
+	@Test
+	public void parseShouldRequireNonNullStream() {
+		// given
+		// when
+		Throwable thrown = catchThrowable(() -> {
+			parser.parse((InputStream)null);
+		});
+		// then
+		assertThat(thrown)
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Page content must be non null");
+	}
+	
+	@Test
+	public void parseShouldExtractSeriesInfoFromStreamInUtf8() {
+		String baseUri = "http://base.uri";
+		String expectedCountry = "Россия";
+		String expectedImageUrl = baseUri + "/image.png";
+		
+		parser.setMatchedUrl(baseUri);
+		parser.setCountryLocator("p");
+		parser.setImageUrlLocator("a");
+		
+		SeriesInfo expectedInfo = new SeriesInfo();
+		expectedInfo.setCountryName(expectedCountry);
+		expectedInfo.setImageUrl(expectedImageUrl);
+		
+		String html = String.format(
+			"<html>"
+				+ "<body>"
+					+ "<p>%s</p>"
+					+ "<a href='/image.png'>look at image</a>"
+				+ "</body>"
+			+ "</html",
+			expectedCountry
+		);
+		InputStream stream = new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8));
+		
+		SeriesInfo info = parser.parse(stream);
+		
+		assertThat(info).isEqualTo(expectedInfo);
+	}
+	
 	//
 	// Tests for toString()
 	//
@@ -227,6 +274,38 @@ public class JsoupSiteParserTest implements WithAssertions {
 		assertThat(parser.toString()).isEqualTo(expectedName);
 	}
 	
+	//
+	// Tests for locate()
+	//
+	
+	@Test
+	public void locateShouldFindTheFirstElementForEveryLocator() {
+		parser.setCategoryLocator(".category");
+		parser.setShortDescriptionLocator("#desc");
+		parser.setSellerLocator(".seller");
+		
+		String html = "<div id='desc'><span class='category'>first</span></div>"
+			+ "<span class='category'>second</span>";
+		Element doc = createDocumentFromText(html);
+		
+		LocatedElements elements = parser.locate(doc);
+		
+		assertThat(elements.getTextOfTheFirstElement(".category")).isEqualTo("first");
+		assertThat(elements.getFirstElement("#desc")).isSameAs(doc.selectFirst("#desc"));
+		assertThat(elements.getFirstElement(".seller")).isNull();
+	}
+	
+	@Test
+	public void locateShouldFindElementsOnlyForLocatorsOfParser() {
+		parser.setShortDescriptionLocator("#desc");
+		
+		Element doc = createDocumentFromText("<div id='desc'>text</div><div id='other'></div>");
+		
+		LocatedElements elements = parser.locate(doc);
+		
+		assertThat(elements.getFirstElement("#other")).isNull();
+	}
+	
 	//
 	// Tests for extractCategory()
 	//
@@ -237,7 +316,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String category = parser.extractCategory(doc);
+		String category = parser.extractCategory(parser.locate(doc));
 		
 		assertThat(category).isNull();
 	}
@@ -247,7 +326,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setCategoryLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String category = parser.extractCategory(doc);
+		String category = parser.extractCategory(parser.locate(doc));
 		
 		assertThat(category).isNull();
 	}
@@ -260,7 +339,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='category'>%s</div>", expectedName);
 		Element doc = createDocumentFromText(html);
 		
-		String category = parser.extractCategory(doc);
+		String category = parser.extractCategory(parser.locate(doc));
 		
 		assertThat(category).as("couldn't extract a category from '%s'", doc)
 			.isEqualTo(expectedName);
@@ -275,7 +354,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='desc'>%s</div>", expectedName);
 		Element doc = createDocumentFromText(html);
 		
-		String category = parser.extractCategory(doc);
+		String category = parser.extractCategory(parser.locate(doc));
 		
 		assertThat(category).as("couldn't extract a category from '%s'", doc)
 			.isEqualTo(expectedName);
@@ -291,7 +370,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String country = parser.extractCountry(doc);
+		String country = parser.extractCountry(parser.locate(doc));
 		
 		assertThat(country).isNull();
 	}
@@ -301,7 +380,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setCountryLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String country = parser.extractCountry(doc);
+		String country = parser.extractCountry(parser.locate(doc));
 		
 		assertThat(country).isNull();
 	}
@@ -314,7 +393,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='country'>%s</div>", expectedName);
 		Element doc = createDocumentFromText(html);
 		
-		String country = parser.extractCountry(doc);
+		String country = parser.extractCountry(parser.locate(doc));
 		
 		assertThat(country).as("couldn't extract a country from '%s'", doc)
 			.isEqualTo(expectedName);
@@ -329,7 +408,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='desc'>%s</div>", expectedName);
 		Element doc = createDocumentFromText(html);
 		
-		String country = parser.extractCountry(doc);
+		String country = parser.extractCountry(parser.locate(doc));
 		
 		assertThat(country).as("couldn't extract a country from '%s'", doc)
 			.isEqualTo(expectedName);
@@ -344,7 +423,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setImageUrlLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String imageUrl = parser.extractImageUrl(doc);
+		String imageUrl = parser.extractImageUrl(parser.locate(doc));
 		
 		assertThat(imageUrl).isNull();
 	}
@@ -354,7 +433,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setImageUrlLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String imageUrl = parser.extractImageUrl(doc);
+		String imageUrl = parser.extractImageUrl(parser.locate(doc));
 		
 		assertThat(imageUrl).isNull();
 	}
@@ -372,7 +451,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		);
 		Element doc = createDocumentFromText(html);
 		
-		String imageUrl = parser.extractImageUrl(doc);
+		String imageUrl = parser.extractImageUrl(parser.locate(doc));
 		
 		assertThat(imageUrl).as("couldn't extract image url from '%s'", doc)
 			.isEqualTo(expectedImageUrl);
@@ -391,7 +470,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		);
 		Element doc = createDocumentFromText(html);
 		
-		String imageUrl = parser.extractImageUrl(doc);
+		String imageUrl = parser.extractImageUrl(parser.locate(doc));
 		
 		assertThat(imageUrl).as("couldn't extract image url from '%s'", doc)
 			.isEqualTo(expectedImageUrl);
@@ -404,7 +483,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = "<a href=''>test</a>";
 		Element doc = createDocumentFromText(html);
 		
-		String imageUrl = parser.extractImageUrl(doc);
+		String imageUrl = parser.extractImageUrl(parser.locate(doc));
 		
 		assertThat(imageUrl).isNull();
 	}
@@ -419,7 +498,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String date = parser.extractIssueDate(doc);
+		String date = parser.extractIssueDate(parser.locate(doc));
 		
 		assertThat(date).isNull();
 	}
@@ -429,7 +508,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setIssueDateLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String date = parser.extractIssueDate(doc);
+		String date = parser.extractIssueDate(parser.locate(doc));
 		
 		assertThat(date).isNull();
 	}
@@ -442,7 +521,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='issue-date'>%s</div>", expectedDate);
 		Element doc = createDocumentFromText(html);
 		
-		String date = parser.extractIssueDate(doc);
+		String date = parser.extractIssueDate(parser.locate(doc));
 		
 		assertThat(date).as("couldn't extract issue date from '%s'", doc)
 			.isEqualTo(expectedDate);
@@ -457,7 +536,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='desc'>%s</div>", expectedDate);
 		Element doc = createDocumentFromText(html);
 		
-		String date = parser.extractIssueDate(doc);
+		String date = parser.extractIssueDate(parser.locate(doc));
 		
 		assertThat(date).as("couldn't extract issue date from '%s'", doc)
 			.isEqualTo(expectedDate);
@@ -472,7 +551,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String quantity = parser.extractQuantity(doc);
+		String quantity = parser.extractQuantity(parser.locate(doc));
 		
 		assertThat(quantity).isNull();
 	}
@@ -482,7 +561,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String quantity = parser.extractQuantity(doc);
+		String quantity = parser.extractQuantity(parser.locate(doc));
 		
 		assertThat(quantity).isNull();
 	}
@@ -495,7 +574,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='desc'>%s</div>", expectedQuantity);
 		Element doc = createDocumentFromText(html);
 		
-		String quantity = parser.extractQuantity(doc);
+		String quantity = parser.extractQuantity(parser.locate(doc));
 		
 		assertThat(quantity).as("couldn't extract quantity from '%s'", doc)
 			.isEqualTo(expectedQuantity);
@@ -510,7 +589,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String perforated = parser.extractPerforated(doc);
+		String perforated = parser.extractPerforated(parser.locate(doc));
 		
 		assertThat(perforated).isNull();
 	}
@@ -520,7 +599,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setShortDescriptionLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String perforated = parser.extractPerforated(doc);
+		String perforated = parser.extractPerforated(parser.locate(doc));
 		
 		assertThat(perforated).isNull();
 	}
@@ -533,7 +612,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<div id='desc'>%s</div>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		
-		String perforated = parser.extractPerforated(doc);
+		String perforated = parser.extractPerforated(parser.locate(doc));
 		
 		assertThat(perforated).as("couldn't extract perforated flag from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -548,7 +627,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setSellerLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String name = parser.extractSellerName(doc);
+		String name = parser.extractSellerName(parser.locate(doc));
 		
 		assertThat(name).isNull();
 	}
@@ -558,7 +637,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setSellerLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String name = parser.extractSellerName(doc);
+		String name = parser.extractSellerName(parser.locate(doc));
 		
 		assertThat(name).isNull();
 	}
@@ -571,7 +650,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<a id='seller'>%s</a>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		
-		String name = parser.extractSellerName(doc);
+		String name = parser.extractSellerName(parser.locate(doc));
 		
 		assertThat(name).as("couldn't extract seller name from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -586,7 +665,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setSellerLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String url = parser.extractSellerUrl(doc);
+		String url = parser.extractSellerUrl(parser.locate(doc));
 		
 		assertThat(url).isNull();
 	}
@@ -596,7 +675,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setSellerLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String url = parser.extractSellerUrl(doc);
+		String url = parser.extractSellerUrl(parser.locate(doc));
 		
 		assertThat(url).isNull();
 	}
@@ -609,7 +688,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<a href='%s'>test</a>", expectedUrl);
 		Element doc = createDocumentFromText(html);
 		
-		String url = parser.extractSellerUrl(doc);
+		String url = parser.extractSellerUrl(parser.locate(doc));
 		
 		assertThat(url).as("couldn't extract seller url from '%s'", doc)
 			.isEqualTo(expectedUrl);
@@ -627,7 +706,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		);
 		Element doc = createDocumentFromText(html);
 		
-		String url = parser.extractSellerUrl(doc);
+		String url = parser.extractSellerUrl(parser.locate(doc));
 		
 		assertThat(url).as("couldn't extract seller url from '%s'", doc)
 			.isEqualTo(expectedUrl);
@@ -642,7 +721,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setPriceLocator(null);
 		Element doc = createEmptyDocument();
 		
-		String price = parser.extractPrice(doc);
+		String price = parser.extractPrice(parser.locate(doc));
 		
 		assertThat(price).isNull();
 	}
@@ -652,7 +731,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setPriceLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String price = parser.extractPrice(doc);
+		String price = parser.extractPrice(parser.locate(doc));
 		
 		assertThat(price).isNull();
 	}
@@ -665,7 +744,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<span id='price'>%s</span>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		
-		String price = parser.extractPrice(doc);
+		String price = parser.extractPrice(parser.locate(doc));
 		
 		assertThat(price).as("couldn't extract price from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -682,7 +761,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		);
 		Element doc = createDocumentFromText(html);
 		
-		String price = parser.extractPrice(doc);
+		String price = parser.extractPrice(parser.locate(doc));
 		
 		assertThat(price).as("couldn't extract price from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -700,7 +779,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		);
 		Element doc = createDocumentFromText(html);
 		
-		String price = parser.extractPrice(doc);
+		String price = parser.extractPrice(parser.locate(doc));
 		
 		assertThat(price).as("couldn't extract price from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -730,7 +809,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<span id='currency'>%s</span>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		
-		String currency = parser.extractCurrency(doc);
+		String currency = parser.extractCurrency(parser.locate(doc));
 		
 		assertThat(currency).as("couldn't extract currency from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -743,7 +822,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setCurrencyLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		
-		String currency = parser.extractCurrency(doc);
+		String currency = parser.extractCurrency(parser.locate(doc));
 		
 		assertThat(currency).isEqualTo(expectedCurrency);
 	}
@@ -758,7 +837,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setAltPriceLocator(null);
 		Element doc = createEmptyDocument();
 		// when
-		String price = parser.extractAltPrice(doc);
+		String price = parser.extractAltPrice(parser.locate(doc));
 		// then
 		assertThat(price).isNull();
 	}
@@ -769,7 +848,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setAltPriceLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		// when
-		String price = parser.extractAltPrice(doc);
+		String price = parser.extractAltPrice(parser.locate(doc));
 		// then
 		assertThat(price).isNull();
 	}
@@ -783,7 +862,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<span id='alt-price'>%s</span>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		// when
-		String price = parser.extractAltPrice(doc);
+		String price = parser.extractAltPrice(parser.locate(doc));
 		// then
 		assertThat(price).as("couldn't extract alternative price from '%s'", doc)
 			.isEqualTo(expectedValue);
@@ -799,7 +878,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setAltCurrencyLocator(null);
 		Element doc = createEmptyDocument();
 		// when
-		String currency = parser.extractAltCurrency(doc);
+		String currency = parser.extractAltCurrency(parser.locate(doc));
 		// then
 		assertThat(currency).isNull();
 	}
@@ -810,7 +889,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		parser.setAltCurrencyLocator(Random.jsoupLocator());
 		Element doc = createEmptyDocument();
 		// when
-		String currency = parser.extractAltCurrency(doc);
+		String currency = parser.extractAltCurrency(parser.locate(doc));
 		// then
 		assertThat(currency).isNull();
 	}
@@ -824,7 +903,7 @@ public class JsoupSiteParserTest implements WithAssertions {
 		String html = String.format("<span id='alt-currency'>%s</span>", expectedValue);
 		Element doc = createDocumentFromText(html);
 		// when
-		String currency = parser.extractAltCurrency(doc);
+		String currency = parser.extractAltCurrency(parser.locate(doc));
 		// then
 		assertThat(currency).as("couldn't extract alternative currency from '%s'", doc)
 			.isEqualTo(expectedValue);
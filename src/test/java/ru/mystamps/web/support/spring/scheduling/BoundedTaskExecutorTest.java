@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2009-2020 Slava Semushin <slava.semushin@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package ru.mystamps.web.support.spring.scheduling;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BoundedTaskExecutorTest implements WithAssertions {
+	
+	private BoundedTaskExecutor executor;
+	
+	@Before
+	public void setUp() {
+		executor = new BoundedTaskExecutor(NOPLogger.NOP_LOGGER);
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(1);
+		executor.initialize();
+	}
+	
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+	
+	//
+	// Tests for forTaskType()
+	//
+	
+	@Test
+	public void forTaskTypeShouldDropTaskWhenPoolIsOverloaded() {
+		CountDownLatch latch = new CountDownLatch(1);
+		TaskExecutor droppingExecutor = executor.forTaskType("test", true);
+		
+		// the first task occupies the thread and the second one occupies the queue
+		droppingExecutor.execute(() -> await(latch));
+		droppingExecutor.execute(() -> await(latch));
+		
+		// must not throw an exception
+		droppingExecutor.execute(() -> await(latch));
+		
+		assertThat(executor.getRejectedCount("test")).isEqualTo(1);
+		assertThat(executor.getQueueLength()).isEqualTo(1);
+		
+		latch.countDown();
+	}
+	
+	@Test
+	public void forTaskTypeShouldExecuteTaskByCallerWhenPoolIsOverloaded() {
+		CountDownLatch latch = new CountDownLatch(1);
+		TaskExecutor executingExecutor = executor.forTaskType("test", false);
+		
+		// the first task occupies the thread and the second one occupies the queue
+		executingExecutor.execute(() -> await(latch));
+		executingExecutor.execute(() -> await(latch));
+		
+		Thread caller = Thread.currentThread();
+		AtomicReference<Thread> executedBy = new AtomicReference<>();
+		executingExecutor.execute(() -> executedBy.set(Thread.currentThread()));
+		
+		assertThat(executedBy.get()).isSameAs(caller);
+		assertThat(executor.getRejectedCount("test")).isEqualTo(1);
+		
+		latch.countDown();
+	}
+	
+	@Test
+	public void forTaskTypeShouldCountCompletedTasksPerType() throws InterruptedException {
+		CountDownLatch firstLatch = new CountDownLatch(2);
+		CountDownLatch secondLatch = new CountDownLatch(1);
+		
+		executor.forTaskType("first", true).execute(firstLatch::countDown);
+		executor.forTaskType("first", true).execute(firstLatch::countDown);
+		assertThat(firstLatch.await(1, TimeUnit.SECONDS)).isTrue();
+		
+		executor.forTaskType("second", false).execute(secondLatch::countDown);
+		assertThat(secondLatch.await(1, TimeUnit.SECONDS)).isTrue();
+		
+		// a task is counted right after its completion, so we wait for all the threads
+		executor.shutdown();
+		
+		assertThat(executor.getCompletedCount("first")).isEqualTo(2);
+		assertThat(executor.getCompletedCount("second")).isEqualTo(1);
+		assertThat(executor.getRejectedCount("first")).isZero();
+		assertThat(executor.getRejectedCount("second")).isZero();
+	}
+	
+	//
+	// Tests for execute()
+	//
+	
+	@Test
+	public void executeShouldDropTaskWhenPoolIsOverloaded() {
+		CountDownLatch latch = new CountDownLatch(1);
+		
+		executor.execute(() -> await(latch));
+		executor.execute(() -> await(latch));
+		
+		// must not throw an exception
+		executor.execute(() -> await(latch));
+		
+		assertThat(executor.getRejectedCount("unknown")).isEqualTo(1);
+		
+		latch.countDown();
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}